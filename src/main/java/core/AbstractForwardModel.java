@@ -145,6 +145,74 @@ public abstract class AbstractForwardModel {
         currentState.advanceGameTick();
     }
 
+    /**
+     * Applies the given action to the game state as next() does, and records what it changes in the log so that
+     * undo() can restore the state as it was before. If the forward model can not undo this action (see
+     * supportsUndo(state, action)), nothing is applied or recorded, and false is returned; the caller should then
+     * apply the action to a copy of the state instead.
+     *
+     * @param currentState - current game state, to be modified by the action.
+     * @param action       - action requested to be played by a player.
+     * @param undoLog      - log to record the changes in.
+     * @return true if the action was applied and can be undone, false if it was not applied.
+     */
+    public final boolean next(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+        // extended action sequences keep their own state, which the log does not restore
+        if (!currentState.getActionsInProgress().isEmpty() || !supportsUndo(currentState, action))
+            return false;
+        undoLog.start();
+        boolean recorded = false;
+        try {
+            recorded = _recordUndo(currentState, action, undoLog);
+        } finally {
+            if (!recorded) undoLog.cancel();
+        }
+        if (!recorded)
+            return false;
+        // the frame is only added once the action is known to be undoable
+        undoLog.push(currentState);
+        next(currentState, action);
+        return true;
+    }
+
+    /**
+     * Undoes the last action applied to the game state with next(state, action, undoLog).
+     *
+     * @param currentState - game state the action was applied to.
+     * @param undoLog      - log the action was recorded in.
+     */
+    public final void undo(AbstractGameState currentState, UndoLog undoLog) {
+        undoLog.pop(currentState);
+    }
+
+    /**
+     * @param state  - game state to be searched.
+     * @param action - action to be applied to it.
+     * @return true if the action can be applied to the state with next(state, action, undoLog) and then undone.
+     * Search players can then explore from one state instead of copying it before each action; for actions that can
+     * not be undone they copy the state as usual.
+     */
+    public boolean supportsUndo(AbstractGameState state, AbstractAction action) {
+        return false;
+    }
+
+    /**
+     * Records in the log how to restore the game-specific state after the given action, and the rules that follow
+     * it, have been applied. Called just before the action is applied, and only if supportsUndo(state, action). The
+     * core fields of AbstractGameState (tick, turn, round, phase, results and history) are restored separately, so
+     * only changes to the subclass state need entries. Forward models that override supportsUndo(state, action)
+     * must also override this.
+     *
+     * @param currentState - game state the action is about to be applied to.
+     * @param action       - action about to be applied.
+     * @param undoLog      - log to add entries to.
+     * @return true if the changes were recorded, false if this action can not be undone after all (any entries
+     * added are then discarded, and the action is not applied).
+     */
+    protected boolean _recordUndo(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+        return false;
+    }
+
     /**
      * Computes the available actions and updates the game state accordingly.
      *
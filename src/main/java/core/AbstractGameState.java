@@ -13,6 +13,7 @@ import evaluation.listeners.IGameListener;
 import evaluation.metrics.Event;
 import games.GameType;
 import utilities.ElapsedCpuChessTimer;
+import utilities.PersistentList;
 
 import java.util.*;
 import java.util.function.BiFunction;
@@ -48,13 +49,20 @@ public abstract class AbstractGameState {
     protected int nPlayers;
     protected int nTeams;
     protected List<IGameListener> listeners = new ArrayList<>();
+    // Listeners subscribed to each type of event, built when first needed (most states, e.g. copies, have no listeners)
+    private Map<IGameEvent, IGameListener[]> listenersByEvent;
+    public static final IGameListener[] NO_LISTENERS = new IGameListener[0];
 
     // Timers for all players
     protected ElapsedCpuChessTimer[] playerTimer;
+    // If false, copies of this state (and their copies) have untimed player timers rather than copies of these
+    private boolean timersCopied = true;
 
-    // A record of all actions taken to reach this game state
-    private List<AbstractAction> history = new ArrayList<>();
-    private List<String> historyText = new ArrayList<>();
+    // A record of all actions taken to reach this game state (shared with copies of the state)
+    private PersistentList<AbstractAction> history = PersistentList.empty();
+    private PersistentList<String> historyText = PersistentList.empty();
+    // If false, actions and events are no longer added to the history of this state, or its copies
+    private boolean historyRecording = true;
 
     // Status of the game, and status for each player (in cooperative games, the game status is also each player's status)
     protected CoreConstants.GameResult gameStatus;
@@ -87,8 +95,8 @@ public abstract class AbstractGameState {
         gameStatus = GAME_ONGOING;
         playerResults = new CoreConstants.GameResult[getNPlayers()];
         Arrays.fill(playerResults, GAME_ONGOING);
-        history = new ArrayList<>();
-        historyText = new ArrayList<>();
+        history = PersistentList.empty();
+        historyText = PersistentList.empty();
         playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         tick = 0;
         turnOwner = 0;
@@ -155,9 +163,46 @@ public abstract class AbstractGameState {
     /**
      * @return All actions that have been executed on this state since reset()/initialisation
      */
-    public List<AbstractAction> getHistory() { return new ArrayList<>(history);}
+    public List<AbstractAction> getHistory() { return history.toList();}
     public List<String> getHistoryAsText() {
-        return new ArrayList<>(historyText);
+        return historyText.toList();
+    }
+
+    /**
+     * @return true if actions applied to this state are recorded in its history
+     */
+    public boolean isHistoryRecording() {
+        return historyRecording;
+    }
+
+    /**
+     * Turns recording of history on or off for this state and any copies made from it. Copies used in search
+     * (e.g. the observations given to players) do not need their history: with recording off, no action
+     * descriptions are generated. The history up to this point is unaffected.
+     *
+     * @param historyRecording - true to record history, false to stop recording
+     */
+    public void setHistoryRecording(boolean historyRecording) {
+        this.historyRecording = historyRecording;
+    }
+
+    /**
+     * @return true if copies of this state have copies of its player timers
+     */
+    public boolean isTimersCopied() {
+        return timersCopied;
+    }
+
+    /**
+     * Turns copying of player timers on or off for copies of this state and any copies made from them. Only the
+     * game loop uses the timers, so states used in search (e.g. the observations given to players) do not need them:
+     * with copying off, copies share {@link ElapsedCpuChessTimer#UNTIMED}, which never runs out. The timers of this
+     * state are unaffected.
+     *
+     * @param timersCopied - true to copy timers, false to use untimed ones in copies
+     */
+    public void setTimersCopied(boolean timersCopied) {
+        this.timersCopied = timersCopied;
     }
     public int getGameID() {
         return gameID;
@@ -201,10 +246,40 @@ public abstract class AbstractGameState {
     public void addListener(IGameListener listener) {
         if (!listeners.contains(listener))
             listeners.add(listener);
+        listenersByEvent = null;
     }
 
     public void clearListeners() {
         listeners.clear();
+        listenersByEvent = null;
+    }
+
+    /**
+     * @param type - type of event
+     * @return the listeners subscribed to events of this type (see IGameListener.getEventTypes()). This must not be
+     * modified.
+     */
+    public final IGameListener[] getListeners(IGameEvent type) {
+        if (listeners.isEmpty()) return NO_LISTENERS;
+        if (listenersByEvent == null) listenersByEvent = new HashMap<>();
+        IGameListener[] retValue = listenersByEvent.get(type);
+        if (retValue == null) {
+            retValue = listeners.stream().filter(l -> l.listensTo(type)).toArray(IGameListener[]::new);
+            listenersByEvent.put(type, retValue);
+        }
+        return retValue;
+    }
+
+    /**
+     * Sends an event to all listeners subscribed to its type. No event is created if there are none.
+     */
+    final void notifyListeners(IGameEvent type, AbstractAction action, int playerID) {
+        IGameListener[] subscribers = getListeners(type);
+        if (subscribers.length == 0) return;
+        Event event = Event.createEvent(type, this, action, playerID);
+        for (IGameListener listener : subscribers) {
+            listener.onEvent(event);
+        }
     }
 
     /* Limited access final methods */
@@ -273,8 +348,33 @@ public abstract class AbstractGameState {
      */
     public final AbstractGameState copy(int playerId) {
         AbstractGameState s = _copy(playerId);
-        // Copy super class things
         s.allComponents = allComponents.emptyCopy();
+        copySuperTo(s);
+        return s;
+    }
+
+    /**
+     * Copies this state, as seen by the given player, into a state made earlier by copying a state of the same game,
+     * and redeterminises the hidden information as copy(playerId) does. The target keeps its game parameters and its
+     * registry of components, which are the expensive parts of a new copy, so this is much cheaper when a search needs
+     * a new determinisation for every iteration (as Information Set MCTS does).
+     * <p>
+     * Everything in the target is overwritten, so nothing else may still use it (or the components in it).
+     * Games that do not implement _copyInto() get a new copy instead.
+     *
+     * @param target   - state to overwrite, or null for a new copy
+     * @param playerId - player observing the state
+     * @return - the target if it could be reused, otherwise a new reduced copy of this state.
+     */
+    public final AbstractGameState redeterminiseInto(AbstractGameState target, int playerId) {
+        if (target == null || target == this || target.getClass() != getClass() || target.nPlayers != nPlayers
+                || !_copyInto(target, playerId))
+            return copy(playerId);
+        copySuperTo(target);
+        return target;
+    }
+
+    private void copySuperTo(AbstractGameState s) {
         s.gameStatus = gameStatus;
         s.playerResults = playerResults.clone();
         s.gamePhase = gamePhase;
@@ -285,10 +385,12 @@ public abstract class AbstractGameState {
         s.turnCounter = turnCounter;
         s.turnOwner = turnOwner;
         s.firstPlayer = firstPlayer;
+        s.historyRecording = historyRecording;
 
         if (!coreGameParameters.competitionMode) {
-            s.history = new ArrayList<>(history);
-            s.historyText = new ArrayList<>(historyText);
+            // the history is immutable, and shared with the copy; actions recorded in either state do not affect the other
+            s.history = history;
+            s.historyText = historyText;
             // we do not copy individual actions in history, as these are now dead and should not change
             // History is for debugging and spectation of games. There is a risk that History might contain information
             // formally hidden to some participants. For this reason, in COMPETITION_MODE we explicitly do not copy
@@ -297,19 +399,58 @@ public abstract class AbstractGameState {
             // be incorporated in the game-specific data in GameState where the correct hiding protocols can be enforced.
         }
 
-        s.actionsInProgress = new Stack<>();
+        s.actionsInProgress.clear();
         actionsInProgress.forEach(
                 a -> s.actionsInProgress.push(a.copy())
         );
 
-        s.playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
-        for (int i = 0; i < getNPlayers(); i++) {
-            s.playerTimer[i] = playerTimer[i].copy();
+        s.timersCopied = timersCopied;
+        if (timersCopied) {
+            s.playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
+            for (int i = 0; i < getNPlayers(); i++) {
+                s.playerTimer[i] = playerTimer[i].copy();
+            }
+        } else if (playerTimer.length > 0 && playerTimer[0] == ElapsedCpuChessTimer.UNTIMED) {
+            // untimed already, nothing to copy
+            s.playerTimer = playerTimer;
+        } else {
+            s.playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
+            Arrays.fill(s.playerTimer, ElapsedCpuChessTimer.UNTIMED);
         }
 
         // Update the list of components for ID matching in actions.
         s.addAllComponents();
-        return s;
+    }
+
+    // Saves the fields of this class that actions change, before an action is applied (see UndoLog)
+    final void saveTo(UndoLog.Frame frame) {
+        frame.tick = tick;
+        frame.roundCounter = roundCounter;
+        frame.turnCounter = turnCounter;
+        frame.turnOwner = turnOwner;
+        frame.firstPlayer = firstPlayer;
+        frame.gameStatus = gameStatus;
+        if (frame.playerResults.length != playerResults.length)
+            frame.playerResults = new CoreConstants.GameResult[playerResults.length];
+        System.arraycopy(playerResults, 0, frame.playerResults, 0, playerResults.length);
+        frame.gamePhase = gamePhase;
+        frame.history = history;
+        frame.historyText = historyText;
+    }
+
+    // Restores the fields saved before an action, when it is undone
+    final void restoreFrom(UndoLog.Frame frame) {
+        tick = frame.tick;
+        roundCounter = frame.roundCounter;
+        turnCounter = frame.turnCounter;
+        turnOwner = frame.turnOwner;
+        firstPlayer = frame.firstPlayer;
+        gameStatus = frame.gameStatus;
+        System.arraycopy(frame.playerResults, 0, playerResults, 0, playerResults.length);
+        gamePhase = frame.gamePhase;
+        history = frame.history;
+        historyText = frame.historyText;
+        actionsInProgress.clear();
     }
 
     /**
@@ -318,35 +459,37 @@ public abstract class AbstractGameState {
      * @param action The action that has just been applied (or is about to be applied) to the game state
      */
     protected final void recordAction(AbstractAction action, int player) {
-        history.add(action);
-        historyText.add("Player " + player + " : " + action.getString(this));
+        if (!historyRecording) return;
+        history = history.append(action);
+        historyText = historyText.append("Player " + player + " : " + action.getString(this));
     }
 
 
     // helper function to avoid time-consuming string manipulations if the message is not actually
     // going to be logged anywhere
     public void logEvent(IGameEvent event, Supplier<String> eventText) {
-        if (listeners.isEmpty() && !getCoreGameParameters().recordEventHistory)
+        if (getListeners(event).length == 0 && !(getCoreGameParameters().recordEventHistory && historyRecording))
             return; // to avoid expensive string manipulations
         logEvent(event, eventText.get());
     }
     public void logEvent(IGameEvent event, String eventText) {
-        LogEvent logAction = new LogEvent(eventText);
-        listeners.forEach(l -> l.onEvent(Event.createEvent(event, this, logAction)));
+        if (getListeners(event).length > 0)
+            notifyListeners(event, new LogEvent(eventText), -1);
         if (getCoreGameParameters().recordEventHistory) {
             recordHistory(eventText);
         }
     }
     public void logEvent(IGameEvent event) {
-        LogEvent logAction = new LogEvent(event.name());
-        listeners.forEach(l -> l.onEvent(Event.createEvent(event, this, logAction)));
+        if (getListeners(event).length > 0)
+            notifyListeners(event, new LogEvent(event.name()), -1);
         if (getCoreGameParameters().recordEventHistory) {
             recordHistory(event.name());
         }
     }
 
     public void recordHistory(String history) {
-        historyText.add(history);
+        if (!historyRecording) return;
+        historyText = historyText.append(history);
     }
 
     /* Methods dealing with ExtendedActions and the actionStack */
@@ -401,6 +544,19 @@ public abstract class AbstractGameState {
      */
     protected abstract AbstractGameState _copy(int playerId);
 
+    /**
+     * Copies the game-specific state into a state of the same class, as _copy() does into a new one, including any
+     * redeterminisation for the given player. The target's game parameters are kept, and anything else in it may be
+     * reused or replaced. Used by redeterminiseInto(); games that do not override this get a new copy there instead.
+     *
+     * @param target   - state of the same class to overwrite.
+     * @param playerId - player observing this game state.
+     * @return - true if the target has been overwritten, false if this is not supported.
+     */
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        return false;
+    }
+
     /**
      * Provide a simple numerical assessment of the current game state, the bigger the better.
      * Subjective heuristic function definition.
@@ -4,12 +4,25 @@ import core.interfaces.ITunableParameters;
 import evaluation.optimisation.TunableParameters;
 import games.GameType;
 
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.*;
 
 public abstract class AbstractParameters {
 
     // Random seed for this game
     long randomSeed;
+    // Seeds for copies of these parameters, drawn from a keyed hash of the random seed so that games with the same
+    // seed make the same copies, but a copy's seed (e.g. in an observation) does not reveal this one; created on the
+    // first copy
+    private Random copySeeds;
+    // Key for that hash, secret to this JVM, so seeds are only repeatable within one run
+    private static final byte[] copySeedKey = new byte[16];
+    static {
+        new SecureRandom().nextBytes(copySeedKey);
+    }
     // Maximum number of rounds in the game - according to the rules
     // Once this is reached we end the game - and determine winners/losers in the normal way
     int maxRounds = -1;
@@ -58,6 +71,7 @@ public abstract class AbstractParameters {
 
     public void setRandomSeed(long randomSeed) {
         this.randomSeed = randomSeed;
+        copySeeds = null;
     }
 
     public void setThinkingTimeMins(long thinkingTimeMins) {
@@ -143,10 +157,26 @@ public abstract class AbstractParameters {
      */
     public AbstractParameters copy() {
         AbstractParameters copy = _copy();
-        copy.randomSeed = System.currentTimeMillis();
+        if (copySeeds == null)
+            copySeeds = new Random(copySeedsSeed(randomSeed));
+        copy.randomSeed = copySeeds.nextLong();
         return copy;
     }
 
+    // SHA-256 of the key and the seed. Agents can work out the state of copySeeds from the seed of a copy, so that
+    // state must not be derivable from the random seed without the key
+    static long copySeedsSeed(long seed) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(copySeedKey);
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(seed).array());
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform must support SHA-256
+            throw new AssertionError(e);
+        }
+    }
+
     /**
      * Randomizes the set of parameters, if this is a class that implements the TunableParameters interface.
      */
@@ -2,6 +2,7 @@ package core;
 
 import core.actions.AbstractAction;
 import core.actions.DoNothing;
+import core.components.ComponentIDs;
 import core.interfaces.IExtendedSequence;
 import core.interfaces.IPrintable;
 import core.turnorders.ReactiveTurnOrder;
@@ -49,6 +50,10 @@ public class Game {
     protected AbstractGameState gameState;
     protected AbstractForwardModel forwardModel;
     private List<IGameListener> listeners = new ArrayList<>();
+    // Listeners subscribed to each of the events sent by the Game, built when first needed
+    private final Map<Event.GameEvent, IGameListener[]> listenersByEvent = new EnumMap<>(Event.GameEvent.class);
+    // Random seed used in the last reset (some games change the seed in their parameters when copying the state)
+    private long randomSeed;
 
     /* Game Statistics */
     private int lastPlayer; // used to track actions per 'turn'
@@ -57,6 +62,8 @@ public class Game {
     private double nextTime, copyTime, agentTime, actionComputeTime;
     // Keeps track of action spaces for each game tick, pairs of (player ID, #actions)
     private ArrayList<Pair<Integer, Integer>> actionSpaceSize;
+    // Actions available in the player's observation for the decision in progress (or last made)
+    private List<AbstractAction> availableActions = Collections.emptyList();
     // Number of times an agent is asked for decisions
     private int nDecisions;
     // Number of actions taken in a turn by a player
@@ -71,6 +78,8 @@ public class Game {
     String codecName = null;
     int snapsPerSecond = 10;
     private int turnPause;
+    // IDs of the components of this game, made current on the thread setting up or running it
+    private final ComponentIDs componentIDs;
 
     /**
      * Game constructor. Receives a list of players, a forward model and a game state. Sets unique and final
@@ -84,6 +93,7 @@ public class Game {
         this.gameType = type;
         this.gameState = gameState;
         this.forwardModel = realModel;
+        this.componentIDs = new ComponentIDs();
         reset(players);
     }
 
@@ -95,9 +105,19 @@ public class Game {
      * @param gameState - object used to track the state of the game in a moment in time.
      */
     public Game(GameType type, AbstractForwardModel model, AbstractGameState gameState) {
+        this(type, model, gameState, new ComponentIDs());
+    }
+
+    /**
+     * Game constructor, for a game state created with the given allocator of component IDs current.
+     *
+     * @param componentIDs - allocator of component IDs used to create the game state
+     */
+    public Game(GameType type, AbstractForwardModel model, AbstractGameState gameState, ComponentIDs componentIDs) {
         this.gameType = type;
         this.forwardModel = model;
         this.gameState = gameState;
+        this.componentIDs = componentIDs;
         reset(Collections.emptyList(), gameState.gameParameters.randomSeed);
     }
 
@@ -359,6 +379,17 @@ public class Game {
      * @param newRandomSeed - random seed is updated in the game parameters object and used throughout the game.
      */
     public final void reset(List<AbstractPlayer> players, long newRandomSeed) {
+        ComponentIDs previous = componentIDs.enter();
+        try {
+            componentIDs.reset();
+            resetGame(players, newRandomSeed);
+        } finally {
+            ComponentIDs.exit(previous);
+        }
+    }
+
+    private void resetGame(List<AbstractPlayer> players, long newRandomSeed) {
+        randomSeed = newRandomSeed;
         gameState.reset(newRandomSeed);
         forwardModel.abstractSetup(gameState);
         if (players.size() == gameState.getNPlayers()) {
@@ -404,6 +435,7 @@ public class Game {
         actionComputeTime = 0;
         nDecisions = 0;
         actionSpaceSize = new ArrayList<>();
+        availableActions = Collections.emptyList();
         nActionsPerTurnSum = 0;
         nActionsPerTurn = 1;
         nActionsPerTurnCount = 0;
@@ -414,8 +446,17 @@ public class Game {
      * Runs the game,
      */
     public final void run() {
+        ComponentIDs previous = componentIDs.enter();
+        try {
+            runGame();
+        } finally {
+            ComponentIDs.exit(previous);
+        }
+    }
+
+    private void runGame() {
 
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ABOUT_TO_START, gameState)));
+        notifyListeners(Event.GameEvent.ABOUT_TO_START, null, -1);
 
         boolean firstEnd = true;
 
@@ -500,6 +541,15 @@ public class Game {
     }
 
     public final AbstractAction oneAction() {
+        ComponentIDs previous = componentIDs.enter();
+        try {
+            return takeOneAction();
+        } finally {
+            ComponentIDs.exit(previous);
+        }
+    }
+
+    private AbstractAction takeOneAction() {
 
         // we pause before each action is taken if running with a delay (e.g. for video recording with random players)
         if (turnPause > 0)
@@ -523,6 +573,10 @@ public class Game {
         // copying the gamestate also copies the game parameters and resets the random seed (so agents cannot use this
         // to reconstruct the starting hands etc.)
         AbstractGameState observation = gameState.copy(activePlayer);
+        // Players may search forward from their observation, there is no need to record history in these copies,
+        // or to time them
+        observation.setHistoryRecording(false);
+        observation.setTimersCopied(false);
         copyTime = (System.nanoTime() - s);
         //      System.out.printf("Total copyTime in ms = %.2f at tick %d (Avg %.3f) %n", copyTime / 1e6, tick, copyTime / (tick +1.0) / 1e6);
 
@@ -546,6 +600,7 @@ public class Game {
 
         }
         actionComputeTime = (System.nanoTime() - s);
+        availableActions = observedActions;
         actionSpaceSize.add(new Pair<>(activePlayer, observedActions.size()));
 
         if (gameState.coreGameParameters.verbose) {
@@ -583,8 +638,7 @@ public class Game {
                 action = null;
             }
             // We publish an ACTION_CHOSEN message before we implement the action, so that observers can record the state that led to the decision
-            AbstractAction finalAction = action;
-            listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_CHOSEN, gameState, finalAction, activePlayer)));
+            notifyListeners(Event.GameEvent.ACTION_CHOSEN, action, activePlayer);
         } else {
             currentPlayer.registerUpdatedObservation(observation);
         }
@@ -599,22 +653,30 @@ public class Game {
         if (action == null)
             throw new AssertionError("We have a NULL action in the Game loop");
 
-        // Check player timeout
+        // Check player timeout, otherwise resolve action and game rules; time either
+        s = System.nanoTime();
         if (observation.playerTimer[activePlayer].exceededMaxTime()) {
             action = forwardModel.disqualifyOrRandomAction(gameState.coreGameParameters.disqualifyPlayerOnTimeout, gameState);
         } else {
-            // Resolve action and game rules, time it
-            s = System.nanoTime();
             forwardModel.next(gameState, action);
-            nextTime = (System.nanoTime() - s);
         }
+        nextTime = (System.nanoTime() - s);
 
         lastPlayer = activePlayer;
 
         // We publish an ACTION_TAKEN message once the action is taken so that observers can record the result of the action
         // (such as the next player)
-        AbstractAction finalAction1 = action;
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, finalAction1.copy(), activePlayer)));
+        // Listeners that keep the action are each given their own copy, the others share one event with the action itself
+        Event actionTaken = null;
+        for (IGameListener listener : getListeners(Event.GameEvent.ACTION_TAKEN)) {
+            if (listener.requiresActionCopy()) {
+                listener.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, action.copy(), activePlayer));
+            } else {
+                if (actionTaken == null)
+                    actionTaken = Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, action, activePlayer);
+                listener.onEvent(actionTaken);
+            }
+        }
 
         if (debug) System.out.printf("Finishing oneAction for player %s%n", activePlayer);
         return action;
@@ -631,7 +693,7 @@ public class Game {
 
         // Perform any end of game computations as required by the game
         forwardModel.endGame(gameState);
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, gameState)));
+        notifyListeners(Event.GameEvent.GAME_OVER, null, -1);
         if (gameState.coreGameParameters.recordEventHistory) {
             gameState.recordHistory(Event.GameEvent.GAME_OVER.name());
             for (int i = 0; i < gameState.getNPlayers(); i++) {
@@ -740,6 +802,26 @@ public class Game {
         return actionSpaceSize;
     }
 
+    /**
+     * Retrieves the allocator of component IDs for this game. Code stepping the game state directly rather than
+     * through run() or oneAction() should make it current (with enter()) while doing so.
+     *
+     * @return - allocator of component IDs used by this game
+     */
+    public ComponentIDs getComponentIDs() {
+        return componentIDs;
+    }
+
+    /**
+     * Retrieves the actions the current player was given to choose from, as computed on their observation of the
+     * game state. Listeners to ACTION_CHOSEN can find the index of the action chosen in this list.
+     *
+     * @return - list of available actions for the decision in progress, or the last one made
+     */
+    public List<AbstractAction> getAvailableActions() {
+        return availableActions;
+    }
+
     /**
      * Which game is this?
      *
@@ -749,9 +831,19 @@ public class Game {
         return gameType;
     }
 
+    /**
+     * Retrieves the random seed the game was last reset with.
+     *
+     * @return - random seed
+     */
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
     public void addListener(IGameListener listener) {
         if (!listeners.contains(listener)) {
             listeners.add(listener);
+            listenersByEvent.clear();
             gameState.addListener(listener);
             listener.setGame(this);
         }
@@ -761,8 +853,30 @@ public class Game {
         return listeners;
     }
 
+    /**
+     * @param type - type of event
+     * @return the listeners subscribed to events of this type (see IGameListener.getEventTypes())
+     */
+    private IGameListener[] getListeners(Event.GameEvent type) {
+        return listenersByEvent.computeIfAbsent(type,
+                t -> listeners.stream().filter(l -> l.listensTo(t)).toArray(IGameListener[]::new));
+    }
+
+    /**
+     * Sends an event to all listeners subscribed to its type. No event is created if there are none.
+     */
+    private void notifyListeners(Event.GameEvent type, AbstractAction action, int playerID) {
+        IGameListener[] subscribers = getListeners(type);
+        if (subscribers.length == 0) return;
+        Event event = Event.createEvent(type, gameState, action, playerID);
+        for (IGameListener listener : subscribers) {
+            listener.onEvent(event);
+        }
+    }
+
     public void clearListeners() {
         listeners.clear();
+        listenersByEvent.clear();
         getGameState().clearListeners();
     }
 
@@ -3,6 +3,7 @@ package core;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.actions.DoNothing;
+import core.components.ComponentIDs;
 import core.interfaces.IStateFeatureVector;
 import core.interfaces.ITreeActionSpace;
 import core.interfaces.IStateFeatureJSON;
@@ -25,6 +26,7 @@ import games.explodingkittens.*;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -181,6 +183,19 @@ public class PyTAG {
         else throw new Exception("Observation vectoriser function is not implemented");
     }
 
+    // Writes the observation vector of the current player into the buffer
+    public void getObservationVector(double[] buffer) throws Exception {
+        getObservationVector(gameState.copy(gameState.getCurrentPlayer()), buffer);
+    }
+
+    // Writes the observation vector of a state returned by step() into the buffer, without copying the state again
+    public void getObservationVector(AbstractGameState observation, double[] buffer) throws Exception {
+        if (stateVectoriser != null){
+            stateVectoriser.featureVector(observation, observation.getCurrentPlayer(), buffer, 0);
+        }
+        else throw new Exception("Observation vectoriser function is not implemented");
+    }
+
     // Gets the action space size as an integer
     public int getActionSpace(){
         return leaves.size();
@@ -192,11 +207,14 @@ public class PyTAG {
 
     }
 
-    // Gets the action mask as a boolean array
+    // Gets the action mask as a boolean array (a view of the tree's mask, updated in place on each step)
     public int[] getActionMask() {
-        return leaves.stream()
-                .mapToInt(ActionTreeNode::getValue)
-                .toArray();
+        return root.getLeafMask();
+    }
+
+    // Writes the action mask into the buffer, from its current position
+    public void getActionMask(IntBuffer mask) {
+        mask.put(root.getLeafMask());
     }
 
     // gets the whole action tree as an array (tree can be reconstructed using the getTreeShape() function)
@@ -211,6 +229,15 @@ public class PyTAG {
 
     // Plays an action given an actionID
     public void executeAction(int actionID) throws Exception {
+        ComponentIDs previous = game.getComponentIDs().enter();
+        try {
+            playAction(actionID);
+        } finally {
+            ComponentIDs.exit(previous);
+        }
+    }
+
+    private void playAction(int actionID) throws Exception {
         if (forwardModel instanceof ITreeActionSpace) {
             ActionTreeNode node = leaves.get(actionID);
             AbstractAction action = node.getAction();
@@ -222,7 +249,18 @@ public class PyTAG {
     // --End of Wrapper Functions--
 
 
+    // Components are created and the game state stepped with the game's allocator of component IDs current (as in
+    // Game.run()), so that environments on different threads do not share IDs
     public void reset(){
+        ComponentIDs previous = game.getComponentIDs().enter();
+        try {
+            resetEnvironment();
+        } finally {
+            ComponentIDs.exit(previous);
+        }
+    }
+
+    private void resetEnvironment(){
         // Reset game instance, run built-in agents until a python agent is required to make a decision
         this.game.reset(players);
         this.turnPause = 0;
@@ -235,7 +273,7 @@ public class PyTAG {
         this.availableActions = forwardModel.computeAvailableActions(gameState);
 
         // execute the game if needed until Python agent is required to make a decision
-        boolean isTerminal = nextDecision();
+        boolean isTerminal = playUntilDecision();
 
         // get action tree for current player
         if (this.root == null){
@@ -261,6 +299,10 @@ public class PyTAG {
         return gameState.getGameScore(gameState.getCurrentPlayer());
     }
 
+    public double getReward(int playerID){
+        return gameState.getGameScore(playerID);
+    }
+
     public List<AbstractAction> getActions(){
         return availableActions;
     }
@@ -268,6 +310,15 @@ public class PyTAG {
     // Executes game loop until RL agent is required to make a decision
     // returns true if game is over
     public boolean nextDecision(){
+        ComponentIDs previous = game.getComponentIDs().enter();
+        try {
+            return playUntilDecision();
+        } finally {
+            ComponentIDs.exit(previous);
+        }
+    }
+
+    private boolean playUntilDecision(){
         int activePlayer = gameState.getCurrentPlayer();
         AbstractPlayer currentPlayer = players.get(activePlayer);
         while ( !(currentPlayer instanceof PythonAgent)){
@@ -320,6 +371,15 @@ public class PyTAG {
 
 
     public AbstractGameState step(int actionId) throws Exception{
+        ComponentIDs previous = game.getComponentIDs().enter();
+        try {
+            return takeStep(actionId);
+        } finally {
+            ComponentIDs.exit(previous);
+        }
+    }
+
+    private AbstractGameState takeStep(int actionId) throws Exception{
         // execute action and loop until an RL agent is required to make a decision
         if (isDone()){
             throw new Exception("Need to reset the environment after each finished episode");
@@ -327,7 +387,7 @@ public class PyTAG {
             throw new Exception("Need to reset the environment before calling step");
         }
         // executes the seleted actions
-        executeAction(actionId);
+        playAction(actionId);
         if (isDone()){
             // check if the game has just ended
             // game is over
@@ -335,7 +395,7 @@ public class PyTAG {
         }
 
         // update game until RL agent is required to make a decision - if game is over in the mean time returns isTerminal
-        boolean isTerminal = nextDecision();
+        boolean isTerminal = playUntilDecision();
         if (isTerminal){
             // game is over
             return gameState.copy(gameState.getCurrentPlayer());
@@ -71,7 +71,7 @@ public abstract class StandardForwardModel extends AbstractForwardModel {
 
         int currentPlayer = gs.getCurrentPlayer();
         gs.getPlayerTimer()[currentPlayer].incrementTurn();
-        gs.listeners.forEach(l -> l.onEvent(Event.createEvent(TURN_OVER, gs, currentPlayer)));
+        gs.notifyListeners(TURN_OVER, null, currentPlayer);
         if (gs.getCoreGameParameters().recordEventHistory) {
             gs.recordHistory(TURN_OVER.name());
         }
@@ -121,7 +121,7 @@ public abstract class StandardForwardModel extends AbstractForwardModel {
 
         int currentPlayer = gs.getCurrentPlayer();
         gs.getPlayerTimer()[currentPlayer].incrementRound();
-        gs.listeners.forEach(l -> l.onEvent(Event.createEvent(ROUND_OVER, gs, currentPlayer)));
+        gs.notifyListeners(ROUND_OVER, null, currentPlayer);
         if (gs.getCoreGameParameters().recordEventHistory) {
             gs.recordHistory(ROUND_OVER.name());
         }
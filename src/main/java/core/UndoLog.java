@@ -0,0 +1,129 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.interfaces.IGamePhase;
+import utilities.PersistentList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record of the changes made to a game state by a sequence of actions, so that they can be undone in reverse order
+ * instead of copying the state before each action. Used with forward models that support it
+ * (see {@link AbstractForwardModel#supportsUndo(AbstractGameState, AbstractAction)}):
+ * <pre>
+ *     UndoLog log = new UndoLog();
+ *     if (fm.next(state, action, log)) {
+ *         ... evaluate or search further from state ...
+ *         fm.undo(state, log);
+ *     } else {
+ *         ... the action can not be undone: apply it to a copy of state instead ...
+ *     }
+ * </pre>
+ * For each action the log keeps the core fields of the state (tick, turn, round, phase, results and history) and
+ * whatever entries the forward model adds for the game-specific state it is about to change, which are usually a few
+ * values each. Frames and arrays are reused, so a log can be kept for a whole search.
+ * <p>
+ * Undo restores the state the players see, but not its player timers, listeners or random number generators: it is
+ * meant for the copies of the state that a search player works on.
+ */
+public final class UndoLog {
+
+    /**
+     * Restores one change made to the game-specific state.
+     */
+    @FunctionalInterface
+    public interface Entry {
+        void undo();
+    }
+
+    // Core fields of the state before an action, and where its entries start
+    static final class Frame {
+        int tick, roundCounter, turnCounter, turnOwner, firstPlayer;
+        CoreConstants.GameResult gameStatus;
+        CoreConstants.GameResult[] playerResults = new CoreConstants.GameResult[0];
+        IGamePhase gamePhase;
+        PersistentList<AbstractAction> history;
+        PersistentList<String> historyText;
+        int firstEntry;
+    }
+
+    private final List<Frame> frames = new ArrayList<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private int depth;
+    // First entry of the action being recorded, or -1 if none is
+    private int recordStart = -1;
+
+    /**
+     * Starts recording the entries of a new action, before it is applied.
+     */
+    void start() {
+        if (recordStart >= 0)
+            throw new IllegalStateException("An action is already being recorded");
+        recordStart = entries.size();
+    }
+
+    /**
+     * Discards the entries recorded since start(), for an action that will not be applied.
+     */
+    void cancel() {
+        for (int i = entries.size() - 1; i >= recordStart; i--) {
+            entries.remove(i);
+        }
+        recordStart = -1;
+    }
+
+    /**
+     * Completes the record of the action started, with the core fields of the state before it is applied.
+     */
+    void push(AbstractGameState state) {
+        if (recordStart < 0)
+            throw new IllegalStateException("No action is being recorded");
+        if (depth == frames.size())
+            frames.add(new Frame());
+        Frame frame = frames.get(depth++);
+        state.saveTo(frame);
+        frame.firstEntry = recordStart;
+        recordStart = -1;
+    }
+
+    /**
+     * Adds a change to the game-specific state to the record of the action being applied.
+     *
+     * @param entry - restores the state as it was before the change
+     */
+    public void add(Entry entry) {
+        if (recordStart < 0)
+            throw new IllegalStateException("No action is being recorded");
+        entries.add(entry);
+    }
+
+    /**
+     * Undoes the last action recorded, restoring the state to how it was before it.
+     */
+    void pop(AbstractGameState state) {
+        if (depth == 0)
+            throw new IllegalStateException("No action to undo");
+        Frame frame = frames.get(--depth);
+        for (int i = entries.size() - 1; i >= frame.firstEntry; i--) {
+            entries.remove(i).undo();
+        }
+        state.restoreFrom(frame);
+    }
+
+    /**
+     * @return number of actions that can be undone
+     */
+    public int size() {
+        return depth;
+    }
+
+    /**
+     * Forgets all actions recorded, without undoing them.
+     */
+    public void clear() {
+        depth = 0;
+        recordStart = -1;
+        entries.clear();
+    }
+}
@@ -0,0 +1,283 @@
+package core;
+
+import games.GameType;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+
+import java.nio.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+/**
+ * Runs a number of independent {@link PyTAG} environments of the same game together, so that one call from Python
+ * steps all of them.
+ * <p>
+ * step() takes one action per environment, plays it, and then runs the built-in players of each game until a
+ * PythonAgent has to decide again; the environments are stepped in parallel. The results are written into direct
+ * buffers, which are allocated once and can be viewed from Python (e.g. as numpy arrays) without copying:
+ * <ul>
+ *     <li>observations: doubles, getObservationSpace() per environment</li>
+ *     <li>action masks: ints, getActionSpace() per environment</li>
+ *     <li>rewards: one double per environment; the score of the player who acted</li>
+ *     <li>dones: one int per environment; 1 if the game finished on the last step</li>
+ *     <li>player IDs: one int per environment; the player who decides next</li>
+ * </ul>
+ * An environment whose game finishes is reset straight away, so its observation and mask are then those of the start
+ * of the next game; the results of the finished game are available from getLastResults().
+ * <p>
+ * The environments are reset when created.
+ */
+public class VectorPyTAG implements AutoCloseable {
+
+    private final PyTAG[] envs;
+    private final int observationSpace;
+    private final int actionSpace;
+
+    private final ByteBuffer observations;
+    private final ByteBuffer actionMasks;
+    private final ByteBuffer rewards;
+    private final ByteBuffer dones;
+    private final ByteBuffer playerIDs;
+
+    // views of the buffers for each environment, so they can be written to in parallel
+    private final DoubleBuffer[] envObservations;
+    private final IntBuffer[] envMasks;
+    private final double[][] observationScratch;
+    private final CoreConstants.GameResult[][] lastResults;
+
+    private final ExecutorService pool;
+
+    /**
+     * @param gameToPlay          - game to play in every environment
+     * @param parameterConfigFile - game parameters, or null for the defaults
+     * @param players             - players of the game; each environment plays with its own copies of these
+     * @param nEnvs               - number of environments
+     * @param seed                - random seed; the seed of each environment is drawn from this
+     * @param isNormalized        - passed on to each PyTAG
+     * @param nThreads            - number of threads used to step the environments
+     */
+    public VectorPyTAG(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, int nEnvs,
+                       long seed, boolean isNormalized, int nThreads) throws Exception {
+        Random seedRandom = new Random(seed);
+        envs = new PyTAG[nEnvs];
+        for (int i = 0; i < nEnvs; i++) {
+            List<AbstractPlayer> envPlayers = new ArrayList<>();
+            for (AbstractPlayer player : players) {
+                envPlayers.add(player.copy());
+            }
+            envs[i] = new PyTAG(gameToPlay, parameterConfigFile, envPlayers, seedRandom.nextLong(), isNormalized);
+        }
+        pool = nThreads > 1 ? Executors.newFixedThreadPool(nThreads, r -> {
+            Thread thread = new Thread(r, "VectorPyTAG");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+
+        // the action tree is only built on reset
+        envs[0].reset();
+        observationSpace = envs[0].getObservationSpace();
+        actionSpace = envs[0].getActionSpace();
+
+        observations = allocate(nEnvs * observationSpace * 8);
+        actionMasks = allocate(nEnvs * actionSpace * 4);
+        rewards = allocate(nEnvs * 8);
+        dones = allocate(nEnvs * 4);
+        playerIDs = allocate(nEnvs * 4);
+        envObservations = new DoubleBuffer[nEnvs];
+        envMasks = new IntBuffer[nEnvs];
+        observationScratch = new double[nEnvs][observationSpace];
+        lastResults = new CoreConstants.GameResult[nEnvs][];
+        for (int i = 0; i < nEnvs; i++) {
+            envObservations[i] = slice(observations, i * observationSpace * 8, observationSpace * 8).asDoubleBuffer();
+            envMasks[i] = slice(actionMasks, i * actionSpace * 4, actionSpace * 4).asIntBuffer();
+        }
+        forEachEnv(i -> {
+            if (i > 0) envs[i].reset();
+            writeState(i, null);
+        });
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int from, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(from);
+        view.limit(from + length);
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+
+    private interface EnvTask {
+        void run(int env) throws Exception;
+    }
+
+    // Runs the task for every environment, in parallel if there is more than one thread
+    private void forEachEnv(EnvTask task) throws Exception {
+        if (pool == null) {
+            for (int i = 0; i < envs.length; i++) task.run(i);
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < envs.length; i++) {
+            int env = i;
+            futures.add(pool.submit(() -> {
+                task.run(env);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    // Writes the observation, action mask and next player of an environment that is waiting for an action.
+    // The observation is the state returned by step(), or null after a reset.
+    private void writeState(int i, AbstractGameState observation) throws Exception {
+        // games with only a JSON feature extractor have no observation vector
+        if (observationSpace > 0) {
+            if (observation == null) {
+                envs[i].getObservationVector(observationScratch[i]);
+            } else {
+                envs[i].getObservationVector(observation, observationScratch[i]);
+            }
+            envObservations[i].clear();
+            envObservations[i].put(observationScratch[i]);
+        }
+        envMasks[i].clear();
+        envs[i].getActionMask(envMasks[i]);
+        playerIDs.putInt(i * 4, envs[i].getPlayerID());
+    }
+
+    /**
+     * Resets all environments, and writes their first observations and action masks.
+     */
+    public void reset() throws Exception {
+        forEachEnv(i -> {
+            envs[i].reset();
+            writeState(i, null);
+            rewards.putDouble(i * 8, 0.0);
+            dones.putInt(i * 4, 0);
+        });
+    }
+
+    /**
+     * Plays one action in each environment, then the built-in players until each is waiting for an action again.
+     * Finished environments are reset.
+     *
+     * @param actions - for each environment, the index of the action to play in its action mask
+     */
+    public void step(int[] actions) throws Exception {
+        if (actions.length != envs.length)
+            throw new IllegalArgumentException("Expected " + envs.length + " actions, but got " + actions.length);
+        forEachEnv(i -> {
+            PyTAG env = envs[i];
+            int player = env.getPlayerID();
+            AbstractGameState observation = env.step(actions[i]);
+            rewards.putDouble(i * 8, env.getReward(player));
+            if (env.isDone()) {
+                dones.putInt(i * 4, 1);
+                lastResults[i] = env.getPlayerResults().clone();
+                env.reset();
+                writeState(i, null);
+            } else {
+                dones.putInt(i * 4, 0);
+                writeState(i, observation);
+            }
+        });
+    }
+
+    public int getNumEnvs() {
+        return envs.length;
+    }
+
+    public int getObservationSpace() {
+        return observationSpace;
+    }
+
+    public int getActionSpace() {
+        return actionSpace;
+    }
+
+    public ByteBuffer getObservations() {
+        return observations;
+    }
+
+    public ByteBuffer getActionMasks() {
+        return actionMasks;
+    }
+
+    public ByteBuffer getRewards() {
+        return rewards;
+    }
+
+    public ByteBuffer getDones() {
+        return dones;
+    }
+
+    public ByteBuffer getPlayerIDs() {
+        return playerIDs;
+    }
+
+    /**
+     * @return the results of the last game to finish in the environment, or null if none has finished yet
+     */
+    public CoreConstants.GameResult[] getLastResults(int env) {
+        return lastResults[env];
+    }
+
+    public PyTAG getEnv(int env) {
+        return envs[env];
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nEnvs = 8;
+        Random rnd = new Random(2466);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(new PythonAgent());
+        players.add(new RandomPlayer(rnd));
+
+        try (VectorPyTAG envs = new VectorPyTAG(GameType.TicTacToe, null, players, nEnvs, 343, true,
+                Runtime.getRuntime().availableProcessors())) {
+            int[] actions = new int[nEnvs];
+            IntBuffer masks = envs.getActionMasks().asIntBuffer();
+            IntBuffer dones = envs.getDones().asIntBuffer();
+            int episodes = 0;
+            int wins = 0;
+            long start = System.nanoTime();
+            int steps = 0;
+            while (episodes < 1000) {
+                for (int i = 0; i < nEnvs; i++) {
+                    // random legal action
+                    List<Integer> legal = new ArrayList<>();
+                    for (int a = 0; a < envs.getActionSpace(); a++) {
+                        if (masks.get(i * envs.getActionSpace() + a) == 1) legal.add(a);
+                    }
+                    actions[i] = legal.get(rnd.nextInt(legal.size()));
+                }
+                envs.step(actions);
+                steps++;
+                for (int i = 0; i < nEnvs; i++) {
+                    if (dones.get(i) == 1) {
+                        episodes++;
+                        if (envs.getLastResults(i)[0] == CoreConstants.GameResult.WIN_GAME) wins++;
+                    }
+                }
+            }
+            System.out.printf("Won %d out of %d episodes; %.1f us per environment step%n", wins, episodes,
+                    (System.nanoTime() - start) / 1000.0 / steps / nEnvs);
+        }
+    }
+}
@@ -14,6 +14,11 @@ public class BoardNode extends Component {
     private HashMap<BoardNode, Integer> neighbourSideMapping;  // Neighbours mapping to a side of this board node
     protected int maxNeighbours;  // Maximum number of neighbours for this board node
 
+    // Board whose shared topology the neighbours are read from (see GraphTopology), and index of this node in it.
+    // When set, the neighbour collections above are only built when asked for.
+    private GraphBoard board;
+    private int index = -1;
+
     public BoardNode(int maxNeighbours, String name) {
         super(CoreConstants.ComponentType.BOARD_NODE, name);
         this.maxNeighbours = maxNeighbours;
@@ -37,6 +42,7 @@ public class BoardNode extends Component {
      * @param neighbour - new neighbour of this node.
      */
     public void addNeighbour(BoardNode neighbour) {
+        detach();
         if (neighbours.size() <= maxNeighbours || maxNeighbours == -1) {
             neighbours.add(neighbour);
         }
@@ -48,6 +54,7 @@ public class BoardNode extends Component {
      * @return - true if removed successfully, false otherwise. may fail if neighbour didn't exist in the first place.
      */
     public boolean removeNeighbour(BoardNode neighbour) {
+        detach();
         if (neighbours.contains(neighbour)) {
             neighbours.remove(neighbour);
             neighbourSideMapping.remove(neighbour);
@@ -63,6 +70,7 @@ public class BoardNode extends Component {
      * @return - true if added successfully, false otherwise. may fail if too many neighbours added already.
      */
     public boolean addNeighbour(BoardNode neighbour, int side) {
+        detach();
         if (neighbours.size() <= maxNeighbours && side <= maxNeighbours || maxNeighbours == -1) {
             if (!(neighbours.contains(neighbour)) && !(neighbourSideMapping.containsKey(neighbour))) {
                 neighbours.add(neighbour);
@@ -87,6 +95,7 @@ public class BoardNode extends Component {
      * @return the neighbours of this node.
      */
     public HashSet<BoardNode> getNeighbours() {
+        readTopology();
         return neighbours;
     }
 
@@ -94,9 +103,52 @@ public class BoardNode extends Component {
      * @return the neighbours mapping to sides of this node.
      */
     public HashMap<BoardNode, Integer> getNeighbourSideMapping() {
+        readTopology();
         return neighbourSideMapping;
     }
 
+    /**
+     * Reads the neighbours of this node from the topology of its board, with the node objects of that board.
+     * @param board - board this node belongs to
+     * @param index - index of this node in the board's topology
+     * @param keepNeighbours - true if the neighbour collections this node has already match the topology
+     */
+    void attach(GraphBoard board, int index, boolean keepNeighbours) {
+        this.board = board;
+        this.index = index;
+        if (!keepNeighbours) {
+            neighbours = null;
+            neighbourSideMapping = null;
+        }
+    }
+
+    /**
+     * Gives this node its own neighbour collections, no longer read from the topology of a board.
+     */
+    void materialise() {
+        readTopology();
+        board = null;
+        index = -1;
+    }
+
+    // the topology is shared, so a change to the neighbours of a node means the board needs a new one
+    private void detach() {
+        if (board != null) board.dropTopology();
+    }
+
+    private void readTopology() {
+        if (neighbours != null) return;
+        GraphTopology topology = board.getTopology();
+        neighbours = new HashSet<>();
+        neighbourSideMapping = new HashMap<>();
+        for (int k = 0; k < topology.getNNeighbours(index); k++) {
+            BoardNode neighbour = board.getNodeAt(topology.getNeighbour(index, k));
+            neighbours.add(neighbour);
+            int side = topology.getSide(index, k);
+            if (side != -1) neighbourSideMapping.put(neighbour, side);
+        }
+    }
+
     /**
      * @return - maximum number of neighbours for this board node.
      */
@@ -122,8 +174,7 @@ public class BoardNode extends Component {
 
         StringBuilder sb = new StringBuilder();
         sb.append("{id: " + componentID + "; maxNeighbours: " + maxNeighbours + "; ");
-        for(int prop_key : properties.keySet()) {
-            Property prop = properties.get(prop_key);
+        for(Property prop : properties) {
             sb.append(prop.getHashString() + ": " +  prop.toString() + "; ");
         }
 
@@ -8,40 +8,38 @@ import core.CoreConstants.ComponentType;
 import java.util.*;
 
 public abstract class Component {
-    private static int ID = 0;  // All components receive a unique and final ID from this always increasing counter
+    private static final Property[] NO_PROPERTIES = new Property[0];
 
-    protected transient final int componentID;  // Unique ID of this component
+    protected transient final int componentID;  // Unique ID of this component within its game, see ComponentIDs
     protected final ComponentType type;  // Type of this component
-    protected HashMap<Integer, Property> properties;  // Maps between integer key for the property and the property object
+    // Properties of this component, in the slots given by its schema (shared with other components with the same keys)
+    protected PropertySchema propertySchema = PropertySchema.EMPTY;
+    protected Property[] properties = NO_PROPERTIES;
     protected transient int ownerId = -1;  // By default belongs to the game
     protected String componentName;  // Name of this component
 
     public Component(ComponentType type, String name) {
-        this.componentID = ID++;
+        this.componentID = ComponentIDs.next();
         this.type = type;
         this.componentName = name;
-        this.properties = new HashMap<>();
     }
 
     public Component(ComponentType type) {
-        this.componentID = ID++;
+        this.componentID = ComponentIDs.next();
         this.type = type;
         this.componentName = type.toString();
-        this.properties = new HashMap<>();
     }
 
     protected Component(ComponentType type, String name, int componentID) {
         this.componentID = componentID;
         this.type = type;
         this.componentName = name;
-        this.properties = new HashMap<>();
     }
 
     protected Component(ComponentType type, int componentID) {
         this.componentID = componentID;
         this.type = type;
         this.componentName = type.toString();
-        this.properties = new HashMap<>();
     }
 
     /**
@@ -64,7 +62,7 @@ public abstract class Component {
      */
     public int getNumProperties()
     {
-        return properties.size();
+        return propertySchema.size();
     }
 
     /**
@@ -102,11 +100,22 @@ public abstract class Component {
     }
 
     /**
-     * Get the full map of properties.
+     * Get the full map of properties. This is a new map, changes to it do not change the properties of this component.
      * @return - mapping from property integer key to property objects.
      */
     public HashMap<Integer, Property> getProperties() {
-        return properties;
+        HashMap<Integer, Property> retValue = new HashMap<>();
+        for (int i = 0; i < properties.length; i++) {
+            retValue.put(propertySchema.getKey(i), properties[i]);
+        }
+        return retValue;
+    }
+
+    /**
+     * @return the keys of the properties of this component, and their slots
+     */
+    public PropertySchema getPropertySchema() {
+        return propertySchema;
     }
 
     /**
@@ -116,7 +125,8 @@ public abstract class Component {
      */
     public Property getProperty(int propId)
     {
-        return properties.get(propId);
+        int slot = propertySchema.slotOf(propId);
+        return slot < 0 ? null : properties[slot];
     }
 
     /**
@@ -125,7 +135,22 @@ public abstract class Component {
      */
     public void setProperty(Property prop)
     {
-        properties.put(prop.getHashKey(), prop);
+        setProperty(prop.getHashKey(), prop);
+    }
+
+    /**
+     * Adds a property under the given key, replacing any property with that key.
+     * @param key - hash key for the property
+     * @param prop - property to add
+     */
+    protected void setProperty(int key, Property prop) {
+        int slot = propertySchema.slotOf(key);
+        if (slot < 0) {
+            propertySchema = propertySchema.with(key);
+            properties = Arrays.copyOf(properties, properties.length + 1);
+            slot = properties.length - 1;
+        }
+        properties[slot] = prop;
     }
 
     public void setProperties(HashMap<Integer, Property> props) {
@@ -205,10 +230,11 @@ public abstract class Component {
      */
     public void copyComponentTo(Component copyTo)
     {
-        copyTo.properties.clear();
-        for (int prop_key : this.properties.keySet()) {
-            Property newProp = this.properties.get(prop_key).copy();
-            copyTo.setProperty(newProp);
+        // the copy has the same schema; properties with immutable values are shared rather than copied
+        copyTo.propertySchema = propertySchema;
+        copyTo.properties = properties.length == 0 ? NO_PROPERTIES : new Property[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            copyTo.properties[i] = properties[i].copy();
         }
         copyTo.ownerId = ownerId;
         copyTo.componentName = componentName;
@@ -221,7 +247,7 @@ public abstract class Component {
                 ", type=" + type +
                 ", ownerId=" + ownerId +
                 ", componentName='" + componentName + '\'' +
-                ", properties=" + properties +
+                ", properties=" + getProperties() +
                 '}';
     }
 
@@ -0,0 +1,58 @@
+package core.components;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allocates the IDs of components. Each game has its own allocator, which is made current on the thread running the
+ * game while it is set up and played (see {@link core.Game}). The IDs of a game's components therefore depend only
+ * on the game and its seed, and not on other games created before it or running at the same time in other threads.
+ * <p>
+ * Components created when no game is current (e.g. in tests using a forward model directly) take their IDs from a
+ * counter shared by all threads, starting at {@link #SHARED_START}, so that they never clash with those of a game.
+ */
+public final class ComponentIDs {
+
+    public static final int SHARED_START = 1 << 30;
+
+    private static final AtomicInteger shared = new AtomicInteger(SHARED_START);
+    private static final ThreadLocal<ComponentIDs> current = new ThreadLocal<>();
+
+    private int next;
+    private int resetTo = -1;
+
+    static int next() {
+        ComponentIDs ids = current.get();
+        if (ids == null || ids.next == SHARED_START)
+            return shared.getAndIncrement();
+        return ids.next++;
+    }
+
+    /**
+     * Makes this the allocator for components created on the calling thread.
+     *
+     * @return the allocator that was current before, to pass to {@link #exit(ComponentIDs)}
+     */
+    public ComponentIDs enter() {
+        ComponentIDs previous = current.get();
+        current.set(this);
+        return previous;
+    }
+
+    /**
+     * Restores the allocator that was current before {@link #enter()}.
+     */
+    public static void exit(ComponentIDs previous) {
+        if (previous == null) current.remove();
+        else current.set(previous);
+    }
+
+    /**
+     * Called when the game is reset. The first time, this marks the IDs used so far (by components created with the
+     * game state) as taken; after that, allocation starts again from that mark, so that a game reset with the same
+     * seed has the same IDs.
+     */
+    public void reset() {
+        if (resetTo == -1) resetTo = next;
+        else next = resetTo;
+    }
+}
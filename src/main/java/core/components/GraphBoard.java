@@ -13,7 +13,6 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
 
-import static core.CoreConstants.imgHash;
 import static core.CoreConstants.nameHash;
 
 public class GraphBoard extends Component implements IComponentContainer<BoardNode> {
@@ -21,6 +20,11 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     // List of nodes in the board graph, mapping component ID to object reference
     protected Map<Integer, BoardNode> boardNodes;
 
+    // Adjacency of the nodes, shared with copies of this board; built when first needed, and dropped if it changes
+    private GraphTopology topology;
+    // Nodes of this board, in the order of the topology
+    private BoardNode[] nodes;
+
     public GraphBoard(String name)
     {
         super(CoreConstants.ComponentType.BOARD, name);
@@ -47,36 +51,67 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
 
     /**
      * Copy method, to be implemented by all subclasses.
+     * The copy shares the topology of this board, so only the state of each node is copied; the neighbours of its
+     * nodes are only built if asked for.
      * @return - a new instance of this Board, deep copy.
      */
     @Override
     public GraphBoard copy()
     {
         GraphBoard b = new GraphBoard(componentName, componentID);
-        HashMap<Integer, BoardNode> nodeCopies = new HashMap<>();
+        GraphTopology topology = getTopology();
+        b.topology = topology;
+        b.nodes = new BoardNode[nodes.length];
         // Copy board nodes
-        for (BoardNode bn: boardNodes.values()) {
+        for (int i = 0; i < nodes.length; i++) {
+            BoardNode bn = nodes[i];
             BoardNode bnCopy = new BoardNode(bn.getMaxNeighbours(), "", bn.getComponentID());
             bn.copyComponentTo(bnCopy);
-            nodeCopies.put(bn.getComponentID(), bnCopy);
+            bnCopy.attach(b, i, false);
+            b.nodes[i] = bnCopy;
+            b.boardNodes.put(bnCopy.componentID, bnCopy);
         }
-        // Assign neighbours
-        for (BoardNode bn: boardNodes.values()) {
-            BoardNode bnCopy = nodeCopies.get(bn.getComponentID());
-            for (BoardNode neighbour: bn.getNeighbours()) {
-                bnCopy.addNeighbour(nodeCopies.get(neighbour.getComponentID()));
-            }
-            for (Map.Entry<BoardNode, Integer> e: bn.getNeighbourSideMapping().entrySet()) {
-                bnCopy.addNeighbour(nodeCopies.get(e.getKey().componentID), e.getValue());
-            }
-        }
-        // Assign new neighbours
-        b.setBoardNodes(new ArrayList<>(nodeCopies.values()));
         // Copy properties
         copyComponentTo(b);
         return b;
     }
 
+    /**
+     * @return the adjacency of the nodes of this board, built from their neighbours if it has changed
+     */
+    public GraphTopology getTopology() {
+        if (topology == null) {
+            List<BoardNode> nodeList = new ArrayList<>(boardNodes.values());
+            topology = new GraphTopology(nodeList);
+            nodes = nodeList.toArray(new BoardNode[0]);
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i].attach(this, i, true);
+            }
+        }
+        return topology;
+    }
+
+    /**
+     * @param index - index of the node in the topology of this board
+     * @return node of this board
+     */
+    BoardNode getNodeAt(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Called before the nodes or their neighbours change: each node gets its own neighbours again, and the topology
+     * is rebuilt when next needed.
+     */
+    void dropTopology() {
+        if (topology == null) return;
+        for (BoardNode bn : nodes) {
+            bn.materialise();
+        }
+        topology = null;
+        nodes = null;
+    }
+
     /**
      * Returns the node in the list which matches the given property
      * @param prop_id - ID of the property to look for.
@@ -127,23 +162,28 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @param boardNodes - new list of board nodes.
      */
     public void setBoardNodes(List<BoardNode> boardNodes) {
+        dropTopology();
         for (BoardNode bn: boardNodes) {
             this.boardNodes.put(bn.componentID, bn);
         }
     }
     public void setBoardNodes(Map<Integer, BoardNode> boardNodes) {
+        dropTopology();
         this.boardNodes = boardNodes;
     }
 
     public void addBoardNode(BoardNode bn) {
+        dropTopology();
         this.boardNodes.put(bn.getComponentID(), bn);
     }
 
     public void removeBoardNode(BoardNode bn) {
+        dropTopology();
         this.boardNodes.remove(bn.getComponentID());
     }
 
     public void breakConnection(BoardNode bn1, BoardNode bn2) {
+        dropTopology();
         bn1.removeNeighbour(bn2);
         bn2.removeNeighbour(bn1);
 
@@ -168,6 +208,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     }
 
     public void addConnection(BoardNode bn1, BoardNode bn2) {
+        dropTopology();
         bn1.addNeighbour(bn2);
         bn2.addNeighbour(bn1);
         if (!boardNodes.containsKey(bn1.componentID)) {
@@ -179,6 +220,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     }
 
     public void addConnection(BoardNode bn1, BoardNode bn2, int edgeValue) {
+        dropTopology();
         bn1.addNeighbour(bn2, edgeValue);
         bn2.addNeighbour(bn1, edgeValue);
         if (!boardNodes.containsKey(bn1.componentID)) {
@@ -232,15 +274,16 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @param board - board to load in JSON format
      */
     public void loadBoard(JSONObject board) {
+        dropTopology();
         componentName = (String) board.get("id");
         String boardType = (String) board.get("type");
         String verticesKey = (String) board.get("verticesKey");
         String neighboursKey = (String) board.get("neighboursKey");
         int maxNeighbours = (int) (long) board.get("maxNeighbours");
 
-        properties.put(Hash.GetInstance().hash("boardType"), new PropertyString("boardType", boardType));
+        setProperty(new PropertyString("boardType", boardType));
         if (board.get("img") != null) {
-            properties.put(imgHash, new PropertyString("img", (String) board.get("img")));
+            setProperty(new PropertyString("img", (String) board.get("img")));
         }
 
         JSONArray nodeList = (JSONArray) board.get("nodes");
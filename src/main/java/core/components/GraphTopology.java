@@ -0,0 +1,92 @@
+package core.components;
+
+import java.util.*;
+
+/**
+ * Immutable adjacency of the nodes of a {@link GraphBoard}, in compressed sparse row form: the neighbours of the node
+ * with index i are the indices targets[offsets[i]] to targets[offsets[i+1] - 1]. The side of the node each neighbour
+ * is on (see {@link BoardNode#addNeighbour(BoardNode, int)}) is kept alongside, or -1 if none.
+ * <p>
+ * The topology of a board does not change during most games, so it is shared by all copies of a board, and only the
+ * state of its nodes (properties, owner) is copied.
+ */
+public final class GraphTopology {
+
+    private final int[] nodeIDs;
+    private final Map<Integer, Integer> indexOf;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] sides;
+
+    /**
+     * @param nodes - nodes of the board, in the order they are indexed; neighbours not in the list are left out
+     */
+    GraphTopology(List<BoardNode> nodes) {
+        int n = nodes.size();
+        nodeIDs = new int[n];
+        indexOf = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            nodeIDs[i] = nodes.get(i).getComponentID();
+            indexOf.put(nodeIDs[i], i);
+        }
+        offsets = new int[n + 1];
+        int[] targets = new int[16];
+        int[] sides = new int[16];
+        int nEdges = 0;
+        for (int i = 0; i < n; i++) {
+            BoardNode node = nodes.get(i);
+            Map<BoardNode, Integer> sideMapping = node.getNeighbourSideMapping();
+            for (BoardNode neighbour : node.getNeighbours()) {
+                Integer index = neighbour == null ? null : indexOf.get(neighbour.getComponentID());
+                if (index == null) continue;
+                if (nEdges == targets.length) {
+                    targets = Arrays.copyOf(targets, nEdges * 2);
+                    sides = Arrays.copyOf(sides, nEdges * 2);
+                }
+                targets[nEdges] = index;
+                sides[nEdges++] = sideMapping.getOrDefault(neighbour, -1);
+            }
+            offsets[i + 1] = nEdges;
+        }
+        this.targets = Arrays.copyOf(targets, nEdges);
+        this.sides = Arrays.copyOf(sides, nEdges);
+    }
+
+    public int size() {
+        return nodeIDs.length;
+    }
+
+    public int getNEdges() {
+        return targets.length;
+    }
+
+    /**
+     * @return index of the node with the given component ID, or -1 if it is not on the board
+     */
+    public int indexOf(int componentID) {
+        Integer index = indexOf.get(componentID);
+        return index == null ? -1 : index;
+    }
+
+    public int getNodeID(int index) {
+        return nodeIDs[index];
+    }
+
+    public int getNNeighbours(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * @return index of the given neighbour (from 0 to getNNeighbours(index) - 1) of a node
+     */
+    public int getNeighbour(int index, int neighbour) {
+        return targets[offsets[index] + neighbour];
+    }
+
+    /**
+     * @return side of a node the given neighbour is on, or -1 if none
+     */
+    public int getSide(int index, int neighbour) {
+        return sides[offsets[index] + neighbour];
+    }
+}
@@ -16,7 +16,6 @@ import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static core.CoreConstants.imgHash;
 import static utilities.Utils.getNeighbourhood;
 
 public class GridBoard<T extends Component> extends Component implements IComponentContainer<T> {
@@ -298,7 +297,7 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         this.height = (int) (long) size.get(1);
 
         if (board.get("img") != null) {
-            properties.put(imgHash, new PropertyString((String) board.get("img")));
+            setProperty(new PropertyString("img", (String) board.get("img")));
         }
 
         this.grid = new Component[height][width];
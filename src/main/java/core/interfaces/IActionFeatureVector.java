@@ -3,10 +3,45 @@ package core.interfaces;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 
+import java.util.List;
+
 public interface IActionFeatureVector {
 
     double[] featureVector(AbstractAction action, AbstractGameState state, int playerID);
 
     String[] names();
 
+    /**
+     * @return the number of features; the length of the array returned by featureVector()
+     */
+    default int size() {
+        return names().length;
+    }
+
+    /**
+     * Writes the feature vector into a buffer provided by the caller, rather than allocating a new array. All size()
+     * features are written, so the buffer can be reused without clearing it. The default implementation copies the
+     * result of featureVector(), so implementations used in tight loops should override this (and may then implement
+     * featureVector() in terms of it), as the LoveLetter action features do.
+     *
+     * @param buffer - the features are written to buffer[offset] to buffer[offset + size() - 1]
+     * @param offset - where the first feature is written
+     */
+    default void featureVector(AbstractAction action, AbstractGameState state, int playerID, double[] buffer, int offset) {
+        double[] retValue = featureVector(action, state, playerID);
+        System.arraycopy(retValue, 0, buffer, offset, retValue.length);
+    }
+
+    /**
+     * The feature vectors of all the actions available in one state, in one call. Implementations can override this
+     * to do the work that depends only on the state once, rather than once per action.
+     *
+     * @param buffer - one row per action, each of at least size()
+     */
+    default void featureVectors(List<? extends AbstractAction> actions, AbstractGameState state, int playerID, double[][] buffer) {
+        for (int i = 0; i < actions.size(); i++) {
+            featureVector(actions.get(i), state, playerID, buffer[i], 0);
+        }
+    }
+
 }
@@ -4,6 +4,16 @@ public interface ILearner {
 
     void learnFrom(String... files);
 
+    /**
+     * Called with a data file as soon as it has been written, before learnFrom() is called with it and the other
+     * files of the same batch, so that the learner can read it while the rest are still being written. This is
+     * called on the same thread as learnFrom(). By default, nothing is done until learnFrom().
+     *
+     * @param file - a data file that will be passed to learnFrom()
+     */
+    default void prepare(String file) {
+    }
+
     /**
      * Write the model to the file system.
      * This may either be a single file (in which case prefix is the file stem) or a directory (in which case prefix is the directory name)
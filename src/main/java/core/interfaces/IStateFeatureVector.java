@@ -8,4 +8,36 @@ public interface IStateFeatureVector {
 
     String[] names();
 
+    /**
+     * @return the number of features; the length of the array returned by featureVector()
+     */
+    default int size() {
+        return names().length;
+    }
+
+    /**
+     * Writes the feature vector into a buffer provided by the caller, rather than allocating a new array. The default
+     * implementation copies the result of featureVector(), so implementations used in tight loops should override
+     * this (and may then implement featureVector() in terms of it).
+     *
+     * @param buffer - the features are written to buffer[offset] to buffer[offset + size() - 1]
+     * @param offset - where the first feature is written
+     */
+    default void featureVector(AbstractGameState state, int playerID, double[] buffer, int offset) {
+        double[] retValue = featureVector(state, playerID);
+        System.arraycopy(retValue, 0, buffer, offset, retValue.length);
+    }
+
+    /**
+     * The feature vector of the state for every player, in one call, so that work on the state that does not depend
+     * on the player can be shared.
+     *
+     * @param buffer - one row per player, each of at least size()
+     */
+    default void featureVectors(AbstractGameState state, double[][] buffer) {
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            featureVector(state, p, buffer[p], 0);
+        }
+    }
+
 }
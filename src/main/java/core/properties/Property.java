@@ -43,8 +43,8 @@ public abstract class Property
     /* Final methods */
 
     /**
-     * Creates a copy of this property.
-     * @return - a new Property object with the same hashString and hashKey.
+     * Creates a copy of this property. Properties whose value cannot change return themselves.
+     * @return - a Property object with the same hashString, hashKey and value.
      */
     public final Property copy() {
         return _copy();
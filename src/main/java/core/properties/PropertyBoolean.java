@@ -3,7 +3,7 @@ package core.properties;
 
 public class PropertyBoolean extends Property
 {
-    public Boolean value;
+    public final Boolean value;
 
     public PropertyBoolean(boolean value)
     {
@@ -17,7 +17,7 @@ public class PropertyBoolean extends Property
         this.value = value;
     }
 
-    private PropertyBoolean(String hashString, int hashKey, boolean value)
+    public PropertyBoolean(String hashString, int hashKey, boolean value)
     {
         super(hashString, hashKey);
         this.value = value;
@@ -36,9 +36,9 @@ public class PropertyBoolean extends Property
     }
 
     @Override
-    protected Property _copy()
-    {
-        return new PropertyBoolean(hashString, hashKey, value);
+    protected Property _copy() {
+        // the value cannot change, so the copy can be this property
+        return this;
     }
 
 }
@@ -7,8 +7,8 @@ import java.util.Objects;
 
 public class PropertyColor extends Property
 {
-    public String valueStr;
-    private Color value;
+    public final String valueStr;
+    private final Color value;
 
     public PropertyColor(String hashString, String valStr)
     {
@@ -38,6 +38,7 @@ public class PropertyColor extends Property
 
     @Override
     protected Property _copy() {
-        return new PropertyColor(hashString, hashKey, value, valueStr);
+        // the value cannot change, so the copy can be this property
+        return this;
     }
 }
@@ -3,7 +3,7 @@ package core.properties;
 
 public class PropertyInt extends Property
 {
-    public int value;
+    public final int value;
 
     public PropertyInt(String hashString, int value)
     {
@@ -11,7 +11,7 @@ public class PropertyInt extends Property
         this.value = value;
     }
 
-    private PropertyInt(String hashString, int hashKey, int value)
+    public PropertyInt(String hashString, int hashKey, int value)
     {
         super(hashString, hashKey);
         this.value = value;
@@ -31,9 +31,9 @@ public class PropertyInt extends Property
     }
 
     @Override
-    protected Property _copy()
-    {
-        return new PropertyInt(hashString, hashKey, value);
+    protected Property _copy() {
+        // the value cannot change, so the copy can be this property
+        return this;
     }
 
 }
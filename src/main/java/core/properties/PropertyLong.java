@@ -2,7 +2,7 @@ package core.properties;
 
 public class PropertyLong extends Property
 {
-    public long value;
+    public final long value;
 
     public PropertyLong(String hashString, long value)
     {
@@ -31,9 +31,9 @@ public class PropertyLong extends Property
     }
 
     @Override
-    protected Property _copy()
-    {
-        return new PropertyLong(hashString, hashKey, value);
+    protected Property _copy() {
+        // the value cannot change, so the copy can be this property
+        return this;
     }
 
 }
@@ -0,0 +1,65 @@
+package core.properties;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The property keys of a component, each with a dense slot in the component's array of properties (see
+ * {@link core.components.Component}).
+ * <p>
+ * Schemas are immutable and interned: all components that gain the same keys in the same order (for example all the
+ * cities of a board, or all the cards loaded from one file) share one schema, and copies of a component share its
+ * schema. Adding a new key moves a component to the schema with that key appended, which is found once and then
+ * cached. Finding the slot of a key is a scan of a few ints, with no boxing or hashing.
+ */
+public final class PropertySchema {
+
+    public static final PropertySchema EMPTY = new PropertySchema(new int[0]);
+
+    private final int[] keys;
+    // schemas with one more key, shared by all components of this schema
+    private final ConcurrentHashMap<Integer, PropertySchema> extensions = new ConcurrentHashMap<>();
+
+    private PropertySchema(int[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * @param key - hash key of a property
+     * @return slot of the key, or -1 if this schema does not have it
+     */
+    public int slotOf(int key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @param key - hash key of a property not in this schema
+     * @return schema with the keys of this one followed by the given key (in the last slot)
+     */
+    public PropertySchema with(int key) {
+        PropertySchema retValue = extensions.get(key);
+        if (retValue == null) {
+            int[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+            newKeys[keys.length] = key;
+            PropertySchema previous = extensions.putIfAbsent(key, new PropertySchema(newKeys));
+            retValue = previous == null ? extensions.get(key) : previous;
+        }
+        return retValue;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public int getKey(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    public String toString() {
+        return "PropertySchema" + Arrays.toString(keys);
+    }
+}
@@ -3,7 +3,7 @@ package core.properties;
 
 public class PropertyString extends Property
 {
-    public String value;
+    public final String value;
 
     public PropertyString (String value)
     {
@@ -38,9 +38,9 @@ public class PropertyString extends Property
     }
 
     @Override
-    protected Property _copy()
-    {
-        return new PropertyString(hashString, hashKey, value);
+    protected Property _copy() {
+        // the value cannot change, so the copy can be this property
+        return this;
     }
 
 }
@@ -3,13 +3,11 @@ package core.turnorders;
 import core.AbstractGameState;
 import core.CoreConstants;
 import core.actions.LogEvent;
+import core.interfaces.IGameEvent;
 import evaluation.listeners.IGameListener;
 import evaluation.metrics.Event;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
@@ -38,6 +36,8 @@ public abstract class TurnOrder {
     protected int roundCounter;  // 1 round = (1 turn) x nPlayers(alive)
 
     protected List<IGameListener> listeners = new ArrayList<>();
+    // Listeners subscribed to each type of event, built when first needed
+    private Map<IGameEvent, IGameListener[]> listenersByEvent;
 
     public TurnOrder(int nPlayers, int nMaxRounds) {
         reset();
@@ -137,7 +137,7 @@ public abstract class TurnOrder {
 
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementTurn();
 
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.TURN_OVER, gameState,getCurrentPlayer(gameState))));
+        notifyListeners(Event.GameEvent.TURN_OVER, gameState, getCurrentPlayer(gameState));
 
         turnCounter++;
         if (turnCounter >= nPlayers) endRound(gameState);
@@ -149,13 +149,17 @@ public abstract class TurnOrder {
     // helper function to avoid time-consuming string manipulations if the message is not actually
     // going to be logged anywhere
     public void logEvent(Supplier<String> eventText, AbstractGameState state) {
-        if (listeners.isEmpty() && !state.getCoreGameParameters().recordEventHistory)
+        if (getListeners(Event.GameEvent.GAME_EVENT).length == 0 && !state.getCoreGameParameters().recordEventHistory)
             return; // to avoid expensive string manipulations
         logEvent(eventText.get(), state);
     }
     public void logEvent(String eventText, AbstractGameState state) {
-        LogEvent logAction = new LogEvent(eventText);
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.GAME_EVENT, state, logAction)));
+        IGameListener[] subscribers = getListeners(Event.GameEvent.GAME_EVENT);
+        if (subscribers.length > 0) {
+            Event event = Event.createEvent(Event.GameEvent.GAME_EVENT, state, new LogEvent(eventText));
+            for (IGameListener listener : subscribers)
+                listener.onEvent(event);
+        }
         if (state.getCoreGameParameters().recordEventHistory) {
             state.recordHistory(eventText);
         }
@@ -174,7 +178,7 @@ public abstract class TurnOrder {
 
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementRound();
 
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ROUND_OVER, gameState, getCurrentPlayer(gameState))));
+        notifyListeners(Event.GameEvent.ROUND_OVER, gameState, getCurrentPlayer(gameState));
         if (gameState.getCoreGameParameters().recordEventHistory) {
             gameState.recordHistory(Event.GameEvent.ROUND_OVER.name());
         }
@@ -296,10 +300,36 @@ public abstract class TurnOrder {
     public void addListener(IGameListener listener) {
         if (!listeners.contains(listener))
             listeners.add(listener);
+        listenersByEvent = null;
     }
 
     public void clearListeners() {
         listeners.clear();
+        listenersByEvent = null;
+    }
+
+    /**
+     * @param type - type of event
+     * @return the listeners subscribed to events of this type, as AbstractGameState.getListeners(). This must not be
+     * modified.
+     */
+    public final IGameListener[] getListeners(IGameEvent type) {
+        if (listeners.isEmpty()) return AbstractGameState.NO_LISTENERS;
+        if (listenersByEvent == null) listenersByEvent = new HashMap<>();
+        IGameListener[] retValue = listenersByEvent.get(type);
+        if (retValue == null) {
+            retValue = listeners.stream().filter(l -> l.listensTo(type)).toArray(IGameListener[]::new);
+            listenersByEvent.put(type, retValue);
+        }
+        return retValue;
+    }
+
+    private void notifyListeners(IGameEvent type, AbstractGameState gameState, int playerID) {
+        IGameListener[] subscribers = getListeners(type);
+        if (subscribers.length == 0) return;
+        Event event = Event.createEvent(type, gameState, playerID);
+        for (IGameListener listener : subscribers)
+            listener.onEvent(event);
     }
 
     public int getFirstPlayer() {
@@ -0,0 +1,110 @@
+package evaluation;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.IStateFeatureVector;
+import games.GameType;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times the three ways of extracting the features of a state for every player: featureVector() (a new array for each
+ * player), featureVector() into a reused buffer, and featureVectors() for all players in one call.
+ * <p>
+ * The states are collected from games with random moves, and before timing we check that all three give the same
+ * features for each state.
+ * <p>
+ * Arguments are: game, nPlayers, nGames (default 100), features (the IStateFeatureVector class), repeats (default 10)
+ * and seed.
+ */
+public class FeatureVectorBenchmark {
+
+    public static void main(String... args) {
+        GameType gameType = GameType.valueOf(Utils.getArg(args, "game", "Connect4"));
+        int nPlayers = Utils.getArg(args, "nPlayers", 2);
+        int nGames = Utils.getArg(args, "nGames", 100);
+        int repeats = Utils.getArg(args, "repeats", 10);
+        long seed = Utils.getArg(args, "seed", System.currentTimeMillis());
+        String featuresClass = Utils.getArg(args, "features", "games.connect4.Connect4StateFeatures");
+        IStateFeatureVector features;
+        try {
+            features = (IStateFeatureVector) Class.forName(featuresClass).getConstructor().newInstance();
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem with Class : " + featuresClass);
+        }
+
+        List<AbstractGameState> states = collectStates(gameType, nPlayers, nGames, seed);
+        check(features, states, nPlayers);
+        System.out.printf("%d states from %d games of %s; %d features%n", states.size(), nGames, gameType.name(), features.size());
+
+        double[] buffer = new double[features.size()];
+        double[][] batch = new double[nPlayers][features.size()];
+        double checksum = 0.0;
+        for (int r = 0; r < repeats; r++) {
+            long start = System.nanoTime();
+            for (AbstractGameState state : states)
+                for (int p = 0; p < nPlayers; p++)
+                    checksum += features.featureVector(state, p)[0];
+            long allocating = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (AbstractGameState state : states)
+                for (int p = 0; p < nPlayers; p++) {
+                    features.featureVector(state, p, buffer, 0);
+                    checksum += buffer[0];
+                }
+            long buffered = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (AbstractGameState state : states) {
+                features.featureVectors(state, batch);
+                checksum += batch[0][0];
+            }
+            long batched = System.nanoTime() - start;
+
+            System.out.printf("Repeat %2d: ns per state: allocating %8.0f, buffer %8.0f, batch %8.0f%n", r,
+                    allocating / (double) states.size(), buffered / (double) states.size(), batched / (double) states.size());
+        }
+        // printed so the work cannot be optimised away
+        System.out.printf("Checksum %.3f%n", checksum);
+    }
+
+    static List<AbstractGameState> collectStates(GameType gameType, int nPlayers, int nGames, long seed) {
+        List<AbstractGameState> retValue = new ArrayList<>();
+        Random rnd = new Random(seed);
+        for (int g = 0; g < nGames; g++) {
+            Game game = gameType.createGameInstance(nPlayers, rnd.nextLong());
+            AbstractGameState state = game.getGameState();
+            AbstractForwardModel forwardModel = game.getForwardModel();
+            while (state.isNotTerminal()) {
+                retValue.add(state.copy());
+                List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+                forwardModel.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+            retValue.add(state.copy());
+        }
+        return retValue;
+    }
+
+    static void check(IStateFeatureVector features, List<AbstractGameState> states, int nPlayers) {
+        double[] buffer = new double[features.size()];
+        double[][] batch = new double[nPlayers][features.size()];
+        for (AbstractGameState state : states) {
+            features.featureVectors(state, batch);
+            for (int p = 0; p < nPlayers; p++) {
+                double[] expected = features.featureVector(state, p);
+                features.featureVector(state, p, buffer, 0);
+                if (!Arrays.equals(expected, buffer) || !Arrays.equals(expected, batch[p]))
+                    throw new AssertionError(String.format("Features differ for player %d: %s / %s / %s", p,
+                            Arrays.toString(expected), Arrays.toString(buffer), Arrays.toString(batch[p])));
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.interfaces.*;
 import evaluation.listeners.*;
+import evaluation.loggers.BinaryDataLogger;
 import evaluation.loggers.FileStatsLogger;
 import evaluation.metrics.Event;
 import evaluation.tournaments.RandomRRTournament;
@@ -19,6 +20,7 @@ import utilities.Utils;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -32,19 +34,26 @@ public class ProgressiveLearner {
     GameType gameToPlay;
     String dataDir, player, heuristic;
     AbstractParameters params;
-    List<AbstractPlayer> agents;
-    EpsilonRandom randomExplorer;
     ILearner learner;
     FeatureListener listener;
+    String listenerDefinition;
     int nPlayers, matchups, iterations, iter, finalMatchups;
     double maxExplore;
     AbstractPlayer basePlayer;
     AbstractPlayer[] agentsPerGeneration;
-    String[] dataFilesByIteration;
+    String[][] dataFilesByIteration;
     String[] learnedFilesByIteration;
     String prefix;
     int elite;
     boolean verbose;
+    boolean binaryData;
+    // games of each iteration are split into this many shards, each played on its own thread. More than one relies on
+    // each Game allocating its own component IDs and on Hash being safe to use from several threads
+    int workers;
+    long seed;
+    // if true, learning from one iteration runs while the next is played
+    boolean overlap;
+    // indices of agents in the current elite; 0 is the base player, and i+1 the agent learned on iteration i
     List<Integer> currentElite = new ArrayList<>();
 
     public ProgressiveLearner(String[] args) {
@@ -63,14 +72,18 @@ public class ProgressiveLearner {
         iterations = getArg(args, "iterations", 100);
         maxExplore = getArg(args, "explore", 0.0);
         verbose = getArg(args, "verbose", false);
+        binaryData = getArg(args, "binaryData", false);
+        workers = getArg(args, "workers", 1);
+        seed = getArg(args, "seed", System.currentTimeMillis());
+        overlap = getArg(args, "overlap", false);
         elite = getArg(args, "elite", iterations + 1);
         agentsPerGeneration = new AbstractPlayer[iterations];
-        dataFilesByIteration = new String[iterations];
+        dataFilesByIteration = new String[iterations][];
         String learnerDefinition = getArg(args, "learner", "");
         if (learnerDefinition.equals(""))
             throw new IllegalArgumentException("Must specify a learner file");
         learner = loadClassFromFile(learnerDefinition);
-        String listenerDefinition = getArg(args, "listener", "");
+        listenerDefinition = getArg(args, "listener", "");
         if (listenerDefinition.equals(""))
             throw new IllegalArgumentException("Must specify a listener file");
         listener = loadClassFromFile(listenerDefinition);
@@ -112,7 +125,15 @@ public class ProgressiveLearner {
                             "\tmatchups=      Defaults to 1. The number of games to play before the learning process is called.\n" +
                             "\titerations=    Stop after this number of learning iterations. Defaults to 100.\n" +
                             "\tfinalMatchups= The number of games to run in a final tournament between all agents. Defaults to 1000.\n" +
-                            "\telite=         The number of agents to keep in the tournament. Defaults to iterations.\n"
+                            "\telite=         The number of agents to keep in the tournament. Defaults to iterations.\n" +
+                            "\tbinaryData=    If true, training data is recorded in binary rather than as text. Defaults to false.\n" +
+                            "\tworkers=       The number of threads to play the games of each iteration. Defaults to 1.\n" +
+                            "\t               Each thread writes its own data file (shard): prefix_iteration_shard.data\n" +
+                            "\t               which the learner reads as soon as it is written.\n" +
+                            "\tseed=          Random seed. The games (and exploration) in each shard are seeded from this, the iteration\n" +
+                            "\t               and the shard, so that runs with the same seed and number of workers are repeatable.\n" +
+                            "\toverlap=       If true, learning on one iteration's data runs while the next iteration is played.\n" +
+                            "\t               The agent learned on iteration N then first plays in iteration N+2. Defaults to false.\n"
             );
             return;
         }
@@ -129,22 +150,40 @@ public class ProgressiveLearner {
          which is what we are learning. The name of this file can be controlled from here - say ILearner name, date, iteration
          The ILearner will generate the file - the idea is that we decide what data to use here; load it into memory, pass this
          to the ILearner, along with the name of the file it should create with the results.
-         For the moment we will use a synchronous, single-threaded method, and wait between game runs.
+         The games of each iteration are split into shards played on separate threads (see workers), and learning
+         runs on a thread of its own.
          */
 
         pl.run();
     }
 
     public void run() {
-        iter = 0;
-        do {
-            loadAgents();
-
-            runGamesWithAgents();
-
-            learnFromNewData();
-            iter++;
-        } while (iter < iterations);
+        System.out.printf("Seed %d with %d workers%n", seed, workers);
+        ExecutorService playPool = Executors.newFixedThreadPool(workers);
+        ExecutorService learningThread = Executors.newSingleThreadExecutor();
+        try {
+            basePlayer = createAgent(0);
+            currentElite.add(0);
+            List<Future<?>> learning = new ArrayList<>();
+            int learned = 0;
+            for (iter = 0; iter < iterations; iter++) {
+                // Agents join the tournament once they have been learned. Without overlap we wait for the previous
+                // iteration, and with overlap for the one before that (which has finished while the last was played).
+                // Either way, which agents play in each iteration does not depend on timing.
+                for (; learned < (overlap ? iter - 1 : iter); learned++)
+                    addLearnedAgent(learned, learning.get(learned));
+
+                String[] shards = runGamesWithAgents(playPool, learningThread);
+
+                int iteration = iter;
+                learning.add(learningThread.submit(() -> learnFromNewData(iteration, shards)));
+            }
+            for (; learned < iterations; learned++)
+                addLearnedAgent(learned, learning.get(learned));
+        } finally {
+            playPool.shutdownNow();
+            learningThread.shutdownNow();
+        }
 
         // Now we can run a tournament of everyone
         List<AbstractPlayer> finalAgents = Arrays.stream(agentsPerGeneration).collect(Collectors.toList());
@@ -184,33 +223,56 @@ public class ProgressiveLearner {
         }
     }
 
-    private List<Integer> topNAgents(RoundRobinTournament tournament, int N) {
-        return IntStream.range(0, tournament.getNumberOfAgents())
-                .mapToObj(i -> new Pair<>(i, tournament.getOrdinalRank(i)))
+    private List<Integer> topNAgents(double[] ordinalRank, int N) {
+        return IntStream.range(0, ordinalRank.length)
+                .mapToObj(i -> new Pair<>(i, ordinalRank[i]))
                 .sorted(Comparator.comparingDouble(p -> p.b))   // lower rank is better
                 .limit(N).map(p -> p.a).collect(Collectors.toList());
     }
 
-    private void loadAgents() {
-        agents = new LinkedList<>();
+    /**
+     * @param index - 0 for the base agent, or i+1 for the agent learned on iteration i
+     * @return a new instance of the agent
+     */
+    private AbstractPlayer createAgent(int index) {
         File playerLoc = new File(player);
         if (player.isEmpty())
             throw new IllegalArgumentException("No player file specified");
         if (playerLoc.isDirectory()) {
             throw new IllegalArgumentException("Not yet implemented for a directory of players");
         }
-        if (iter == 0) {
-            String fileName = learnedFilesByIteration[iter] == null ? "" : learnedFilesByIteration[iter];
-            agents.add(PlayerFactory.createPlayer(player, rawJSON -> injectAgentAttributes(rawJSON, fileName)));
-            basePlayer = agents.get(0);
-            basePlayer.setName("Default Agent");
-        } else {
-            agents.add(basePlayer);
-            agents.addAll(Arrays.asList(agentsPerGeneration).subList(0, iter));
+        String fileName = index == 0 ? "" : learnedFilesByIteration[index - 1];
+        AbstractPlayer retValue = PlayerFactory.createPlayer(player, rawJSON -> injectAgentAttributes(rawJSON, fileName));
+        retValue.setName(index == 0 ? "Default Agent" : String.format("Iteration %2d", index));
+        return retValue;
+    }
+
+    private void addLearnedAgent(int iteration, Future<?> learning) {
+        await(learning);
+        agentsPerGeneration[iteration] = createAgent(iteration + 1);
+        currentElite.add(iteration + 1);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
         }
+    }
 
-        randomExplorer = new EpsilonRandom();
-        agents.forEach(a -> a.addDecorator(randomExplorer));
+    /**
+     * The seed for one shard of one iteration; well spread even for consecutive iterations and shards
+     * (this is the SplitMix64 finaliser).
+     */
+    static long shardSeed(long seed, int iteration, int shard) {
+        long z = seed + 0x9E3779B97F4A7C15L * (1 + iteration * 65536L + shard);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 
     private String injectAgentAttributes(String rawJSON, String fileName) {
@@ -218,34 +280,90 @@ public class ProgressiveLearner {
                 .replaceAll(Pattern.quote("*HEURISTIC*"), heuristic));
     }
 
-    private void runGamesWithAgents() {
-        // Run!
-        // First we only put the elite agents into the tournament, and track their numbers
-        if (currentElite.isEmpty()) {
-            currentElite = IntStream.range(0, agents.size()).boxed().collect(Collectors.toList());
-        }
-        List<AbstractPlayer> agentsToPlay = currentElite.stream().map(i -> agents.get(i)).collect(Collectors.toList());
-
-        RoundRobinTournament tournament = new RandomRRTournament(agentsToPlay, gameToPlay, nPlayers, SELF_PLAY, matchups,
-                matchups, System.currentTimeMillis(), params, false);
-        tournament.verbose = false;
+    /**
+     * Plays the games for this iteration, split into shards that are played in parallel. Each shard has its own
+     * agents, listener and data file, so nothing is shared between threads. Each data file is passed to the learner
+     * (on the learning thread) as soon as its shard has finished, rather than once all the shards have.
+     *
+     * @return the data files written
+     */
+    private String[] runGamesWithAgents(ExecutorService playPool, ExecutorService learningThread) {
+        List<Integer> agentsToPlay = new ArrayList<>(currentElite);
         double exploreEpsilon = maxExplore * (iterations - iter - 1) / (iterations - 1);
         System.out.println("Explore = " + exploreEpsilon);
-        randomExplorer.setEpsilon(exploreEpsilon);
 
-        String fileName = String.format("%s_%d.data", prefix, iter);
-        dataFilesByIteration[iter] = fileName;
-        listener.setLogger(new FileStatsLogger(fileName, "\t", false));
-        tournament.setListeners(Collections.singletonList(listener));
-        tournament.run();
+        List<String> shardFiles = new ArrayList<>();
+        CompletionService<Integer> shards = new ExecutorCompletionService<>(playPool);
+        List<RoundRobinTournament> tournaments = new ArrayList<>();
+        for (int shard = 0; shard < workers; shard++) {
+            // matchups are dealt out as evenly as possible
+            int shardMatchups = matchups / workers + (shard < matchups % workers ? 1 : 0);
+            if (shardMatchups == 0) continue;
+            long shardSeed = shardSeed(seed, iter, shard);
+
+            EpsilonRandom randomExplorer = new EpsilonRandom(shardSeed, exploreEpsilon);
+            List<AbstractPlayer> shardAgents = agentsToPlay.stream().map(this::createAgent).collect(Collectors.toList());
+            shardAgents.forEach(a -> a.addDecorator(randomExplorer));
+            AbstractParameters shardParams = params.copy();
+            shardParams.setRandomSeed(shardSeed);
+            RoundRobinTournament tournament = new RandomRRTournament(shardAgents, gameToPlay, nPlayers, SELF_PLAY, shardMatchups,
+                    shardMatchups, shardSeed, shardParams, false);
+            tournament.verbose = false;
+
+            String fileName = workers == 1 ? String.format("%s_%d.data", prefix, iter) : String.format("%s_%d_%d.data", prefix, iter, shard);
+            shardFiles.add(fileName);
+            FeatureListener shardListener = loadClassFromFile(listenerDefinition);
+            shardListener.setLogger(binaryData ? new BinaryDataLogger(fileName) : new FileStatsLogger(fileName, "\t", false));
+            tournament.setListeners(Collections.singletonList(shardListener));
+            int index = tournaments.size();
+            tournaments.add(tournament);
+            shards.submit(() -> {
+                tournament.run();
+                return index;
+            });
+        }
+
+        // as each shard finishes, the learner can start on its data (if this fails, learnFrom() reads the file again
+        // and reports the problem)
+        for (int i = 0; i < tournaments.size(); i++) {
+            int index;
+            try {
+                index = await(shards.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            String fileName = shardFiles.get(index);
+            learningThread.submit(() -> learner.prepare(fileName));
+        }
+
+        // combine the results of the shards, weighting by the number of games played
+        double[] wins = new double[agentsToPlay.size()];
+        double[] ordinalRank = new double[agentsToPlay.size()];
+        int[] games = new int[agentsToPlay.size()];
+        for (RoundRobinTournament tournament : tournaments) {
+            for (int i = 0; i < agentsToPlay.size(); i++) {
+                int n = tournament.getGamesPlayed(i);
+                if (n == 0) continue;
+                games[i] += n;
+                wins[i] += tournament.getWinRate(i) * n;
+                ordinalRank[i] += tournament.getOrdinalRank(i) * n;
+            }
+        }
+        for (int i = 0; i < agentsToPlay.size(); i++) {
+            wins[i] = games[i] == 0 ? 0.0 : wins[i] / games[i];
+            ordinalRank[i] = games[i] == 0 ? Double.MAX_VALUE : ordinalRank[i] / games[i];
+        }
+        dataFilesByIteration[iter] = shardFiles.toArray(new String[0]);
 
         if (verbose) {
             for (int i = 0; i < agentsToPlay.size(); i++) {
-                System.out.printf("Agent: %d %s\twins %.2f +/- %.3f\tOrd %.2f +/- %.2f%n", i, agentsToPlay.get(i).toString(),
-                        tournament.getWinRate(i), tournament.getWinStdErr(i), tournament.getOrdinalRank(i), tournament.getOrdinalStdErr(i));
+                int index = agentsToPlay.get(i);
+                System.out.printf("Agent: %d %s\twins %.2f\tOrd %.2f\tgames %d%n", i, index == 0 ? "Default Agent" : String.format("Iteration %2d", index),
+                        wins[i], ordinalRank[i], games[i]);
             }
         }
-        List<Integer> eliteIndices = topNAgents(tournament, elite); // these are the indices within currentElite
+        List<Integer> eliteIndices = topNAgents(ordinalRank, elite); // these are the indices within currentElite
         List<Integer> newElite = eliteIndices.stream().map(i -> currentElite.get(i))
                 .collect(Collectors.toList());
         if (verbose) {
@@ -264,20 +382,20 @@ public class ProgressiveLearner {
             }
             currentElite = newElite;
         }
-        currentElite.add(iter + 1); // add the new agent
+        return dataFilesByIteration[iter];
     }
 
-    private void learnFromNewData() {
-        // for the moment we will just supply the most recent file
-        learner.learnFrom(dataFilesByIteration[iter]);
+    /**
+     * Learns from the data of one iteration. This runs on its own thread, and uses no state shared with the games
+     * other than learnedFilesByIteration (which is only read once this has finished).
+     */
+    private void learnFromNewData(int iteration, String[] dataFiles) {
+        long startTime = System.currentTimeMillis();
+        learner.learnFrom(dataFiles);
 
-        String iterationPrefix = String.format("%s_%d", prefix, iter);
-        learnedFilesByIteration[iter] = iterationPrefix;
+        String iterationPrefix = String.format("%s_%d", prefix, iteration);
+        learnedFilesByIteration[iteration] = iterationPrefix;
         learner.writeToFile(iterationPrefix);
-
-        // if we only have one agent type, then we can create one agent as the result of this round
-        agentsPerGeneration[iter] = PlayerFactory.createPlayer(player, rawJSON -> injectAgentAttributes(rawJSON, iterationPrefix));
-        agentsPerGeneration[iter].setName(String.format("Iteration %2d", iter + 1));
-        agentsPerGeneration[iter].addDecorator(randomExplorer);
+        System.out.printf("Iteration %d: %s learning took %d ms%n", iteration, learner.name(), System.currentTimeMillis() - startTime);
     }
 }
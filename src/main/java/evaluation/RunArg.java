@@ -70,7 +70,8 @@ public enum RunArg {
             "\t of a json file from which a listener can be instantiated.\n" +
             "\t Defaults to evaluation.metrics.MetricsGameListener. \n" +
             "\t A pipe-delimited string can be provided to gather many types of statistics \n" +
-            "\t from the same set of games.",
+            "\t from the same set of games.\n" +
+            "\t evaluation.listeners.ProfilingListener records where the time goes in each game type.",
             "evaluation.listeners.MetricsGameListener",
             new Usage[]{Usage.RunGames, Usage.ParameterSearch}),
     matchups("The total number of matchups to run in a tournament if mode=random...\n" +
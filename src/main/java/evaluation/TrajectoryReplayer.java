@@ -0,0 +1,329 @@
+package evaluation;
+
+import core.AbstractGameState;
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import evaluation.listeners.IGameListener;
+import evaluation.listeners.TrajectoryRecorder;
+import evaluation.optimisation.TunableParameters;
+import games.GameType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static evaluation.listeners.TrajectoryRecorder.*;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads games recorded by {@link TrajectoryRecorder} and rebuilds them exactly from the random seed and the actions
+ * chosen. This requires the game state to be deterministic given its random seed (some games seed copies of their
+ * state from the system clock, and can not be replayed exactly). Games are replayed through the normal Game loop with players that repeat the recorded decisions, so any
+ * listeners attached (e.g. to extract features) see the same events as in the original game, without the cost of
+ * running the original agents.
+ * <p>
+ * Trajectories are read one at a time from the file, so files with many games can be processed without loading
+ * all of them into memory:
+ * <pre>
+ *     try (TrajectoryReplayer replayer = new TrajectoryReplayer(fileName)) {
+ *         while (replayer.hasNext())
+ *             TrajectoryReplayer.replay(replayer.next(), listeners);
+ *     }
+ * </pre>
+ */
+public class TrajectoryReplayer implements Iterator<TrajectoryReplayer.Trajectory>, AutoCloseable {
+
+    /**
+     * All information needed to rebuild one game.
+     */
+    public static class Trajectory {
+        public final GameType gameType;
+        public final int nPlayers;
+        public final long seed;
+        public final ActionSpace[] actionSpaces;
+        public final Map<String, Object> parameters;
+        public final int[] actions;
+        public final short[] fingerprints;
+
+        public Trajectory(GameType gameType, int nPlayers, long seed, ActionSpace[] actionSpaces,
+                          Map<String, Object> parameters, int[] actions, short[] fingerprints) {
+            this.gameType = gameType;
+            this.nPlayers = nPlayers;
+            this.seed = seed;
+            this.actionSpaces = actionSpaces;
+            this.parameters = parameters;
+            this.actions = actions;
+            this.fingerprints = fingerprints;
+        }
+
+        /**
+         * @return a new instance of the game, set up with the recorded seed and parameters (no players)
+         */
+        public Game createGame() {
+            AbstractParameters params = gameType.createParameters(seed);
+            if (params instanceof TunableParameters) {
+                TunableParameters tunable = (TunableParameters) params;
+                List<String> names = tunable.getParameterNames();
+                for (Map.Entry<String, Object> e : parameters.entrySet()) {
+                    if (names.contains(e.getKey()))
+                        tunable.setParameterValue(e.getKey(), e.getValue());
+                }
+            }
+            return gameType.createGameInstance(nPlayers, seed, params);
+        }
+    }
+
+    /**
+     * Player repeating the decisions in a trajectory. All players in a replayed game share the same position in the
+     * trajectory, which also moves on when the Game plays the only available action without asking the player.
+     * As in {@link TrajectoryRecorder}, actions are looked up in the list of actions the Game computed for the player.
+     */
+    static class ReplayPlayer extends AbstractPlayer {
+        final Trajectory trajectory;
+        final int[] position;
+        Game game;
+
+        ReplayPlayer(Trajectory trajectory, int[] position, ActionSpace actionSpace) {
+            this.trajectory = trajectory;
+            this.position = position;
+            this.parameters.actionSpace = actionSpace;
+        }
+
+        @Override
+        public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> possibleActions) {
+            return nextAction();
+        }
+
+        @Override
+        public void registerUpdatedObservation(AbstractGameState gameState) {
+            // Only called by the Game when a single action was available; this was recorded as well
+            nextAction();
+        }
+
+        private AbstractAction nextAction() {
+            int i = position[0]++;
+            if (i >= trajectory.actions.length)
+                throw new AssertionError("Trajectory diverged: game not over after " + i + " actions");
+            AbstractGameState state = game.getGameState();
+            List<AbstractAction> available = game.getAvailableActions();
+            int index = trajectory.actions[i];
+            short fingerprint = trajectory.fingerprints[i];
+            if (index < available.size() && fingerprint(available.get(index), state) == fingerprint)
+                return available.get(index);
+            // Actions may be listed in a different order, look for the one recorded
+            for (AbstractAction action : available) {
+                if (fingerprint(action, state) == fingerprint) return action;
+            }
+            // Fingerprint not found, e.g. actions with no fixed description; these can only be matched by index
+            if (index >= available.size())
+                throw new AssertionError("Trajectory diverged at action " + i + ": index " + index
+                        + " but only " + available.size() + " actions available");
+            return available.get(index);
+        }
+
+        @Override
+        public AbstractPlayer copy() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Replay";
+        }
+    }
+
+    final FileChannel channel;
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    Trajectory next;
+
+    public TrajectoryReplayer(String fileName) {
+        try {
+            channel = FileChannel.open(Paths.get(fileName), READ);
+            buffer.flip();
+            next = read();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read trajectories from " + fileName, e);
+        }
+    }
+
+    /**
+     * Replays the trajectory given.
+     *
+     * @param trajectory - trajectory to replay
+     * @param listeners  - listeners to attach to the game, may be empty
+     * @return the game, in its final state
+     */
+    public static Game replay(Trajectory trajectory, List<IGameListener> listeners) {
+        Game game = trajectory.createGame();
+        int[] position = new int[1];
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < trajectory.nPlayers; p++) {
+            ReplayPlayer player = new ReplayPlayer(trajectory, position, trajectory.actionSpaces[p]);
+            player.game = game;
+            players.add(player);
+        }
+        Set<String> names = Collections.singleton("Replay");
+        for (IGameListener listener : listeners) {
+            listener.init(game, trajectory.nPlayers, names);
+            game.addListener(listener);
+        }
+        game.reset(players);
+        game.run();
+        if (position[0] != trajectory.actions.length)
+            throw new AssertionError("Trajectory diverged: game over after " + position[0] + " of " + trajectory.actions.length + " actions");
+        return game;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Trajectory next() {
+        if (next == null) throw new NoSuchElementException();
+        Trajectory retValue = next;
+        try {
+            next = read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return retValue;
+    }
+
+    private Trajectory read() throws IOException {
+        if (!fill(1)) return null;
+        require(5);
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("Not a trajectory file");
+        byte version = buffer.get();
+        if (version != VERSION)
+            throw new IOException("Unsupported trajectory format version " + version);
+        GameType gameType = GameType.valueOf(getString());
+        require(12);
+        int nPlayers = buffer.getInt();
+        long seed = buffer.getLong();
+        ActionSpace[] actionSpaces = new ActionSpace[nPlayers];
+        for (int p = 0; p < nPlayers; p++) {
+            require(3);
+            actionSpaces[p] = new ActionSpace(ActionSpace.Structure.values()[buffer.get()],
+                    ActionSpace.Flexibility.values()[buffer.get()],
+                    ActionSpace.Context.values()[buffer.get()]);
+        }
+        require(4);
+        int nParams = buffer.getInt();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < nParams; i++) {
+            String name = getString();
+            require(9);
+            byte type = buffer.get();
+            switch (type) {
+                case INT:
+                    parameters.put(name, buffer.getInt());
+                    break;
+                case LONG:
+                    parameters.put(name, buffer.getLong());
+                    break;
+                case DOUBLE:
+                    parameters.put(name, buffer.getDouble());
+                    break;
+                case BOOLEAN:
+                    parameters.put(name, buffer.get() != 0);
+                    break;
+                case STRING:
+                case ENUM:
+                    // Enum values are matched by name when set
+                    parameters.put(name, getString());
+                    break;
+                default:
+                    throw new IOException("Unknown parameter type " + type + " for " + name);
+            }
+        }
+        require(4);
+        int[] actions = new int[buffer.getInt()];
+        short[] fingerprints = new short[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            actions[i] = getVarInt();
+            require(2);
+            fingerprints[i] = buffer.getShort();
+        }
+        return new Trajectory(gameType, nPlayers, seed, actionSpaces, parameters, actions, fingerprints);
+    }
+
+    private String getString() throws IOException {
+        require(2);
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        require(bytes.length);
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int getVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            require(1);
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes)) throw new EOFException("Truncated trajectory file");
+    }
+
+    /**
+     * Reads more of the file into the buffer until at least the given number of bytes are available.
+     *
+     * @return false if the end of the file was reached first
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return true;
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replays all games in a trajectory file, and prints the final results.
+     *
+     * @param args - file name
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: TrajectoryReplayer <file>");
+            return;
+        }
+        try (TrajectoryReplayer replayer = new TrajectoryReplayer(args[0])) {
+            while (replayer.hasNext()) {
+                Trajectory t = replayer.next();
+                Game game = replay(t, Collections.emptyList());
+                System.out.printf("%s (%d players, seed %d): %d actions, results %s%n", t.gameType, t.nPlayers, t.seed,
+                        t.actions.length, Arrays.toString(game.getGameState().getPlayerResults()));
+            }
+        }
+    }
+}
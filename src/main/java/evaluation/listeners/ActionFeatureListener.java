@@ -51,13 +51,13 @@ public class ActionFeatureListener extends FeatureListener {
     @Override
     public double[] extractFeatureVector(AbstractAction action, AbstractGameState state, int perspectivePlayer) {
         // We put phi in first, and then psi
-        double[] retValue = new double[psiFn.names().length + phiFn.names().length];
-        double[] phi = cachedPhi == null ?
-                phiFn != null ? phiFn.featureVector(state, perspectivePlayer) : new double[0]
-                : cachedPhi;
-        System.arraycopy(phi, 0, retValue, 0, phi.length);
-        double[] psi = psiFn.featureVector(action, state, perspectivePlayer);
-        System.arraycopy(psi, 0, retValue, phi.length, psi.length);
+        int phiLength = phiFn != null ? phiFn.size() : 0;
+        double[] retValue = new double[phiLength + psiFn.size()];
+        if (cachedPhi != null)
+            System.arraycopy(cachedPhi, 0, retValue, 0, phiLength);
+        else if (phiFn != null)
+            phiFn.featureVector(state, perspectivePlayer, retValue, 0);
+        psiFn.featureVector(action, state, perspectivePlayer, retValue, phiLength);
         return retValue;
     }
 
@@ -85,6 +85,8 @@ public class ActionFeatureListener extends FeatureListener {
         double[] phi = extractFeatureVector(action, state, p);
         currentData.add(new StateFeatureListener.LocalDataWrapper(p, phi, state, getActionScore(action)));  // chosen
         if (includeActionsNotTaken) {
+            // the state features are the same for all the alternatives (phi starts the record)
+            cachedPhi = phi;
             for (AbstractAction alternativeAction : availableActions) {
                 if (alternativeAction.equals(action)) continue;
                 phi = extractFeatureVector(alternativeAction, state, p);
@@ -2,7 +2,9 @@ package evaluation.listeners;
 
 import core.*;
 import core.actions.AbstractAction;
+import core.interfaces.IGameEvent;
 import core.interfaces.IStatisticLogger;
+import evaluation.loggers.BinaryDataLogger;
 import evaluation.metrics.Event;
 
 import java.util.*;
@@ -20,6 +22,8 @@ public abstract class FeatureListener implements IGameListener {
     Event.GameEvent frequency;
     boolean currentPlayerOnly;
     IStatisticLogger logger;
+    // column names, when writing records as arrays
+    String[] header;
     Game game;
 
     protected FeatureListener(Event.GameEvent frequency, boolean currentPlayerOnly) {
@@ -27,6 +31,16 @@ public abstract class FeatureListener implements IGameListener {
         this.frequency = frequency;
     }
 
+    @Override
+    public Set<IGameEvent> getEventTypes() {
+        return new HashSet<>(Arrays.asList(frequency, Event.GameEvent.GAME_OVER));
+    }
+
+    @Override
+    public boolean listensTo(IGameEvent type) {
+        return type == frequency || type == Event.GameEvent.GAME_OVER;
+    }
+
     public void setLogger(IStatisticLogger logger) {
         this.logger = logger;
     }
@@ -49,6 +63,10 @@ public abstract class FeatureListener implements IGameListener {
     }
 
 
+    // the columns written for each record, either side of the features (also read by AbstractLearner)
+    public static final String[] leadingColumns = {"GameID", "Player", "Round", "Turn", "CurrentScore"};
+    public static final String[] trailingColumns = {"PlayerCount", "TotalRounds", "ActionScore", "Win", "Ordinal", "FinalScore"};
+
     protected void writeDataWithStandardHeaders(AbstractGameState state) {
         int totP = state.getNPlayers();
         double[] finalScores = IntStream.range(0, totP).mapToDouble(state::getGameScore).toArray();
@@ -64,30 +82,55 @@ public abstract class FeatureListener implements IGameListener {
         }).toArray();
         double[] ordinal = IntStream.range(0, totP).mapToDouble(state::getOrdinalPosition).toArray();
         double finalRound = state.getRoundCounter();
+        String[] columns = header();
+        double[] row = new double[columns.length];
         for (StateFeatureListener.LocalDataWrapper record : currentData) {
-            // we use a LinkedHashMap so that the order of the keys is preserved, and hence the
-            // data is written to file in a sensible order for human viewing
-            Map<String, Double> data = new LinkedHashMap<>();
-            data.put("GameID", (double) state.getGameID());
-            data.put("Player", (double) record.player);
-            data.put("Round", (double) record.gameRound);
-            data.put("Turn", (double) record.gameTurn);
-            data.put("CurrentScore", record.currentScore);
-            for (int i = 0; i < record.array.length; i++) {
-                data.put(names()[i], record.array[i]);
+            int i = 0;
+            row[i++] = state.getGameID();
+            row[i++] = record.player;
+            row[i++] = record.gameRound;
+            row[i++] = record.gameTurn;
+            row[i++] = record.currentScore;
+            System.arraycopy(record.array, 0, row, i, record.array.length);
+            i += record.array.length;
+            row[i++] = getGame().getPlayers().size();
+            row[i++] = finalRound;
+            row[i++] = record.actionScore;
+            row[i++] = winLoss[record.player];
+            row[i++] = ordinal[record.player];
+            row[i] = finalScores[record.player];
+            if (logger instanceof BinaryDataLogger) {
+                // passed as an array, to avoid building a map of boxed values for each record
+                ((BinaryDataLogger) logger).record(columns, row);
+            } else {
+                // we use a LinkedHashMap so that the order of the keys is preserved, and hence the
+                // data is written to file in a sensible order for human viewing
+                Map<String, Double> data = new LinkedHashMap<>();
+                for (int c = 0; c < columns.length; c++) {
+                    data.put(columns[c], row[c]);
+                }
+                logger.record(data);
             }
-            data.put("PlayerCount", (double) getGame().getPlayers().size());
-            data.put("TotalRounds", finalRound);
-            data.put("ActionScore", record.actionScore);
-            data.put("Win", winLoss[record.player]);
-            data.put("Ordinal", ordinal[record.player]);
-            data.put("FinalScore", finalScores[record.player]);
-            logger.record(data);
         }
         logger.processDataAndNotFinish();
         currentData = new ArrayList<>();
     }
 
+    /**
+     * @return the names of the columns written for each record: the leading columns, the features, and then the
+     * trailing columns
+     */
+    private String[] header() {
+        String[] features = names();
+        if (header == null || header.length != leadingColumns.length + features.length + trailingColumns.length) {
+            header = new String[leadingColumns.length + features.length + trailingColumns.length];
+            System.arraycopy(leadingColumns, 0, header, 0, leadingColumns.length);
+            System.arraycopy(features, 0, header, leadingColumns.length, features.length);
+            System.arraycopy(trailingColumns, 0, header, leadingColumns.length + features.length, trailingColumns.length);
+        }
+        return header;
+    }
+
     @Override
     public void report() {
         logger.processDataAndFinish();
@@ -107,6 +150,16 @@ public abstract class FeatureListener implements IGameListener {
 
     public abstract double[] extractFeatureVector(AbstractAction action, AbstractGameState state, int perspectivePlayer);
 
+    /**
+     * The feature vector for every player, into buffer[player]. Subclasses can override this to share the work
+     * that is the same for all players.
+     */
+    protected void extractFeatureVectors(AbstractAction action, AbstractGameState state, double[][] buffer) {
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            buffer[p] = extractFeatureVector(action, state, p);
+        }
+    }
+
 
     /**
      * this takes in the raw JSON string of an agent definition, and applies appropriate
@@ -126,9 +179,11 @@ public abstract class FeatureListener implements IGameListener {
             double[] phi = extractFeatureVector(action, state, p);
             currentData.add(new StateFeatureListener.LocalDataWrapper(p, phi, state, 0.0));
         } else {
+            // the rows are kept until the end of the game, so we need new ones each time
+            double[][] phi = new double[state.getNPlayers()][names().length];
+            extractFeatureVectors(action, state, phi);
             for (int p = 0; p < state.getNPlayers(); p++) {
-                double[] phi = extractFeatureVector(action, state, p);
-                currentData.add(new StateFeatureListener.LocalDataWrapper(p, phi, state, 0.0));
+                currentData.add(new StateFeatureListener.LocalDataWrapper(p, phi[p], state, 0.0));
             }
         }
     }
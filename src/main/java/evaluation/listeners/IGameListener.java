@@ -1,6 +1,7 @@
 package evaluation.listeners;
 
 import core.Game;
+import core.interfaces.IGameEvent;
 import evaluation.metrics.AbstractMetric;
 import evaluation.metrics.Event;
 import evaluation.metrics.GameMetrics;
@@ -24,6 +25,37 @@ public interface IGameListener {
      */
     void onEvent(Event event);
 
+    /**
+     * Declares the types of event this listener is interested in. The Game only creates events of a type if there is
+     * a listener for it, and only passes each listener the events it asked for. Subscriptions are read when the
+     * listener is added to the game, and should not change after that.
+     *
+     * @return event types to listen to, or null to be told about all events (the default)
+     */
+    default Set<IGameEvent> getEventTypes() {
+        return null;
+    }
+
+    /**
+     * @param type - type of event
+     * @return true if this listener should be told about events of the given type
+     */
+    default boolean listensTo(IGameEvent type) {
+        Set<IGameEvent> eventTypes = getEventTypes();
+        return eventTypes == null || eventTypes.contains(type);
+    }
+
+    /**
+     * ACTION_TAKEN events are given a copy of the action applied by default, so listeners can keep it without the
+     * risk of it changing later on. Listeners that only use the action while processing the event can return false
+     * here, to avoid the copy.
+     *
+     * @return true if ACTION_TAKEN events need a copy of the action
+     */
+    default boolean requiresActionCopy() {
+        return true;
+    }
+
 
     /**
      * This is called when all processing is finished, for example after running a sequence of games
@@ -59,6 +91,8 @@ public interface IGameListener {
         if (listenerDetails.exists()) {
             // in this case we construct from file
             listener = JSONUtils.loadClassFromFile(listenerClass);
+            if (listener instanceof MetricsGameListener)
+                ((MetricsGameListener) listener).setSampling(JSONUtils.loadJSONFile(listenerClass));
         } else {
             // In this case we first check if we have a Metrics class
             // And if we do, we extract all the metrics from the class
@@ -6,10 +6,15 @@ import evaluation.metrics.AbstractMetric;
 import evaluation.metrics.Event;
 import evaluation.metrics.IDataLogger;
 import evaluation.metrics.IMetricsCollection;
+import evaluation.metrics.MetricSampling;
 import evaluation.metrics.tablessaw.DataTableSaw;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 import utilities.Utils;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.*;
 
 import static evaluation.metrics.Event.GameEvent.*;
@@ -61,13 +66,69 @@ public class MetricsGameListener implements IGameListener {
         this.reportTypes = Arrays.asList(dataTypes);
         this.metrics = new LinkedHashMap<>();
         for (AbstractMetric m : metrics) {
-            m.setDataLogger(new DataTableSaw(m)); //todo this logger needs to be read from JSON
+            m.setDataLogger(createDataLogger(m)); //todo this logger needs to be read from JSON
             this.metrics.put(m.getName(), m);
             eventsOfInterest.addAll(m.getEventTypes());
         }
         eventsOfInterest.add(Event.GameEvent.GAME_OVER);
     }
 
+    /**
+     * Creates the data logger for a metric. Called from the constructor, after the report types have been set.
+     */
+    protected IDataLogger createDataLogger(AbstractMetric metric) {
+        return new DataTableSaw(metric);
+    }
+
+    /**
+     * Sets the sampling of metrics from the JSON definition of this listener (see {@link MetricSampling}). A
+     * "sampling" object on a metric applies to that metric; one on the listener applies to all metrics without their own.
+     * In the same way, "timed": true records the time spent running metrics, which is then reported with their costs.
+     *
+     * @param json - JSON this listener was created from
+     */
+    public void setSampling(JSONObject json) {
+        if (json.containsKey("sampling")) {
+            MetricSampling all = MetricSampling.fromJSON((JSONObject) json.get("sampling"));
+            for (AbstractMetric metric : metrics.values()) {
+                metric.setSampling(all.copy());
+            }
+        }
+        if (Boolean.TRUE.equals(json.get("timed"))) {
+            for (AbstractMetric metric : metrics.values()) {
+                metric.setTimed(true);
+            }
+        }
+        Object args = json.get("args");
+        if (!(args instanceof JSONArray)) return;
+        for (Object arg : (JSONArray) args) {
+            if (!(arg instanceof JSONArray)) continue;
+            for (Object o : (JSONArray) arg) {
+                if (!(o instanceof JSONObject)) continue;
+                JSONObject metricJSON = (JSONObject) o;
+                String className = (String) metricJSON.get("class");
+                String name = className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+                AbstractMetric metric = metrics.get(name);
+                if (metric == null) continue;
+                if (metricJSON.containsKey("sampling"))
+                    metric.setSampling(MetricSampling.fromJSON((JSONObject) metricJSON.get("sampling")));
+                if (Boolean.TRUE.equals(metricJSON.get("timed")))
+                    metric.setTimed(true);
+            }
+        }
+    }
+
+    @Override
+    public Set<IGameEvent> getEventTypes() {
+        return eventsOfInterest;
+    }
+
+    @Override
+    public boolean requiresActionCopy() {
+        // metrics take what they need from the event when it happens
+        return false;
+    }
+
     /**
      * Manages all events.
      *
@@ -140,12 +201,50 @@ public class MetricsGameListener implements IGameListener {
                             eventMetrics.add(metric);
                         }
                     }
-                    if (eventMetrics.size() > 1) {
+                    if (eventMetrics.size() > 1 && !(eventMetrics.get(0).getDataLogger() instanceof DataTableSaw)) {
+                        System.out.println("Raw data per event needs the rows of all metrics; not available for " + event);
+                    } else if (eventMetrics.size() > 1) {
                         IDataLogger dataLogger = new DataTableSaw(eventMetrics, event, eventToIndexingColumn(event));
                         dataLogger.getDefaultProcessor().processRawDataToFile(dataLogger, destDir);
                     }
                 }
             }
+
+            reportCosts();
+        }
+    }
+
+    /**
+     * Reports the time spent running each timed metric, per event type, with the number of events it was run on.
+     */
+    protected void reportCosts() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Metric", "Event", "Events", "Run", "Total ms", "Mean us per run"});
+        for (AbstractMetric metric : metrics.values()) {
+            if (!metric.isTimed()) continue;
+            for (Map.Entry<IGameEvent, long[]> e : metric.getCosts().entrySet()) {
+                long[] cost = e.getValue();
+                rows.add(new String[]{metric.getName(), e.getKey().name(), String.valueOf(cost[0]), String.valueOf(cost[1]),
+                        String.format("%.3f", cost[2] / 1e6), String.format("%.2f", cost[1] == 0 ? 0.0 : cost[2] / 1e3 / cost[1])});
+            }
+        }
+        if (rows.size() == 1) return;
+
+        if (reportDestinations.contains(ToFile) || reportDestinations.contains(ToBoth)) {
+            try (FileWriter writer = new FileWriter(destDir + "MetricCosts.csv")) {
+                for (String[] row : rows) {
+                    writer.write(String.join(",", row) + "\n");
+                }
+            } catch (IOException e) {
+                System.out.println("Unable to write metric costs to " + destDir + ": " + e.getMessage());
+            }
+        }
+        if (reportDestinations.contains(ToConsole) || reportDestinations.contains(ToBoth)) {
+            System.out.println();
+            System.out.println("Metric costs (" + (AbstractMetric.isCostCPUTime() ? "CPU" : "wall") + " time)");
+            for (String[] row : rows) {
+                System.out.printf("%-30s %-15s %10s %10s %12s %16s%n", (Object[]) row);
+            }
         }
     }
 
@@ -0,0 +1,181 @@
+package evaluation.listeners;
+
+import core.Game;
+import core.interfaces.IGameEvent;
+import core.interfaces.IGamePhase;
+import evaluation.metrics.Event;
+import games.GameType;
+import utilities.LatencyHistogram;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Collects latency histograms (see {@link LatencyHistogram}) of the work the {@link Game} times for each action, to
+ * show which mechanics of a game are worth optimising:
+ * <ul>
+ *     <li>COPY - copying the game state into the player's observation</li>
+ *     <li>ACTIONS - computing the actions available to the player</li>
+ *     <li>AGENT - the player's decision (only when it had more than one action to choose from)</li>
+ *     <li>NEXT - applying the action chosen with the forward model</li>
+ * </ul>
+ * Each is broken down by the phase of the game the action was taken in; NEXT and AGENT also by the class of the
+ * action chosen. Times are in nanoseconds, and are kept separately for each game type played.
+ * <p>
+ * In {@link #report()}, a CSV file is written for each game type, with one row per histogram.
+ */
+public class ProfilingListener implements IGameListener {
+
+    public enum Measure {
+        COPY, ACTIONS, AGENT, NEXT
+    }
+
+    static final Set<IGameEvent> EVENT_TYPES = new HashSet<>(Arrays.asList(
+            Event.GameEvent.ABOUT_TO_START, Event.GameEvent.ACTION_CHOSEN, Event.GameEvent.ACTION_TAKEN));
+
+    /**
+     * Histograms for one game type.
+     */
+    public static class Profile {
+        final Map<Measure, LatencyHistogram> total = new EnumMap<>(Measure.class);
+        final Map<Measure, Map<String, LatencyHistogram>> byPhase = new EnumMap<>(Measure.class);
+        final Map<Measure, Map<String, LatencyHistogram>> byAction = new EnumMap<>(Measure.class);
+
+        Profile() {
+            for (Measure m : Measure.values()) {
+                total.put(m, new LatencyHistogram());
+                byPhase.put(m, new TreeMap<>());
+                byAction.put(m, new TreeMap<>());
+            }
+        }
+
+        void record(Measure measure, String phase, String action, long nanos) {
+            total.get(measure).record(nanos);
+            byPhase.get(measure).computeIfAbsent(phase, k -> new LatencyHistogram()).record(nanos);
+            if (action != null)
+                byAction.get(measure).computeIfAbsent(action, k -> new LatencyHistogram()).record(nanos);
+        }
+
+        public LatencyHistogram getTotal(Measure measure) {
+            return total.get(measure);
+        }
+
+        /**
+         * @return histograms of the measure by game phase (the name of the phase, or "None")
+         */
+        public Map<String, LatencyHistogram> getByPhase(Measure measure) {
+            return Collections.unmodifiableMap(byPhase.get(measure));
+        }
+
+        /**
+         * @return histograms of the measure by the simple class name of the action chosen (empty for COPY and ACTIONS)
+         */
+        public Map<String, LatencyHistogram> getByAction(Measure measure) {
+            return Collections.unmodifiableMap(byAction.get(measure));
+        }
+    }
+
+    String destDir = "metrics/out/";
+    Game game;
+    final Map<GameType, Profile> profiles = new EnumMap<>(GameType.class);
+
+    // Profile of the game in progress, and what is known of the action being taken
+    Profile profile;
+    String phase, action;
+    double lastAgentTime;
+    int lastDecisions;
+
+    @Override
+    public Set<IGameEvent> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
+    @Override
+    public boolean requiresActionCopy() {
+        return false;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        if (event.type == Event.GameEvent.ABOUT_TO_START) {
+            profile = profiles.computeIfAbsent(game.getGameType(), k -> new Profile());
+            lastAgentTime = 0;
+            lastDecisions = 0;
+        } else if (event.type == Event.GameEvent.ACTION_CHOSEN) {
+            // The state is still the one the action was chosen in
+            IGamePhase gamePhase = event.state.getGamePhase();
+            phase = gamePhase == null ? "None" : gamePhase.toString();
+            action = event.action == null ? "None" : event.action.getClass().getSimpleName();
+            profile.record(Measure.COPY, phase, null, (long) game.getCopyTime());
+            profile.record(Measure.ACTIONS, phase, null, (long) game.getActionComputeTime());
+            // The Game keeps a running total of agent time, and does not ask the agent if it has only one option
+            if (game.getNDecisions() > lastDecisions) {
+                profile.record(Measure.AGENT, phase, action, (long) (game.getAgentTime() - lastAgentTime));
+                lastAgentTime = game.getAgentTime();
+                lastDecisions = game.getNDecisions();
+            }
+        } else if (event.type == Event.GameEvent.ACTION_TAKEN && phase != null) {
+            profile.record(Measure.NEXT, phase, action, (long) game.getNextTime());
+            phase = null;
+        }
+    }
+
+    /**
+     * @return histograms collected for the game type, or null if it has not been played
+     */
+    public Profile getProfile(GameType gameType) {
+        return profiles.get(gameType);
+    }
+
+    @Override
+    public void report() {
+        File folder = new File(destDir);
+        if (!folder.exists() && !folder.mkdirs())
+            throw new AssertionError("Unable to create output directory " + folder.getAbsolutePath());
+        for (Map.Entry<GameType, Profile> e : profiles.entrySet()) {
+            File file = new File(folder, e.getKey().name() + "_Profile.csv");
+            try (FileWriter writer = new FileWriter(file)) {
+                writer.write("Measure,Breakdown,Key,Count,Mean (us),Min (us),Median (us),P90 (us),P99 (us),Max (us),Total (ms)\n");
+                Profile p = e.getValue();
+                for (Measure m : Measure.values()) {
+                    writeRow(writer, m, "All", "All", p.total.get(m));
+                    for (Map.Entry<String, LatencyHistogram> h : p.byPhase.get(m).entrySet())
+                        writeRow(writer, m, "Phase", h.getKey(), h.getValue());
+                    for (Map.Entry<String, LatencyHistogram> h : p.byAction.get(m).entrySet())
+                        writeRow(writer, m, "Action", h.getKey(), h.getValue());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to write profile to " + file.getAbsolutePath(), ex);
+            }
+        }
+    }
+
+    private static void writeRow(FileWriter writer, Measure measure, String breakdown, String key,
+                                 LatencyHistogram h) throws IOException {
+        writer.write(String.format(Locale.ROOT, "%s,%s,%s,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.3f%n",
+                measure, breakdown, key.replace(',', ';'), h.getCount(), h.getMean() / 1e3, h.getMin() / 1e3,
+                h.getValueAtPercentile(50) / 1e3, h.getValueAtPercentile(90) / 1e3,
+                h.getValueAtPercentile(99) / 1e3, h.getMax() / 1e3, h.getTotal() / 1e6));
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        String folder = Utils.createDirectory(nestedDirectories);
+        destDir = new File(folder).getAbsolutePath() + File.separator;
+        return true;
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+}
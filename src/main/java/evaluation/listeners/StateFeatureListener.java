@@ -32,6 +32,11 @@ public class StateFeatureListener extends FeatureListener {
         return phiFn.featureVector(state, perspectivePlayer);
     }
 
+    @Override
+    protected void extractFeatureVectors(AbstractAction action, AbstractGameState state, double[][] buffer) {
+        phiFn.featureVectors(state, buffer);
+    }
+
     @Override
     public String injectAgentAttributes(String raw) {
         return raw.replaceAll(Pattern.quote("*PHI*"), phiFn.getClass().getCanonicalName());
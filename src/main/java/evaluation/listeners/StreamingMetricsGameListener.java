@@ -0,0 +1,36 @@
+package evaluation.listeners;
+
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.streaming.StreamingDataLogger;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.ToConsole;
+import static evaluation.metrics.IDataLogger.ReportType.*;
+
+/**
+ * Metrics listener for long runs (e.g. large tournaments), which summarises the data of each metric as it arrives
+ * rather than keeping it all in memory, see {@link StreamingDataLogger}. Plots are not available.
+ * <p>
+ * If raw data is one of the report types, the rows of each metric are also written to a temporary file as games are
+ * played, and copied to the output directory when reporting.
+ */
+public class StreamingMetricsGameListener extends MetricsGameListener {
+
+    public StreamingMetricsGameListener(AbstractMetric[] metrics) {
+        this(ToConsole, metrics);
+    }
+
+    public StreamingMetricsGameListener(IDataLogger.ReportDestination logTo, AbstractMetric[] metrics) {
+        this(logTo, new IDataLogger.ReportType[]{Summary}, metrics);
+    }
+
+    public StreamingMetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics) {
+        super(logTo, dataTypes, metrics);
+    }
+
+    @Override
+    protected IDataLogger createDataLogger(AbstractMetric metric) {
+        boolean spill = reportTypes.contains(RawData);
+        return new StreamingDataLogger(metric, spill, null);
+    }
+}
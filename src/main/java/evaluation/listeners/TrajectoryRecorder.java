@@ -0,0 +1,295 @@
+package evaluation.listeners;
+
+import core.AbstractGameState;
+import core.AbstractParameters;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import core.interfaces.IGameEvent;
+import evaluation.TrajectoryReplayer;
+import evaluation.metrics.Event;
+import evaluation.optimisation.TunableParameters;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Records every game played to a compact binary file, from which the games can be rebuilt exactly with
+ * {@link TrajectoryReplayer}. Instead of states or actions, only what is needed to reproduce the game is stored:
+ * the game type, number of players, random seed, game parameters, the action space used by each player, and for each
+ * decision the index of the action chosen in the list of actions the Game computed for the player (on its
+ * observation), with a fingerprint to find the action if its observation lists the actions in another order on replay.
+ * <p>
+ * Each game is written as one record once it is over. Games that do not finish are not recorded, nor are games in
+ * which a player chose an action that is not in the list the Game computed (these are counted by
+ * {@link #getSkippedGames()}):
+ * <ul>
+ *     <li>int magic number, byte format version</li>
+ *     <li>string game type, int number of players, long random seed</li>
+ *     <li>for each player: bytes for action space structure, flexibility and context</li>
+ *     <li>int number of parameters, then for each: string name, byte type, value (only for TunableParameters)</li>
+ *     <li>int number of actions, then for each: the index of the action as a variable-length int (7 bits per byte),
+ *     and a short fingerprint of the action</li>
+ * </ul>
+ * Strings are written as a short length followed by UTF-8 bytes. Records are buffered and written through a single
+ * file channel, which is closed in {@link #report()}. The file is emptied when first opened; if the recorder is used
+ * again after a report, later games are added to the end of it.
+ */
+public class TrajectoryRecorder implements IGameListener {
+
+    public static final int MAGIC = 0x54414754;  // "TAGT"
+    public static final byte VERSION = 2;
+
+    static final Set<IGameEvent> EVENT_TYPES = new HashSet<>(Arrays.asList(
+            Event.GameEvent.ABOUT_TO_START, Event.GameEvent.ACTION_CHOSEN, Event.GameEvent.GAME_OVER));
+
+    // Parameter value types
+    public static final byte INT = 0, LONG = 1, DOUBLE = 2, BOOLEAN = 3, STRING = 4, ENUM = 5;
+
+    String fileName;
+    String destDir = "metrics/out/";
+    Game game;
+
+    FileChannel channel;
+    boolean opened;
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+    // Seed and parameters of the game in progress
+    long seed;
+    Map<String, Object> parameters;
+    // Actions chosen in the game in progress
+    int[] actions = new int[256];
+    short[] fingerprints = new short[256];
+    int nActions;
+    boolean valid;
+    // Games not recorded because a chosen action was not in the available actions
+    int skippedGames;
+
+    public TrajectoryRecorder() {
+        this("trajectories.bin");
+    }
+
+    public TrajectoryRecorder(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    public Set<IGameEvent> getEventTypes() {
+        return EVENT_TYPES;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        if (event.type == Event.GameEvent.ABOUT_TO_START) {
+            // Seed and parameters are taken now, as some games change their parameters during the game
+            seed = game.getRandomSeed();
+            parameters = parameterValues(event.state.getGameParameters());
+            nActions = 0;
+            valid = true;
+        } else if (event.type == Event.GameEvent.ACTION_CHOSEN && valid) {
+            int index = game.getAvailableActions().indexOf(event.action);
+            if (index < 0) {
+                valid = false;
+                skippedGames++;
+                return;
+            }
+            if (nActions == actions.length) {
+                actions = Arrays.copyOf(actions, nActions * 2);
+                fingerprints = Arrays.copyOf(fingerprints, nActions * 2);
+            }
+            actions[nActions] = index;
+            fingerprints[nActions++] = fingerprint(event.action, event.state);
+        } else if (event.type == Event.GameEvent.GAME_OVER) {
+            if (valid) writeGame(event.state);
+            nActions = 0;
+            valid = false;
+        }
+    }
+
+    private void writeGame(AbstractGameState state) {
+        List<AbstractPlayer> players = game.getPlayers();
+
+        ensure(5);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        putString(game.getGameType().name());
+        ensure(12 + 3 * state.getNPlayers());
+        buffer.putInt(state.getNPlayers());
+        buffer.putLong(seed);
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            ActionSpace actionSpace = players.get(p).getParameters().actionSpace;
+            buffer.put((byte) actionSpace.structure.ordinal());
+            buffer.put((byte) actionSpace.flexibility.ordinal());
+            buffer.put((byte) actionSpace.context.ordinal());
+        }
+        writeParameters();
+        ensure(4);
+        buffer.putInt(nActions);
+        for (int i = 0; i < nActions; i++) {
+            putVarInt(actions[i]);
+            ensure(2);
+            buffer.putShort(fingerprints[i]);
+        }
+    }
+
+    /**
+     * Short hash of the action description, used on replay to find the action again if the available actions are
+     * not listed in the same order (e.g. where the order depends on component IDs, which differ between games).
+     */
+    public static short fingerprint(AbstractAction action, AbstractGameState state) {
+        int h = action.getString(state).hashCode();
+        return (short) (h ^ (h >>> 16));
+    }
+
+    /**
+     * Takes the values of the game parameters to record. Only TunableParameters can be recorded, and of these only
+     * values of simple types (nested parameters are also listed individually by name).
+     */
+    private static Map<String, Object> parameterValues(AbstractParameters params) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (params instanceof TunableParameters) {
+            TunableParameters tunable = (TunableParameters) params;
+            for (String name : tunable.getParameterNames()) {
+                Object value = tunable.getParameterValue(name);
+                if (typeOf(value) >= 0) values.put(name, value);
+            }
+        }
+        return values;
+    }
+
+    private void writeParameters() {
+        ensure(4);
+        buffer.putInt(parameters.size());
+        for (Map.Entry<String, Object> e : parameters.entrySet()) {
+            Object value = e.getValue();
+            byte type = typeOf(value);
+            putString(e.getKey());
+            ensure(9);
+            buffer.put(type);
+            switch (type) {
+                case INT:
+                    buffer.putInt((Integer) value);
+                    break;
+                case LONG:
+                    buffer.putLong((Long) value);
+                    break;
+                case DOUBLE:
+                    buffer.putDouble((Double) value);
+                    break;
+                case BOOLEAN:
+                    buffer.put((byte) ((Boolean) value ? 1 : 0));
+                    break;
+                case STRING:
+                    putString((String) value);
+                    break;
+                case ENUM:
+                    putString(value.toString());
+                    break;
+            }
+        }
+    }
+
+    private static byte typeOf(Object value) {
+        if (value instanceof Integer) return INT;
+        if (value instanceof Long) return LONG;
+        if (value instanceof Double) return DOUBLE;
+        if (value instanceof Boolean) return BOOLEAN;
+        if (value instanceof String) return STRING;
+        if (value instanceof Enum) return ENUM;
+        return -1;
+    }
+
+    private void putString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ensure(2 + bytes.length);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void putVarInt(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Makes sure there is space for the given number of bytes in the buffer, writing it out to file if not.
+     */
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() {
+        try {
+            if (channel == null) {
+                File folder = new File(destDir);
+                if (!folder.exists() && !folder.mkdirs())
+                    throw new AssertionError("Unable to create output directory " + folder.getAbsolutePath());
+                // Only the first open starts a new file, so games recorded before a report are kept
+                channel = opened ? FileChannel.open(Paths.get(destDir, fileName), CREATE, WRITE, APPEND)
+                        : FileChannel.open(Paths.get(destDir, fileName), CREATE, WRITE, TRUNCATE_EXISTING);
+                opened = true;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write trajectories to " + fileName, e);
+        }
+    }
+
+    @Override
+    public void report() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        channel = null;
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        String folder = Utils.createDirectory(nestedDirectories);
+        destDir = new File(folder).getAbsolutePath() + File.separator;
+        opened = false;
+        return true;
+    }
+
+    public String getFileName() {
+        return Paths.get(destDir, fileName).toString();
+    }
+
+    /**
+     * @return the number of games not recorded because a player chose an action that was not in the available actions
+     */
+    public int getSkippedGames() {
+        return skippedGames;
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+}
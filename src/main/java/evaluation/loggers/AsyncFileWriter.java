@@ -0,0 +1,272 @@
+package evaluation.loggers;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Writes to a file from a background thread, so that the thread producing the data (usually the one running the
+ * game) never waits on the disk.
+ * <p>
+ * Text and blocks of bytes are put on a bounded queue (a ring buffer of {@code capacity} entries) for each writer. A
+ * single thread, shared by all writers, drains each queue in batches into a large buffer, and then to the file through
+ * a FileChannel; the buffer is written out whenever the queue is empty, so the thread only holds data while there is
+ * more to come. If a queue is full, write() blocks until there is space, so a producer that is faster than the disk is
+ * slowed down rather than using unbounded memory.
+ * <p>
+ * flush() and close() wait until everything written before them is in the file. Writers still open when the JVM shuts
+ * down are closed, so data is not lost if close() is never called; they are only weakly held until then, so a writer
+ * that is dropped without being closed can still be garbage collected. An error on the writer thread is reported by
+ * the next call to write(), flush() or close().
+ */
+public class AsyncFileWriter implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private static final ExecutorService writerThread = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "AsyncFileWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Set<AsyncFileWriter> openWriters = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            List<AsyncFileWriter> writers;
+            synchronized (openWriters) {
+                writers = new ArrayList<>(openWriters);
+            }
+            for (AsyncFileWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }));
+    }
+
+    // Put on the queue to find out when everything before it has been written
+    private static class Marker {
+        final CountDownLatch done = new CountDownLatch(1);
+        final boolean close;
+
+        Marker(boolean close) {
+            this.close = close;
+        }
+    }
+
+    private final String fileName;
+    private final boolean append;
+    private final ArrayBlockingQueue<Object> queue;
+    // true while a drain of the queue is waiting for, or running on, the writer thread
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    // Only used on the writer thread; the buffer is allocated when the file is opened
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final List<Object> batch = new ArrayList<>();
+
+    public AsyncFileWriter(String fileName, boolean append) {
+        this(fileName, append, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param fileName - file to write to; the directory is created if need be
+     * @param append   - if true, data is added to the end of an existing file, otherwise it is replaced
+     * @param capacity - the number of writes that can be queued before write() blocks
+     */
+    public AsyncFileWriter(String fileName, boolean append, int capacity) {
+        this.fileName = fileName;
+        this.append = append;
+        queue = new ArrayBlockingQueue<>(capacity);
+        openWriters.add(this);
+        // opens the file
+        schedule();
+    }
+
+    /**
+     * Queues text to be written (as UTF-8).
+     */
+    public void write(CharSequence text) {
+        put(text.toString());
+    }
+
+    /**
+     * Queues bytes to be written, from the buffer's position to its limit. The buffer belongs to this writer once
+     * passed in, and must not be changed afterwards.
+     */
+    public void write(ByteBuffer bytes) {
+        put(bytes);
+    }
+
+    /**
+     * Asks for everything queued so far to be written to the file, without waiting for this to happen.
+     */
+    public void flushAsync() {
+        put(new Marker(false));
+    }
+
+    /**
+     * Waits until everything queued so far has been written to the file.
+     */
+    public void flush() {
+        Marker marker = new Marker(false);
+        put(marker);
+        await(marker);
+        checkFailure();
+    }
+
+    /**
+     * Writes everything queued, and closes the file. Further calls have no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        Marker marker = new Marker(true);
+        put(marker);
+        closed = true;
+        await(marker);
+        openWriters.remove(this);
+        checkFailure();
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    private void put(Object item) {
+        if (closed)
+            throw new IllegalStateException("Writer for " + fileName + " has been closed");
+        checkFailure();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while writing to " + fileName, e);
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true))
+            writerThread.execute(this::drain);
+    }
+
+    private void await(Marker marker) {
+        try {
+            marker.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while writing to " + fileName, e);
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null)
+            throw new UncheckedIOException("Problem writing to file " + fileName, failure);
+    }
+
+    // Runs on the writer thread
+    private void open() {
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try {
+            File folder = new File(fileName).getAbsoluteFile().getParentFile();
+            if (folder != null && !folder.exists() && !folder.mkdirs())
+                throw new IOException("Unable to create directory " + folder);
+            channel = append ? FileChannel.open(Paths.get(fileName), CREATE, WRITE, APPEND)
+                    : FileChannel.open(Paths.get(fileName), CREATE, WRITE, TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // Runs on the writer thread: writes everything on the queue
+    private void drain() {
+        // anything queued from now on schedules another drain
+        scheduled.set(false);
+        if (buffer == null) open();
+        queue.drainTo(batch);
+        for (Object item : batch) {
+            try {
+                if (failure != null) {
+                    // nothing more can be written, but we keep going so that producers are not blocked
+                } else if (item instanceof String) {
+                    CharBuffer chars = CharBuffer.wrap((String) item);
+                    while (true) {
+                        CoderResult result = encoder.encode(chars, buffer, true);
+                        if (!result.isOverflow()) break;
+                        writeOut(channel, buffer);
+                    }
+                    encoder.reset();
+                } else if (item instanceof ByteBuffer) {
+                    ByteBuffer bytes = (ByteBuffer) item;
+                    if (bytes.remaining() > buffer.remaining()) {
+                        writeOut(channel, buffer);
+                        if (bytes.remaining() > buffer.remaining()) {
+                            while (bytes.hasRemaining())
+                                channel.write(bytes);
+                            continue;
+                        }
+                    }
+                    buffer.put(bytes);
+                } else {
+                    writeOut(channel, buffer);
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+            if (item instanceof Marker) {
+                Marker marker = (Marker) item;
+                if (marker.close) {
+                    try {
+                        if (channel != null) channel.close();
+                    } catch (IOException e) {
+                        if (failure == null) failure = e;
+                    }
+                    batch.clear();
+                    marker.done.countDown();
+                    return;
+                }
+                marker.done.countDown();
+            }
+        }
+        batch.clear();
+        if (queue.isEmpty() && failure == null && buffer.position() > 0) {
+            try {
+                writeOut(channel, buffer);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    private static void writeOut(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
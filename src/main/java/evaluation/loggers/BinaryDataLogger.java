@@ -0,0 +1,226 @@
+package evaluation.loggers;
+
+import core.interfaces.IStatisticLogger;
+import evaluation.summarisers.TAGStatSummary;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Logs numeric data to a binary file, as an alternative to the tab-separated text of {@link FileStatsLogger} for large
+ * datasets (such as the feature vectors recorded by a FeatureListener). The file can be read back with
+ * {@link BinaryDataReader}.
+ * <p>
+ * The set of columns is fixed by the first record. The file starts with a header, followed by any number of chunks
+ * of rows, each stored column by column:
+ * <ul>
+ *     <li>header: int magic number, byte format version, int number of columns, then for each column its name
+ *     (short length followed by UTF-8 bytes)</li>
+ *     <li>chunk: int number of rows, then for each column the values in all rows of the chunk as doubles</li>
+ * </ul>
+ * All numbers are little-endian. A chunk is written once enough rows are buffered, and whenever
+ * processDataAndNotFinish() is called (e.g. at the end of each game), so further chunks can be appended to a file at
+ * any time, including by a later run with append set.
+ * <p>
+ * Chunks are handed to an {@link AsyncFileWriter}, which writes them to the file on its own thread.
+ */
+public class BinaryDataLogger implements IStatisticLogger {
+
+    public static final int MAGIC = 0x54414744;  // "TAGD"
+    public static final byte VERSION = 1;
+
+    private final String fileName;
+    private final boolean append;
+    private final int chunkRows;
+
+    private String[] columns;
+    private Map<String, Integer> columnIndex;
+    // buffered rows, by column
+    private double[][] chunk;
+    private int nRows;
+
+    private AsyncFileWriter writer;
+    // once the file has been written, later data is always appended to it
+    private boolean written;
+
+    public BinaryDataLogger(String fileName) {
+        this(fileName, false);
+    }
+
+    public BinaryDataLogger(String fileName, boolean append) {
+        this(fileName, append, 4096);
+    }
+
+    /**
+     * @param fileName  - file to write to
+     * @param append    - if true, and the file already exists, data is added at the end of the file (the columns must
+     *                  be the same as those already in the file)
+     * @param chunkRows - maximum number of rows to buffer before writing them out as one chunk
+     */
+    public BinaryDataLogger(String fileName, boolean append, int chunkRows) {
+        this.fileName = fileName;
+        this.append = append;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Records a row of data, without the overhead of a Map. The column names must be the same (and in the same
+     * order) for all rows; only the first call uses them, to set up the file.
+     *
+     * @param columnNames - name of each column
+     * @param values      - value of each column
+     */
+    public void record(String[] columnNames, double[] values) {
+        if (columns == null) initialise(columnNames.clone());
+        if (values.length != columns.length)
+            throw new IllegalArgumentException("Expected " + columns.length + " values, but got " + values.length);
+        for (int c = 0; c < values.length; c++) {
+            chunk[c][nRows] = values[c];
+        }
+        rowAdded();
+    }
+
+    /**
+     * Records a row of data. The keys of the first map define the columns; nested maps are flattened as in
+     * {@link FileStatsLogger}. Keys not seen in the first record are ignored, and missing values are recorded as NaN.
+     * Non-numeric values are recorded as NaN (booleans as 0 or 1).
+     *
+     * @param rawData A map of name -> value pairs
+     */
+    @Override
+    public void record(Map<String, ?> rawData) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String key : rawData.keySet()) {
+            Object thing = rawData.get(key);
+            if (thing instanceof Map) {
+                for (Map.Entry<?, ?> e : ((Map<?, ?>) thing).entrySet()) {
+                    data.put(String.valueOf(e.getKey()), e.getValue());
+                }
+            } else {
+                data.put(key, thing);
+            }
+        }
+        if (columns == null) initialise(data.keySet().toArray(new String[0]));
+        for (int c = 0; c < columns.length; c++) {
+            chunk[c][nRows] = Double.NaN;
+        }
+        for (Map.Entry<String, Object> e : data.entrySet()) {
+            Integer c = columnIndex.get(e.getKey());
+            if (c != null) chunk[c][nRows] = toDouble(e.getValue());
+        }
+        rowAdded();
+    }
+
+    @Override
+    public void record(String key, Object datum) {
+        record(Collections.singletonMap(key, datum));
+    }
+
+    private static double toDouble(Object datum) {
+        if (datum instanceof Number) return ((Number) datum).doubleValue();
+        if (datum instanceof Boolean) return (Boolean) datum ? 1.0 : 0.0;
+        return Double.NaN;
+    }
+
+    private void initialise(String[] columnNames) {
+        columns = columnNames;
+        columnIndex = new HashMap<>();
+        for (int c = 0; c < columns.length; c++) {
+            columnIndex.put(columns[c], c);
+        }
+        chunk = new double[columns.length][chunkRows];
+        File file = new File(fileName);
+        if ((append || written) && file.exists() && file.length() > 0) {
+            try (BinaryDataReader reader = new BinaryDataReader(fileName)) {
+                if (!Arrays.equals(reader.getColumnNames(), columns))
+                    throw new IllegalArgumentException("Unable to append to " + fileName + " : columns are different");
+            }
+            writer = new AsyncFileWriter(fileName, true);
+        } else {
+            writer = new AsyncFileWriter(fileName, false);
+            writeHeader();
+        }
+        written = true;
+    }
+
+    private void writeHeader() {
+        byte[][] names = new byte[columns.length][];
+        int size = 9;
+        for (int c = 0; c < columns.length; c++) {
+            names[c] = String.valueOf(columns[c]).getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[c].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.putInt(columns.length);
+        for (byte[] bytes : names) {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        writer.write(buffer);
+    }
+
+    private void rowAdded() {
+        nRows++;
+        if (nRows == chunkRows) writeChunk();
+    }
+
+    private void writeChunk() {
+        if (nRows == 0) return;
+        // a new buffer each time, as the writer owns it until it has been written
+        ByteBuffer buffer = ByteBuffer.allocate(4 + chunk.length * nRows * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(nRows);
+        for (double[] column : chunk) {
+            buffer.asDoubleBuffer().put(column, 0, nRows);
+            buffer.position(buffer.position() + nRows * 8);
+        }
+        buffer.flip();
+        writer.write(buffer);
+        nRows = 0;
+    }
+
+    /**
+     * Writes out any buffered rows, and closes the file once they are all in it
+     */
+    @Override
+    public void processDataAndFinish() {
+        if (writer == null) return;
+        writeChunk();
+        writer.close();
+        writer = null;
+        columns = null;
+    }
+
+    /**
+     * Passes any buffered rows to the writer as a chunk
+     */
+    @Override
+    public void processDataAndNotFinish() {
+        if (writer == null) return;
+        writeChunk();
+    }
+
+    /**
+     * This always returns an empty Map
+     *
+     * @return A summary of the data
+     */
+    @Override
+    public Map<String, TAGStatSummary> summary() {
+        return new HashMap<>();
+    }
+
+    @Override
+    public BinaryDataLogger emptyCopy(String id) {
+        String[] fileParts = fileName.split(Pattern.quote("."));
+        if (fileParts.length != 2)
+            throw new AssertionError("Filename does not conform to expected <stem>.<type>");
+        return new BinaryDataLogger(fileParts[0] + "_" + id + "." + fileParts[1], append, chunkRows);
+    }
+}
@@ -0,0 +1,165 @@
+package evaluation.loggers;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static evaluation.loggers.BinaryDataLogger.MAGIC;
+import static evaluation.loggers.BinaryDataLogger.VERSION;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads files written by {@link BinaryDataLogger}. The file is memory-mapped (in windows of up to 1GB, so files of
+ * any size can be read), and each chunk copied straight into primitive arrays.
+ */
+public class BinaryDataReader implements AutoCloseable {
+
+    static final long WINDOW = 1L << 30;
+
+    private final String fileName;
+    private final FileChannel channel;
+    private final long size;
+    private final String[] columns;
+    // start of the data (after the header)
+    private final long dataStart;
+
+    public BinaryDataReader(String fileName) {
+        this.fileName = fileName;
+        try {
+            channel = FileChannel.open(Paths.get(fileName), READ);
+            size = channel.size();
+            MappedByteBuffer header = map(0, Math.min(size, 1 << 20));
+            if (header.remaining() < 9 || header.getInt() != MAGIC)
+                throw new IOException("Not a binary data file");
+            byte version = header.get();
+            if (version != VERSION)
+                throw new IOException("Unsupported data format version " + version);
+            columns = new String[header.getInt()];
+            for (int c = 0; c < columns.length; c++) {
+                byte[] bytes = new byte[header.getShort() & 0xFFFF];
+                header.get(bytes);
+                columns[c] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            dataStart = header.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Problem reading file " + fileName, e);
+        }
+    }
+
+    /**
+     * @param fileName - file to check
+     * @return true if the file starts as a file written by BinaryDataLogger
+     */
+    public static boolean isBinaryData(String fileName) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(fileName))) {
+            return Integer.reverseBytes(in.readInt()) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public String[] getColumnNames() {
+        return columns.clone();
+    }
+
+    /**
+     * Reads all the data, by column.
+     *
+     * @return an array for each column, with the values in each row
+     */
+    public double[][] readColumns() {
+        List<double[][]> chunks = readChunks();
+        int nRows = chunks.stream().mapToInt(c -> c.length == 0 ? 0 : c[0].length).sum();
+        double[][] retValue = new double[columns.length][nRows];
+        int row = 0;
+        for (double[][] chunk : chunks) {
+            if (chunk.length == 0) continue;
+            for (int c = 0; c < columns.length; c++) {
+                System.arraycopy(chunk[c], 0, retValue[c], row, chunk[c].length);
+            }
+            row += chunk[0].length;
+        }
+        return retValue;
+    }
+
+    /**
+     * Reads all the data, by row.
+     *
+     * @return an array for each row, with the values in each column
+     */
+    public double[][] readRows() {
+        List<double[][]> chunks = readChunks();
+        List<double[]> rows = new ArrayList<>();
+        for (double[][] chunk : chunks) {
+            if (chunk.length == 0) continue;
+            for (int r = 0; r < chunk[0].length; r++) {
+                double[] row = new double[columns.length];
+                for (int c = 0; c < columns.length; c++) {
+                    row[c] = chunk[c][r];
+                }
+                rows.add(row);
+            }
+        }
+        return rows.toArray(new double[0][]);
+    }
+
+    /**
+     * @return the data in each chunk, by column
+     */
+    private List<double[][]> readChunks() {
+        List<double[][]> chunks = new ArrayList<>();
+        try {
+            long windowStart = dataStart;
+            MappedByteBuffer window = map(windowStart, Math.min(size - windowStart, WINDOW));
+            long position = dataStart;
+            while (position < size) {
+                if (position + 4 > windowStart + window.capacity()) {
+                    windowStart = position;
+                    window = map(windowStart, Math.min(size - windowStart, WINDOW));
+                }
+                window.position((int) (position - windowStart));
+                int nRows = window.getInt();
+                long chunkBytes = 4 + 8L * nRows * columns.length;
+                if (position + chunkBytes > size)
+                    throw new EOFException("Truncated data file");
+                if (position + chunkBytes > windowStart + window.capacity()) {
+                    // chunk crosses the end of the window
+                    windowStart = position;
+                    window = map(windowStart, Math.min(size - windowStart, Math.max(WINDOW, chunkBytes)));
+                    window.position(4);
+                }
+                DoubleBuffer values = window.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                double[][] chunk = new double[columns.length][nRows];
+                for (double[] column : chunk) {
+                    values.get(column);
+                }
+                chunks.add(chunk);
+                position += chunkBytes;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Problem reading file " + fileName, e);
+        }
+        return chunks;
+    }
+
+    private MappedByteBuffer map(long position, long length) throws IOException {
+        MappedByteBuffer retValue = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        retValue.order(ByteOrder.LITTLE_ENDIAN);
+        return retValue;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
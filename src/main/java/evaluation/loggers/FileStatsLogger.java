@@ -11,7 +11,10 @@ import java.util.regex.Pattern;
 import static java.util.stream.Collectors.toList;
 
 /**
- * A Class to log details to file for later analysis
+ * A Class to log details to file for later analysis.
+ * <p>
+ * Lines are written to the file by an {@link AsyncFileWriter}, so record() only formats them and does not wait on the
+ * disk (unless the writer's queue is full).
  */
 public class FileStatsLogger implements IStatisticLogger {
 
@@ -19,7 +22,7 @@ public class FileStatsLogger implements IStatisticLogger {
     private String actionName;
     private boolean append;
     private String delimiter;
-    private FileWriter writer;
+    private AsyncFileWriter writer;
     public String doubleFormat = "%.3g";
     public String intFormat = "%d";
     private boolean headerNeeded = true;
@@ -44,7 +47,7 @@ public class FileStatsLogger implements IStatisticLogger {
             File file = new File(fileName);
             if (file.exists() && append)
                 headerNeeded = false;
-            writer = new FileWriter(fileName, append);
+            writer = new AsyncFileWriter(fileName, append);
         } catch (Exception e) {
             e.printStackTrace();
             throw new AssertionError("Problem opening file " + fileName + " : " + e.getMessage());
@@ -129,9 +132,9 @@ public class FileStatsLogger implements IStatisticLogger {
                 String outputLine = String.join(delimiter, outputData) + "\n";
                 writer.write(outputLine);
             }
-        } catch (IOException e) {
+        } catch (UncheckedIOException e) {
             e.printStackTrace();
-            throw new AssertionError("Problem writing to file " + writer.toString() + " : " + e.getMessage());
+            throw new AssertionError("Problem writing to file " + fileName + " : " + e.getMessage());
         }
     }
 
@@ -140,7 +143,11 @@ public class FileStatsLogger implements IStatisticLogger {
         //   System.out.println("Datum ignored - FileStatsLogger only to be used with other record() : " + key);
     }
 
+    /**
+     * Waits until everything recorded so far is in the file
+     */
     public void flush() {
+        if (writer == null) return;
         try {
             writer.flush();
         } catch (Exception e) {
@@ -149,28 +156,30 @@ public class FileStatsLogger implements IStatisticLogger {
     }
 
     /**
-     * This just closes the file
+     * This just closes the file, once everything recorded has been written to it
      */
     @Override
     public void processDataAndFinish() {
         if (writer == null) return;
         try {
-            writer.flush();
             writer.close();
         } catch (Exception e) {
             e.printStackTrace();
-            throw new AssertionError("Problem closing file " + writer.toString() + " : " + e.getMessage());
+            throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
         }
     }
 
+    /**
+     * Asks for everything recorded so far to be written to the file, without waiting for it
+     */
     @Override
     public void processDataAndNotFinish() {
         if (writer == null) return;
         try {
-            writer.flush();
+            writer.flushAsync();
         } catch (Exception e) {
             e.printStackTrace();
-            throw new AssertionError("Problem flushing file " + writer.toString() + " : " + e.getMessage());
+            throw new AssertionError("Problem flushing file " + fileName + " : " + e.getMessage());
         }
     }
 
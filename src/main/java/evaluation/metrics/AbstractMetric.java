@@ -4,6 +4,8 @@ import core.Game;
 import core.interfaces.IGameEvent;
 import evaluation.listeners.MetricsGameListener;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -23,6 +25,20 @@ public abstract class AbstractMetric {
     // Number of games completed so far, can be used for any metric reset between games
     private int gamesCompleted;
 
+    // Which events to run on; null to run on all of them
+    private MetricSampling sampling;
+
+    // Cost of running this metric, per event type: {events seen, events run on, CPU time in nanoseconds}
+    private final Map<IGameEvent, long[]> costs = new LinkedHashMap<>();
+
+    // Whether to time each run of this metric; off by default, as reading the clock twice per event costs about as
+    // much as a cheap metric
+    private boolean timed;
+
+    // CPU time of the current thread if the JVM can measure it, otherwise wall time
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final boolean cpuTime = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+
     public AbstractMetric() {
         this.gamesCompleted = 0;
         this.eventTypes = getDefaultEventTypes();
@@ -69,6 +85,8 @@ public abstract class AbstractMetric {
     public void reset() {
         this.gamesCompleted = 0;
         columnNames.clear();
+        costs.clear();
+        if (sampling != null) sampling = sampling.copy();
         dataLogger.reset();
     }
 
@@ -89,6 +107,13 @@ public abstract class AbstractMetric {
      * @param e        - event, which includes game event type, state, action and player ID
      */
     public final void run(MetricsGameListener listener, Event e) {
+        long[] cost = costs.computeIfAbsent(e.type, k -> new long[3]);
+        cost[0]++;
+        if (sampling != null && !sampling.sample(gamesCompleted, e.type))
+            return;
+        cost[1]++;
+        long start = timed ? now() : 0;
+
         // Ask for custom records from the metric and record these too
         Map<String, Object> records = new HashMap<>();
 
@@ -109,6 +134,12 @@ public abstract class AbstractMetric {
                 dataLogger.addData(entry.getKey(), entry.getValue());
             }
         }
+        if (timed)
+            cost[2] += now() - start;
+    }
+
+    private static long now() {
+        return cpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime();
     }
 
     /**
@@ -204,6 +235,9 @@ public abstract class AbstractMetric {
     {
         //DataProcessor with compatibility assertion:
         IDataProcessor dataProcessor = getDataProcessor();
+        // a custom processor is written for one kind of logger; use the logger's own if this is not it
+        if (!dataLogger.getDefaultProcessor().getClass().isInstance(dataProcessor))
+            dataProcessor = dataLogger.getDefaultProcessor();
         assert dataProcessor.getClass().isAssignableFrom(dataLogger.getDefaultProcessor().getClass()) :
                 "Using a Data Processor " + dataProcessor.getClass().getSimpleName() + " that is not compatible with the Data Logger "
                         + dataLogger.getClass().getSimpleName() + ". Data Processor and Data Logger must be using the same library, and " +
@@ -267,6 +301,41 @@ public abstract class AbstractMetric {
         return gamesCompleted;
     }
 
+    /**
+     * @param sampling - which events to run this metric on, or null to run it on all of them
+     */
+    public void setSampling(MetricSampling sampling) {
+        this.sampling = sampling;
+    }
+
+    public MetricSampling getSampling() {
+        return sampling;
+    }
+
+    /**
+     * @param timed - whether to record the time spent running this metric in {@link #getCosts()}
+     */
+    public void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
+    public boolean isTimed() {
+        return timed;
+    }
+
+    /**
+     * @return for each event type seen so far: {number of events, number the metric was run on (after sampling),
+     * time spent running it in nanoseconds}. The time is CPU time of the running thread where the JVM supports it,
+     * and is only recorded if the metric is timed (see {@link #setTimed(boolean)}).
+     */
+    public Map<IGameEvent, long[]> getCosts() {
+        return costs;
+    }
+
+    public static boolean isCostCPUTime() {
+        return cpuTime;
+    }
+
     public void setDataLogger(IDataLogger logger) {
         this.dataLogger = logger;
     }
@@ -0,0 +1,83 @@
+package evaluation.metrics;
+
+import core.interfaces.IGameEvent;
+import org.json.simple.JSONObject;
+
+import java.util.Random;
+
+/**
+ * Decides which events a metric is run on, so that expensive metrics can be kept on in long runs.
+ * <ul>
+ *     <li>everyNGames: the metric is run only in every Nth game (the first, the N+1th, ...)</li>
+ *     <li>everyNEvents: in those games, only every Nth event of interest is recorded</li>
+ *     <li>fraction: in those games, each event of interest is recorded with this probability</li>
+ * </ul>
+ * Event sampling only applies to events that happen many times in a game (turns, actions...); once-per-game events
+ * such as GAME_OVER are always recorded in a sampled game. Metrics that build up information over a game from many
+ * events should only be sampled by game.
+ * <p>
+ * In JSON (see the files in /metrics), a "sampling" object with any of the above keys, plus an optional "seed", can
+ * be added to a metric, or to the listener itself to apply to all its metrics:
+ * <pre>{"class": "evaluation.metrics.GameMetrics$Actions", "sampling": {"everyNGames": 10, "fraction": 0.2}}</pre>
+ */
+public class MetricSampling {
+
+    public final int everyNGames;
+    public final int everyNEvents;
+    public final double fraction;
+    private final long seed;
+    private final Random rnd;
+    private long eventCount;
+
+    public MetricSampling(int everyNGames, int everyNEvents, double fraction, long seed) {
+        if (everyNGames < 1 || everyNEvents < 1)
+            throw new IllegalArgumentException("Sampling intervals must be at least 1");
+        if (fraction <= 0 || fraction > 1)
+            throw new IllegalArgumentException("Sampling fraction must be in (0, 1]: " + fraction);
+        this.everyNGames = everyNGames;
+        this.everyNEvents = everyNEvents;
+        this.fraction = fraction;
+        this.seed = seed;
+        this.rnd = new Random(seed);
+    }
+
+    public static MetricSampling fromJSON(JSONObject json) {
+        return new MetricSampling(
+                number(json, "everyNGames", 1).intValue(),
+                number(json, "everyNEvents", 1).intValue(),
+                number(json, "fraction", 1.0).doubleValue(),
+                number(json, "seed", 0L).longValue());
+    }
+
+    private static Number number(JSONObject json, String key, Number defaultValue) {
+        Object value = json.get(key);
+        if (value == null) return defaultValue;
+        if (!(value instanceof Number))
+            throw new IllegalArgumentException("Sampling " + key + " must be a number: " + value);
+        return (Number) value;
+    }
+
+    /**
+     * @param gameIndex - number of games completed before this one
+     * @param eventType - event to be recorded
+     * @return true if the metric should be run on this event
+     */
+    public boolean sample(int gameIndex, IGameEvent eventType) {
+        if (gameIndex % everyNGames != 0) return false;
+        if (eventType instanceof Event.GameEvent && ((Event.GameEvent) eventType).isOncePerGame()) return true;
+        if (everyNEvents > 1 && eventCount++ % everyNEvents != 0) return false;
+        return fraction >= 1 || rnd.nextDouble() < fraction;
+    }
+
+    /**
+     * @return a new object with the same settings, and its own count of events
+     */
+    public MetricSampling copy() {
+        return new MetricSampling(everyNGames, everyNEvents, fraction, seed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("everyNGames=%d, everyNEvents=%d, fraction=%s", everyNGames, everyNEvents, fraction);
+    }
+}
@@ -0,0 +1,96 @@
+package evaluation.metrics.streaming;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Summary of a categorical column: the number of occurrences of each value overall, and statistics of the number of
+ * occurrences per game (mean, standard deviation, minimum and maximum over all games, counting games in which the
+ * value did not occur as zero).
+ */
+public class CategoricalColumnSummary {
+
+    // for each value: total count, sum over games of count^2, games in which it occurred, and the maximum and minimum
+    // count in the games in which it occurred
+    private final Map<String, long[]> counts = new LinkedHashMap<>();
+    private final Map<String, Long> currentGame = new LinkedHashMap<>();
+    private long games;
+    private long missing;
+
+    public CategoricalColumnSummary() {
+    }
+
+    private CategoricalColumnSummary(CategoricalColumnSummary other) {
+        for (Map.Entry<String, long[]> e : other.counts.entrySet()) {
+            counts.put(e.getKey(), e.getValue().clone());
+        }
+        currentGame.putAll(other.currentGame);
+        games = other.games;
+        missing = other.missing;
+    }
+
+    public void add(String value) {
+        if (value == null) {
+            missing++;
+            return;
+        }
+        counts.computeIfAbsent(value, k -> new long[]{0, 0, 0, 0, Long.MAX_VALUE})[0]++;
+        currentGame.merge(value, 1L, Long::sum);
+    }
+
+    /**
+     * Marks the end of a game, so that the counts since the last call are taken as those of one game.
+     */
+    public void endGame() {
+        for (Map.Entry<String, Long> e : currentGame.entrySet()) {
+            long[] c = counts.get(e.getKey());
+            long k = e.getValue();
+            c[1] += k * k;
+            c[2]++;
+            c[3] = Math.max(c[3], k);
+            c[4] = Math.min(c[4], k);
+        }
+        currentGame.clear();
+        games++;
+    }
+
+    public Map<String, Long> counts() {
+        Map<String, Long> retValue = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> e : counts.entrySet()) {
+            retValue.put(e.getKey(), e.getValue()[0]);
+        }
+        return retValue;
+    }
+
+    public long missing() {
+        return missing;
+    }
+
+    /**
+     * @return the number of games, including one in progress
+     */
+    public long games() {
+        return games + (currentGame.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * @return mean, standard deviation, minimum and maximum of the number of times the value occurred in each game
+     */
+    public double[] perGame(String value) {
+        long[] c = counts.get(value);
+        long g = games();
+        if (c == null || g == 0) return new double[]{0, 0, 0, 0};
+        long current = currentGame.getOrDefault(value, 0L);
+        double sum = c[0];
+        double sumSq = c[1] + (double) current * current;
+        long present = c[2] + (current > 0 ? 1 : 0);
+        double mean = sum / g;
+        double var = g > 1 ? Math.max(0, (sumSq - g * mean * mean) / (g - 1)) : 0.0;
+        double min = present < g ? 0 : Math.min(c[4], current > 0 ? current : Long.MAX_VALUE);
+        return new double[]{mean, Math.sqrt(var), min, Math.max(c[3], current)};
+    }
+
+    public CategoricalColumnSummary copy() {
+        return new CategoricalColumnSummary(this);
+    }
+}
@@ -0,0 +1,86 @@
+package evaluation.metrics.streaming;
+
+/**
+ * Summary of a numeric column, updated one value at a time: count, mean and variance (with Welford's method), minimum,
+ * maximum, and quantiles estimated by a {@link TDigest}.
+ */
+public class NumericColumnSummary {
+
+    private long n, missing;
+    private double mean, m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final TDigest digest;
+
+    public NumericColumnSummary() {
+        digest = new TDigest();
+    }
+
+    private NumericColumnSummary(NumericColumnSummary other) {
+        n = other.n;
+        missing = other.missing;
+        mean = other.mean;
+        m2 = other.m2;
+        min = other.min;
+        max = other.max;
+        digest = other.digest.copy();
+    }
+
+    public void add(double x) {
+        if (Double.isNaN(x)) {
+            missing++;
+            return;
+        }
+        n++;
+        double delta = x - mean;
+        mean += delta / n;
+        m2 += delta * (x - mean);
+        if (x < min) min = x;
+        if (x > max) max = x;
+        digest.add(x);
+    }
+
+    public void addMissing() {
+        missing++;
+    }
+
+    public long n() {
+        return n;
+    }
+
+    public long missing() {
+        return missing;
+    }
+
+    public double mean() {
+        return n == 0 ? Double.NaN : mean;
+    }
+
+    public double variance() {
+        return n < 2 ? 0.0 : m2 / (n - 1);
+    }
+
+    public double sd() {
+        return Math.sqrt(variance());
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    public double sum() {
+        return mean * n;
+    }
+
+    public double quantile(double q) {
+        return digest.quantile(q);
+    }
+
+    public NumericColumnSummary copy() {
+        return new NumericColumnSummary(this);
+    }
+}
@@ -0,0 +1,276 @@
+package evaluation.metrics.streaming;
+
+import core.Game;
+import evaluation.loggers.AsyncFileWriter;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.IDataProcessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Data logger that summarises each column of a metric as the data arrives, rather than keeping every row in memory
+ * as {@link evaluation.metrics.tablessaw.DataTableSaw} does. Memory use therefore does not grow with the number of
+ * games played.
+ * <ul>
+ *     <li>numeric columns: count, mean, variance, min, max and quantiles (see {@link NumericColumnSummary})</li>
+ *     <li>other columns: count of each value, overall and per game (see {@link CategoricalColumnSummary})</li>
+ * </ul>
+ * Only the columns of the metric itself are summarised (not the default ones such as GameID).
+ * <p>
+ * If rows are spilled, each row is also written to a csv file in the spill directory as it is completed (through an
+ * {@link AsyncFileWriter}), and this is what the raw data report copies to its destination.
+ * <p>
+ * The data of one row arrives one column at a time; a row is complete once all columns have a value, or when a value
+ * arrives for a column that already has one in the current row.
+ */
+public class StreamingDataLogger implements IDataLogger {
+
+    final AbstractMetric metric;
+    private final boolean spillRows;
+    private final String spillDirectory;
+
+    // all columns, in order
+    final List<String> columns = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final List<Class<?>> columnTypes = new ArrayList<>();
+    final Map<String, NumericColumnSummary> numericSummaries = new LinkedHashMap<>();
+    final Map<String, CategoricalColumnSummary> categoricalSummaries = new LinkedHashMap<>();
+
+    private Object[] row = new Object[0];
+    private boolean[] filled = new boolean[0];
+    private int nFilled;
+    private long rows;
+    private String lastGameID;
+
+    private File spillFile;
+    private AsyncFileWriter spillWriter;
+    private int spillColumns;
+
+    public StreamingDataLogger(AbstractMetric metric) {
+        this(metric, false, null);
+    }
+
+    /**
+     * @param metric         - metric whose data this logs
+     * @param spillRows      - if true, each row is written to a file as well as summarised
+     * @param spillDirectory - directory for the file of rows; if null, the system temporary directory is used
+     */
+    public StreamingDataLogger(AbstractMetric metric, boolean spillRows, String spillDirectory) {
+        this.metric = metric;
+        this.spillRows = spillRows;
+        this.spillDirectory = spillDirectory;
+    }
+
+    private boolean isNumeric(Class<?> c) {
+        return Number.class.isAssignableFrom(c);
+    }
+
+    @Override
+    public void reset() {
+        closeSpillFile();
+        columns.clear();
+        columnIndex.clear();
+        columnTypes.clear();
+        numericSummaries.clear();
+        categoricalSummaries.clear();
+        row = new Object[0];
+        filled = new boolean[0];
+        nFilled = 0;
+        rows = 0;
+        lastGameID = null;
+        spillFile = null;
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        for (Map.Entry<String, Class<?>> entry : metric.getDefaultColumns().entrySet()) {
+            addColumn(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Class<?>> entry : metric.getColumns(nPlayersPerGame, playerNames).entrySet()) {
+            if (addColumn(entry.getKey(), entry.getValue())) {
+                metric.addColumnName(entry.getKey());
+                if (isNumeric(entry.getValue())) {
+                    numericSummaries.put(entry.getKey(), new NumericColumnSummary());
+                } else {
+                    categoricalSummaries.put(entry.getKey(), new CategoricalColumnSummary());
+                }
+            }
+        }
+    }
+
+    private boolean addColumn(String name, Class<?> type) {
+        if (columnIndex.containsKey(name)) return false;
+        columnIndex.put(name, columns.size());
+        columns.add(name);
+        columnTypes.add(type);
+        row = Arrays.copyOf(row, columns.size());
+        filled = Arrays.copyOf(filled, columns.size());
+        return true;
+    }
+
+    @Override
+    public void addData(String columnName, Object data) {
+        Integer c = columnIndex.get(columnName);
+        if (c == null)
+            throw new AssertionError("Unknown column " + columnName + " for metric " + metric.getName());
+        if (filled[c]) finishRow();
+        row[c] = data;
+        filled[c] = true;
+        nFilled++;
+        if (nFilled == columns.size()) finishRow();
+    }
+
+    private void finishRow() {
+        if (nFilled == 0) return;
+        Integer gameColumn = columnIndex.get("GameID");
+        if (gameColumn != null && row[gameColumn] != null) {
+            String gameID = String.valueOf(row[gameColumn]);
+            if (lastGameID != null && !lastGameID.equals(gameID)) {
+                for (CategoricalColumnSummary summary : categoricalSummaries.values()) summary.endGame();
+            }
+            lastGameID = gameID;
+        }
+        for (int c = 0; c < columns.size(); c++) {
+            String name = columns.get(c);
+            Object datum = row[c];
+            NumericColumnSummary numeric = numericSummaries.get(name);
+            if (numeric != null) {
+                if (datum instanceof Number) numeric.add(((Number) datum).doubleValue());
+                else numeric.addMissing();
+                continue;
+            }
+            CategoricalColumnSummary categorical = categoricalSummaries.get(name);
+            if (categorical != null) categorical.add(datum == null ? null : datum.toString());
+        }
+        if (spillRows) spill();
+        rows++;
+        Arrays.fill(row, null);
+        Arrays.fill(filled, false);
+        nFilled = 0;
+    }
+
+    private void spill() {
+        if (spillWriter == null) {
+            try {
+                File folder = spillDirectory == null ? null : new File(spillDirectory);
+                if (folder != null && !folder.exists() && !folder.mkdirs())
+                    throw new IOException("Unable to create directory " + folder);
+                spillFile = folder == null ? File.createTempFile(metric.getName() + "_", ".csv")
+                        : File.createTempFile(metric.getName() + "_", ".csv", folder);
+                spillFile.deleteOnExit();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create file for the rows of " + metric.getName(), e);
+            }
+            spillWriter = new AsyncFileWriter(spillFile.getPath(), false);
+            // columns added after this are summarised, but not written
+            spillColumns = columns.size();
+            StringBuilder header = new StringBuilder();
+            for (int c = 0; c < spillColumns; c++) {
+                if (c > 0) header.append(',');
+                header.append(csv(columns.get(c)));
+            }
+            spillWriter.write(header.append('\n'));
+        }
+        StringBuilder line = new StringBuilder();
+        for (int c = 0; c < spillColumns; c++) {
+            if (c > 0) line.append(',');
+            if (row[c] != null) line.append(csv(row[c].toString()));
+        }
+        spillWriter.write(line.append('\n'));
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void closeSpillFile() {
+        if (spillWriter != null) {
+            spillWriter.close();
+            spillWriter = null;
+        }
+    }
+
+    /**
+     * Completes the current row, and makes sure all rows are in the spill file (if there is one).
+     */
+    public void flush() {
+        finishRow();
+        if (spillWriter != null) spillWriter.flush();
+    }
+
+    /**
+     * Copies all rows recorded so far to a csv file
+     *
+     * @return true if there were rows to copy
+     */
+    public boolean writeRows(File destination) {
+        flush();
+        if (spillFile == null) return false;
+        try {
+            Files.copy(spillFile.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to copy rows of " + metric.getName() + " to " + destination, e);
+        }
+        return true;
+    }
+
+    public long getRowCount() {
+        return rows + (nFilled > 0 ? 1 : 0);
+    }
+
+    public boolean isSpillingRows() {
+        return spillRows;
+    }
+
+    public NumericColumnSummary getNumericSummary(String column) {
+        finishRow();
+        return numericSummaries.get(column);
+    }
+
+    public CategoricalColumnSummary getCategoricalSummary(String column) {
+        finishRow();
+        return categoricalSummaries.get(column);
+    }
+
+    @Override
+    public IDataProcessor getDefaultProcessor() {
+        return new StreamingDataProcessor();
+    }
+
+    /**
+     * A copy has the same summaries, but does not share the file of rows.
+     */
+    @Override
+    public IDataLogger copy() {
+        finishRow();
+        StreamingDataLogger retValue = (StreamingDataLogger) emptyCopy();
+        retValue.rows = rows;
+        retValue.lastGameID = lastGameID;
+        numericSummaries.forEach((k, v) -> retValue.numericSummaries.put(k, v.copy()));
+        categoricalSummaries.forEach((k, v) -> retValue.categoricalSummaries.put(k, v.copy()));
+        return retValue;
+    }
+
+    @Override
+    public IDataLogger emptyCopy() {
+        StreamingDataLogger retValue = new StreamingDataLogger(metric, spillRows, spillDirectory);
+        for (int c = 0; c < columns.size(); c++) {
+            retValue.addColumn(columns.get(c), columnTypes.get(c));
+        }
+        numericSummaries.keySet().forEach(k -> retValue.numericSummaries.put(k, new NumericColumnSummary()));
+        categoricalSummaries.keySet().forEach(k -> retValue.categoricalSummaries.put(k, new CategoricalColumnSummary()));
+        return retValue;
+    }
+
+    @Override
+    public IDataLogger create() {
+        return new StreamingDataLogger(metric, spillRows, spillDirectory);
+    }
+}
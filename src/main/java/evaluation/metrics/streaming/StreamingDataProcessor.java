@@ -0,0 +1,137 @@
+package evaluation.metrics.streaming;
+
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.IDataProcessor;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the summaries kept by a {@link StreamingDataLogger}. Summaries are written as one csv file per column
+ * (in summaries/[metric name]/, as for TableSawDataProcessor). Raw data can only be reported if the logger spilled its
+ * rows to a file; plots need the raw data, so are not available.
+ */
+public class StreamingDataProcessor implements IDataProcessor {
+
+    static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+    static final String[] QUANTILE_NAMES = {"5th Percentile", "25th Percentile", "Median", "75th Percentile", "95th Percentile"};
+
+    @Override
+    public void processRawDataToConsole(IDataLogger logger) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        System.out.println();
+        System.out.println(sdl.metric.getName() + ": " + sdl.getRowCount() + " rows"
+                + (sdl.isSpillingRows() ? "" : " (not kept; spill rows to a file to report them)"));
+    }
+
+    @Override
+    public void processRawDataToFile(IDataLogger logger, String folderName) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        File destination = new File(folderName + "/" + sdl.metric.getName() + ".csv");
+        if (!sdl.writeRows(destination)) {
+            System.out.println("No rows kept for " + sdl.metric.getName() + "; spill rows to a file to report them");
+        }
+    }
+
+    /**
+     * @return for each metric column, a table of rows of (measure, value...) with a header row first
+     */
+    protected Map<String, List<String[]>> summarise(StreamingDataLogger sdl) {
+        sdl.flush();
+        Map<String, List<String[]>> retValue = new LinkedHashMap<>();
+        for (String column : sdl.numericSummaries.keySet()) {
+            NumericColumnSummary s = sdl.getNumericSummary(column);
+            if (s.n() == 0) continue;
+            List<String[]> table = new ArrayList<>();
+            table.add(new String[]{"Measure", "Value"});
+            table.add(new String[]{"Count", String.valueOf(s.n())});
+            table.add(new String[]{"Missing", String.valueOf(s.missing())});
+            table.add(new String[]{"Sum", String.valueOf(s.sum())});
+            table.add(new String[]{"Mean", String.valueOf(s.mean())});
+            table.add(new String[]{"Min", String.valueOf(s.min())});
+            table.add(new String[]{"Max", String.valueOf(s.max())});
+            table.add(new String[]{"Variance", String.valueOf(s.variance())});
+            table.add(new String[]{"Std. Dev", String.valueOf(s.sd())});
+            for (int q = 0; q < QUANTILES.length; q++) {
+                table.add(new String[]{QUANTILE_NAMES[q], String.valueOf(s.quantile(QUANTILES[q]))});
+            }
+            retValue.put(column, table);
+        }
+        for (String column : sdl.categoricalSummaries.keySet()) {
+            CategoricalColumnSummary s = sdl.getCategoricalSummary(column);
+            if (s.counts().isEmpty()) continue;
+            List<String[]> table = new ArrayList<>();
+            table.add(new String[]{"Category", "Count", "Mean per game", "Std. Dev per game", "Min per game", "Max per game"});
+            for (Map.Entry<String, Long> e : s.counts().entrySet()) {
+                double[] perGame = s.perGame(e.getKey());
+                table.add(new String[]{e.getKey(), String.valueOf(e.getValue()), String.valueOf(perGame[0]),
+                        String.valueOf(perGame[1]), String.valueOf(perGame[2]), String.valueOf(perGame[3])});
+            }
+            retValue.put(column, table);
+        }
+        return retValue;
+    }
+
+    @Override
+    public void processSummaryToConsole(IDataLogger logger) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        for (Map.Entry<String, List<String[]>> e : summarise(sdl).entrySet()) {
+            System.out.println();
+            System.out.println(sdl.metric.getName() + "_" + e.getKey());
+            List<String[]> table = e.getValue();
+            int[] widths = new int[table.get(0).length];
+            for (String[] line : table) {
+                for (int i = 0; i < line.length; i++) widths[i] = Math.max(widths[i], line[i].length());
+            }
+            for (String[] line : table) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < line.length; i++) {
+                    sb.append(String.format("%" + (widths[i] + 2) + "s", line[i]));
+                }
+                System.out.println(sb);
+            }
+        }
+    }
+
+    @Override
+    public void processSummaryToFile(IDataLogger logger, String folderName) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        File summaryFolderMetric = new File(folderName + "/summaries/" + sdl.metric.getName());
+        if (!summaryFolderMetric.exists() && !summaryFolderMetric.mkdirs()) {
+            System.out.println("Unable to create folder " + summaryFolderMetric);
+            return;
+        }
+        for (Map.Entry<String, List<String[]>> e : summarise(sdl).entrySet()) {
+            File file = new File(summaryFolderMetric, sdl.metric.getName() + "_" + e.getKey() + ".csv");
+            try (FileWriter writer = new FileWriter(file)) {
+                for (String[] line : e.getValue()) {
+                    for (int i = 0; i < line.length; i++) {
+                        if (i > 0) writer.write(',');
+                        String value = line[i];
+                        if (value.contains(",") || value.contains("\"")) value = '"' + value.replace("\"", "\"\"") + '"';
+                        writer.write(value);
+                    }
+                    writer.write('\n');
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to write summary to " + file, ex);
+            }
+        }
+    }
+
+    @Override
+    public void processPlotToConsole(IDataLogger logger) {
+        System.out.println("Plot report not available for streamed data");
+    }
+
+    @Override
+    public void processPlotToFile(IDataLogger logger, String folderName) {
+        System.out.println("Plot report not available for streamed data: " + ((StreamingDataLogger) logger).metric.getName());
+    }
+}
@@ -0,0 +1,161 @@
+package evaluation.metrics.streaming;
+
+import java.util.Arrays;
+
+/**
+ * Estimates quantiles of a stream of numbers in constant memory, using a merging t-digest (Dunning and Ertl,
+ * "Computing extremely accurate quantiles using t-digests"). Values are summarised by weighted centroids, which are
+ * small in the tails of the distribution and larger in the middle, so extreme quantiles are the most accurate.
+ * <p>
+ * New values are buffered, and merged into the centroids when the buffer is full (or a quantile is asked for).
+ * The number of centroids is at most about the compression, whatever the number of values added.
+ */
+public class TDigest {
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int nCentroids;
+    private final double[] buffer;
+    private int nBuffered;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(100);
+    }
+
+    /**
+     * @param compression - accuracy against size; about the maximum number of centroids kept
+     */
+    public TDigest(double compression) {
+        this.compression = compression;
+        int size = (int) Math.ceil(compression) * 2 + 10;
+        means = new double[size];
+        weights = new double[size];
+        buffer = new double[size * 5];
+    }
+
+    public void add(double x) {
+        if (Double.isNaN(x)) return;
+        buffer[nBuffered++] = x;
+        totalWeight++;
+        if (x < min) min = x;
+        if (x > max) max = x;
+        if (nBuffered == buffer.length) merge();
+    }
+
+    public double size() {
+        return totalWeight;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    // scale function: centroids may span at most one unit of k
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1.0, Math.max(0.0, q)) - 1);
+    }
+
+    private void merge() {
+        if (nBuffered == 0) return;
+        Arrays.sort(buffer, 0, nBuffered);
+        double[] newMeans = new double[means.length];
+        double[] newWeights = new double[weights.length];
+        int n = 0;
+        // merge the sorted buffer with the (sorted) centroids
+        int i = 0, j = 0;
+        double curMean = 0, curWeight = 0;
+        double weightSoFar = 0;
+        double kLeft = k(0);
+        while (i < nCentroids || j < nBuffered) {
+            double mean, weight;
+            if (j >= nBuffered || (i < nCentroids && means[i] <= buffer[j])) {
+                mean = means[i];
+                weight = weights[i];
+                i++;
+            } else {
+                mean = buffer[j];
+                weight = 1;
+                j++;
+            }
+            if (curWeight == 0) {
+                curMean = mean;
+                curWeight = weight;
+            } else if (k((weightSoFar + curWeight + weight) / totalWeight) - kLeft <= 1) {
+                curWeight += weight;
+                curMean += (mean - curMean) * weight / curWeight;
+            } else {
+                if (n == newMeans.length) {
+                    newMeans = Arrays.copyOf(newMeans, n * 2);
+                    newWeights = Arrays.copyOf(newWeights, n * 2);
+                }
+                newMeans[n] = curMean;
+                newWeights[n++] = curWeight;
+                weightSoFar += curWeight;
+                kLeft = k(weightSoFar / totalWeight);
+                curMean = mean;
+                curWeight = weight;
+            }
+        }
+        if (curWeight > 0) {
+            if (n == newMeans.length) {
+                newMeans = Arrays.copyOf(newMeans, n * 2);
+                newWeights = Arrays.copyOf(newWeights, n * 2);
+            }
+            newMeans[n] = curMean;
+            newWeights[n++] = curWeight;
+        }
+        means = newMeans;
+        weights = newWeights;
+        nCentroids = n;
+        nBuffered = 0;
+    }
+
+    /**
+     * @param q - quantile, between 0 and 1
+     * @return estimate of the value at the quantile, or NaN if nothing has been added
+     */
+    public double quantile(double q) {
+        merge();
+        if (nCentroids == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        if (nCentroids == 1) return means[0];
+        double target = q * totalWeight;
+        // each centroid is taken to be centred at the middle of its weight
+        double before = 0;
+        double firstCentre = weights[0] / 2;
+        if (target < firstCentre) {
+            return min + (means[0] - min) * target / firstCentre;
+        }
+        for (int c = 0; c < nCentroids - 1; c++) {
+            double centre = before + weights[c] / 2;
+            double nextCentre = before + weights[c] + weights[c + 1] / 2;
+            if (target < nextCentre) {
+                return means[c] + (means[c + 1] - means[c]) * (target - centre) / (nextCentre - centre);
+            }
+            before += weights[c];
+        }
+        double lastCentre = totalWeight - weights[nCentroids - 1] / 2;
+        return means[nCentroids - 1] + (max - means[nCentroids - 1]) * (target - lastCentre) / (totalWeight - lastCentre);
+    }
+
+    public TDigest copy() {
+        merge();
+        TDigest retValue = new TDigest(compression);
+        retValue.means = means.clone();
+        retValue.weights = weights.clone();
+        retValue.nCentroids = nCentroids;
+        retValue.totalWeight = totalWeight;
+        retValue.min = min;
+        retValue.max = max;
+        return retValue;
+    }
+}
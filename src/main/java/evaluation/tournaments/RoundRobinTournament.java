@@ -406,6 +406,10 @@ public class RoundRobinTournament extends AbstractTournament {
         return finalOrdinalRanking.get(agentID).b;
     }
 
+    public int getGamesPlayed(int agentID) {
+        return nGamesPlayed[agentID];
+    }
+
     public List<IGameListener> getListeners() {
         return listeners;
     }
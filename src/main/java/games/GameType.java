@@ -1,6 +1,7 @@
 package games;
 
 import core.*;
+import core.components.ComponentIDs;
 import core.rules.AbstractRuleBasedForwardModel;
 import games.battlelore.*;
 import games.battlelore.gui.BattleloreGUI;
@@ -345,7 +346,14 @@ public enum GameType {
             params.setRandomSeed(seed);
         }
 
-        return new Game(this, createForwardModel(params, nPlayers), createGameState(params, nPlayers));
+        // the components of the game state take their IDs from the game's own allocator
+        ComponentIDs componentIDs = new ComponentIDs();
+        ComponentIDs previous = componentIDs.enter();
+        try {
+            return new Game(this, createForwardModel(params, nPlayers), createGameState(params, nPlayers), componentIDs);
+        } finally {
+            ComponentIDs.exit(previous);
+        }
     }
 
     public Game createGameInstance(int nPlayers) {
@@ -14,6 +14,7 @@ import games.battlelore.components.Unit;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 public class BattleloreForwardModel extends StandardForwardModel {
 
@@ -37,6 +38,7 @@ public class BattleloreForwardModel extends StandardForwardModel {
         gameState.unitTypes = new ArrayList<>();
         gameState.unitTypes = _data.getUnits();
         gameState.playerScores = new int[gameState.getNPlayers()];
+        gameState.rnd = new Random(gameParams.getRandomSeed());
 
         for (int x = 0; x < gameState.gameBoard.getWidth(); x++) {
             for (int y = 0; y < gameState.gameBoard.getHeight(); y++) {
@@ -30,10 +30,17 @@ public class BattleloreGameState extends AbstractGameState {
     int[] playerScores;
     GridBoard<MapTile> gameBoard;
     List<Unit> unitTypes;
+    // Used for combat dice; seeded from the game parameters at setup
+    Random rnd;
 
     public BattleloreGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
         playerScores = new int[nPlayers];
+        rnd = new Random(gameParameters.getRandomSeed());
+    }
+
+    public Random getRnd() {
+        return rnd;
     }
 
     @Override
@@ -195,6 +202,7 @@ public class BattleloreGameState extends AbstractGameState {
         }
         state.unitTypes = unitTypes; // immutable
         System.arraycopy(playerScores, 0, state.playerScores, 0, playerScores.length);
+        state.rnd = new Random(rnd.nextLong());
 
         return state;
     }
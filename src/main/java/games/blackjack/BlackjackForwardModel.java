@@ -96,8 +96,8 @@ public class BlackjackForwardModel extends StandardForwardModel {
     }
 
     private void _endTurn(BlackjackGameState bjgs) {
-        if (bjgs.getTurnCounter() >= bjgs.getNPlayers()) {
-            // Everyone finished, game is over, assign results
+        if (bjgs.getTurnCounter() >= bjgs.getNPlayers() || !othersStillPlaying(bjgs)) {
+            // Everyone finished (or all other players have already won or lost), game is over, assign results
             bjgs.setGameStatus(GAME_END);
 
             BlackjackParameters params = (BlackjackParameters) bjgs.getGameParameters();
@@ -140,4 +140,12 @@ public class BlackjackForwardModel extends StandardForwardModel {
         }
     }
 
+    private boolean othersStillPlaying(BlackjackGameState bjgs) {
+        for (int i = 0; i < bjgs.getNPlayers(); i++) {
+            if (i != bjgs.getCurrentPlayer() && bjgs.isNotTerminalForPlayer(i))
+                return true;
+        }
+        return false;
+    }
+
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package games.cantstop;
 import core.AbstractGameState;
 import core.StandardForwardModel;
 import core.StandardForwardModelWithTurnOrder;
+import core.UndoLog;
 import core.actions.AbstractAction;
 import core.components.Dice;
 import core.forwardModels.SequentialActionForwardModel;
@@ -34,11 +35,7 @@ public class CantStopForwardModel extends StandardForwardModel {
         for (int i = 0; i < params.DICE_NUMBER; i++) {
             state.dice.add(new Dice(params.DICE_SIDES));
         }
-        if (state.rnd == null) {
-            state.rnd = new Random(System.currentTimeMillis());
-        } else {
-            state.rnd = new Random(state.rnd.nextLong());
-        }
+        state.rnd = new Random(params.getRandomSeed());
         firstState.setGamePhase(CantStopGamePhase.Decision);
     }
 
@@ -62,6 +59,44 @@ public class CantStopForwardModel extends StandardForwardModel {
         // Until a player explicitly passes, it is still their turn
     }
 
+    @Override
+    public boolean supportsUndo(AbstractGameState state, AbstractAction action) {
+        return action instanceof RollDice || action instanceof AllocateDice || action instanceof Pass;
+    }
+
+    @Override
+    protected boolean _recordUndo(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+        CantStopGameState state = (CantStopGameState) currentState;
+        Map<Integer, Integer> temporaryMarkers = state.temporaryMarkerPositions;
+        if (action instanceof RollDice) {
+            // the dice are rolled in place; before the first roll they have no valid value to set back
+            List<Dice> dice = state.dice;
+            state.dice = dice.stream().map(Dice::copy).collect(toList());
+            undoLog.add(() -> state.dice = dice);
+        } else if (action instanceof AllocateDice) {
+            for (int n : ((AllocateDice) action).getValues()) {
+                Integer previous = temporaryMarkers.get(n);
+                undoLog.add(() -> {
+                    if (previous == null) temporaryMarkers.remove(n);
+                    else temporaryMarkers.put(n, previous);
+                });
+            }
+        } else if (action instanceof Pass) {
+            // the temporary markers are replaced rather than cleared, and may be made permanent first
+            int player = state.getCurrentPlayer();
+            int[] markers = state.playerMarkerPositions[player].clone();
+            boolean[] completed = state.completedColumns.clone();
+            undoLog.add(() -> {
+                state.temporaryMarkerPositions = temporaryMarkers;
+                System.arraycopy(markers, 0, state.playerMarkerPositions[player], 0, markers.length);
+                System.arraycopy(completed, 0, state.completedColumns, 0, completed.length);
+            });
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     public void makeTemporaryMarkersPermanentAndClear(CantStopGameState state) {
         CantStopParameters params = (CantStopParameters) state.getGameParameters();
 
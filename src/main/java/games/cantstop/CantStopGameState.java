@@ -34,11 +34,7 @@ public class CantStopGameState extends AbstractGameState implements IPrintable {
         temporaryMarkerPositions = new HashMap<>();
         temporaryMarkerPositions.putAll(copyFrom.temporaryMarkerPositions);
         dice = copyFrom.dice.stream().map(Dice::copy).collect(toList());
-        if (rnd == null) {
-            rnd = new Random(System.currentTimeMillis());
-        } else {
-            rnd = new Random(rnd.nextLong());
-        }
+        rnd = new Random(copyFrom.rnd.nextLong());
     }
 
     public CantStopGameState(AbstractParameters gameParameters, int nPlayers) {
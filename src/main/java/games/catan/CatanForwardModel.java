@@ -39,8 +39,8 @@ public class CatanForwardModel extends StandardForwardModel {
         firstState.getCoreGameParameters().setMaxRounds(params.maxRounds);
         state.rnd = new Random(params.getRandomSeed());
 
-        state.setBoard(generateBoard(params));
-        state.setGraph(extractGraphFromBoard(state.getBoard(), params));
+        state.setBoard(generateBoard(params, state.rnd));
+        state.setGraph(extractGraphFromBoard(state.getBoard(), params, state.rnd));
 
         state.scores = new int[state.getNPlayers()];
         state.victoryPoints = new int[state.getNPlayers()];
@@ -286,7 +286,7 @@ public class CatanForwardModel extends StandardForwardModel {
         return mainActions;
     }
 
-    private CatanTile[][] generateBoard(CatanParameters params) {
+    private CatanTile[][] generateBoard(CatanParameters params, Random rnd) {
         // Shuffle the tile types
         ArrayList<CatanTile.TileType> tileList = new ArrayList<>();
         for (Map.Entry<CatanTile.TileType, Integer> tileCount : params.tileCounts.entrySet()) {
@@ -302,8 +302,8 @@ public class CatanForwardModel extends StandardForwardModel {
             }
         }
         // shuffle collections, so we get randomized tiles and tokens on them
-        Collections.shuffle(tileList);
-        Collections.shuffle(numberList);
+        Collections.shuffle(tileList, rnd);
+        Collections.shuffle(numberList, rnd);
 
         CatanTile[][] board = new CatanTile[params.n_tiles_per_row][params.n_tiles_per_row];
         int midX = board.length / 2;
@@ -333,7 +333,7 @@ public class CatanForwardModel extends StandardForwardModel {
         return board;
     }
 
-    private GraphBoardWithEdges extractGraphFromBoard(CatanTile[][] board, CatanParameters cp) {
+    private GraphBoardWithEdges extractGraphFromBoard(CatanTile[][] board, CatanParameters cp, Random rnd) {
         GraphBoardWithEdges graph = new GraphBoardWithEdges();
 
         // Create vertices and add references in tiles
@@ -387,19 +387,19 @@ public class CatanForwardModel extends StandardForwardModel {
         }
 
         // Finally set Harbors types
-        setHarbors(board, graph, cp);
+        setHarbors(board, graph, cp, rnd);
 
         return graph;
     }
 
-    private void setHarbors(CatanTile[][] board, GraphBoardWithEdges graphBoard, CatanParameters cp) {
+    private void setHarbors(CatanTile[][] board, GraphBoardWithEdges graphBoard, CatanParameters cp, Random rnd) {
         // set harbors along the tiles where the SEA borders the land
         ArrayList<CatanParameters.Resource> harbors = new ArrayList<>();
         for (Map.Entry<CatanParameters.Resource, Integer> entry : cp.harborCount.entrySet()) {
             for (int i = 0; i < entry.getValue(); i++)
                 harbors.add(entry.getKey());
         }
-        Collections.shuffle(harbors);
+        Collections.shuffle(harbors, rnd);
 
         int radius = board.length / 2;
         // todo edge 4 can work, but random would be better, the math changes with different directions.
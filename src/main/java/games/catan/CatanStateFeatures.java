@@ -27,4 +27,14 @@ public class CatanStateFeatures extends AbstractStateFeature {
         return new double[0];
     }
 
+    @Override
+    protected void localFeatureVector(AbstractGameState gs, int playerID, double[] buffer, int offset) {
+        // no local features
+    }
+
+    @Override
+    protected void localFeatureVectors(AbstractGameState gs, double[][] buffer, int offset) {
+        // no local features
+    }
+
 }
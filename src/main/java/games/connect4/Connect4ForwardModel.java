@@ -1,6 +1,7 @@
 package games.connect4;
 import core.AbstractGameState;
 import core.CoreConstants;
+import core.UndoLog;
 import core.actions.AbstractAction;
 import core.actions.SetGridValueAction;
 import core.components.GridBoard;
@@ -50,6 +51,29 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         return actions;
     }
 
+    @Override
+    public boolean supportsUndo(AbstractGameState state, AbstractAction action) {
+        // only placing a token is recorded in _recordUndo; any other action is applied to a copy instead
+        return action instanceof SetGridValueAction;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean _recordUndo(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+        // the action sets one cell, and a win replaces the list of winning cells
+        Connect4GameState c4gs = (Connect4GameState) currentState;
+        SetGridValueAction<Token> move = (SetGridValueAction<Token>) action;
+        GridBoard<Token> gridBoard = c4gs.gridBoard;
+        int x = move.getX(), y = move.getY();
+        Token previous = gridBoard.getElement(x, y);
+        LinkedList<Pair<Integer, Integer>> winnerCells = c4gs.winnerCells;
+        undoLog.add(() -> {
+            gridBoard.setElement(x, y, previous);
+            c4gs.winnerCells = winnerCells;
+        });
+        return true;
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         Connect4GameState c4gs = (Connect4GameState) currentState;
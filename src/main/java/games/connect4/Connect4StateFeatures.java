@@ -5,6 +5,7 @@ import core.components.GridBoard;
 import core.components.Token;
 import players.heuristics.AbstractStateFeature;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 public class Connect4StateFeatures extends AbstractStateFeature {
@@ -29,84 +30,121 @@ public class Connect4StateFeatures extends AbstractStateFeature {
 
     @Override
     protected double[] localFeatureVector(AbstractGameState gs, int playerID) {
-        Connect4GameState state = (Connect4GameState) gs;
+        double[] retValue = new double[localNames.length];
+        localFeatureVector(gs, playerID, retValue, 0);
+        return retValue;
+    }
+
+    @Override
+    protected void localFeatureVector(AbstractGameState gs, int playerID, double[] buffer, int offset) {
+        writeFeatures(countPatterns((Connect4GameState) gs), playerID, buffer, offset);
+    }
+
+    @Override
+    protected void localFeatureVectors(AbstractGameState gs, double[][] buffer, int offset) {
+        // the patterns on the board are the same for all players; only whose they are differs
+        int[][] counts = countPatterns((Connect4GameState) gs);
+        for (int p = 0; p < gs.getNPlayers(); p++) {
+            writeFeatures(counts, p, buffer[p], offset);
+        }
+    }
+
+    private void writeFeatures(int[][] counts, int playerID, double[] buffer, int offset) {
+        for (int owner = 0; owner < counts.length; owner++) {
+            int index = owner == playerID ? offset : offset + 1;
+            for (int link = 0; link < N_LINKS; link++) {
+                buffer[index + 2 * link] += counts[owner][link];
+            }
+        }
+    }
+
+    // One, Two, Three and Four tokens in a line
+    private static final int N_LINKS = 4;
+
+    /**
+     * @return for each player, the number of each pattern of their tokens, indexed by the length of the pattern
+     * minus one
+     */
+    private int[][] countPatterns(Connect4GameState state) {
         GridBoard<Token> gridBoard = state.gridBoard;
         int width = gridBoard.getWidth();
         int height = gridBoard.getHeight();
-        double[] retValue = new double[localNames.length];
+        int nOwners = Connect4Constants.playerMapping.size();
+        int[][] counts = new int[nOwners][N_LINKS];
 
-        String playerChar = Connect4Constants.playerMapping.get(playerID).getTokenType();
+        // owner of each cell, or -1 if it is empty; so that the patterns compare ints, not Strings
+        int[] owner = new int[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                owner[x * height + y] = ownerOf(gridBoard.getElement(x, y).getTokenType());
+            }
+        }
 
         // Count 1 token
         int[][] directions = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
-
-                String ownerChar = gridBoard.getElement(x, y).getTokenType();
-                if (Objects.equals(ownerChar, Connect4Constants.emptyCell)) {
+                int cellOwner = owner[x * height + y];
+                if (cellOwner < 0) {
                     continue;
                 }
 
                 int ownerCount = 0;
                 for (int[] direction : directions) {
                     if (isInBound((x + direction[0]), y + direction[1], width, height)) {
-                        if (Objects.equals(gridBoard.getElement(x + direction[0], y + direction[1]).getTokenType(), ownerChar)) {
+                        if (owner[(x + direction[0]) * height + y + direction[1]] == cellOwner) {
                             ownerCount++;
                         }
                     }
                 }
 
                 if (ownerCount == 0) {
-                    if (Objects.equals(ownerChar, playerChar)) {
-                        retValue[0]++;
-                    } else {
-                        retValue[1]++;
-                    }
+                    counts[cellOwner][0]++;
                 }
             }
         }
 
         // Pattern Matching
+        boolean[] visitedMap = new boolean[width * height];
         // down
-        int x_direction = 0;
-        int y_direction = 1;
-        pattern_match(gridBoard, width, height, retValue, playerChar, x_direction, y_direction);
-
+        pattern_match(owner, width, height, counts, visitedMap, 0, 1);
         // right
-        x_direction = 1;
-        y_direction = 0;
-        pattern_match(gridBoard, width, height, retValue, playerChar, x_direction, y_direction);
-
+        pattern_match(owner, width, height, counts, visitedMap, 1, 0);
         // left-down
-        x_direction = -1;
-        y_direction = 1;
-        pattern_match(gridBoard, width, height, retValue, playerChar, x_direction, y_direction);
-
+        pattern_match(owner, width, height, counts, visitedMap, -1, 1);
         // right-down
-        x_direction = 1;
-        y_direction = 1;
-        pattern_match(gridBoard, width, height, retValue, playerChar, x_direction, y_direction);
+        pattern_match(owner, width, height, counts, visitedMap, 1, 1);
 
-        return retValue;
+        return counts;
+    }
+
+    private int ownerOf(String tokenType) {
+        if (Objects.equals(tokenType, Connect4Constants.emptyCell))
+            return -1;
+        for (int p = 0; p < Connect4Constants.playerMapping.size(); p++) {
+            if (Objects.equals(tokenType, Connect4Constants.playerMapping.get(p).getTokenType()))
+                return p;
+        }
+        throw new IllegalArgumentException("Unknown token " + tokenType);
     }
 
-    private void pattern_match(GridBoard<Token> gridBoard, int width, int height, double[] retValue, String playerChar, int x_direction, int y_direction) {
-        int[][] visitedMap = new int[width][height];
+    private void pattern_match(int[] owner, int width, int height, int[][] counts, boolean[] visitedMap, int x_direction, int y_direction) {
+        Arrays.fill(visitedMap, false);
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 // Skip the visited position
-                if (visitedMap[x][y] == 1) {
+                if (visitedMap[x * height + y]) {
                     continue;
                 }
 
                 // Set current position as visited
                 int cur_x = x;
                 int cur_y = y;
-                visitedMap[cur_x][cur_y] = 1;
+                visitedMap[cur_x * height + cur_y] = true;
 
                 // Skip the empty Cell
-                String ownerChar = gridBoard.getElement(cur_x, cur_y).getTokenType();
-                if (Objects.equals(ownerChar, Connect4Constants.emptyCell)) {
+                int cellOwner = owner[cur_x * height + cur_y];
+                if (cellOwner < 0) {
                     continue;
                 }
 
@@ -114,10 +152,10 @@ public class Connect4StateFeatures extends AbstractStateFeature {
                 int link = 1;
                 int new_x = cur_x + x_direction;
                 int new_y = cur_y + y_direction;
-                while (isInBound(new_x, new_y, width, height) && Objects.equals(gridBoard.getElement(new_x, new_y).getTokenType(), ownerChar)) {
+                while (isInBound(new_x, new_y, width, height) && owner[new_x * height + new_y] == cellOwner) {
                     cur_x = new_x;
                     cur_y = new_y;
-                    visitedMap[cur_x][cur_y] = 1;
+                    visitedMap[cur_x * height + cur_y] = true;
 
                     link++;
 
@@ -129,11 +167,11 @@ public class Connect4StateFeatures extends AbstractStateFeature {
                     // right location (Oxox)
                     int x_next = x + 2 * x_direction;
                     int y_next = y + 2 * y_direction;
-                    if (isInBound(x_next, y_next, width, height) && Objects.equals(gridBoard.getElement(x_next, y_next).getTokenType(), ownerChar)) {
+                    if (isInBound(x_next, y_next, width, height) && owner[x_next * height + y_next] == cellOwner) {
                         if (!isInBound(x_next + x_direction, y_next + y_direction, width, height)) {
-                            retValue[getRetValueIdx(link + 1, ownerChar, playerChar)]++;
-                        } else if (!Objects.equals(gridBoard.getElement(x_next + x_direction, y_next + y_direction).getTokenType(), ownerChar)) {
-                            retValue[getRetValueIdx(link + 1, ownerChar, playerChar)]++;
+                            counts[cellOwner][linkIndex(link + 1)]++;
+                        } else if (owner[(x_next + x_direction) * height + y_next + y_direction] != cellOwner) {
+                            counts[cellOwner][linkIndex(link + 1)]++;
                         }
 
                     }
@@ -148,14 +186,14 @@ public class Connect4StateFeatures extends AbstractStateFeature {
                     // right location (OoXo)
                     int x_next = x + 3 * x_direction;
                     int y_next = y + 3 * y_direction;
-                    if (isInBound(x_prev, y_prev, width, height) && Objects.equals(gridBoard.getElement(x_prev, y_prev).getTokenType(), ownerChar)) {
-                        retValue[getRetValueIdx(link + 1, ownerChar, playerChar)]++;
-                    } else if (isInBound(x_next, y_next, width, height) && Objects.equals(gridBoard.getElement(x_next, y_next).getTokenType(), ownerChar)) {
-                        retValue[getRetValueIdx(link + 1, ownerChar, playerChar)]++;
+                    if (isInBound(x_prev, y_prev, width, height) && owner[x_prev * height + y_prev] == cellOwner) {
+                        counts[cellOwner][linkIndex(link + 1)]++;
+                    } else if (isInBound(x_next, y_next, width, height) && owner[x_next * height + y_next] == cellOwner) {
+                        counts[cellOwner][linkIndex(link + 1)]++;
                     }
                 }
 
-                retValue[getRetValueIdx(link, ownerChar, playerChar)]++;
+                counts[cellOwner][linkIndex(link)]++;
             }
         }
     }
@@ -165,26 +203,9 @@ public class Connect4StateFeatures extends AbstractStateFeature {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
 
-    private int getRetValueIdx(int link, String ownerChar, String playerChar) {
-        if (link == 2) {
-            if (Objects.equals(ownerChar, playerChar)) {
-                return 2;
-            } else {
-                return 3;
-            }
-        } else if (link == 3) {
-            if (Objects.equals(ownerChar, playerChar)) {
-                return 4;
-            } else {
-                return 5;
-            }
-        } else {
-            if (Objects.equals(ownerChar, playerChar)) {
-                return 6;
-            } else {
-                return 7;
-            }
-        }
+    // links of four or more all count as four
+    private int linkIndex(int link) {
+        return Math.min(link, N_LINKS) - 1;
     }
 
 }
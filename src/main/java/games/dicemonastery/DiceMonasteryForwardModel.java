@@ -43,6 +43,7 @@ public class DiceMonasteryForwardModel extends StandardForwardModel {
         DiceMonasteryGameState state = (DiceMonasteryGameState) firstState;
         state._reset();
         DiceMonasteryParams params = (DiceMonasteryParams) state.getGameParameters();
+        state.rnd = new Random(params.getRandomSeed());
         AbstractGameData _data = new AbstractGameData();
         _data.load(params.getDataPath());
 
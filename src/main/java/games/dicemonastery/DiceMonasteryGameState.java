@@ -624,7 +624,8 @@ public class DiceMonasteryGameState extends AbstractGameState {
     @Override
     protected DiceMonasteryGameState _copy(int playerId) {
         DiceMonasteryGameState retValue = new DiceMonasteryGameState(gameParameters.copy(), getNPlayers());
-        rnd = new Random(System.currentTimeMillis());
+        // the copy has its own generator, seeded from ours, so that games with the same seed are played the same way
+        retValue.rnd = new Random(rnd.nextLong());
         for (ActionArea a : actionAreas.keySet()) {
             retValue.actionAreas.put(a, actionAreas.get(a).copy());
         }
@@ -651,13 +652,13 @@ public class DiceMonasteryGameState extends AbstractGameState {
         retValue.marketCards = marketCards.copy();
         if (playerId != -1 && marketCards.getSize() > 1) { // shuffle all except the top card
             MarketCard topCard = retValue.marketCards.draw();
-            retValue.marketCards.shuffle(rnd);
+            retValue.marketCards.shuffle(retValue.rnd);
             retValue.marketCards.add(topCard);
         }
         retValue.forageCards = forageCards.copy();
         if (playerId != -1 && forageCards.getSize() > 1) { // shuffle all except the top card
             ForageCard topCard = retValue.forageCards.draw();
-            retValue.forageCards.shuffle(rnd);
+            retValue.forageCards.shuffle(retValue.rnd);
             retValue.forageCards.add(topCard);
         }
 
@@ -668,7 +669,7 @@ public class DiceMonasteryGameState extends AbstractGameState {
             Deck<Pilgrimage> copyDeck = pilgrimDeck.copy();
             if (playerId != -1 && copyDeck.getSize() > 1) {// only top card is visible, so shuffle if copied from any player's perspective
                 Pilgrimage topCard = copyDeck.draw();
-                copyDeck.shuffle(rnd);
+                copyDeck.shuffle(retValue.rnd);
                 copyDeck.add(topCard);
             }
             retValue.pilgrimageDecks.add(copyDeck);
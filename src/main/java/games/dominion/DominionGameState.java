@@ -259,6 +259,19 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     @Override
     protected AbstractGameState _copy(int playerId) {
         DominionGameState retValue = new DominionGameState(gameParameters.copy(), playerCount);
+        copyTo(retValue, playerId);
+        return retValue;
+    }
+
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        DominionGameState retValue = (DominionGameState) target;
+        retValue.cardsIncludedInGame.clear();
+        copyTo(retValue, playerId);
+        return true;
+    }
+
+    private void copyTo(DominionGameState retValue, int playerId) {
         for (CardType ct : cardsIncludedInGame.keySet()) {
             retValue.cardsIncludedInGame.put(ct, cardsIncludedInGame.get(ct));
         }
@@ -310,7 +323,6 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
         retValue.defenceStatus = defenceStatus.clone();
 
         retValue.delayedActions = delayedActions.stream().map(IDelayedAction::copy).collect(toList());
-        return retValue;
     }
 
     /**
@@ -3,7 +3,6 @@ package games.dotsboxes;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 
-import java.util.HashSet;
 import java.util.Objects;
 
 public class AddGridCellEdge extends AbstractAction {
@@ -15,24 +14,10 @@ public class AddGridCellEdge extends AbstractAction {
 
     @Override
     public boolean execute(AbstractGameState gs) {
-        // Find neighbouring cells
         DBGameState dbgs = (DBGameState) gs;
-
-        int nCellsCompleteBefore = dbgs.cellToOwnerMap.size();
-        // Mark this edge as complete by current player and check if connected cells are complete too
-        dbgs.edgeToOwnerMap.put(edge, gs.getCurrentPlayer());
-
-        HashSet<DBCell> cells = dbgs.edgeToCellMap.get(edge);
-        for (DBCell c : cells) {
-            int nEdgesComplete = dbgs.countCompleteEdges(c);
-            if (nEdgesComplete == 4) {  // A cell has 4 sides
-                // All edges complete, this box complete
-                dbgs.cellToOwnerMap.put(c, gs.getCurrentPlayer());
-                dbgs.nCellsPerPlayer[gs.getCurrentPlayer()]++;
-            }
-        }
-        int nCellsCompleteAfter = dbgs.cellToOwnerMap.size();
-        dbgs.setLastActionScored(nCellsCompleteAfter == nCellsCompleteBefore);
+        // Mark this edge as complete by current player, completing any neighbouring cells that now have 4 sides
+        int nCellsCompleted = dbgs.addEdge(dbgs.topology.indexOf(edge), gs.getCurrentPlayer());
+        dbgs.setLastActionScored(nCellsCompleted == 0);
         return true;  // Always able to execute
     }
 
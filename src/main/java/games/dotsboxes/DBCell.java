@@ -8,15 +8,22 @@ import java.util.Objects;
 
 public class DBCell extends Component {
     final Vector2D position;  // Position of this cell in the grid
+    final int index;  // Index of this cell in the grid's DBTopology, or -1 if not created by it
 
     public DBCell(int x, int y) {
+        this(x, y, -1);
+    }
+
+    DBCell(int x, int y, int index) {
         super(CoreConstants.ComponentType.BOARD_NODE, "Box");
         position = new Vector2D(x, y);
+        this.index = index;
     }
 
     private DBCell(int componentID, Vector2D position) {
         super(CoreConstants.ComponentType.BOARD_NODE, "Box", componentID);
         this.position = position;
+        this.index = -1;
     }
 
     @Override
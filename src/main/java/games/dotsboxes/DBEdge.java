@@ -11,11 +11,17 @@ public class DBEdge extends Component {
 
     final Vector2D from;
     final Vector2D to;
+    final int index;  // Index of this edge in the grid's DBTopology, or -1 if not created by it
 
     public DBEdge(Vector2D from, Vector2D to) {
+        this(from, to, -1);
+    }
+
+    DBEdge(Vector2D from, Vector2D to, int index) {
         super(CoreConstants.ComponentType.TOKEN);
         this.from = from;
         this.to = to;
+        this.index = index;
     }
 
     @Override
@@ -2,12 +2,11 @@ package games.dotsboxes;
 
 import core.AbstractGameState;
 import core.StandardForwardModel;
+import core.UndoLog;
 import core.actions.AbstractAction;
-import utilities.Vector2D;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
 
 public class DBForwardModel extends StandardForwardModel {
@@ -18,34 +17,14 @@ public class DBForwardModel extends StandardForwardModel {
         DBParameters dbp = (DBParameters) firstState.getGameParameters();
 
         dbgs.lastActionScored = false;
-        // Generate edge to cell mapping and all cell objects with appropriate constructor
-        dbgs.edgeToCellMap = new HashMap<>();
-        dbgs.cellToEdgesMap = new HashMap<>();
-        dbgs.cellToOwnerMap = new HashMap<>();
-        dbgs.edgeToOwnerMap = new HashMap<>();
-        dbgs.edges = new HashSet<>();
-        dbgs.cells = new HashSet<>();
-        for (int i = 0; i < dbp.gridHeight; i++) {
-            for (int j = 0; j < dbp.gridWidth; j++) {
-                DBCell c = new DBCell(j, i);
-                dbgs.cells.add(c);
-                HashSet<DBEdge> edges = new HashSet<>(4);
-                edges.add(new DBEdge(new Vector2D(j, i), new Vector2D(j, i + 1)));
-                edges.add(new DBEdge(new Vector2D(j, i), new Vector2D(j + 1, i)));
-                edges.add(new DBEdge(new Vector2D(j + 1, i), new Vector2D(j + 1, i + 1)));
-                edges.add(new DBEdge(new Vector2D(j, i + 1), new Vector2D(j + 1, i + 1)));
-
-                for (DBEdge edge : edges) {
-                    dbgs.edges.add(edge);
-                    if (!dbgs.edgeToCellMap.containsKey(edge)) {
-                        dbgs.edgeToCellMap.put(edge, new HashSet<>());
-                    }
-                    dbgs.edgeToCellMap.get(edge).add(c);
-                }
-
-                dbgs.cellToEdgesMap.put(c, edges);
-            }
-        }
+        // Generate all edges and cells, and which are next to which
+        dbgs.topology = new DBTopology(dbp.gridWidth, dbp.gridHeight);
+        dbgs.edgeOwner = new byte[dbgs.topology.edges.length];
+        Arrays.fill(dbgs.edgeOwner, (byte) -1);
+        dbgs.cellOwner = new byte[dbgs.topology.cells.length];
+        Arrays.fill(dbgs.cellOwner, (byte) -1);
+        dbgs.cellSides = new byte[dbgs.topology.cells.length];
+        dbgs.nCellsComplete = 0;
         // Initialise other variables
         dbgs.nCellsPerPlayer = new int[dbgs.getNPlayers()];
     }
@@ -53,10 +32,9 @@ public class DBForwardModel extends StandardForwardModel {
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         DBGameState dbgs = (DBGameState) currentState;
-        DBParameters dbp = (DBParameters) currentState.getGameParameters();
 
         // Check end of game (when all cells completed)
-        if (dbgs.cellToOwnerMap.size() == dbp.gridWidth * dbp.gridHeight) {
+        if (dbgs.nCellsComplete == dbgs.topology.cells.length) {
             // Game is over. Set status and find winner
             endGame(dbgs);
         } else if (dbgs.getLastActionScored()) {
@@ -65,19 +43,37 @@ public class DBForwardModel extends StandardForwardModel {
         }
     }
 
+    @Override
+    public boolean supportsUndo(AbstractGameState state, AbstractAction action) {
+        // only adding an edge is recorded in _recordUndo; any other action is applied to a copy instead
+        return action instanceof AddGridCellEdge;
+    }
+
+    @Override
+    protected boolean _recordUndo(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+        DBGameState dbgs = (DBGameState) currentState;
+        int edge = dbgs.topology.indexOf(((AddGridCellEdge) action).edge);
+        boolean lastActionScored = dbgs.lastActionScored;
+        undoLog.add(() -> {
+            dbgs.removeEdge(edge);
+            dbgs.lastActionScored = lastActionScored;
+        });
+        return true;
+    }
+
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        HashSet<AbstractAction> actions = new HashSet<>();  // Same edge may appear in multiple cells, ensure unique actions
         DBGameState dbgs = (DBGameState) gameState;
+        List<AbstractAction> actions = new ArrayList<>();
 
         // Actions in this game are adding edges to the board (that don't already exist)
-        for (DBEdge e : dbgs.edges) {
-            if (!dbgs.edgeToOwnerMap.containsKey(e)) {
+        for (int e = 0; e < dbgs.edgeOwner.length; e++) {
+            if (dbgs.edgeOwner[e] < 0) {
                 // Can add this edge
-                actions.add(new AddGridCellEdge(e));
+                actions.add(new AddGridCellEdge(dbgs.topology.edges[e]));
             }
         }
 
-        return new ArrayList<>(actions);
+        return actions;
     }
 }
@@ -16,19 +16,15 @@ public class DBGameState extends AbstractGameState {
 
     IStateHeuristic heuristic;
 
-    // List of all edges possible
-    HashSet<DBEdge> edges;
-    // List of all cells possible
-    HashSet<DBCell> cells;
-    // Mapping from each edge to the cells it neighbours
-    HashMap<DBEdge, HashSet<DBCell>> edgeToCellMap;
-    // Mapping from each cell to its edges
-    HashMap<DBCell, HashSet<DBEdge>> cellToEdgesMap;
-
-    // Mutable state:
+    // Edges and cells of the grid, and which are next to which (shared by all copies)
+    DBTopology topology;
+
+    // Mutable state, indexed as in the topology:
     int[] nCellsPerPlayer;
-    HashMap<DBCell, Integer> cellToOwnerMap;  // Mapping from each cell to its owner, if complete
-    HashMap<DBEdge, Integer> edgeToOwnerMap;  // Mapping from each edge to its owner, if placed
+    byte[] edgeOwner;  // Owner of each edge, or -1 if not placed
+    byte[] cellOwner;  // Owner of each cell, or -1 if not complete
+    byte[] cellSides;  // Number of edges placed around each cell
+    int nCellsComplete;
     boolean lastActionScored;
 
     /**
@@ -48,21 +44,20 @@ public class DBGameState extends AbstractGameState {
 
     @Override
     protected List<Component> _getAllComponents() {
-        return new ArrayList<Component>() {{ addAll(edges); addAll(cells); }};
+        return new ArrayList<Component>() {{ addAll(Arrays.asList(topology.edges)); addAll(Arrays.asList(topology.cells)); }};
     }
 
     @Override
     protected AbstractGameState _copy(int playerId) {
         DBGameState dbgs = new DBGameState(gameParameters, getNPlayers());
-        dbgs.edges = edges;
-        dbgs.cells = cells;
-        dbgs.edgeToCellMap = edgeToCellMap;
-        dbgs.cellToEdgesMap = cellToEdgesMap;
+        dbgs.topology = topology;
         dbgs.lastActionScored = lastActionScored;
 
         dbgs.nCellsPerPlayer = nCellsPerPlayer.clone();
-        dbgs.cellToOwnerMap = (HashMap<DBCell, Integer>) cellToOwnerMap.clone();
-        dbgs.edgeToOwnerMap = (HashMap<DBEdge, Integer>) edgeToOwnerMap.clone();
+        dbgs.edgeOwner = edgeOwner.clone();
+        dbgs.cellOwner = cellOwner.clone();
+        dbgs.cellSides = cellSides.clone();
+        dbgs.nCellsComplete = nCellsComplete;
         dbgs.heuristic = heuristic;
         return dbgs;
     }
@@ -92,15 +87,18 @@ public class DBGameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof DBGameState)) return false;
-        if (!super.equals(o)) return false;
         DBGameState that = (DBGameState) o;
-        return lastActionScored == that.lastActionScored && Objects.equals(heuristic, that.heuristic) && Objects.equals(edges, that.edges) && Objects.equals(cells, that.cells) && Objects.equals(edgeToCellMap, that.edgeToCellMap) && Objects.equals(cellToEdgesMap, that.cellToEdgesMap) && Arrays.equals(nCellsPerPlayer, that.nCellsPerPlayer) && Objects.equals(cellToOwnerMap, that.cellToOwnerMap) && Objects.equals(edgeToOwnerMap, that.edgeToOwnerMap);
+        return lastActionScored == that.lastActionScored && topology.width == that.topology.width &&
+                topology.height == that.topology.height && Arrays.equals(nCellsPerPlayer, that.nCellsPerPlayer) &&
+                Arrays.equals(edgeOwner, that.edgeOwner) && Arrays.equals(cellOwner, that.cellOwner);
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(super.hashCode(), heuristic, edges, cells, edgeToCellMap, cellToEdgesMap, cellToOwnerMap, edgeToOwnerMap, lastActionScored);
+        int result = Objects.hash(super.hashCode(), topology.width, topology.height, lastActionScored);
         result = 31 * result + Arrays.hashCode(nCellsPerPlayer);
+        result = 31 * result + Arrays.hashCode(edgeOwner);
+        result = 31 * result + Arrays.hashCode(cellOwner);
         return result;
     }
 
@@ -109,52 +107,76 @@ public class DBGameState extends AbstractGameState {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
 
-        int i = 0;
-
-        for (DBEdge e: edges) {
-            if (i++ != 0) {
+        for (int i = 0; i < topology.edges.length; i++) {
+            if (i != 0) {
                 sb.append(",");
             }
-            int owner = -1;
-            if (edgeToOwnerMap.get(e) != null) {
-                owner = edgeToOwnerMap.get(e);
-            }
+            DBEdge e = topology.edges[i];
             sb.append("\"").append("Edge_Owner_").append(e.from.getX()).append("_").append(e.from.getY()).
-                    append(e.to.getX()).append(e.to.getY()).append("\":").append(owner);
+                    append(e.to.getX()).append(e.to.getY()).append("\":").append(edgeOwner[i]);
         }
 
-        for (DBCell c: cells) {
+        for (int i = 0; i < topology.cells.length; i++) {
+            DBCell c = topology.cells[i];
             sb.append(",");
-            int owner = -1;
-            if (cellToOwnerMap.get(c) != null) {
-                owner = cellToOwnerMap.get(c);
-            }
-            sb.append("\"").append("Cell_Owner_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(owner);
+            sb.append("\"").append("Cell_Owner_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(cellOwner[i]);
             sb.append(",");
-
-            int edgeCount = 0;
-
-            for (DBEdge e : cellToEdgesMap.get(c)) {
-                if (edgeToOwnerMap.get(e) != null) {
-                    edgeCount++;
-                }
-            }
-            sb.append("\"").append("Cell_Edge_Count_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(edgeCount);
+            sb.append("\"").append("Cell_Edge_Count_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(cellSides[i]);
         }
 
         sb.append("}");
         return sb.toString();
     }
 
+    /**
+     * Marks the edge with the given index as placed by the player, and any cells it completes as owned by them.
+     *
+     * @return number of cells completed
+     */
+    int addEdge(int edge, int player) {
+        edgeOwner[edge] = (byte) player;
+        int completed = 0;
+        for (int c : topology.edgeCells[edge]) {
+            if (++cellSides[c] == 4) {  // A cell has 4 sides
+                cellOwner[c] = (byte) player;
+                nCellsPerPlayer[player]++;
+                completed++;
+            }
+        }
+        nCellsComplete += completed;
+        return completed;
+    }
 
-    public int countCompleteEdges(DBCell c) {
-        int retValue = 0;
-        for (DBEdge e: cellToEdgesMap.get(c)) {
-            if (edgeToOwnerMap.containsKey(e)) {
-                retValue++;
+    /**
+     * Reverses {@link #addEdge(int, int)}.
+     */
+    void removeEdge(int edge) {
+        edgeOwner[edge] = -1;
+        for (int c : topology.edgeCells[edge]) {
+            if (cellSides[c]-- == 4) {
+                nCellsPerPlayer[cellOwner[c]]--;
+                cellOwner[c] = -1;
+                nCellsComplete--;
             }
         }
-        return retValue;
+    }
+
+    /**
+     * @return owner of the edge, or -1 if it has not been placed
+     */
+    public int getEdgeOwner(DBEdge e) {
+        return edgeOwner[topology.indexOf(e)];
+    }
+
+    /**
+     * @return owner of the cell, or -1 if it is not complete
+     */
+    public int getCellOwner(DBCell c) {
+        return cellOwner[topology.indexOf(c)];
+    }
+
+    public int countCompleteEdges(DBCell c) {
+        return cellSides[topology.indexOf(c)];
     }
     public boolean getLastActionScored(){return lastActionScored;}
     public void setLastActionScored(boolean value){lastActionScored = value;}
@@ -24,24 +24,42 @@ public class DBStateFeatures extends AbstractStateFeature {
 
     @Override
     protected double[] localFeatureVector(AbstractGameState gs, int playerID) {
-        DBGameState state = (DBGameState) gs;
         double[] retValue = new double[localNames.length];
+        localFeatureVector(gs, playerID, retValue, 0);
+        return retValue;
+    }
+
+    @Override
+    protected void localFeatureVector(AbstractGameState gs, int playerID, double[] buffer, int offset) {
+        writeFeatures(cellCountByEdges((DBGameState) gs), gs, playerID, buffer, offset);
+    }
+
+    @Override
+    protected void localFeatureVectors(AbstractGameState gs, double[][] buffer, int offset) {
+        // the cell counts are the same for all players
+        int[] cellCountByEdges = cellCountByEdges((DBGameState) gs);
+        for (int p = 0; p < gs.getNPlayers(); p++) {
+            writeFeatures(cellCountByEdges, gs, p, buffer[p], offset);
+        }
+    }
 
-        // CELLS
+    // CELLS
+    private int[] cellCountByEdges(DBGameState state) {
         int[] cellCountByEdges = new int[5];
-        for (DBCell cell : state.cells) {
-            int edges = state.countCompleteEdges(cell);
+        for (byte edges : state.cellSides) {
             cellCountByEdges[edges]++;
         }
+        return cellCountByEdges;
+    }
 
-        retValue[0] = cellCountByEdges[0];
-        retValue[1] = cellCountByEdges[1];
-        retValue[2] = cellCountByEdges[2];
-        retValue[3] = cellCountByEdges[3];
-        retValue[4] = cellCountByEdges[4] - gs.getGameScore(playerID);
-        retValue[5] = gs.getGameScore(playerID);
-
-        return retValue;
+    private void writeFeatures(int[] cellCountByEdges, AbstractGameState gs, int playerID, double[] buffer, int offset) {
+        double score = gs.getGameScore(playerID);
+        buffer[offset] = cellCountByEdges[0];
+        buffer[offset + 1] = cellCountByEdges[1];
+        buffer[offset + 2] = cellCountByEdges[2];
+        buffer[offset + 3] = cellCountByEdges[3];
+        buffer[offset + 4] = cellCountByEdges[4] - score;
+        buffer[offset + 5] = score;
     }
 
 }
@@ -0,0 +1,98 @@
+package games.dotsboxes;
+
+import utilities.Vector2D;
+
+/**
+ * Immutable layout of a grid of width x height cells: its edges and cells, each with an index, and which are next to
+ * which. Edge indices run first along the horizontal edges, row by row, and then along the vertical edges; cell
+ * (x, y) has index y * width + x.
+ * <p>
+ * The layout does not change during the game, so it is shared by all copies of a state, which only keep arrays of
+ * owners and counts indexed in the same way.
+ */
+final class DBTopology {
+
+    final int width, height;
+    final DBEdge[] edges;
+    final DBCell[] cells;
+    // Indices of the 1 or 2 cells next to each edge
+    final int[][] edgeCells;
+    // Indices of the 4 edges around each cell
+    final int[][] cellEdges;
+
+    private final int nHorizontal;
+
+    DBTopology(int width, int height) {
+        this.width = width;
+        this.height = height;
+        nHorizontal = (height + 1) * width;
+        edges = new DBEdge[nHorizontal + height * (width + 1)];
+        cells = new DBCell[width * height];
+
+        for (int y = 0; y <= height; y++) {
+            for (int x = 0; x < width; x++) {
+                int e = horizontal(x, y);
+                edges[e] = new DBEdge(new Vector2D(x, y), new Vector2D(x + 1, y), e);
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x <= width; x++) {
+                int e = vertical(x, y);
+                edges[e] = new DBEdge(new Vector2D(x, y), new Vector2D(x, y + 1), e);
+            }
+        }
+
+        cellEdges = new int[cells.length][];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int c = y * width + x;
+                cells[c] = new DBCell(x, y, c);
+                cellEdges[c] = new int[]{horizontal(x, y), horizontal(x, y + 1), vertical(x, y), vertical(x + 1, y)};
+            }
+        }
+
+        int[] nCells = new int[edges.length];
+        for (int[] around : cellEdges) {
+            for (int e : around) nCells[e]++;
+        }
+        edgeCells = new int[edges.length][];
+        for (int e = 0; e < edges.length; e++) {
+            edgeCells[e] = new int[nCells[e]];
+            nCells[e] = 0;
+        }
+        for (int c = 0; c < cells.length; c++) {
+            for (int e : cellEdges[c]) edgeCells[e][nCells[e]++] = c;
+        }
+    }
+
+    private int horizontal(int x, int y) {
+        return y * width + x;
+    }
+
+    private int vertical(int x, int y) {
+        return nHorizontal + y * (width + 1) + x;
+    }
+
+    /**
+     * @return index of the given edge (in either direction), or -1 if it is not an edge of this grid
+     */
+    int indexOf(DBEdge edge) {
+        if (edge.index >= 0) return edge.index;
+        Vector2D from = edge.from, to = edge.to;
+        int x = Math.min(from.getX(), to.getX()), y = Math.min(from.getY(), to.getY());
+        if (from.getY() == to.getY() && Math.abs(from.getX() - to.getX()) == 1 && x >= 0 && x < width && y >= 0 && y <= height)
+            return horizontal(x, y);
+        if (from.getX() == to.getX() && Math.abs(from.getY() - to.getY()) == 1 && x >= 0 && x <= width && y >= 0 && y < height)
+            return vertical(x, y);
+        return -1;
+    }
+
+    /**
+     * @return index of the given cell, or -1 if it is not a cell of this grid
+     */
+    int indexOf(DBCell cell) {
+        if (cell.index >= 0) return cell.index;
+        int x = cell.position.getX(), y = cell.position.getY();
+        return x >= 0 && x < width && y >= 0 && y < height ? y * width + x : -1;
+    }
+}
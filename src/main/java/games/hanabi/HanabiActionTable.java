@@ -0,0 +1,140 @@
+package games.hanabi;
+
+import core.actions.AbstractAction;
+import core.components.Deck;
+import games.hanabi.actions.Discard;
+import games.hanabi.actions.Hint;
+import games.hanabi.actions.Play;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed enumeration of every action a player could take in a game of Hanabi, so that the legal actions in a state
+ * can be worked out as a bitmask over it, and the same action objects used every time.
+ * <p>
+ * For each player, the indices 2k and 2k+1 are discarding and playing the card in slot k of their hand. They are
+ * followed by the hints to each other player, in turn order after this one: first a hint of each colour, and then a
+ * hint of each number.
+ * <p>
+ * The table depends only on the number of players, the parameters and the ids of the decks, which do not change
+ * when a state is copied, so it is shared by all copies of a state.
+ */
+public final class HanabiActionTable {
+
+    private static final CardType[] colours = CardType.values();
+
+    private final int nPlayers, nHandCards, nNumbers;
+    private final int hintsPerPlayer;
+    private final AbstractAction[][] actions;
+
+    HanabiActionTable(HanabiGameState state) {
+        HanabiParameters params = (HanabiParameters) state.getGameParameters();
+        nPlayers = state.getNPlayers();
+        nHandCards = params.nHandCards;
+        nNumbers = params.nNumberCards;
+        hintsPerPlayer = colours.length + nNumbers;
+
+        actions = new AbstractAction[nPlayers][2 * nHandCards + (nPlayers - 1) * hintsPerPlayer];
+        for (int player = 0; player < nPlayers; player++) {
+            AbstractAction[] table = actions[player];
+            int handID = state.playerDecks.get(player).getComponentID();
+            for (int slot = 0; slot < nHandCards; slot++) {
+                table[discardIndex(slot)] = new Discard(handID, state.discardDeck.getComponentID(), slot);
+                table[playIndex(slot)] = new Play(player, slot);
+            }
+            for (int offset = 1; offset < nPlayers; offset++) {
+                int target = (player + offset) % nPlayers;
+                for (CardType colour : colours) {
+                    table[colourHintIndex(offset, colour)] = new Hint(target, colour);
+                }
+                for (int number = 1; number <= nNumbers; number++) {
+                    table[numberHintIndex(offset, number)] = new Hint(target, number);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of actions in the table of each player
+     */
+    public int size() {
+        return actions[0].length;
+    }
+
+    public int discardIndex(int slot) {
+        return 2 * slot;
+    }
+
+    public int playIndex(int slot) {
+        return 2 * slot + 1;
+    }
+
+    /**
+     * @param offset - how many places after the player giving the hint the target is in turn order, from 1
+     */
+    public int colourHintIndex(int offset, CardType colour) {
+        return 2 * nHandCards + (offset - 1) * hintsPerPlayer + colour.ordinal();
+    }
+
+    /**
+     * @param offset - how many places after the player giving the hint the target is in turn order, from 1
+     */
+    public int numberHintIndex(int offset, int number) {
+        return 2 * nHandCards + (offset - 1) * hintsPerPlayer + colours.length + number - 1;
+    }
+
+    public AbstractAction getAction(int player, int index) {
+        return actions[player][index];
+    }
+
+    /**
+     * @return bitmask of the actions in the table that the current player can take in the given state: bit i of
+     * word i / 64 is set if action i is legal
+     */
+    public long[] legalActions(HanabiGameState state) {
+        long[] mask = new long[(size() + 63) / 64];
+        int player = state.getCurrentPlayer();
+
+        int nCards = state.playerDecks.get(player).getSize();
+        boolean canDiscard = state.hintCounter.getValue() != state.hintCounter.getMaximum();
+        for (int slot = 0; slot < nCards && slot < nHandCards; slot++) {
+            if (canDiscard) set(mask, discardIndex(slot));
+            set(mask, playIndex(slot));
+        }
+
+        if (state.hintCounter.getValue() != state.hintCounter.getMinimum()) {
+            for (int offset = 1; offset < nPlayers; offset++) {
+                Deck<HanabiCard> hand = state.playerDecks.get((player + offset) % nPlayers);
+                for (int i = 0; i < hand.getSize(); i++) {
+                    HanabiCard card = hand.get(i);
+                    set(mask, colourHintIndex(offset, card.color));
+                    set(mask, numberHintIndex(offset, card.number));
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return the actions the current player can take in the given state, in table order
+     */
+    public List<AbstractAction> computeAvailableActions(HanabiGameState state) {
+        long[] mask = legalActions(state);
+        int count = 0;
+        for (long word : mask) count += Long.bitCount(word);
+
+        AbstractAction[] table = actions[state.getCurrentPlayer()];
+        List<AbstractAction> available = new ArrayList<>(count);
+        for (int w = 0; w < mask.length; w++) {
+            for (long word = mask[w]; word != 0; word &= word - 1) {
+                available.add(table[w * 64 + Long.numberOfTrailingZeros(word)]);
+            }
+        }
+        return available;
+    }
+
+    private static void set(long[] mask, int index) {
+        mask[index >>> 6] |= 1L << index;
+    }
+}
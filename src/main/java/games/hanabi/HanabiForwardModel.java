@@ -11,10 +11,6 @@ import core.components.PartialObservableDeck;
 
 import java.util.*;
 
-import games.hanabi.actions.Discard;
-import games.hanabi.actions.Play;
-import games.hanabi.actions.Hint;
-
 import static core.CoreConstants.VisibilityMode.*;
 import static core.CoreConstants.GameResult.*;
 
@@ -41,6 +37,7 @@ public class HanabiForwardModel extends StandardForwardModel {
         hbgs.currentCard = new ArrayList<>();
 
         drawCardsToPlayers(hbgs);
+        hbgs.actionTable = new HanabiActionTable(hbgs);
     }
 
     private void createCards(HanabiGameState hbgs) {
@@ -101,32 +98,7 @@ public class HanabiForwardModel extends StandardForwardModel {
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
         HanabiGameState hbgs = (HanabiGameState) gameState;
-        ArrayList<AbstractAction> actions = new ArrayList<>();
-        int player = hbgs.getCurrentPlayer();
-        Deck<HanabiCard> playerHand = hbgs.playerDecks.get(player);
-
-        for (HanabiCard card : playerHand.getComponents()) {
-            int cardIdx = playerHand.getComponents().indexOf(card);
-            if (hbgs.hintCounter.getValue() != hbgs.hintCounter.getMaximum()) {
-                actions.add(new Discard(playerHand.getComponentID(), hbgs.discardDeck.getComponentID(), cardIdx));
-            }
-
-            actions.add(new Play(player, cardIdx));
-        }
-
-        if (hbgs.hintCounter.getValue() != hbgs.hintCounter.getMinimum()){
-            Set<AbstractAction> actionSet = new HashSet<>();
-            for (int i = 0; i < gameState.getNPlayers(); i++){
-                if (i != player) {
-                    for (HanabiCard card: hbgs.playerDecks.get(i).getComponents()) {
-                        actionSet.add(new Hint(i, card.number));
-                        actionSet.add(new Hint(i, card.color));
-                    }
-                }
-            }
-            actions.addAll(actionSet);
-        }
-        return actions;
+        return hbgs.actionTable.computeAvailableActions(hbgs);
     }
 
     @Override
@@ -25,6 +25,7 @@ public class HanabiGameState extends AbstractGameState implements IPrintable {
     Counter hintCounter;
     List<HanabiCard> currentCard;
     int endTurn = getNPlayers() + 1;
+    HanabiActionTable actionTable;  // Shared by all copies
 
 
     public HanabiGameState(AbstractParameters gameParameters, int nPlayers) {
@@ -51,6 +52,17 @@ public class HanabiGameState extends AbstractGameState implements IPrintable {
     @Override
     protected AbstractGameState _copy(int playerId) {
         HanabiGameState copy = new HanabiGameState(gameParameters.copy(), getNPlayers());
+        copyTo(copy, playerId);
+        return copy;
+    }
+
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        copyTo((HanabiGameState) target, playerId);
+        return true;
+    }
+
+    private void copyTo(HanabiGameState copy, int playerId) {
         copy.playerDecks = new ArrayList<>();
         for (PartialObservableDeck<HanabiCard> d : playerDecks) {
             copy.playerDecks.add(d.copy(playerId));
@@ -64,7 +76,8 @@ public class HanabiGameState extends AbstractGameState implements IPrintable {
         copy.discardDeck = discardDeck.copy();
         copy.hintCounter = hintCounter.copy();
         copy.failCounter = failCounter.copy();
-        return copy;
+        copy.endTurn = endTurn;
+        copy.actionTable = actionTable;
     }
     public Deck<HanabiCard> getDrawDeck() {
         return drawDeck;
@@ -86,6 +99,9 @@ public class HanabiGameState extends AbstractGameState implements IPrintable {
     public Counter getFailCounter() {
         return failCounter;
     }
+    public HanabiActionTable getActionTable() {
+        return actionTable;
+    }
     @Override
     protected double _getHeuristicScore(int playerId) {
         if (isNotTerminal() || playerResults[playerId] == CoreConstants.GameResult.WIN_GAME) {
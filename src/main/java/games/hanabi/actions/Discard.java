@@ -28,11 +28,15 @@ public class Discard extends DrawCard implements IPrintable {
 
     @Override
     public boolean execute(AbstractGameState gameState) {
+        // The same instance is used in every copy of the state (see HanabiActionTable), so the card is moved here
+        // rather than with DrawCard.execute(), which records the card moved in the action
         HanabiGameState hbgs = (HanabiGameState) gameState;
         Deck<HanabiCard> drawDeck = hbgs.getDrawDeck();
         PartialObservableDeck<HanabiCard> playerDeck = hbgs.getPlayerDecks().get(hbgs.getCurrentPlayer());
         Counter hintCounter = hbgs.getHintCounter();
-        super.execute(gameState);
+        // The card is discarded from the current player's hand
+        HanabiCard discarded = playerDeck.pick(fromIndex);
+        if (discarded != null) hbgs.getDiscardDeck().add(discarded, toIndex);
         if(drawDeck.getComponents().size() > 0) {
             HanabiCard card = drawDeck.draw();
             playerDeck.add(card);
@@ -43,12 +47,17 @@ public class Discard extends DrawCard implements IPrintable {
 
     @Override
     public AbstractAction copy() {
-        return new Discard(deckFrom, deckTo, fromIndex);
+        return this; // immutable
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof Discard;
+        return obj instanceof Discard && super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
     }
 
     @Override
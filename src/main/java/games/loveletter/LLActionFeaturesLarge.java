@@ -8,11 +8,11 @@ import games.loveletter.actions.*;
 import games.loveletter.cards.LoveLetterCard;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static java.util.stream.Collectors.toList;
 import static utilities.Utils.enumNames;
-import static utilities.Utils.enumToOneHot;
 
 public class LLActionFeaturesLarge implements IActionFeatureVector {
 
@@ -40,29 +40,64 @@ public class LLActionFeaturesLarge implements IActionFeatureVector {
 
     @Override
     public double[] featureVector(AbstractAction a, AbstractGameState state, int playerID) {
-        double[] retValue = new double[names().length];
+        double[] retValue = new double[localNames.length];
+        featureVector(a, state, playerID, retValue, 0);
+        return retValue;
+    }
+
+    @Override
+    public void featureVector(AbstractAction a, AbstractGameState state, int playerID, double[] buffer, int offset) {
+        if (cardFeatures(a, buffer, offset)) {
+            int targetPlayer = ((PlayCard) a).getTargetPlayer();
+            if (targetPlayer > -1)
+                targetFeatures((LoveLetterGameState) state, targetPlayer, playerID, buffer, offset);
+        }
+    }
+
+    @Override
+    public void featureVectors(List<? extends AbstractAction> actions, AbstractGameState state, int playerID, double[][] buffer) {
+        // Many actions share a target, so what we know of each target's hand is only looked at once
         LoveLetterGameState llgs = (LoveLetterGameState) state;
+        double[][] targets = new double[llgs.getNPlayers()][];
+        for (int i = 0; i < actions.size(); i++) {
+            AbstractAction a = actions.get(i);
+            if (!cardFeatures(a, buffer[i], 0))
+                continue;
+            int targetPlayer = ((PlayCard) a).getTargetPlayer();
+            if (targetPlayer > -1) {
+                if (targets[targetPlayer] == null) {
+                    targetFeatures(llgs, targetPlayer, playerID, buffer[i], 0);
+                    targets[targetPlayer] = Arrays.copyOfRange(buffer[i], 2 * featuresPerGroup, localNames.length);
+                } else {
+                    System.arraycopy(targets[targetPlayer], 0, buffer[i], 2 * featuresPerGroup, targets[targetPlayer].length);
+                }
+            }
+        }
+    }
+
+    // Clears the features, and sets those of the cards played and guessed; false if the action does not play a card
+    private boolean cardFeatures(AbstractAction a, double[] buffer, int offset) {
+        Arrays.fill(buffer, offset, offset + localNames.length, 0.0);
         if (!(a instanceof PlayCard))
-            return retValue;
+            return false;
         LoveLetterCard.CardType cardPlayed = ((PlayCard) a).getCardType();
         LoveLetterCard.CardType cardGuessed = ((PlayCard) a).getTargetCardType();
-        System.arraycopy(enumToOneHot(cardPlayed), 0, retValue, 0, featuresPerGroup);
+        buffer[offset + cardPlayed.ordinal()] = 1.0;
         if (cardGuessed != null)
-            System.arraycopy(enumToOneHot(cardGuessed), 0, retValue, featuresPerGroup, featuresPerGroup);
-        // Now for our knowledge of the target player's hand
-        int targetPlayer = ((PlayCard) a).getTargetPlayer();
-        if (targetPlayer > -1) {
-            PartialObservableDeck<LoveLetterCard> hand = llgs.getPlayerHandCards().get(targetPlayer);
-            for (int i = 0; i < hand.getSize(); i++) {
-                if (hand.isComponentVisible(i, playerID)) {
-                    int index = hand.get(i).cardType.ordinal();
-                    retValue[2 * featuresPerGroup + index] = 1.0;
-                }
+            buffer[offset + featuresPerGroup + cardGuessed.ordinal()] = 1.0;
+        return true;
+    }
+
+    // Our knowledge of the target player's hand, and their position
+    private void targetFeatures(LoveLetterGameState llgs, int targetPlayer, int playerID, double[] buffer, int offset) {
+        PartialObservableDeck<LoveLetterCard> hand = llgs.getPlayerHandCards().get(targetPlayer);
+        for (int i = 0; i < hand.getSize(); i++) {
+            if (hand.isComponentVisible(i, playerID)) {
+                int index = hand.get(i).cardType.ordinal();
+                buffer[offset + 2 * featuresPerGroup + index] = 1.0;
             }
-            retValue[3 * featuresPerGroup] = llgs.getOrdinalPosition(targetPlayer);
         }
-        return retValue;
+        buffer[offset + 3 * featuresPerGroup] = llgs.getOrdinalPosition(targetPlayer);
     }
 
-
 }
@@ -7,11 +7,11 @@ import games.loveletter.actions.PlayCard;
 import games.loveletter.cards.LoveLetterCard;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static java.util.stream.Collectors.toList;
 import static utilities.Utils.enumNames;
-import static utilities.Utils.enumToOneHot;
 
 public class LLActionFeaturesMedium implements IActionFeatureVector {
 
@@ -34,18 +34,21 @@ public class LLActionFeaturesMedium implements IActionFeatureVector {
 
     @Override
     public double[] featureVector(AbstractAction a, AbstractGameState state, int playerID) {
-        double[] retValue = new double[names().length];
-        LoveLetterGameState llgs = (LoveLetterGameState) state;
+        double[] retValue = new double[localNames.length];
+        featureVector(a, state, playerID, retValue, 0);
+        return retValue;
+    }
+
+    @Override
+    public void featureVector(AbstractAction a, AbstractGameState state, int playerID, double[] buffer, int offset) {
+        Arrays.fill(buffer, offset, offset + localNames.length, 0.0);
         if (!(a instanceof PlayCard))
-            return retValue;
+            return;
         LoveLetterCard.CardType cardPlayed = ((PlayCard) a).getCardType();
         LoveLetterCard.CardType cardGuessed = ((PlayCard) a).getTargetCardType();
-        System.arraycopy(enumToOneHot(cardPlayed), 0, retValue, 0, featuresPerGroup);
+        buffer[offset + cardPlayed.ordinal()] = 1.0;
         if (cardGuessed != null)
-            System.arraycopy(enumToOneHot(cardGuessed), 0, retValue, featuresPerGroup, featuresPerGroup);
-
-        return retValue;
+            buffer[offset + featuresPerGroup + cardGuessed.ordinal()] = 1.0;
     }
 
-
 }
@@ -6,12 +6,9 @@ import core.interfaces.IActionFeatureVector;
 import games.loveletter.actions.PlayCard;
 import games.loveletter.cards.LoveLetterCard;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
-import static java.util.stream.Collectors.toList;
 import static utilities.Utils.enumNames;
-import static utilities.Utils.enumToOneHot;
 
 public class LLActionFeaturesTiny implements IActionFeatureVector {
 
@@ -30,13 +27,17 @@ public class LLActionFeaturesTiny implements IActionFeatureVector {
 
     @Override
     public double[] featureVector(AbstractAction a, AbstractGameState state, int playerID) {
-        double[] retValue = new double[names().length];
-        if (!(a instanceof PlayCard))
-            return retValue;
-        LoveLetterCard.CardType cardPlayed = ((PlayCard) a).getCardType();
-        System.arraycopy(enumToOneHot(cardPlayed), 0, retValue, 0, featuresPerGroup);
+        double[] retValue = new double[localNames.length];
+        featureVector(a, state, playerID, retValue, 0);
         return retValue;
     }
 
+    @Override
+    public void featureVector(AbstractAction a, AbstractGameState state, int playerID, double[] buffer, int offset) {
+        Arrays.fill(buffer, offset, offset + localNames.length, 0.0);
+        if (!(a instanceof PlayCard))
+            return;
+        buffer[offset + ((PlayCard) a).getCardType().ordinal()] = 1.0;
+    }
 
 }
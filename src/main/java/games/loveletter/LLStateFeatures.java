@@ -1,18 +1,15 @@
 package games.loveletter;
 
 import core.AbstractGameState;
+import core.components.Deck;
 import core.components.PartialObservableDeck;
-import core.interfaces.IComponentContainer;
 import games.loveletter.cards.LoveLetterCard;
 import players.heuristics.AbstractStateFeature;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
 
-import static games.loveletter.cards.LoveLetterCard.CardType.Guard;
-import static games.loveletter.cards.LoveLetterCard.CardType.getMaxCardValue;
 import static java.util.stream.Collectors.toList;
 import static utilities.Utils.enumNames;
 
@@ -51,9 +48,46 @@ public class LLStateFeatures extends AbstractStateFeature {
 
     @Override
     protected double[] localFeatureVector(AbstractGameState gs, int playerID) {
+        double[] retValue = new double[localNames.length];
+        localFeatureVector(gs, playerID, retValue, 0);
+        return retValue;
+    }
+
+    @Override
+    protected void localFeatureVector(AbstractGameState gs, int playerID, double[] buffer, int offset) {
         LoveLetterGameState state = (LoveLetterGameState) gs;
+        discardFeatures(state, buffer, offset);
+        playerFeatures(state, playerID, buffer, offset);
+    }
 
-        double[] retValue = new double[localNames.length];
+    @Override
+    protected void localFeatureVectors(AbstractGameState gs, double[][] buffer, int offset) {
+        LoveLetterGameState state = (LoveLetterGameState) gs;
+        // the discards are the same for all players
+        discardFeatures(state, buffer[0], offset);
+        int discardStart = offset + baseFeatures + 2 * LoveLetterCard.CardType.values().length;
+        int featuresPerGroup = LoveLetterCard.CardType.values().length;
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            if (p > 0)
+                System.arraycopy(buffer[0], discardStart, buffer[p], discardStart, featuresPerGroup);
+            playerFeatures(state, p, buffer[p], offset);
+        }
+    }
+
+    private void discardFeatures(LoveLetterGameState state, double[] buffer, int offset) {
+        int discardStart = offset + baseFeatures + 2 * LoveLetterCard.CardType.values().length;
+        for (Deck<LoveLetterCard> discards : state.getPlayerDiscardCards()) {
+            for (int i = 0; i < discards.getSize(); i++) {
+                buffer[discardStart + discards.get(i).cardType.ordinal()] += 1.0;
+            }
+        }
+        // divide by total cards
+  //      retValue[baseFeatures + 2 * featuresPerGroup] /= 5.0;  // 5 Guard cards
+   //     for (int i = 1; i < featuresPerGroup; i++)
+   //         retValue[baseFeatures + 2 * featuresPerGroup + i] /= 2.0;  // 2 of all other types
+    }
+
+    private void playerFeatures(LoveLetterGameState state, int playerID, double[] buffer, int offset) {
         int featuresPerGroup = LoveLetterCard.CardType.values().length;
 
         double cardValues = 0;
@@ -63,12 +97,12 @@ public class LLStateFeatures extends AbstractStateFeature {
             LoveLetterCard card = hand.get(i);
             cardValues += card.cardType.getValue();
             int value = card.cardType.ordinal();
-            retValue[baseFeatures + value] = 1.0;
+            buffer[offset + baseFeatures + value] = 1.0;
             for (int j = 0; j < visibility.length; j++) {
                 if (j == playerID)
                     continue;
                 if (visibility[j]) {
-                    retValue[baseFeatures + featuresPerGroup + value] = 1.0;
+                    buffer[offset + baseFeatures + featuresPerGroup + value] = 1.0;
                     break;
                 }
             }
@@ -81,31 +115,19 @@ public class LLStateFeatures extends AbstractStateFeature {
             if (player != playerID) {
                 PartialObservableDeck<LoveLetterCard> deck = state.getPlayerHandCards().get(player);
                 for (int i = 0; i < deck.getSize(); i++) {
-                    if (deck.getVisibilityOfComponent(i)[playerID]) {
-                        visibleCards++;
-                        retValue[baseFeatures + 3 * featuresPerGroup + deck.getComponents().get(i).cardType.ordinal()] = 1.0;
+                    if (deck.getVisibilityForPlayer(i, playerID)) {
+                        // each visible card counts twice; this is the scale existing models were trained on
+                        visibleCards += 2;
+                        buffer[offset + baseFeatures + 3 * featuresPerGroup + deck.get(i).cardType.ordinal()] = 1.0;
                     }
                 }
-                visibleCards += (int) IntStream.range(0, deck.getSize()).filter(i -> deck.getVisibilityForPlayer(i, playerID)).count();
             }
         }
-        List<LoveLetterCard> discardDecks = state.getPlayerDiscardCards().stream()
-                .flatMap(IComponentContainer::stream)
-                .collect(toList());
-        for (LoveLetterCard discard : discardDecks) {
-            retValue[baseFeatures + 2 * featuresPerGroup + discard.cardType.ordinal()] += 1.0;
-        }
-        // divide by total cards
-  //      retValue[baseFeatures + 2 * featuresPerGroup] /= 5.0;  // 5 Guard cards
-   //     for (int i = 1; i < featuresPerGroup; i++)
-   //         retValue[baseFeatures + 2 * featuresPerGroup + i] /= 2.0;  // 2 of all other types
-
-        retValue[0] = state.isProtected(playerID) ? 1.0 : 0.0;
-        retValue[1] = visibleCards / (state.getNPlayers() - 1.0);
-        retValue[2] = cardValues; // / maxCardValue;
-        retValue[3] = state.getDrawPile().getSize() ; // / 16.0;
 
-        return retValue;
+        buffer[offset] = state.isProtected(playerID) ? 1.0 : 0.0;
+        buffer[offset + 1] = visibleCards / (state.getNPlayers() - 1.0);
+        buffer[offset + 2] = cardValues; // / maxCardValue;
+        buffer[offset + 3] = state.getDrawPile().getSize() ; // / 16.0;
     }
 
 }
@@ -35,6 +35,9 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
     // Affection tokens per player
     int[] affectionTokens;
 
+    // Shuffles the hidden cards when this state is reused by redeterminiseInto()
+    Random redeterminisationRnd;
+
     /**
      * For unit testing
      *
@@ -67,6 +70,21 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
     @Override
     protected AbstractGameState _copy(int playerId) {
         LoveLetterGameState llgs = new LoveLetterGameState(gameParameters.copy(), getNPlayers());
+        copyTo(llgs, playerId, new Random(llgs.getGameParameters().getRandomSeed()));
+        return llgs;
+    }
+
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        LoveLetterGameState llgs = (LoveLetterGameState) target;
+        // a new copy always shuffles with the same seed; a reused state draws a new determinisation each time
+        if (llgs.redeterminisationRnd == null)
+            llgs.redeterminisationRnd = new Random(llgs.getGameParameters().getRandomSeed());
+        copyTo(llgs, playerId, llgs.redeterminisationRnd);
+        return true;
+    }
+
+    private void copyTo(LoveLetterGameState llgs, int playerId, Random r) {
         llgs.drawPile = drawPile.copy();
         llgs.reserveCards = reserveCards.copy();
         llgs.removedCard = removedCard.copy();
@@ -92,7 +110,6 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
                     }
                 }
             }
-            Random r = new Random(llgs.getGameParameters().getRandomSeed());
             llgs.drawPile.shuffle(r);
             for (int i = 0; i < getNPlayers(); i++) {
                 if (i != playerId) {
@@ -107,7 +124,6 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
                 }
             }
         }
-        return llgs;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package games.pandemic;
 
 import utilities.Hash;
+import utilities.Utils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +21,18 @@ public class PandemicConstants {
     public final static int countryHash = Hash.GetInstance().hash("country");
     public final static int edgeHash = Hash.GetInstance().hash("edge");
     public final static int effectHash = Hash.GetInstance().hash("effect");
+    public final static int populationHash = Hash.GetInstance().hash("population");
+
+    // Hashes of the counters for each disease ("Disease [color]") and its cubes ("Disease Cube [color]"), in the
+    // order of colors, so that they are not hashed from strings during the game
+    public final static int[] diseaseHashes = new int[colors.length];
+    public final static int[] diseaseCubeHashes = new int[colors.length];
+    static {
+        for (int i = 0; i < colors.length; i++) {
+            diseaseHashes[i] = Hash.GetInstance().hash("Disease " + colors[i]);
+            diseaseCubeHashes[i] = Hash.GetInstance().hash("Disease Cube " + colors[i]);
+        }
+    }
 
     // mostly for setup
     public final static int playerDeckHash = Hash.GetInstance().hash("Player Deck");
@@ -30,6 +43,14 @@ public class PandemicConstants {
     // for contingency planner
     public final static int plannerDeckHash = Hash.GetInstance().hash("plannerDeck");
 
+    public static int diseaseHash(String color) {
+        return diseaseHashes[Utils.indexOf(colors, color)];
+    }
+
+    public static int diseaseCubeHash(String color) {
+        return diseaseCubeHashes[Utils.indexOf(colors, color)];
+    }
+
     public enum PlayerRole {
         Any,
         Scientist,
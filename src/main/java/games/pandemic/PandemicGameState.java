@@ -9,7 +9,6 @@ import core.components.Area;
 import core.AbstractParameters;
 import core.turnorders.TurnOrder;
 import games.GameType;
-import utilities.Hash;
 
 import java.util.*;
 
@@ -67,11 +66,11 @@ public class PandemicGameState extends AbstractGameStateWithTurnOrder implements
         double[] features = new double[3 + colors.length];
         int nDiseasesCured = 0;
         int i = 3;
-        for (String color: colors) {
-            Counter disease = (Counter) getComponent(Hash.GetInstance().hash("Disease " + color));
+        for (int c = 0; c < colors.length; c++) {
+            Counter disease = (Counter) getComponent(diseaseHashes[c]);
             if (disease.getValue() >= 1) nDiseasesCured++;
 
-            Counter diseaseCube = (Counter) getComponent(Hash.GetInstance().hash("Disease cube " + color));
+            Counter diseaseCube = (Counter) getComponent(diseaseCubeHashes[c]);
             features[i++] = diseaseCube.getValue();
         }
 
@@ -10,6 +10,7 @@ import games.pandemic.PandemicGameState;
 import java.util.Objects;
 
 import static core.CoreConstants.nameHash;
+import static games.pandemic.PandemicConstants.researchStationHash;
 
 
 public class AddResearchStationFrom extends AddResearchStation {
@@ -29,7 +30,7 @@ public class AddResearchStationFrom extends AddResearchStation {
         // Remove research station from "fromCity" location
         BoardNode bn = pgs.getWorld().getNodeByStringProperty(nameHash, fromCity);
         if (bn != null) {
-            bn.setProperty(new PropertyBoolean("Research Stations", false));
+            bn.setProperty(new PropertyBoolean("Research Stations", researchStationHash, false));
             pgs.removeResearchStation(((PropertyString) bn.getProperty(nameHash)).value);
         }
 
@@ -5,8 +5,8 @@ import core.components.Card;
 import core.components.Counter;
 import core.components.Deck;
 import core.AbstractGameState;
+import games.pandemic.PandemicConstants;
 import games.pandemic.PandemicGameState;
-import utilities.Hash;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
@@ -29,7 +29,7 @@ public class CureDisease extends AbstractAction {
     public boolean execute(AbstractGameState gs) {
         // Find disease counter
         PandemicGameState pgs = (PandemicGameState)gs;
-        Counter diseaseCounter = (Counter) pgs.getComponent(Hash.GetInstance().hash("Disease " + color));
+        Counter diseaseCounter = (Counter) pgs.getComponent(PandemicConstants.diseaseHash(color));
         if (diseaseCounter.getValue() == 0) {
             diseaseCounter.setValue(1);  // Set to cured
 
@@ -9,7 +9,6 @@ import core.properties.*;
 import core.AbstractGameState;
 import games.pandemic.PandemicConstants;
 import games.pandemic.PandemicGameState;
-import utilities.Hash;
 import utilities.Utils;
 
 import java.util.ArrayList;
@@ -42,12 +41,12 @@ public class InfectCity extends DrawCard {
         PandemicGameState pgs = (PandemicGameState)gs;
         Card infectingCard = getCard(gs);
         PropertyColor color = (PropertyColor) infectingCard.getProperty(colorHash);
-        Counter diseaseCounter = (Counter) pgs.getComponent(Hash.GetInstance().hash("Disease " + color.valueStr));
+        int colorIdx = Utils.indexOf(colors, color.valueStr);
+        Counter diseaseCounter = (Counter) pgs.getComponent(PandemicConstants.diseaseHashes[colorIdx]);
 
         boolean disease_eradicated = diseaseCounter.getValue() == 2;
         if (!disease_eradicated) {  // Only infect if disease is not eradicated
-            Counter diseaseCubeCounter = (Counter) pgs.getComponent(Hash.GetInstance().hash("Disease Cube " + color.valueStr));
-            int colorIdx = Utils.indexOf(colors, color.valueStr);
+            Counter diseaseCubeCounter = (Counter) pgs.getComponent(PandemicConstants.diseaseCubeHashes[colorIdx]);
             PropertyString city = (PropertyString) infectingCard.getProperty(nameHash);
 
             BoardNode bn = pgs.getWorld().getNodeByStringProperty(nameHash, city.value);
@@ -56,7 +56,7 @@ public class MovePlayer extends AbstractAction {
         prop.getValues().add(playerIdx);
 
         Card playerCard = (Card) gs.getComponent(PandemicConstants.playerCardHash, playerIdx);
-        playerCard.setProperty(new PropertyString("playerLocation", city));
+        playerCard.setProperty(new PropertyString("playerLocation", PandemicConstants.playerLocationHash, city));
     }
 
     public static void removePlayer(PandemicGameState gs, String city, int playerIdx) {
@@ -65,7 +65,7 @@ public class MovePlayer extends AbstractAction {
         prop.getValues().remove(Integer.valueOf(playerIdx));
 
         Card playerCard = (Card) gs.getComponent(PandemicConstants.playerCardHash, playerIdx);
-        playerCard.setProperty(new PropertyString("playerLocation", null));
+        playerCard.setProperty(new PropertyString("playerLocation", PandemicConstants.playerLocationHash, null));
     }
 
     public String getDestination(){
@@ -6,7 +6,6 @@ import core.components.Counter;
 import core.properties.PropertyIntArray;
 import core.AbstractGameState;
 import games.pandemic.PandemicGameState;
-import utilities.Hash;
 import utilities.Utils;
 
 import java.util.Objects;
@@ -39,9 +38,9 @@ public class TreatDisease extends AbstractAction {
     public boolean execute(AbstractGameState gs) {
         PandemicGameState pgs = (PandemicGameState) gs;
 
-        Counter diseaseToken = (Counter) pgs.getComponent(Hash.GetInstance().hash("Disease " + color));
-        Counter diseaseCubeCounter = (Counter) pgs.getComponent(Hash.GetInstance().hash("Disease Cube " + color));
         int colorIdx = Utils.indexOf(colors, color);
+        Counter diseaseToken = (Counter) pgs.getComponent(diseaseHashes[colorIdx]);
+        Counter diseaseCubeCounter = (Counter) pgs.getComponent(diseaseCubeHashes[colorIdx]);
 
         BoardNode bn = pgs.getWorld().getNodeByStringProperty(nameHash, city);
         if (bn != null) {
@@ -14,7 +14,6 @@ import games.pandemic.actions.Forecast;
 import games.pandemic.actions.MovePlayer;
 import games.pandemic.actions.QuietNight;
 import games.pandemic.actions.TreatDisease;
-import utilities.Hash;
 
 import static core.CoreConstants.playerHandHash;
 import static core.CoreConstants.nameHash;
@@ -58,7 +57,7 @@ public class PlayerAction extends core.rules.rulenodes.PlayerAction {
 
                 if (roleString.equals("Medic")) {
                     for (String color : PandemicConstants.colors) {
-                        Counter diseaseToken = (Counter) ((PandemicGameState) gs).getComponent(Hash.GetInstance().hash("Disease " + color));
+                        Counter diseaseToken = (Counter) ((PandemicGameState) gs).getComponent(PandemicConstants.diseaseHash(color));
                         String city = ((MovePlayer) action).getDestination();
                         boolean disease_cured = diseaseToken.getValue() > 0;
                         if (disease_cured) {
@@ -20,6 +20,8 @@ import java.util.*;
 
 import static core.CoreConstants.GameResult.WIN_GAME;
 import static games.pandemic.PandemicConstants.colors;
+import static games.pandemic.PandemicConstants.diseaseCubeHash;
+import static games.pandemic.PandemicConstants.diseaseHash;
 import static games.pandemic.PandemicConstants.infectionHash;
 
 @SuppressWarnings("unused")
@@ -118,9 +120,9 @@ public class PandemicMetrics implements IMetricsCollection {
         int count = 0;
         for (String color: colors) {
             if (cubes) {
-                count += ((Counter) pgs.getComponent(Hash.GetInstance().hash("Disease Cube " + color))).getValue();
+                count += ((Counter) pgs.getComponent(diseaseCubeHash(color))).getValue();
             } else {
-                if (((Counter) pgs.getComponent(Hash.GetInstance().hash("Disease " + color))).getValue() == targetValue)
+                if (((Counter) pgs.getComponent(diseaseHash(color))).getValue() == targetValue)
                     count++;
             }
         }
@@ -3,6 +3,7 @@ package games.stratego;
 import core.AbstractGameState;
 import core.CoreConstants;
 import core.StandardForwardModel;
+import core.UndoLog;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.components.GridBoard;
@@ -96,6 +97,37 @@ public class StrategoForwardModel extends StandardForwardModel implements ITreeA
         return _computeAvailableActions(gameState, ActionSpace.Default);
     }
 
+    @Override
+    public boolean supportsUndo(AbstractGameState state, AbstractAction action) {
+        // moves chosen in two steps (DeepMove) are extended action sequences, which cannot be undone
+        return action instanceof Move;
+    }
+
+    @Override
+    protected boolean _recordUndo(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+        // a move or attack only changes the two cells involved, and the positions and visibility of their pieces
+        StrategoGameState sgs = (StrategoGameState) currentState;
+        GridBoard<Piece> board = sgs.gridBoard;
+        Move move = (Move) action;
+        Vector2D from = move.from(sgs).copy();
+        Vector2D to = move.to(sgs).copy();
+        Piece movedPiece = board.getElement(from);
+        Piece targetPiece = board.getElement(to);
+        boolean movedKnown = movedPiece.isPieceKnown();
+        boolean targetKnown = targetPiece != null && targetPiece.isPieceKnown();
+        undoLog.add(() -> {
+            board.setElement(from, movedPiece);
+            board.setElement(to, targetPiece);
+            movedPiece.setPiecePosition(from);
+            movedPiece.setPieceKnown(movedKnown);
+            if (targetPiece != null) {
+                targetPiece.setPiecePosition(to);
+                targetPiece.setPieceKnown(targetKnown);
+            }
+        });
+        return true;
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         if (currentState.getGameStatus() == CoreConstants.GameResult.GAME_END || currentState.isActionInProgress()){
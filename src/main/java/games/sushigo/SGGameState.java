@@ -64,7 +64,17 @@ public class SGGameState extends AbstractGameState {
     @Override
     protected SGGameState _copy(int playerId) {
         SGGameState copy = new SGGameState(gameParameters.copy(), getNPlayers());
+        copyTo(copy, playerId);
+        return copy;
+    }
 
+    @Override
+    protected boolean _copyInto(AbstractGameState target, int playerId) {
+        copyTo((SGGameState) target, playerId);
+        return true;
+    }
+
+    private void copyTo(SGGameState copy, int playerId) {
         copy.playerScore = new Counter[getNPlayers()];
         copy.playedCardTypes = new HashMap[getNPlayers()];
         copy.playedCardTypesAllGame = new HashMap[getNPlayers()];
@@ -140,8 +150,6 @@ public class SGGameState extends AbstractGameState {
                 }
             }
         }
-
-        return copy;
     }
 
     /**
@@ -12,6 +12,7 @@ import games.terraformingmars.components.Award;
 import games.terraformingmars.components.Milestone;
 import games.terraformingmars.components.TMCard;
 import games.terraformingmars.components.TMMapTile;
+import games.terraformingmars.rules.requirements.TMApplicabilityIndex;
 import games.terraformingmars.rules.requirements.TagOnCardRequirement;
 import utilities.Vector2D;
 
@@ -31,6 +32,7 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
         TMGameParameters params = (TMGameParameters) firstState.getGameParameters();
         Random rnd = new Random(params.getRandomSeed());
 
+        gs.applicabilityIndex = new TMApplicabilityIndex(params.cacheRequirements);
         gs.playerResources = new HashMap[gs.getNPlayers()];
         gs.playerProduction = new HashMap[gs.getNPlayers()];
         gs.playerResourceMap = new HashSet[gs.getNPlayers()];
@@ -55,7 +57,7 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
                 }
                 gs.playerResourceIncreaseGen[i].put(res, false);
             }
-            gs.playerResourceMap[i] = new HashSet<>();
+            gs.playerResourceMap[i] = new LinkedHashSet<>();
             // By default, players can exchange steel for X MC and titanium for X MC. More may be added
             gs.playerResourceMap[i].add(new TMGameState.ResourceMapping(TMTypes.Resource.Steel, TMTypes.Resource.MegaCredit, params.nSteelMC, new TagOnCardRequirement(new TMTypes.Tag[]{TMTypes.Tag.Building})));
             gs.playerResourceMap[i].add(new TMGameState.ResourceMapping(TMTypes.Resource.Titanium, TMTypes.Resource.MegaCredit, params.nTitaniumMC, new TagOnCardRequirement(new TMTypes.Tag[]{TMTypes.Tag.Space})));
@@ -174,8 +176,8 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
             for (TMTypes.Tag t : TMTypes.Tag.values()) {
                 gs.playerCardsPlayedTags[i].put(t, new Counter(0, 0, params.maxPoints, t.name() + " cards played player " + i));
             }
-            gs.playerExtraActions[i] = new HashSet<>();
-            gs.playerPersistingEffects[i] = new HashSet<>();
+            gs.playerExtraActions[i] = new LinkedHashSet<>();
+            gs.playerPersistingEffects[i] = new LinkedHashSet<>();
         }
 
         gs.nAwardsFunded = new Counter(0, 0, params.nCostAwards.length, "Awards funded");
@@ -342,18 +344,25 @@ public class TMForwardModel extends StandardForwardModelWithTurnOrder {
         TMGameParameters params = (TMGameParameters) gs.getGameParameters();
         int player = gs.getCurrentPlayer();
 
-        List<AbstractAction> possibleActions = getAllActions(gs);
-
-        // Wrap actions that can actually be played and must be paid for
-        for (AbstractAction aa : possibleActions) {
-            TMAction a = (TMAction) aa;
-            if (a != null && a.canBePlayed(gs)) {
-                if (a.getCost() != 0) {
-                    actions.add(new PayForAction(player, a));
-                } else {
-                    actions.add(a);
+        // Requirement checks are cached across calls and state copies, and only re-tested if the state they depend on has changed
+        TMApplicabilityIndex index = gs.getApplicabilityIndex();
+        index.beginQuery(gs);
+        try {
+            List<AbstractAction> possibleActions = getAllActions(gs);
+
+            // Wrap actions that can actually be played and must be paid for
+            for (AbstractAction aa : possibleActions) {
+                TMAction a = (TMAction) aa;
+                if (a != null && a.canBePlayed(gs)) {
+                    if (a.getCost() != 0) {
+                        actions.add(new PayForAction(player, a));
+                    } else {
+                        actions.add(a);
+                    }
                 }
             }
+        } finally {
+            index.endQuery();
         }
 
         return actions;
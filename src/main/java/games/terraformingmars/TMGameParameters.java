@@ -70,6 +70,9 @@ public class TMGameParameters extends AbstractParameters {
     int nPointsAwardFirst = 5;
     int nPointsAwardSecond = 2;
 
+    // Reuse requirement checks between action computations (see TMApplicabilityIndex)
+    boolean cacheRequirements = true;
+
     public TMGameParameters(long seed) {
         super(seed);
     }
@@ -14,6 +14,7 @@ import games.terraformingmars.rules.effects.Bonus;
 import games.terraformingmars.rules.effects.Effect;
 import games.terraformingmars.rules.requirements.ActionTypeRequirement;
 import games.terraformingmars.rules.requirements.Requirement;
+import games.terraformingmars.rules.requirements.TMApplicabilityIndex;
 import games.terraformingmars.rules.requirements.TagsPlayedRequirement;
 import utilities.Pair;
 import utilities.Utils;
@@ -68,6 +69,9 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
     Counter nMilestonesClaimed;
     Counter nAwardsFunded;
 
+    // Cached requirement checks for computing available actions, shared with copies
+    TMApplicabilityIndex applicabilityIndex;
+
     /**
      * Constructor. Initialises some generic game state variables.
      *
@@ -124,6 +128,7 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
 
         // General public info
         copy.generation = generation;
+        copy.applicabilityIndex = applicabilityIndex;
         copy.board = board.emptyCopy();  // Deep copy of board
         for (int i = 0; i < board.getHeight(); i++) {
             for (int j = 0; j < board.getWidth(); j++) {
@@ -178,9 +183,9 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         copy.playedCards = new Deck[getNPlayers()];
         copy.playerCorporations = new TMCard[getNPlayers()];
         for (int i = 0; i < getNPlayers(); i++) {
-            copy.playerExtraActions[i] = new HashSet<>();
-            copy.playerResourceMap[i] = new HashSet<>();
-            copy.playerPersistingEffects[i] = new HashSet<>();
+            copy.playerExtraActions[i] = new LinkedHashSet<>();
+            copy.playerResourceMap[i] = new LinkedHashSet<>();
+            copy.playerPersistingEffects[i] = new LinkedHashSet<>();
             copy.playerDiscountEffects[i] = new HashMap<>();
             copy.playerResources[i] = new HashMap<>();
             copy.playerResourceIncreaseGen[i] = new HashMap<>();
@@ -491,6 +496,11 @@ public class TMGameState extends AbstractGameStateWithTurnOrder {
         return projectCards;
     }
 
+    public TMApplicabilityIndex getApplicabilityIndex() {
+        if (applicabilityIndex == null) applicabilityIndex = new TMApplicabilityIndex();
+        return applicabilityIndex;
+    }
+
     public HashSet<ResourceMapping>[] getPlayerResourceMap() {
         return playerResourceMap;
     }
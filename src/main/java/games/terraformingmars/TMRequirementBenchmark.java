@@ -0,0 +1,84 @@
+package games.terraformingmars;
+
+import core.AbstractPlayer;
+import core.Game;
+import games.GameType;
+import games.terraformingmars.rules.requirements.TMApplicabilityIndex;
+import players.simple.OSLAPlayer;
+import players.simple.RandomPlayer;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays the same games of Terraforming Mars with and without the requirement cache (see TMApplicabilityIndex), and
+ * reports how many action checks evaluated their requirements, and the time taken. Games are stepped with
+ * Game.oneAction(), which computes the actions for each decision on a new copy of the game state; OSLA players also
+ * look one action ahead on copies of their own.
+ * <p>
+ * Games with random play often hit an error in the game rules, or go round in circles, before they end. Each game is
+ * played until it ends, for at most maxSteps actions, or until such an error, which is reported. As the players are
+ * seeded, the same actions should be taken in both runs, and this is checked.
+ * <p>
+ * Arguments are: nPlayers (default 2), nGames (default 20), maxSteps (default 1000), player (random or osla, default
+ * random) and seed.
+ */
+public class TMRequirementBenchmark {
+
+    public static void main(String... args) {
+        int nPlayers = Utils.getArg(args, "nPlayers", 2);
+        int nGames = Utils.getArg(args, "nGames", 20);
+        int maxSteps = Utils.getArg(args, "maxSteps", 1000);
+        String player = Utils.getArg(args, "player", "random");
+        long seed = Utils.getArg(args, "seed", System.currentTimeMillis());
+
+        List<String> firstRun = null;
+        for (boolean cache : new boolean[]{false, true}) {
+            Random rnd = new Random(seed);
+            long lookups = 0, evaluations = 0, nanos = 0;
+            int steps = 0, errors = 0;
+            List<String> played = new ArrayList<>();
+            for (int g = 0; g < nGames; g++) {
+                TMGameParameters params = new TMGameParameters(rnd.nextLong());
+                params.cacheRequirements = cache;
+                Game game = GameType.TerraformingMars.createGameInstance(nPlayers, params.getRandomSeed(), params);
+                List<AbstractPlayer> players = new ArrayList<>();
+                for (int p = 0; p < nPlayers; p++) {
+                    Random playerRnd = new Random(rnd.nextLong());
+                    players.add(player.equals("osla") ? new OSLAPlayer(playerRnd) : new RandomPlayer(playerRnd));
+                }
+                game.reset(players);
+
+                StringBuilder actions = new StringBuilder();
+                long start = System.nanoTime();
+                try {
+                    for (int i = 0; i < maxSteps && game.getGameState().isNotTerminal(); i++) {
+                        actions.append(game.oneAction()).append(';');
+                        steps++;
+                    }
+                } catch (AssertionError e) {
+                    actions.append(e.getMessage());
+                    errors++;
+                }
+                nanos += System.nanoTime() - start;
+                played.add(actions.toString());
+
+                TMApplicabilityIndex index = ((TMGameState) game.getGameState()).getApplicabilityIndex();
+                lookups += index.getLookups();
+                evaluations += index.getEvaluations();
+            }
+            System.out.printf("Cache %-5s: %d games (%d stopped by errors), %,d actions taken, %,d action checks, " +
+                            "%,d evaluated (%.1f%%), %.2f s%n", cache, nGames, errors, steps, lookups, evaluations,
+                    100.0 * evaluations / Math.max(1, lookups), nanos / 1e9);
+            if (firstRun == null) {
+                firstRun = played;
+            } else {
+                for (int g = 0; g < nGames; g++)
+                    if (!firstRun.get(g).equals(played.get(g)))
+                        System.out.printf("Game %d was not played the same way in both runs%n", g);
+            }
+        }
+    }
+}
@@ -133,7 +133,7 @@ public class TMTypes {
         String imagePath;
         boolean playerBoardRes;
         boolean canGoOnCard;
-        static int nPlayerBoardRes = -1;
+        static volatile int nPlayerBoardRes = -1;
 
         Resource(String imagePath, boolean playerBoardRes, boolean canGoOnCard) {
             this.imagePath = imagePath;
@@ -150,10 +150,12 @@ public class TMTypes {
 
         public static int nPlayerBoardRes() {
             if (nPlayerBoardRes == -1) {
-                nPlayerBoardRes = 0;
+                // counted before publishing, so that other threads never see a partial count
+                int n = 0;
                 for (Resource res : values()) {
-                    if (res.isPlayerBoardRes()) nPlayerBoardRes++;
+                    if (res.isPlayerBoardRes()) n++;
                 }
+                nPlayerBoardRes = n;
             }
             return nPlayerBoardRes;
         }
@@ -51,8 +51,13 @@ public class ChoiceAction extends TMAction implements IExtendedSequence {
             if (c != null && c.actionPlayed) played = true;
         }
         if (played && standardProject == null && basicResourceAction == null) return false;
+        return gs.getApplicabilityIndex().requirementsMet(this, gs);
+    }
+
+    @Override
+    public boolean testRequirements(TMGameState gs) {
         if (requirements != null && requirements.size() > 0) {
-            for (Requirement r: requirements) {
+            for (Requirement<TMGameState> r: requirements) {
                 if (r.testCondition(gs)) return true;
             }
         }
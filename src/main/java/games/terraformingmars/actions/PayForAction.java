@@ -52,6 +52,8 @@ public class PayForAction extends TMAction implements IExtendedSequence {
         resources.add(getCostResource());  // Can always pay with itself
 
         resourcesToPayWith = resources.toArray(new TMTypes.Resource[0]);
+        // Paid for in a fixed order, as the order of the set differs from one run to another
+        Arrays.sort(resourcesToPayWith);
         stage = 0;
         costPaid = 0;
 
@@ -38,7 +38,6 @@ public class PlaceTile extends TMAction implements IExtendedSequence {
     public boolean removeResourcesProd;
 
     boolean placed;
-    boolean impossible;
 
     public PlaceTile() { super(); } // This is needed for JSON Deserializer
 
@@ -179,7 +178,6 @@ public class PlaceTile extends TMAction implements IExtendedSequence {
     public PlaceTile _copy() {
         PlaceTile copy = new PlaceTile(player, mapTileID, tile, respectingAdjacency, onMars, tileName, mapType,
                 legalPositions, resourcesGainedRestriction, volcanicRestriction, adjacencyRequirement, freeActionPoint);
-        copy.impossible = impossible;
         copy.placed = placed;
         HashSet<Integer> copyPos = null;
         if (legalPositions != null) {
@@ -258,11 +256,11 @@ public class PlaceTile extends TMAction implements IExtendedSequence {
                 }
             }
             if (actions.size() == 0) {
-                impossible = true;
+                // Nowhere to place it: pass, which completes this sequence (see _afterAction). Nothing is changed
+                // here, so that every computation of the actions in this state gives the same result
                 actions.add(new TMAction(player));
             }
         } else {
-            impossible = true;
             actions.add(new TMAction(player));
         }
         return actions;
@@ -280,7 +278,7 @@ public class PlaceTile extends TMAction implements IExtendedSequence {
 
     @Override
     public boolean executionComplete(AbstractGameState state) {
-        return placed || impossible;
+        return placed;
     }
 
     @Override
@@ -289,12 +287,12 @@ public class PlaceTile extends TMAction implements IExtendedSequence {
         if (!(o instanceof PlaceTile)) return false;
         if (!super.equals(o)) return false;
         PlaceTile placeTile = (PlaceTile) o;
-        return respectingAdjacency == placeTile.respectingAdjacency && onMars == placeTile.onMars && mapTileID == placeTile.mapTileID && volcanicRestriction == placeTile.volcanicRestriction && removeResourcesAdjacentOwner == placeTile.removeResourcesAdjacentOwner && removeResourcesAmount == placeTile.removeResourcesAmount && removeResourcesProd == placeTile.removeResourcesProd && placed == placeTile.placed && impossible == placeTile.impossible && Objects.equals(tileName, placeTile.tileName) && tile == placeTile.tile && mapType == placeTile.mapType && Objects.equals(legalPositions, placeTile.legalPositions) && Arrays.equals(resourcesGainedRestriction, placeTile.resourcesGainedRestriction) && Objects.equals(adjacencyRequirement, placeTile.adjacencyRequirement) && removeResourcesRes == placeTile.removeResourcesRes;
+        return respectingAdjacency == placeTile.respectingAdjacency && onMars == placeTile.onMars && mapTileID == placeTile.mapTileID && volcanicRestriction == placeTile.volcanicRestriction && removeResourcesAdjacentOwner == placeTile.removeResourcesAdjacentOwner && removeResourcesAmount == placeTile.removeResourcesAmount && removeResourcesProd == placeTile.removeResourcesProd && placed == placeTile.placed && Objects.equals(tileName, placeTile.tileName) && tile == placeTile.tile && mapType == placeTile.mapType && Objects.equals(legalPositions, placeTile.legalPositions) && Arrays.equals(resourcesGainedRestriction, placeTile.resourcesGainedRestriction) && Objects.equals(adjacencyRequirement, placeTile.adjacencyRequirement) && removeResourcesRes == placeTile.removeResourcesRes;
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(super.hashCode(), respectingAdjacency, onMars, tileName, mapTileID, tile, mapType, legalPositions, volcanicRestriction, adjacencyRequirement, removeResourcesAdjacentOwner, removeResourcesAmount, removeResourcesRes, removeResourcesProd, placed, impossible);
+        int result = Objects.hash(super.hashCode(), respectingAdjacency, onMars, tileName, mapTileID, tile, mapType, legalPositions, volcanicRestriction, adjacencyRequirement, removeResourcesAdjacentOwner, removeResourcesAmount, removeResourcesRes, removeResourcesProd, placed);
         result = 31 * result + Arrays.hashCode(resourcesGainedRestriction);
         return result;
     }
@@ -14,7 +14,6 @@ public class ReserveTile extends TMAction implements IExtendedSequence {
     public TMTypes.MapTileType mapType;
 
     boolean placed;
-    boolean impossible;
 
     public ReserveTile() { super(); } // This is needed for JSON Deserializer
 
@@ -43,7 +42,6 @@ public class ReserveTile extends TMAction implements IExtendedSequence {
     @Override
     public ReserveTile _copy() {
         ReserveTile copy = new ReserveTile(player, mapTileID, freeActionPoint);
-        copy.impossible = impossible;
         copy.placed = placed;
         copy.mapType = mapType;
         return copy;
@@ -70,11 +68,11 @@ public class ReserveTile extends TMAction implements IExtendedSequence {
                 }
             }
             if (actions.size() == 0) {
-                impossible = true;
+                // Nowhere to place it: pass, which completes this sequence (see _afterAction). Nothing is changed
+                // here, so that every computation of the actions in this state gives the same result
                 actions.add(new TMAction(player));
             }
         } else {
-            impossible = true;
             actions.add(new TMAction(player));
         }
         return actions;
@@ -92,7 +90,7 @@ public class ReserveTile extends TMAction implements IExtendedSequence {
 
     @Override
     public boolean executionComplete(AbstractGameState state) {
-        return placed || impossible;
+        return placed;
     }
 
     @Override
@@ -101,12 +99,12 @@ public class ReserveTile extends TMAction implements IExtendedSequence {
         if (!(o instanceof ReserveTile)) return false;
         if (!super.equals(o)) return false;
         ReserveTile that = (ReserveTile) o;
-        return mapTileID == that.mapTileID && placed == that.placed && impossible == that.impossible && mapType == that.mapType;
+        return mapTileID == that.mapTileID && placed == that.placed && mapType == that.mapType;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), mapTileID, mapType, placed, impossible);
+        return Objects.hash(super.hashCode(), mapTileID, mapType, placed);
     }
 
     @Override
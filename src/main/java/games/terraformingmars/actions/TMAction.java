@@ -11,6 +11,7 @@ import games.terraformingmars.rules.effects.Effect;
 import games.terraformingmars.rules.requirements.AdjacencyRequirement;
 import games.terraformingmars.rules.requirements.Requirement;
 import games.terraformingmars.rules.requirements.ResourceRequirement;
+import games.terraformingmars.rules.requirements.TMApplicabilityIndex;
 import utilities.Pair;
 import utilities.Utils;
 
@@ -125,14 +126,37 @@ public class TMAction extends AbstractAction {
             if (c != null && c.actionPlayed) played = true;
         }
         if (played && standardProject == null && basicResourceAction == null) return false;
+        return gs.getApplicabilityIndex().requirementsMet(this, gs);
+    }
+
+    /**
+     * Tests the requirements of this action, all of which must be met. Called through TMApplicabilityIndex, which
+     * caches the result.
+     * @param gs - current game state
+     * @return true if the requirements are met
+     */
+    public boolean testRequirements(TMGameState gs) {
         if (requirements != null && requirements.size() > 0) {
-            for (Requirement r: requirements) {
+            for (Requirement<TMGameState> r: requirements) {
                 if (!r.testCondition(gs)) return false;
             }
         }
         return true;
     }
 
+    /**
+     * Declares the parts of the game state canBePlayed() reads, as slots in TMApplicabilityIndex (see
+     * Requirement.getDependencies()), so that requirements on this action being playable can be cached too.
+     * Subclasses whose canBePlayed() reads any other state must override this.
+     * @param gs - current game state
+     * @return slots the result of canBePlayed() depends on, or null if it should be checked every time
+     */
+    public int[] getDependencies(TMGameState gs) {
+        // Whether the card's action was played this generation is not a slot
+        if (getCardID() != -1) return null;
+        return TMApplicabilityIndex.dependencies(this, gs);
+    }
+
     public boolean _execute(TMGameState gameState) { return true; }
 
     @Override
@@ -140,7 +164,16 @@ public class TMAction extends AbstractAction {
         TMGameState gs = (TMGameState) gameState;
         gs.getAllComponents();  // Force recalculate components
         if (player == -1) player = gameState.getCurrentPlayer();
-        if (!canBePlayed(gs)) {
+        // Checked as a query, so that the result found when the actions were computed is reused
+        TMApplicabilityIndex index = gs.getApplicabilityIndex();
+        boolean playable;
+        index.beginQuery(gs);
+        try {
+            playable = canBePlayed(gs);
+        } finally {
+            index.endQuery();
+        }
+        if (!playable) {
             throw new AssertionError("Card cannot be played " + this);
         }
         boolean s = _execute(gs);
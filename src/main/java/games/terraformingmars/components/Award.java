@@ -3,6 +3,7 @@ package games.terraformingmars.components;
 import core.components.Token;
 import games.terraformingmars.TMGameState;
 import games.terraformingmars.TMTypes;
+import games.terraformingmars.rules.requirements.TMApplicabilityIndex;
 import utilities.Utils;
 
 import java.util.ArrayList;
@@ -96,6 +97,15 @@ public class Award extends Token {
         return !gs.getnAwardsFunded().isMaximum() && claimed == -1;
     }
 
+    /**
+     * @param player - player claiming
+     * @return slots in TMApplicabilityIndex that canClaim() depends on (null if these can't all be tracked)
+     */
+    public int[] getDependencies(int player) {
+        // Only awards are claimed, this is reflected in the counter
+        return new int[]{TMApplicabilityIndex.awardsFundedSlot()};
+    }
+
     public Award copy() {
         Award copy = new Award(componentName, counterID, componentID);
         copy.claimed = claimed;
@@ -1,6 +1,9 @@
 package games.terraformingmars.components;
 
 import games.terraformingmars.TMGameState;
+import games.terraformingmars.TMTypes;
+import games.terraformingmars.rules.requirements.TMApplicabilityIndex;
+import utilities.Utils;
 
 import java.util.Objects;
 
@@ -23,6 +26,32 @@ public class Milestone extends Award {
         return !gs.getnMilestonesClaimed().isMaximum() && claimed == -1 && count >= min;
     }
 
+    @Override
+    public int[] getDependencies(int player) {
+        // Same counters as checkProgress()
+        String[] split = counterID.split("-");
+        int[] slots = new int[split.length + 1];
+        for (int i = 0; i < split.length; i++) {
+            String s = split[i];
+            TMTypes.Tile t = Utils.searchEnum(TMTypes.Tile.class, s);
+            TMTypes.Resource r = Utils.searchEnum(TMTypes.Resource.class, s.replace("prod", ""));
+            TMTypes.Tag tag = Utils.searchEnum(TMTypes.Tag.class, s);
+            if (t != null) {
+                slots[i] = TMApplicabilityIndex.tileSlot(player, t);
+            } else if (r == TMTypes.Resource.Card) {
+                slots[i] = TMApplicabilityIndex.handSlot(player);
+            } else if (r != null) {
+                slots[i] = s.contains("prod") ? TMApplicabilityIndex.productionSlot(player, r) : TMApplicabilityIndex.resourceSlot(player, r);
+            } else if (tag != null) {
+                slots[i] = TMApplicabilityIndex.tagSlot(player, tag);
+            } else {
+                return null;
+            }
+        }
+        slots[split.length] = TMApplicabilityIndex.milestonesClaimedSlot();
+        return slots;
+    }
+
     public Milestone copy() {
         Milestone copy = new Milestone(componentName, min, counterID, componentID);
         copy.claimed = claimed;
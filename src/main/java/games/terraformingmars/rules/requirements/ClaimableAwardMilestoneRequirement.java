@@ -27,6 +27,16 @@ public class ClaimableAwardMilestoneRequirement implements Requirement<TMGameSta
         return am.canClaim(gs, p);
     }
 
+    @Override
+    public int[] getDependencies(TMGameState gs) {
+        int p = player;
+        if (p == -1) {
+            p = gs.getCurrentPlayer();
+        }
+        Award am = (Award) gs.getComponentById(awardMilestoneID);
+        return am.getDependencies(p);
+    }
+
     @Override
     public boolean isMax() {
         return false;
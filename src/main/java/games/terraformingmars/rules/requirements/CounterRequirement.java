@@ -45,6 +45,24 @@ public class CounterRequirement implements Requirement<TMGameState> {
         return discount;
     }
 
+    @Override
+    public int[] getDependencies(TMGameState gs) {
+        int player = gs.getCurrentPlayer();
+        TMTypes.GlobalParameter p = Utils.searchEnum(TMTypes.GlobalParameter.class, counterCode);
+        if (p != null) {
+            return new int[]{TMApplicabilityIndex.globalSlot(p), TMApplicabilityIndex.discountSlot(player)};
+        }
+        // Player counters are resolved once to a fixed component, so we depend on this resource for all players
+        TMTypes.Resource res = TMTypes.Resource.valueOf(counterCode.split("prod")[0]);
+        boolean production = counterCode.contains("prod");
+        int[] slots = new int[gs.getNPlayers() + 1];
+        for (int i = 0; i < gs.getNPlayers(); i++) {
+            slots[i] = production ? TMApplicabilityIndex.productionSlot(i, res) : TMApplicabilityIndex.resourceSlot(i, res);
+        }
+        slots[gs.getNPlayers()] = TMApplicabilityIndex.discountSlot(player);
+        return slots;
+    }
+
     @Override
     public boolean isMax() {
         return max;
@@ -93,7 +111,7 @@ public class CounterRequirement implements Requirement<TMGameState> {
         return copy;
     }
 
-    private Counter getCounter(TMGameState gs) {
+    Counter getCounter(TMGameState gs) {
         Counter which;
         if (counterID == -1) {
             which = gs.stringToGPOrPlayerResCounter(counterCode, -1);
@@ -104,7 +122,7 @@ public class CounterRequirement implements Requirement<TMGameState> {
                 thresholdIdx = Utils.indexOf(which.getValues(), thresholdIdx);
             }
         } else {
-            gs.getAllComponents();
+            // Counters are never replaced during a game, no need to refresh the full component list
             which = (Counter) gs.getComponentById(counterID);
         }
 
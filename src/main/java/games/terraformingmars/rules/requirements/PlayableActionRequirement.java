@@ -19,6 +19,11 @@ public class PlayableActionRequirement implements Requirement<TMGameState> {
         return action.canBePlayed(gs);
     }
 
+    @Override
+    public int[] getDependencies(TMGameState gs) {
+        return action != null ? action.getDependencies(gs) : null;
+    }
+
     @Override
     public boolean isMax() {
         return false;
@@ -18,6 +18,16 @@ public interface Requirement<T> {
     String getReasonForFailure(TMGameState gs);
     Image[] getDisplayImages();
 
+    /**
+     * Declares the parts of the game state this requirement reads, as slots in TMApplicabilityIndex. The result of
+     * testCondition() may then be reused until one of these changes.
+     * @param gs - current game state
+     * @return slots this requirement depends on, or null if it should be tested every time (the default)
+     */
+    default int[] getDependencies(TMGameState gs) {
+        return null;
+    }
+
     static Requirement stringToRequirement(String s) {
         String[] split = s.split(":");
         // First is counter
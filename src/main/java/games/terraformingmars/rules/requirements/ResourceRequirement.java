@@ -6,6 +6,8 @@ import games.terraformingmars.actions.TMAction;
 import games.terraformingmars.components.TMCard;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class ResourceRequirement implements Requirement<TMGameState> {
@@ -54,6 +56,28 @@ public class ResourceRequirement implements Requirement<TMGameState> {
         return gs.canPlayerPay(p, card, null, resource, amount, production);
     }
 
+    @Override
+    public int[] getDependencies(TMGameState gs) {
+        if (player == -2) return null;  // Any player
+        if (player == -3 || amount == 0) return new int[0];  // Always true
+        int p = player == -1 ? gs.getCurrentPlayer() : player;
+        if (resource == TMTypes.Resource.Card) {
+            return new int[]{TMApplicabilityIndex.handSlot(p)};
+        }
+        if (production) {
+            return new int[]{TMApplicabilityIndex.productionSlot(p, resource)};
+        }
+        // Other resources may be exchanged for this one, and card discounts apply
+        List<Integer> slots = new ArrayList<>();
+        slots.add(TMApplicabilityIndex.resourceSlot(p, resource));
+        for (TMGameState.ResourceMapping rm : gs.getPlayerResourceMap()[p]) {
+            if (rm.to == resource) slots.add(TMApplicabilityIndex.resourceSlot(p, rm.from));
+        }
+        slots.add(TMApplicabilityIndex.resourceMapSlot(p));
+        if (cardID != -1) slots.add(TMApplicabilityIndex.discountSlot(gs.getCurrentPlayer()));
+        return slots.stream().mapToInt(i -> i).toArray();
+    }
+
     @Override
     public boolean isMax() {
         return false;
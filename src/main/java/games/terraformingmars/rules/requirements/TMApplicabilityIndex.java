@@ -0,0 +1,408 @@
+package games.terraformingmars.rules.requirements;
+
+import core.components.Counter;
+import games.terraformingmars.TMGameState;
+import games.terraformingmars.TMTypes;
+import games.terraformingmars.actions.TMAction;
+import games.terraformingmars.components.Award;
+import games.terraformingmars.components.GlobalParameter;
+
+import java.util.*;
+
+/**
+ * Caches whether the requirements of each action are met, so that an action is only re-checked when some part of
+ * the game state its requirements read from has changed.
+ * <p>
+ * The state values requirements read from (global parameters, milestones and awards claimed, player resources,
+ * production, tags played, tiles placed, hand size, discounts and resource mappings) are numbered as "slots". Each
+ * cacheable requirement declares the slots it depends on (see Requirement.getDependencies()). The first time an
+ * action is checked, the values of all the slots its requirements depend on are stored with the result; later checks
+ * of an equal action (same requirements, same player to move) reuse the result for as long as those values are the
+ * same. Actions with any requirement that declares no dependencies (null) are always evaluated. A requirement that
+ * another action is playable depends on the slots that action's requirements depend on (see
+ * TMAction.getDependencies()), so that most cards can be cached along with their effects.
+ * <p>
+ * As results are tied to slot values rather than to one state, a game state and all its copies share one index (it
+ * is made in TMForwardModel._setup()), so the results found in one copy are reused by the others, and by the game
+ * state itself on later decisions. Like the states sharing it, the index must only be used by one thread at a time.
+ * <p>
+ * The cache is only used between beginQuery() and endQuery() (i.e. within TMForwardModel._computeAvailableActions,
+ * and for the check made before an action is executed), as slot values are read once per query, and the state may
+ * change at any time during action execution.
+ */
+public class TMApplicabilityIndex {
+
+    static final TMTypes.GlobalParameter[] globalParameters = TMTypes.GlobalParameter.values();
+    static final TMTypes.Resource[] resources = TMTypes.Resource.values();
+    static final TMTypes.Tag[] tags = TMTypes.Tag.values();
+    static final TMTypes.Tile[] tiles = TMTypes.Tile.values();
+
+    static final int nGlobalParameters = globalParameters.length;
+    static final int milestonesClaimedSlot = nGlobalParameters;
+    static final int awardsFundedSlot = nGlobalParameters + 1;
+    static final int nGlobals = nGlobalParameters + 2;
+    static final int nResources = resources.length;
+    static final int nTags = tags.length;
+    static final int nTiles = tiles.length;
+
+    // Offsets within each player's block of slots
+    static final int resourceOffset = 0;
+    static final int productionOffset = resourceOffset + nResources;
+    static final int tagOffset = productionOffset + nResources;
+    static final int tileOffset = tagOffset + nTags;
+    static final int handOffset = tileOffset + nTiles;
+    static final int discountOffset = handOffset + 1;
+    static final int resourceMapOffset = discountOffset + 1;
+    static final int playerBlockSize = resourceMapOffset + 1;
+
+    final boolean enabled;
+    final Map<ActionKey, CachedResult> results = new HashMap<>();
+    // Discounts and resource mappings are numbered by their contents, so that equal contents give equal slot values
+    final Map<Object, Integer> discountIds = new HashMap<>();
+    final Map<Object, Integer> resourceMapIds = new HashMap<>();
+    // Component IDs of milestones and awards, sorted; the claimed ones are recorded as a bitmask in these positions
+    int[] milestoneIds, awardIds;
+
+    // State of the query in progress, and the slot values read in it (valid if stamped with this query's number)
+    TMGameState queryState;
+    int query, depth;
+    int[] values = new int[0], stamps = new int[0];
+
+    long lookups, evaluations;
+
+    public TMApplicabilityIndex() {
+        this(true);
+    }
+
+    /**
+     * @param enabled - if false, nothing is cached, and all actions are evaluated every time (results are counted
+     *                in the same way, for comparison)
+     */
+    public TMApplicabilityIndex(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    static final class ActionKey {
+        final Class<?> type;
+        final int player;
+        final Object[] requirements;
+        final int hash;
+
+        ActionKey(TMAction action, TMGameState gs, int player) {
+            this.type = action.getClass();
+            this.player = player;
+            this.requirements = new Object[action.requirements != null ? action.requirements.size() : 0];
+            int h = 0, i = 0;
+            for (Object key : requirements(action)) {
+                if (key instanceof CounterRequirement) {
+                    key = new CounterKey((CounterRequirement) key, gs);
+                } else if (key instanceof PlayableActionRequirement && ((PlayableActionRequirement) key).action != null) {
+                    // Keyed in the same way, as the requirements of the action may include counter requirements
+                    key = new ActionKey(((PlayableActionRequirement) key).action, gs, player);
+                }
+                requirements[i++] = key;
+                h += key.hashCode();  // order of the set does not matter
+            }
+            this.hash = 31 * (31 * type.hashCode() + player) + h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ActionKey)) return false;
+            ActionKey that = (ActionKey) o;
+            if (hash != that.hash || type != that.type || player != that.player || requirements.length != that.requirements.length)
+                return false;
+            // Requirement sets are small, and have no duplicates
+            outer:
+            for (Object r : requirements) {
+                for (Object other : that.requirements)
+                    if (r.equals(other)) continue outer;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static Collection<Requirement<TMGameState>> requirements(TMAction action) {
+        return action.requirements != null ? action.requirements : Collections.emptySet();
+    }
+
+    /**
+     * CounterRequirement equality ignores the threshold, which matters here. A requirement converts its threshold to
+     * an index into the counter's values when it first looks up the counter, so this is done before the key is made;
+     * otherwise equal requirements (e.g. one from a card that has been checked before, and one just created) would
+     * give different keys.
+     */
+    static final class CounterKey {
+        final String counterCode;
+        final boolean max;
+        final int threshold, counterID;
+
+        CounterKey(CounterRequirement r, TMGameState gs) {
+            r.getCounter(gs);
+            this.counterCode = r.counterCode;
+            this.max = r.max;
+            this.threshold = r.thresholdIdx;
+            this.counterID = r.counterID;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CounterKey)) return false;
+            CounterKey that = (CounterKey) o;
+            return max == that.max && threshold == that.threshold && counterID == that.counterID && counterCode.equals(that.counterCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(counterCode, max, threshold, counterID);
+        }
+    }
+
+    static final class CachedResult {
+        final boolean result;
+        final int[] dependencies;
+        final int[] values;
+
+        CachedResult(boolean result, int[] dependencies, int[] values) {
+            this.result = result;
+            this.dependencies = dependencies;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Starts a query on the given state. Queries may be nested (requirements can check other actions), in which case
+     * the outer one continues.
+     *
+     * @param gs - current game state
+     */
+    public void beginQuery(TMGameState gs) {
+        if (!enabled || depth++ > 0) return;
+        query++;
+        queryState = gs;
+        int size = nGlobals + gs.getNPlayers() * playerBlockSize;
+        if (values.length < size) {
+            values = new int[size];
+            stamps = new int[size];
+        }
+    }
+
+    public void endQuery() {
+        if (!enabled) return;
+        if (--depth == 0) queryState = null;
+    }
+
+    /**
+     * Checks whether the requirements of the action are met (see TMAction.testRequirements()), reusing the result
+     * found for an equal action if none of the state its requirements depend on has changed since.
+     *
+     * @param action - action to check
+     * @param gs     - current game state
+     * @return true if the requirements are met
+     */
+    public boolean requirementsMet(TMAction action, TMGameState gs) {
+        lookups++;
+        int player = gs.getCurrentPlayer();
+        if (gs != queryState || action.requirements == null || action.requirements.isEmpty()
+                || player < 0 || player >= gs.getNPlayers()) {
+            evaluations++;
+            return action.testRequirements(gs);
+        }
+
+        ActionKey key = new ActionKey(action, gs, player);
+        CachedResult cached = results.get(key);
+        if (cached != null) {
+            if (cached.dependencies == null) {
+                // Known not to be cacheable
+                evaluations++;
+                return action.testRequirements(gs);
+            }
+            if (isValid(cached, gs)) return cached.result;
+        }
+
+        int[] dependencies = dependencies(action, gs);
+        evaluations++;
+        boolean result = action.testRequirements(gs);
+        if (dependencies == null) {
+            results.put(key, new CachedResult(result, null, null));
+        } else {
+            int[] vals = new int[dependencies.length];
+            for (int i = 0; i < dependencies.length; i++) vals[i] = value(dependencies[i], gs);
+            results.put(key, new CachedResult(result, dependencies, vals));
+        }
+        return result;
+    }
+
+    /**
+     * @param action - action to check
+     * @param gs     - current game state
+     * @return slots the requirements of the action depend on, or null if any of them should be tested every time
+     */
+    public static int[] dependencies(TMAction action, TMGameState gs) {
+        Collection<Requirement<TMGameState>> requirements = requirements(action);
+        int[][] all = new int[requirements.size()][];
+        int i = 0, n = 0;
+        for (Requirement<TMGameState> r : requirements) {
+            int[] deps = r.getDependencies(gs);
+            if (deps == null) return null;
+            all[i++] = deps;
+            n += deps.length;
+        }
+        int[] retValue = new int[n];
+        n = 0;
+        for (int[] deps : all) {
+            System.arraycopy(deps, 0, retValue, n, deps.length);
+            n += deps.length;
+        }
+        return retValue;
+    }
+
+    private boolean isValid(CachedResult cached, TMGameState gs) {
+        for (int i = 0; i < cached.dependencies.length; i++) {
+            if (value(cached.dependencies[i], gs) != cached.values[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return number of action checks made through the index, since it was created
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * @return number of action checks for which the requirements were actually evaluated, since it was created
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /* Slot indices, used by requirements to declare their dependencies */
+
+    public static int globalSlot(TMTypes.GlobalParameter p) {
+        return p.ordinal();
+    }
+
+    public static int milestonesClaimedSlot() {
+        return milestonesClaimedSlot;
+    }
+
+    public static int awardsFundedSlot() {
+        return awardsFundedSlot;
+    }
+
+    public static int resourceSlot(int player, TMTypes.Resource res) {
+        return nGlobals + player * playerBlockSize + resourceOffset + res.ordinal();
+    }
+
+    public static int productionSlot(int player, TMTypes.Resource res) {
+        return nGlobals + player * playerBlockSize + productionOffset + res.ordinal();
+    }
+
+    public static int tagSlot(int player, TMTypes.Tag tag) {
+        return nGlobals + player * playerBlockSize + tagOffset + tag.ordinal();
+    }
+
+    public static int tileSlot(int player, TMTypes.Tile tile) {
+        return nGlobals + player * playerBlockSize + tileOffset + tile.ordinal();
+    }
+
+    public static int handSlot(int player) {
+        return nGlobals + player * playerBlockSize + handOffset;
+    }
+
+    public static int discountSlot(int player) {
+        return nGlobals + player * playerBlockSize + discountOffset;
+    }
+
+    public static int resourceMapSlot(int player) {
+        return nGlobals + player * playerBlockSize + resourceMapOffset;
+    }
+
+    /**
+     * Value of the slot in the state of the current query, read from the state at most once per query.
+     */
+    private int value(int slot, TMGameState gs) {
+        if (stamps[slot] != query) {
+            values[slot] = readSlot(slot, gs);
+            stamps[slot] = query;
+        }
+        return values[slot];
+    }
+
+    private int readSlot(int slot, TMGameState gs) {
+        if (slot < nGlobalParameters) {
+            GlobalParameter gp = gs.getGlobalParameters().get(globalParameters[slot]);
+            return gp != null ? gp.getValueIdx() : -1;
+        }
+        if (slot == milestonesClaimedSlot) {
+            if (milestoneIds == null) milestoneIds = sortedIds(gs.getMilestones());
+            return claimed(gs.getMilestones(), milestoneIds, gs.getnMilestonesClaimed());
+        }
+        if (slot == awardsFundedSlot) {
+            if (awardIds == null) awardIds = sortedIds(gs.getAwards());
+            return claimed(gs.getAwards(), awardIds, gs.getnAwardsFunded());
+        }
+        int player = (slot - nGlobals) / playerBlockSize;
+        int offset = (slot - nGlobals) % playerBlockSize;
+        if (offset < productionOffset) {
+            return counterValue(gs.getPlayerResources()[player].get(resources[offset - resourceOffset]));
+        } else if (offset < tagOffset) {
+            return counterValue(gs.getPlayerProduction()[player].get(resources[offset - productionOffset]));
+        } else if (offset < tileOffset) {
+            return counterValue(gs.getPlayerCardsPlayedTags()[player].get(tags[offset - tagOffset]));
+        } else if (offset < handOffset) {
+            return counterValue(gs.getPlayerTilesPlaced()[player].get(tiles[offset - tileOffset]));
+        } else if (offset == handOffset) {
+            return gs.getPlayerHands()[player].getSize();
+        } else if (offset == discountOffset) {
+            Map<?, Integer> discounts = gs.getPlayerDiscountEffects()[player];
+            Integer id = discountIds.get(discounts);
+            if (id == null) {
+                id = discountIds.size();
+                discountIds.put(new HashMap<>(discounts), id);
+            }
+            return id;
+        } else {
+            // ResourceMapping equality ignores the rate
+            Map<TMGameState.ResourceMapping, Double> mappings = new HashMap<>();
+            for (TMGameState.ResourceMapping rm : gs.getPlayerResourceMap()[player]) mappings.put(rm, rm.rate);
+            Integer id = resourceMapIds.get(mappings);
+            if (id == null) {
+                id = resourceMapIds.size();
+                resourceMapIds.put(mappings, id);
+            }
+            return id;
+        }
+    }
+
+    private static int counterValue(Counter c) {
+        return c != null ? c.getValue() : 0;
+    }
+
+    private static int[] sortedIds(Set<? extends Award> awards) {
+        int[] ids = new int[awards.size()];
+        int i = 0;
+        for (Award a : awards) ids[i++] = a.getComponentID();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    // The number claimed (which has a maximum) in the top bits, and which ones are claimed in the others
+    private static int claimed(Set<? extends Award> awards, int[] ids, Counter nClaimed) {
+        int mask = 0;
+        for (Award a : awards) {
+            if (a.claimed != -1) mask |= 1 << Arrays.binarySearch(ids, a.getComponentID());
+        }
+        return nClaimed.getValue() << 24 | mask;
+    }
+}
@@ -35,6 +35,15 @@ public class TagsPlayedRequirement implements Requirement<TMGameState> {
         return true;
     }
 
+    @Override
+    public int[] getDependencies(TMGameState gs) {
+        int[] slots = new int[tags.length];
+        for (int i = 0; i < tags.length; i++) {
+            slots[i] = TMApplicabilityIndex.tagSlot(gs.getCurrentPlayer(), tags[i]);
+        }
+        return slots;
+    }
+
     @Override
     public boolean isMax() {
         return false;
@@ -3,6 +3,7 @@ package games.tictactoe;
 import core.AbstractGameState;
 import core.CoreConstants;
 import core.StandardForwardModel;
+import core.UndoLog;
 import core.actions.AbstractAction;
 import core.actions.ActionSpace;
 import core.actions.SetGridValueAction;
@@ -51,6 +52,24 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
         return actions;
         }
 
+    @Override
+    public boolean supportsUndo(AbstractGameState state, AbstractAction action) {
+        // only placing a token is recorded in _recordUndo; any other action is applied to a copy instead
+        return action instanceof SetGridValueAction;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean _recordUndo(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+        // the cell set by the action is the only change to the board
+        SetGridValueAction<Token> move = (SetGridValueAction<Token>) action;
+        GridBoard<Token> gridBoard = ((TicTacToeGameState) currentState).gridBoard;
+        int x = move.getX(), y = move.getY();
+        Token previous = gridBoard.getElement(x, y);
+        undoLog.add(() -> gridBoard.setElement(x, y, previous));
+        return true;
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         if (checkAndProcessGameEnd((TicTacToeGameState) currentState)) {
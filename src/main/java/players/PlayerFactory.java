@@ -3,6 +3,7 @@ package players;
 import core.AbstractPlayer;
 import evaluation.optimisation.TunableParameters;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import players.basicMCTS.BasicMCTSPlayer;
 import players.rhea.RHEAParams;
@@ -21,7 +22,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 
-import static utilities.JSONUtils.parser;
 
 /**
  * Factory class for creating AbstractPlayers from JSON configuration file.
@@ -45,7 +45,7 @@ public class PlayerFactory {
 
     public static AbstractPlayer fromJSONString(String json) {
         try {
-            return fromJSONObject((JSONObject) parser.parse(json));
+            return fromJSONObject((JSONObject) new JSONParser().parse(json));
         } catch (ParseException e) {
             throw new AssertionError("Error processing JSON string " + e.getMessage());
         }
@@ -4,7 +4,7 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 import players.PlayerConstants;
 import players.simple.RandomPlayer;
-import utilities.ElapsedCpuTimer;
+import utilities.SearchBudgetTimer;
 
 import java.util.*;
 
@@ -57,15 +57,9 @@ class BasicTreeNode {
      */
     void mctsSearch() {
 
-        // Variables for tracking time budget
-        double avgTimeTaken;
-        double acumTimeTaken = 0;
-        long remaining;
-        int remainingLimit = player.params.breakMS;
-        ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
-        if (player.params.budgetType == BUDGET_TIME) {
-            elapsedTimer.setMaxTimeMillis(player.params.budget);
-        }
+        // Tracking time budget; the clock is only read every so many iterations
+        SearchBudgetTimer timer = new SearchBudgetTimer(player.params.budgetType == BUDGET_TIME ? player.params.budget : 0,
+                player.params.breakMS, 2);
 
         // Tracking number of iterations for iteration budget
         int numIters = 0;
@@ -73,9 +67,6 @@ class BasicTreeNode {
         boolean stop = false;
 
         while (!stop) {
-            // New timer for this iteration
-            ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
-
             // Selection + expansion: navigate tree until a node not fully expanded is found, add a new node to the tree
             BasicTreeNode selected = treePolicy();
             // Monte carlo rollout: return value of MC rollout from the newly added node
@@ -89,10 +80,7 @@ class BasicTreeNode {
             PlayerConstants budgetType = player.params.budgetType;
             if (budgetType == BUDGET_TIME) {
                 // Time budget
-                acumTimeTaken += (elapsedTimerIteration.elapsedMillis());
-                avgTimeTaken = acumTimeTaken / numIters;
-                remaining = elapsedTimer.remainingTimeMillis();
-                stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
+                stop = !timer.iterationDone();
             } else if (budgetType == BUDGET_ITERATIONS) {
                 // Iteration budget
                 stop = numIters >= player.params.budget;
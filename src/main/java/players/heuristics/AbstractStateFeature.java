@@ -4,6 +4,8 @@ import core.AbstractGameState;
 import core.CoreConstants;
 import core.interfaces.IStateFeatureVector;
 
+import java.util.Arrays;
+
 public abstract class AbstractStateFeature implements IStateFeatureVector {
 
     String[] coreNames = new String[]{"SCORE", "SCORE_ADV", "ORDINAL", "OUR_TURN", "HAS_WON", "FINAL_ORD", "ROUND"};
@@ -13,18 +15,72 @@ public abstract class AbstractStateFeature implements IStateFeatureVector {
     protected abstract String[] localNames();
     protected abstract double[] localFeatureVector(AbstractGameState gs, int playerID);
 
+    /**
+     * Writes the game-specific features into the buffer. The default copies the result of
+     * localFeatureVector(gs, playerID); subclasses override this to avoid the allocation.
+     *
+     * @param buffer - the features are written from buffer[offset]; this part of the buffer has been zeroed
+     */
+    protected void localFeatureVector(AbstractGameState gs, int playerID, double[] buffer, int offset) {
+        double[] localFeatures = localFeatureVector(gs, playerID);
+        System.arraycopy(localFeatures, 0, buffer, offset, localFeatures.length);
+    }
+
+    /**
+     * Writes the game-specific features of every player, into buffer[p] from offset. The default calls
+     * localFeatureVector once for each player; subclasses override this to share work that depends only on the state.
+     *
+     * @param buffer - one row per player; the part of each row to be written has been zeroed
+     */
+    protected void localFeatureVectors(AbstractGameState gs, double[][] buffer, int offset) {
+        for (int p = 0; p < gs.getNPlayers(); p++) {
+            localFeatureVector(gs, p, buffer[p], offset);
+        }
+    }
+
+    @Override
+    public int size() {
+        return coreNames.length + localNames().length;
+    }
+
     @Override
     public double[] featureVector(AbstractGameState state, int playerID) {
-        double[] localFeatures = localFeatureVector(state, playerID);
-        double[] retValue = new double[coreNames.length + localFeatures.length];
+        double[] retValue = new double[size()];
+        featureVector(state, playerID, retValue, 0);
+        return retValue;
+    }
 
+    @Override
+    public void featureVector(AbstractGameState state, int playerID, double[] buffer, int offset) {
+        coreFeatureVector(state, playerID, null, buffer, offset);
+        int localStart = offset + coreNames.length;
+        Arrays.fill(buffer, localStart, offset + size(), 0.0);
+        localFeatureVector(state, playerID, buffer, localStart);
+    }
+
+    @Override
+    public void featureVectors(AbstractGameState state, double[][] buffer) {
+        // the scores are needed for every player, so we get them just once
+        double[] scores = new double[state.getNPlayers()];
+        for (int p = 0; p < scores.length; p++)
+            scores[p] = state.getGameScore(p);
+        int size = size();
+        for (int p = 0; p < scores.length; p++) {
+            coreFeatureVector(state, p, scores, buffer[p], 0);
+            Arrays.fill(buffer[p], coreNames.length, size, 0.0);
+        }
+        localFeatureVectors(state, buffer, coreNames.length);
+    }
+
+    // scores may be null, in which case they are taken from the state
+    private void coreFeatureVector(AbstractGameState state, int playerID, double[] scores, double[] buffer, int offset) {
         // POINT_ADVANTAGE
         int ordinal = 1;
         double maxOtherScore = -1;
-        double ourSc = state.getGameScore(playerID);
+        double ourSc = scores == null ? state.getGameScore(playerID) : scores[playerID];
         for (int p = 0; p < state.getNPlayers(); p++) {
             if (p == playerID) continue;
-            double sc = state.getGameScore(p);
+            double sc = scores == null ? state.getGameScore(p) : scores[p];
             if (sc > maxOtherScore) {
                 maxOtherScore = sc;
                 if (sc > ourSc)
@@ -33,17 +89,14 @@ public abstract class AbstractStateFeature implements IStateFeatureVector {
         }
 
         // POINTS
-        retValue[0] = ourSc / maxScore();
+        buffer[offset] = ourSc / maxScore();
         // POINT_ADVANTAGE
-        retValue[1] = (ourSc - maxOtherScore) / maxScore() * 2.0;
-        retValue[2] = ordinal / (double) state.getNPlayers();
-        retValue[3] = state.getCurrentPlayer() == playerID ? 1 : 0;
-        retValue[4] = state.getPlayerResults()[playerID] == CoreConstants.GameResult.WIN_GAME ? 1.0 : 0.0;
-        retValue[5] = state.isNotTerminal() ? 0.0 : state.getOrdinalPosition(playerID) / (double) state.getNPlayers();
-        retValue[6] = state.getRoundCounter() / maxRounds();
-
-        System.arraycopy(localFeatures, 0, retValue, coreNames.length, localFeatures.length);
-        return retValue;
+        buffer[offset + 1] = (ourSc - maxOtherScore) / maxScore() * 2.0;
+        buffer[offset + 2] = ordinal / (double) state.getNPlayers();
+        buffer[offset + 3] = state.getCurrentPlayer() == playerID ? 1 : 0;
+        buffer[offset + 4] = state.getPlayerResults()[playerID] == CoreConstants.GameResult.WIN_GAME ? 1.0 : 0.0;
+        buffer[offset + 5] = state.isNotTerminal() ? 0.0 : state.getOrdinalPosition(playerID) / (double) state.getNPlayers();
+        buffer[offset + 6] = state.getRoundCounter() / maxRounds();
     }
 
     @Override
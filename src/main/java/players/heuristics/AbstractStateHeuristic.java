@@ -1,5 +1,6 @@
 package players.heuristics;
 
+import core.AbstractGameState;
 import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 
@@ -14,6 +15,9 @@ public abstract class AbstractStateHeuristic implements IStateHeuristic {
     protected IStateFeatureVector features;
     protected double[] coefficients;
     protected IStateHeuristic defaultHeuristic;
+    // reused between calls to featureVector(), to avoid allocating an array for each state evaluated; one for each
+    // thread, as a heuristic is shared by all copies of a player, and these may search at the same time
+    private final ThreadLocal<double[]> phi = ThreadLocal.withInitial(() -> new double[features.size()]);
 
     public AbstractStateHeuristic(String featureVectorClassName, String coefficientsFile, String defaultHeuristicClassName) {
         try {
@@ -64,4 +68,13 @@ public abstract class AbstractStateHeuristic implements IStateHeuristic {
         }
     }
 
+    /**
+     * @return the features of the state, in an array that is overwritten by the next call on the same thread
+     */
+    protected double[] featureVector(AbstractGameState state, int playerId) {
+        double[] retValue = phi.get();
+        features.featureVector(state, playerId, retValue, 0);
+        return retValue;
+    }
+
 }
@@ -1,93 +1,91 @@
 package players.heuristics;
 
-import com.globalmentor.apache.hadoop.fs.BareLocalFileSystem;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.interfaces.IActionFeatureVector;
 import core.interfaces.IActionHeuristic;
 import core.interfaces.IStateFeatureVector;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.spark.ml.linalg.Vectors;
-import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
-import org.apache.spark.sql.SparkSession;
+import players.learners.DecisionTreeLearner;
 
+import java.io.File;
 import java.util.List;
 
+/**
+ * Evaluates actions with a regression tree over the state and action features. The tree is held as a
+ * {@link RegressionTree}, so no Spark classes are needed once a model has been exported to that format (as
+ * DecisionTreeLearner and JavaDecisionTreeLearner both do when they save). A directory holding only a Spark model
+ * is converted (once) when it is loaded.
+ */
 public class DecisionTreeActionHeuristic implements IActionHeuristic {
 
-    static SparkSession spark = SparkSession
-            .builder()
-            .appName("Java Spark SQL basic example")
-            //     .config("spark.driver.memory", "1g")
-            .master("local").getOrCreate();
-    static {
-        // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
-        spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
-    }
-
-    DecisionTreeRegressionModel drModel;
+    RegressionTree tree;
     IStateFeatureVector stateFeatures;
     IActionFeatureVector actionFeatures;
+    // reused between calls on the same thread (a heuristic is shared by all copies of a player), to avoid allocating
+    // for each action evaluated
+    final ThreadLocal<double[]> phi = ThreadLocal.withInitial(() -> new double[stateFeatures.size()]);
+    final ThreadLocal<double[][]> psi = ThreadLocal.withInitial(() -> new double[0][]);
     public DecisionTreeActionHeuristic(IStateFeatureVector stateFeatures, IActionFeatureVector actionFeatures, String directory) {
         // load in the Decision Tree model from the directory
         if (directory == null || directory.isEmpty()) {
             System.out.println("No directory specified for Decision Tree model");
             return;  // this is fine; we just use a null value
         }
-        drModel = DecisionTreeRegressionModel.load(directory);
+        File treeFile = new File(directory, RegressionTree.FILE_NAME);
+        if (treeFile.exists()) {
+            tree = RegressionTree.load(treeFile.getPath());
+        } else {
+            // a model saved by Spark alone; this is the only case that needs Spark
+            tree = DecisionTreeLearner.exportRegressionTree(directory);
+        }
         this.stateFeatures = stateFeatures;
         this.actionFeatures = actionFeatures;
     }
     @Override
     public double evaluateAction(AbstractAction action, AbstractGameState state) {
-        if (drModel == null) return 0;  // no model, no prediction (this is fine
+        if (tree == null) return 0;  // no model, no prediction (this is fine
         // get the features for the state and action
         int playerId = state.getCurrentPlayer();
-        double[] stateFeatures = this.stateFeatures.featureVector(state, playerId);
-        double[] actionFeatures = this.actionFeatures.featureVector(action, state, playerId);
-        // combine the features
-        double[] features = new double[stateFeatures.length + actionFeatures.length];
-        System.arraycopy(stateFeatures, 0, features, 0, stateFeatures.length);
-        System.arraycopy(actionFeatures, 0, features, stateFeatures.length, actionFeatures.length);
-        // return the prediction from the model
-
-        return drModel.predict(Vectors.dense(features));
+        double[] stateFeatures = stateFeatures(state, playerId);
+        double[] actionFeatures = actionFeatures(1)[0];
+        this.actionFeatures.featureVector(action, state, playerId, actionFeatures, 0);
+        // the tree reads the action features as following on from the state features
+        return tree.predict(stateFeatures, actionFeatures);
     }
 
     @Override
     public double[] evaluateAllActions(List<AbstractAction> actions, AbstractGameState state) {
-        if (drModel == null) return new double[actions.size()];  // no model, no prediction (this is fine)
+        double[] predictions = new double[actions.size()];
+        if (tree == null) return predictions;  // no model, no prediction (this is fine)
         // First we get the state features once
         int playerId = state.getCurrentPlayer();
-        double[] stateFeatures = this.stateFeatures.featureVector(state, playerId);
-        // Then we get the action features for each action
-        double[][] actionFeatures = new double[actions.size()][];
-        for (int i = 0; i < actions.size(); i++) {
-            actionFeatures[i] = this.actionFeatures.featureVector(actions.get(i), state, playerId);
-        }
-        // Then we combine the features
-        double[][] features = new double[actions.size()][stateFeatures.length + actionFeatures[0].length];
-        for (int i = 0; i < actions.size(); i++) {
-            System.arraycopy(stateFeatures, 0, features[i], 0, stateFeatures.length);
-            System.arraycopy(actionFeatures[i], 0, features[i], stateFeatures.length, actionFeatures[i].length);
-        }
-        // Then we return the predictions from the model
-        double[] predictions = new double[actions.size()];
-        for (int i = 0; i < actions.size(); i++) {
-            predictions[i] = drModel.predict(Vectors.dense(features[i]));
-        }
+        double[] stateFeatures = stateFeatures(state, playerId);
+        // Then we get the action features for all actions
+        double[][] actionFeatures = actionFeatures(actions.size());
+        this.actionFeatures.featureVectors(actions, state, playerId, actionFeatures);
+        // Then we return the predictions from the model (the buffer of action features may have spare rows)
+        tree.predictAll(stateFeatures, actionFeatures, actions.size(), predictions);
         return predictions;
     }
 
-    public static String prettifyDecisionTreeDescription(DecisionTreeRegressionModel model, String[] featureNames) {
-        // the debug string of model contains labels of the form 'feature nn', where nn is the index of the feature
-        // We want to replace these with the actual feature names
-        // we go in reverse to stop replacing 'feature 10' with 'nameOfFeature0' etc.
-        String debugString = model.toDebugString();
-        for (int i = featureNames.length-1; i >= 0; i--) {
-            debugString = debugString.replace("feature " + i, featureNames[i]);
+    private double[] stateFeatures(AbstractGameState state, int playerId) {
+        double[] retValue = phi.get();
+        stateFeatures.featureVector(state, playerId, retValue, 0);
+        return retValue;
+    }
+
+    // at least nActions rows, each of the size of the action features
+    private double[][] actionFeatures(int nActions) {
+        double[][] rows = psi.get();
+        if (rows.length < nActions) {
+            double[][] newRows = new double[Math.max(nActions, rows.length * 2)][];
+            System.arraycopy(rows, 0, newRows, 0, rows.length);
+            for (int i = rows.length; i < newRows.length; i++)
+                newRows[i] = new double[actionFeatures.size()];
+            psi.set(newRows);
+            rows = newRows;
         }
-        return debugString;
+        return rows;
     }
 
 }
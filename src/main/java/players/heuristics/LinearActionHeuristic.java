@@ -11,6 +11,8 @@ public class LinearActionHeuristic extends GLMActionHeuristic {
 
     protected double minValue = Double.NEGATIVE_INFINITY;
     protected double maxValue = Double.POSITIVE_INFINITY;
+    // reused between calls on the same thread, to avoid allocating for each action evaluated
+    private final ThreadLocal<double[]> psiBuffer = ThreadLocal.withInitial(() -> new double[actionFeatures.size()]);
 
     public LinearActionHeuristic(IStateFeatureVector featureVector, IActionFeatureVector actionFeatureVector, String coefficientsFile) {
         super(featureVector, actionFeatureVector, coefficientsFile);
@@ -30,8 +32,9 @@ public class LinearActionHeuristic extends GLMActionHeuristic {
         // we also ignore the BIAS term (the first coefficient) for the same reason
         // (these are still potentially useful to learn if they reduce bias/variance in the psi coefficients)
         double retValue = 0;
-        int phiLength = features.names().length;
-        double[] psi = actionFeatures.featureVector(action, state, state.getCurrentPlayer());
+        int phiLength = features.size();
+        double[] psi = psiBuffer.get();
+        actionFeatures.featureVector(action, state, state.getCurrentPlayer(), psi, 0);
         for (int i = 0; i < psi.length; i++) {
             retValue += psi[i] * coefficients[i + 1 + phiLength];
         }
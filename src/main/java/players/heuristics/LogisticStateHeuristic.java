@@ -21,7 +21,7 @@ public class LogisticStateHeuristic extends AbstractStateHeuristic {
     public double evaluateState(AbstractGameState state, int playerId) {
         if (coefficients == null)
             return defaultHeuristic.evaluateState(state, playerId);
-        double[] phi = features.featureVector(state, playerId);
+        double[] phi = featureVector(state, playerId);
         double retValue = coefficients[0];  // the bias term
         for (int i = 0; i < phi.length; i++) {
             retValue += phi[i] * coefficients[i+1];
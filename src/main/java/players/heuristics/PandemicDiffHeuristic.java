@@ -6,7 +6,6 @@ import core.components.Deck;
 import core.interfaces.IStateHeuristic;
 import games.pandemic.PandemicConstants;
 import games.pandemic.PandemicGameState;
-import utilities.Hash;
 
 public class PandemicDiffHeuristic implements IStateHeuristic {
     private BoardStats rootBoardStats;
@@ -56,8 +55,8 @@ public class PandemicDiffHeuristic implements IStateHeuristic {
             nResearchStations = ((Counter)gs.getComponent(PandemicConstants.researchStationHash)).getValue();
 
             for (int i = 0; i < 4; i++){
-                nDiseaseCubes += ((Counter)gs.getComponent(Hash.GetInstance().hash("Disease Cube " + PandemicConstants.colors[i]))).getValue();
-                if (((Counter)gs.getComponent(Hash.GetInstance().hash("Disease Cube " + PandemicConstants.colors[i]))).getValue() > 0)
+                nDiseaseCubes += ((Counter)gs.getComponent(PandemicConstants.diseaseCubeHashes[i])).getValue();
+                if (((Counter)gs.getComponent(PandemicConstants.diseaseCubeHashes[i])).getValue() > 0)
                     nCuresDiscovered += 1;
             }
 
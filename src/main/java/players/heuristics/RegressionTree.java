@@ -0,0 +1,152 @@
+package players.heuristics;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A regression tree stored as parallel arrays, one entry per node, with the root at index 0. Internal nodes send
+ * an instance to the left child if the value of their feature is less than or equal to the threshold, and to the right
+ * child otherwise; leaves (feature -1) predict their value.
+ * <p>
+ * Trees are saved as a tab-separated text file, with a header line and then one line per node giving the feature,
+ * threshold, left child, right child and value. Loading one needs nothing beyond the JDK; trees learned with Spark
+ * are exported to this format by DecisionTreeLearner.
+ * <p>
+ * Prediction allocates nothing. Where the features are a state vector followed by an action vector (as for
+ * {@link DecisionTreeActionHeuristic}), the two parts can be passed separately rather than copied into one array.
+ */
+public class RegressionTree {
+
+    public static final String FILE_NAME = "RegressionTree.txt";
+
+    final int[] feature;
+    final double[] threshold;
+    final int[] left;
+    final int[] right;
+    final double[] value;
+
+    public RegressionTree(int[] feature, double[] threshold, int[] left, int[] right, double[] value) {
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+    }
+
+    /**
+     * @param features - feature values of the instance
+     * @return the value predicted by the tree
+     */
+    public double predict(double[] features) {
+        int node = 0;
+        while (feature[node] >= 0) {
+            node = features[feature[node]] <= threshold[node] ? left[node] : right[node];
+        }
+        return value[node];
+    }
+
+    /**
+     * Prediction for the concatenation of two feature vectors, without building it.
+     *
+     * @param first  - the first features (e.g. of the state)
+     * @param second - the features that follow them (e.g. of the action)
+     * @return the value predicted by the tree
+     */
+    public double predict(double[] first, double[] second) {
+        int offset = first.length;
+        int node = 0;
+        while (feature[node] >= 0) {
+            int f = feature[node];
+            double v = f < offset ? first[f] : second[f - offset];
+            node = v <= threshold[node] ? left[node] : right[node];
+        }
+        return value[node];
+    }
+
+    /**
+     * Predictions for many instances that share their first features, such as all the actions in one state.
+     *
+     * @param first       - the features shared by all instances
+     * @param second      - the remaining features of each instance; only the first n are used, so that a buffer
+     *                    longer than needed can be passed
+     * @param n           - the number of instances
+     * @param predictions - filled with the prediction for each instance; must be at least n long
+     */
+    public void predictAll(double[] first, double[][] second, int n, double[] predictions) {
+        for (int i = 0; i < n; i++) {
+            predictions[i] = predict(first, second[i]);
+        }
+    }
+
+    public int getNumNodes() {
+        return feature.length;
+    }
+
+    public int getDepth() {
+        return depth(0);
+    }
+
+    private int depth(int node) {
+        return feature[node] < 0 ? 0 : 1 + Math.max(depth(left[node]), depth(right[node]));
+    }
+
+    public void save(String fileName) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
+            writer.write("Feature\tThreshold\tLeft\tRight\tValue\n");
+            for (int node = 0; node < feature.length; node++) {
+                writer.write(feature[node] + "\t" + threshold[node] + "\t" + left[node] + "\t" + right[node] + "\t" + value[node] + "\n");
+            }
+        }
+    }
+
+    public static RegressionTree load(String fileName) {
+        List<String[]> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            reader.readLine();  // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) lines.add(line.split("\t"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Problem reading regression tree from " + fileName, e);
+        }
+        int n = lines.size();
+        int[] feature = new int[n], left = new int[n], right = new int[n];
+        double[] threshold = new double[n], value = new double[n];
+        for (int node = 0; node < n; node++) {
+            String[] fields = lines.get(node);
+            feature[node] = Integer.parseInt(fields[0]);
+            threshold[node] = Double.parseDouble(fields[1]);
+            left[node] = Integer.parseInt(fields[2]);
+            right[node] = Integer.parseInt(fields[3]);
+            value[node] = Double.parseDouble(fields[4]);
+        }
+        return new RegressionTree(feature, threshold, left, right, value);
+    }
+
+    /**
+     * @param featureNames - names of the features, for readability
+     * @return the tree in the same layout as Spark's debug string of a decision tree
+     */
+    public String describe(String[] featureNames) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("RegressionTree: depth=%d, numNodes=%d, numFeatures=%d%n", getDepth(), getNumNodes(), featureNames.length));
+        describe(0, 1, featureNames, sb);
+        return sb.toString();
+    }
+
+    private void describe(int node, int indent, String[] featureNames, StringBuilder sb) {
+        StringBuilder pad = new StringBuilder();
+        for (int i = 0; i <= indent; i++) pad.append(' ');
+        if (feature[node] < 0) {
+            sb.append(pad).append("Predict: ").append(value[node]).append('\n');
+            return;
+        }
+        String name = featureNames[feature[node]];
+        sb.append(pad).append("If (").append(name).append(" <= ").append(threshold[node]).append(")\n");
+        describe(left[node], indent + 1, featureNames, sb);
+        sb.append(pad).append("Else (").append(name).append(" > ").append(threshold[node]).append(")\n");
+        describe(right[node], indent + 1, featureNames, sb);
+    }
+}
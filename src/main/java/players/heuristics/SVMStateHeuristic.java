@@ -14,6 +14,18 @@ public class SVMStateHeuristic implements IStateHeuristic {
     IStateFeatureVector features;
     svm_model model;
     IStateHeuristic defaultHeuristic;
+    // reused between calls on the same thread (a heuristic is shared by all copies of a player), to avoid allocating
+    // for each state evaluated
+    final ThreadLocal<double[]> phi = ThreadLocal.withInitial(() -> new double[features.size()]);
+    final ThreadLocal<svm_node[]> data = ThreadLocal.withInitial(() -> {
+        svm_node[] nodes = new svm_node[features.size() + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new svm_node();
+            nodes[i].index = i;
+        }
+        nodes[0].value = 1.0; // bias
+        return nodes;
+    });
 
     public SVMStateHeuristic(String featureVectorClassName, String svmModelLocation, String defaultHeuristicClassName) {
         try {
@@ -64,14 +76,10 @@ public class SVMStateHeuristic implements IStateHeuristic {
     public double evaluateState(AbstractGameState state, int playerId) {
         if (model == null)
             return defaultHeuristic.evaluateState(state, playerId);
-        double[] phi = features.featureVector(state, playerId);
-        svm_node[] data = new svm_node[phi.length + 1];
-        data[0] = new svm_node(); // bias
-        data[0].index = 0;
-        data[0].value = 1.0;
+        double[] phi = this.phi.get();
+        svm_node[] data = this.data.get();
+        features.featureVector(state, playerId, phi, 0);
         for (int i = 0; i < phi.length; i++) {
-            data[i + 1] = new svm_node();
-            data[i + 1].index = i + 1;
             data[i + 1].value = phi[i];
         }
         double result = svm.svm_predict(model, data);
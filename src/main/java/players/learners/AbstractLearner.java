@@ -1,13 +1,15 @@
 package players.learners;
 
 import core.interfaces.ILearner;
+import evaluation.loggers.BinaryDataReader;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+
+import static evaluation.listeners.FeatureListener.leadingColumns;
+import static evaluation.listeners.FeatureListener.trailingColumns;
 
 public abstract class AbstractLearner implements ILearner {
 
@@ -18,28 +20,55 @@ public abstract class AbstractLearner implements ILearner {
     String[] descriptions;
     double gamma;
     Target targetType;
+    // Files read by prepare(), and not yet used by loadData()
+    private final Map<String, FileData> prepared = new HashMap<>();
+
+    private static class FileData {
+        final String[] header;
+        final List<double[]> rows;
+
+        FileData(String[] header, List<double[]> rows) {
+            this.header = header;
+            this.rows = rows;
+        }
+    }
 
     public enum Target {
-        WIN(3, false),  // 0 or 1 for loss/win
-        ORDINAL(2, false), // -1 for first to -n for nth place
-        SCORE(1, false),  // raw score
-        SCORE_DELTA(1, false),  // targets the change in score between now and end of the game
-        WIN_MEAN(3, true), // 0 or 1 for loss/win, with discount to 0.5 average (discount over the rounds in a game,
+        WIN("Win", false),  // 0 or 1 for loss/win
+        ORDINAL("Ordinal", false), // -1 for first to -n for nth place
+        SCORE("FinalScore", false),  // raw score
+        SCORE_DELTA("FinalScore", false),  // targets the change in score between now and end of the game
+        WIN_MEAN("Win", true), // 0 or 1 for loss/win, with discount to 0.5 average (discount over the rounds in a game,
         // so that at the start (with little information), we reduce noise
-        ORD_MEAN(2, true),  // as ORDINAL, but discounted to middle of the range based on rounds to final result
-        ORD_SCALE(2, false), // as ORDINAL, but scaled to 0 to 1 (for Logistic regression targeting)
-        ORD_MEAN_SCALE(2, true), // as ORD_MEAN, but scaled to 0 to 1 ( for Logistic regression targeting)
-        ACTION_SCORE(4, false); // targets the score of the action taken (for Q-learning
+        ORD_MEAN("Ordinal", true),  // as ORDINAL, but discounted to middle of the range based on rounds to final result
+        ORD_SCALE("Ordinal", false), // as ORDINAL, but scaled to 0 to 1 (for Logistic regression targeting)
+        ORD_MEAN_SCALE("Ordinal", true), // as ORD_MEAN, but scaled to 0 to 1 ( for Logistic regression targeting)
+        ACTION_SCORE("ActionScore", false); // targets the score of the action taken (for Q-learning
 
+        // position of the target column, counted back from the end of a record
         public final int indexOffset;
         public final boolean discountToMean;
 
-        Target(int i, boolean d) {
-            indexOffset = i;
+        Target(String column, boolean d) {
+            indexOffset = fromEnd(column);
             discountToMean = d;
         }
     }
 
+    // Index of one of the columns FeatureListener writes before the features
+    static int leadingColumn(String column) {
+        int index = Arrays.asList(leadingColumns).indexOf(column);
+        if (index < 0) throw new AssertionError("No leading column " + column);
+        return index;
+    }
+
+    // Position of one of the columns FeatureListener writes after the features, counted back from the end (1 is last)
+    static int fromEnd(String column) {
+        int index = Arrays.asList(trailingColumns).indexOf(column);
+        if (index < 0) throw new AssertionError("No trailing column " + column);
+        return trailingColumns.length - index;
+    }
+
     public AbstractLearner() {
         this(1.0, Target.WIN);
     }
@@ -57,40 +86,58 @@ public abstract class AbstractLearner implements ILearner {
         targetType = newTarget;
     }
 
+    @Override
+    public void prepare(String file) {
+        prepared.put(file, readFile(file));
+    }
+
+    private static FileData readFile(String file) {
+        if (BinaryDataReader.isBinaryData(file)) {
+            try (BinaryDataReader reader = new BinaryDataReader(file)) {
+                return new FileData(reader.getColumnNames(), Arrays.asList(reader.readRows()));
+            }
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String[] header = reader.readLine().split("\\t");
+            List<double[]> data = new ArrayList<>();
+            while (reader.ready()) {
+                double[] datum = Arrays.stream(reader.readLine().split("\\t")).mapToDouble(Double::parseDouble).toArray();
+                data.add(datum);
+            }
+            return new FileData(header, data);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem reading file " + file);
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem parsing data as numeric : " + file);
+        }
+    }
+
     protected void loadData(String... files) {
         List<double[]> data = new ArrayList<>();
         for (String file : files) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                header = reader.readLine().split("\\t");
-                descriptions = new String[header.length - 11];
-                System.arraycopy(header, 5, descriptions, 0, descriptions.length);
-                while (reader.ready()) {
-                    double[] datum = Arrays.stream(reader.readLine().split("\\t")).mapToDouble(Double::parseDouble).toArray();
-                    data.add(datum);
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-                throw new AssertionError("Problem reading file " + file);
-            } catch (NumberFormatException e) {
-                e.printStackTrace();
-                throw new AssertionError("Problem parsing data as numeric : " + file);
-            }
+            FileData fileData = prepared.remove(file);
+            if (fileData == null) fileData = readFile(file);
+            header = fileData.header;
+            descriptions = new String[header.length - leadingColumns.length - trailingColumns.length];
+            System.arraycopy(header, leadingColumns.length, descriptions, 0, descriptions.length);
+            data.addAll(fileData.rows);
         }
 
         // now convert data to [][]
-        // we assume (for the moment) that the columns are: GameID, Player, Round, Turn, CurrentScore... Win, Ordinal, FinalScore
-        // with ... representing the game specific features
-        // these fields are all defined in FeatureListener, and we assume that any Listener that records data
-        // subclasses this class; adding additional game-specific data on top (or rather, in between).
-        // TODO: This is unclear, and should be tidied up to reduce fragility
-        if (!header[0].equals("GameID") || !header[1].equals("Player") || !header[2].equals("Round") || !header[3].equals("Turn") || !header[4].equals("CurrentScore")) {
-            throw new AssertionError("Unexpected starting header entries " + String.join("", header));
+        // the columns are FeatureListener.leadingColumns, then the game specific features, then
+        // FeatureListener.trailingColumns; we assume that any Listener that records data subclasses FeatureListener
+        for (int i = 0; i < leadingColumns.length; i++) {
+            if (!header[i].equals(leadingColumns[i]))
+                throw new AssertionError("Unexpected starting header entries " + String.join("", header));
         }
-        if (!header[header.length - 1].equals("FinalScore") || !header[header.length - 2].equals("Ordinal")
-                || !header[header.length - 3].equals("Win") || !header[header.length - 4].equals(("ActionScore"))
-                || !header[header.length - 5].equals("TotalRounds") || !header[header.length - 6].equals("PlayerCount")) {
-            throw new AssertionError("Unexpected final header entries " + String.join("", header));
+        for (int i = 0; i < trailingColumns.length; i++) {
+            if (!header[header.length - trailingColumns.length + i].equals(trailingColumns[i]))
+                throw new AssertionError("Unexpected final header entries " + String.join("", header));
         }
+        int round = leadingColumn("Round"), score = leadingColumn("CurrentScore");
+        int totalRounds = header.length - fromEnd("TotalRounds"), players = header.length - fromEnd("PlayerCount");
 
         dataArray = new double[data.size()][];
         target = new double[data.size()][1];
@@ -98,8 +145,8 @@ public abstract class AbstractLearner implements ILearner {
         for (int i = 0; i < dataArray.length; i++) {
             double[] allData = data.get(i);
             // calculate the number of turns from this point until the end of the game
-            double turns = allData[header.length - 5] - allData[2];
-            double playerCount = allData[header.length - 6];
+            double turns = allData[totalRounds] - allData[round];
+            double playerCount = allData[players];
             // discount target (towards expected result where relevant)
             double expectedAverage = 0.0;
             if (targetType == Target.WIN_MEAN)
@@ -108,7 +155,7 @@ public abstract class AbstractLearner implements ILearner {
                 expectedAverage = (1.0 + playerCount) / 2.0;
 
             if (targetType == Target.SCORE_DELTA)
-                target[i][0] = (allData[header.length - targetType.indexOffset] - allData[4]) * Math.pow(gamma, turns);
+                target[i][0] = (allData[header.length - targetType.indexOffset] - allData[score]) * Math.pow(gamma, turns);
             else
                 target[i][0] = (allData[header.length - targetType.indexOffset] - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
 
@@ -117,10 +164,10 @@ public abstract class AbstractLearner implements ILearner {
             if (targetType == Target.ORD_MEAN_SCALE || targetType == Target.ORD_SCALE)
                 target[i][0] = (playerCount - target[i][0]) / (playerCount - 1.0);  // scale to [0, 1]
 
-            currentScore[i][0] = allData[4];
-            double[] regressionData = new double[header.length - 10];
+            currentScore[i][0] = allData[score];
+            double[] regressionData = new double[descriptions.length + 1];
             regressionData[0] = 1.0; // the bias term
-            System.arraycopy(allData, 5, regressionData, 1, regressionData.length - 1);
+            System.arraycopy(allData, leadingColumns.length, regressionData, 1, descriptions.length);
             dataArray[i] = regressionData;
         }
     }
@@ -3,13 +3,18 @@ package players.learners;
 import org.apache.spark.ml.feature.RFormula;
 import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
 import org.apache.spark.ml.regression.DecisionTreeRegressor;
+import org.apache.spark.ml.tree.ContinuousSplit;
+import org.apache.spark.ml.tree.InternalNode;
+import org.apache.spark.ml.tree.Node;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
-import players.heuristics.DecisionTreeActionHeuristic;
+import players.heuristics.RegressionTree;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DecisionTreeLearner extends ApacheLearner {
 
@@ -59,7 +64,7 @@ public class DecisionTreeLearner extends ApacheLearner {
         drModel = dr.fit(training);
 
         if (debug)
-            System.out.println(DecisionTreeActionHeuristic.prettifyDecisionTreeDescription(drModel, descriptions));
+            System.out.println(prettifyDecisionTreeDescription(drModel, descriptions));
 
     }
 
@@ -67,8 +72,10 @@ public class DecisionTreeLearner extends ApacheLearner {
     public void writeToFile(String file) {
         try {
             drModel.write().overwrite().save(file);
+            // and the flattened copy, so that DecisionTreeActionHeuristic does not need Spark to use the model
+            toRegressionTree(drModel).save(file + File.separator + RegressionTree.FILE_NAME);
             BufferedWriter writer = new BufferedWriter(new java.io.FileWriter(file + File.separator + "Description.txt"));
-            writer.write(DecisionTreeActionHeuristic.prettifyDecisionTreeDescription(drModel, descriptions));
+            writer.write(prettifyDecisionTreeDescription(drModel, descriptions));
             writer.close();
         } catch (IOException e) {
             e.printStackTrace();
@@ -83,4 +90,73 @@ public class DecisionTreeLearner extends ApacheLearner {
         return "DecisionTree";
     }
 
+    /**
+     * Converts a Spark model to the array representation used by DecisionTreeActionHeuristic. Nodes are numbered
+     * in depth-first order, so the root is node 0.
+     */
+    public static RegressionTree toRegressionTree(DecisionTreeRegressionModel model) {
+        List<Node> nodes = new ArrayList<>();
+        List<int[]> children = new ArrayList<>();
+        addNode(model.rootNode(), nodes, children);
+        int size = nodes.size();
+        int[] feature = new int[size], left = new int[size], right = new int[size];
+        double[] threshold = new double[size], value = new double[size];
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            value[i] = node.prediction();
+            left[i] = children.get(i)[0];
+            right[i] = children.get(i)[1];
+            if (node instanceof InternalNode) {
+                if (!(((InternalNode) node).split() instanceof ContinuousSplit))
+                    throw new IllegalArgumentException("Only continuous features are supported");
+                ContinuousSplit split = (ContinuousSplit) ((InternalNode) node).split();
+                feature[i] = split.featureIndex();
+                threshold[i] = split.threshold();
+            } else {
+                feature[i] = -1;
+            }
+        }
+        return new RegressionTree(feature, threshold, left, right, value);
+    }
+
+    private static int addNode(Node node, List<Node> nodes, List<int[]> children) {
+        int index = nodes.size();
+        int[] myChildren = {-1, -1};
+        nodes.add(node);
+        children.add(myChildren);
+        if (node instanceof InternalNode) {
+            myChildren[0] = addNode(((InternalNode) node).leftChild(), nodes, children);
+            myChildren[1] = addNode(((InternalNode) node).rightChild(), nodes, children);
+        }
+        return index;
+    }
+
+    /**
+     * Writes the array representation of a Spark model saved in the directory alongside it.
+     *
+     * @param directory - where the Spark model was saved
+     * @return the converted tree
+     */
+    public static RegressionTree exportRegressionTree(String directory) {
+        RegressionTree tree = toRegressionTree(DecisionTreeRegressionModel.load(directory));
+        try {
+            tree.save(directory + File.separator + RegressionTree.FILE_NAME);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("Failed to save exported decision tree model");
+        }
+        return tree;
+    }
+
+    public static String prettifyDecisionTreeDescription(DecisionTreeRegressionModel model, String[] featureNames) {
+        // the debug string of model contains labels of the form 'feature nn', where nn is the index of the feature
+        // We want to replace these with the actual feature names
+        // we go in reverse to stop replacing 'feature 10' with 'nameOfFeature0' etc.
+        String debugString = model.toDebugString();
+        for (int i = featureNames.length-1; i >= 0; i--) {
+            debugString = debugString.replace("feature " + i, featureNames[i]);
+        }
+        return debugString;
+    }
+
 }
@@ -0,0 +1,222 @@
+package players.learners;
+
+import players.heuristics.RegressionTree;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Regression tree learner with the same stopping rules as {@link DecisionTreeLearner} (maximum depth, minimum
+ * instances per node, minimum information gain and minimum fraction of the data in each node), but trained
+ * directly on the data arrays rather than through Spark. Splits minimise the variance of the target, and are
+ * chosen from all distinct values of each feature (thresholds are taken halfway between adjacent values).
+ * <p>
+ * The tree is grown one level at a time. Each feature is sorted once, and for each level all nodes are scanned in a
+ * single pass over each feature; features are processed in parallel.
+ * <p>
+ * The model is written to a directory, as a {@link RegressionTree} file plus a description of the tree, and can be
+ * used by DecisionTreeActionHeuristic.
+ */
+public class JavaDecisionTreeLearner extends AbstractLearner {
+
+    RegressionTree tree;
+    int maxDepth;
+    int minInstancesPerNode;
+    double minInfoGain;
+    double minWeightFractionPerNode;
+
+    public JavaDecisionTreeLearner(double gamma, Target target) {
+        this(gamma, target, 10, 1, 0.00, 0.005);
+    }
+
+    public JavaDecisionTreeLearner(double gamma, Target target, int maxDepth, int minInstancesPerNode, double minInfoGain, double minWeightFractionPerNode) {
+        super(gamma, target);
+        this.maxDepth = maxDepth;
+        this.minInstancesPerNode = minInstancesPerNode;
+        this.minInfoGain = minInfoGain;
+        this.minWeightFractionPerNode = minWeightFractionPerNode;
+    }
+
+    // Best split found for a node
+    static class Split {
+        int feature = -1;
+        double threshold;
+        double gain = Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public void learnFrom(String... files) {
+        loadData(files);
+        int n = dataArray.length;
+        int nFeatures = descriptions.length;
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) y[i] = target[i][0];
+        // column 0 of dataArray is the bias term, so feature f is in column f + 1
+        int[][] sortedRows = IntStream.range(0, nFeatures).parallel()
+                .mapToObj(f -> IntStream.range(0, n).boxed()
+                        .sorted(Comparator.comparingDouble(r -> dataArray[r][f + 1]))
+                        .mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        int minInstances = Math.max(minInstancesPerNode, (int) Math.ceil(minWeightFractionPerNode * n));
+
+        // Tree under construction
+        List<int[]> nodes = new ArrayList<>();  // {feature, left, right}
+        List<double[]> nodeValues = new ArrayList<>(); // {threshold, value}
+        // statistics of the target in each node: count, sum, sum of squares
+        List<double[]> stats = new ArrayList<>();
+
+        int[] nodeOf = new int[n];  // node each row is in, -1 once the node is a leaf
+        double[] rootStats = new double[3];
+        for (int i = 0; i < n; i++) addTo(rootStats, y[i]);
+        nodes.add(new int[]{-1, -1, -1});
+        nodeValues.add(new double[]{0.0, rootStats[1] / rootStats[0]});
+        stats.add(rootStats);
+        List<Integer> frontier = new ArrayList<>();
+        frontier.add(0);
+
+        for (int depth = 0; depth < maxDepth && !frontier.isEmpty(); depth++) {
+            // position in the frontier of each node
+            int[] slot = new int[nodes.size()];
+            Arrays.fill(slot, -1);
+            for (int k = 0; k < frontier.size(); k++) slot[frontier.get(k)] = k;
+            List<Integer> currentFrontier = frontier;
+            Split[][] byFeature = IntStream.range(0, nFeatures).parallel()
+                    .mapToObj(f -> bestSplits(f, sortedRows[f], nodeOf, slot, currentFrontier, stats, y, minInstances))
+                    .toArray(Split[][]::new);
+
+            List<Integer> nextFrontier = new ArrayList<>();
+            int[] splitChild = new int[nodes.size()];  // left child of each node split at this level
+            Arrays.fill(splitChild, -1);
+            for (int k = 0; k < currentFrontier.size(); k++) {
+                Split best = new Split();
+                for (Split[] splits : byFeature) {
+                    if (splits[k].gain > best.gain) best = splits[k];
+                }
+                int node = currentFrontier.get(k);
+                if (best.feature < 0 || best.gain <= 0 || best.gain < minInfoGain) continue;
+                int leftChild = nodes.size();
+                nodes.get(node)[0] = best.feature;
+                nodes.get(node)[1] = leftChild;
+                nodes.get(node)[2] = leftChild + 1;
+                nodeValues.get(node)[0] = best.threshold;
+                for (int c = 0; c < 2; c++) {
+                    nodes.add(new int[]{-1, -1, -1});
+                    nodeValues.add(new double[2]);
+                    stats.add(new double[3]);
+                    nextFrontier.add(leftChild + c);
+                }
+                splitChild[node] = leftChild;
+            }
+            // move rows to the new children
+            for (int r = 0; r < n; r++) {
+                int node = nodeOf[r];
+                if (node < 0) continue;
+                if (splitChild[node] < 0) {
+                    nodeOf[r] = -1;
+                    continue;
+                }
+                int f = nodes.get(node)[0];
+                int child = dataArray[r][f + 1] <= nodeValues.get(node)[0] ? splitChild[node] : splitChild[node] + 1;
+                nodeOf[r] = child;
+                addTo(stats.get(child), y[r]);
+            }
+            for (int child : nextFrontier) {
+                double[] s = stats.get(child);
+                nodeValues.get(child)[1] = s[1] / s[0];
+            }
+            frontier = nextFrontier;
+        }
+
+        int size = nodes.size();
+        int[] feature = new int[size], left = new int[size], right = new int[size];
+        double[] threshold = new double[size], value = new double[size];
+        for (int i = 0; i < size; i++) {
+            feature[i] = nodes.get(i)[0];
+            left[i] = nodes.get(i)[1];
+            right[i] = nodes.get(i)[2];
+            threshold[i] = nodeValues.get(i)[0];
+            value[i] = nodeValues.get(i)[1];
+        }
+        tree = new RegressionTree(feature, threshold, left, right, value);
+    }
+
+    private static void addTo(double[] stats, double y) {
+        stats[0] += 1;
+        stats[1] += y;
+        stats[2] += y * y;
+    }
+
+    private static double variance(double count, double sum, double sumSq) {
+        double mean = sum / count;
+        return Math.max(0.0, sumSq / count - mean * mean);
+    }
+
+    /**
+     * Finds the best split on one feature for every node in the frontier, in one pass over the rows in order of
+     * the feature's value.
+     */
+    private Split[] bestSplits(int f, int[] rows, int[] nodeOf, int[] slot, List<Integer> frontier,
+                               List<double[]> stats, double[] y, int minInstances) {
+        int nSlots = frontier.size();
+        Split[] retValue = new Split[nSlots];
+        double[][] leftStats = new double[nSlots][3];
+        double[] lastValue = new double[nSlots];
+        for (int k = 0; k < nSlots; k++) retValue[k] = new Split();
+        for (int r : rows) {
+            int node = nodeOf[r];
+            if (node < 0) continue;
+            int k = slot[node];
+            if (k < 0) continue;
+            double v = dataArray[r][f + 1];
+            double[] l = leftStats[k];
+            if (l[0] > 0 && v != lastValue[k]) {
+                // candidate split between the previous value and this one
+                double[] total = stats.get(frontier.get(k));
+                double nL = l[0], nR = total[0] - l[0];
+                if (nL >= minInstances && nR >= minInstances) {
+                    double gain = variance(total[0], total[1], total[2])
+                            - nL / total[0] * variance(nL, l[1], l[2])
+                            - nR / total[0] * variance(nR, total[1] - l[1], total[2] - l[2]);
+                    if (gain > retValue[k].gain) {
+                        retValue[k].gain = gain;
+                        retValue[k].feature = f;
+                        retValue[k].threshold = (lastValue[k] + v) / 2.0;
+                    }
+                }
+            }
+            addTo(l, y[r]);
+            lastValue[k] = v;
+        }
+        return retValue;
+    }
+
+    @Override
+    public void writeToFile(String file) {
+        File directory = new File(file);
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.out.println("Failed to create directory " + file);
+            return;
+        }
+        try {
+            tree.save(file + File.separator + RegressionTree.FILE_NAME);
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file + File.separator + "Description.txt"))) {
+                writer.write(tree.describe(descriptions));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("Failed to save decision tree model");
+        }
+    }
+
+    @Override
+    public String name() {
+        return "DecisionTree";
+    }
+}
@@ -0,0 +1,83 @@
+package players.learners;
+
+import java.io.FileWriter;
+import java.util.Arrays;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Logistic regression (a binomial GLM with logit link) with an L2 penalty, as {@link LogisticLearner}, but trained
+ * directly on the data arrays by iteratively reweighted least squares rather than through Spark. The target may be
+ * any value in [0, 1]. This writes the same coefficients file as LogisticLearner.
+ */
+public class JavaLogisticLearner extends AbstractLearner {
+
+    double[] coefficients;
+    double regParam;
+    int maxIterations = 10;
+    double tolerance = 1e-6;
+
+    public JavaLogisticLearner(double gamma, Target target) {
+        this(gamma, target, 0.1);
+    }
+
+    public JavaLogisticLearner(double gamma, Target target, double regParam) {
+        super(gamma, target);
+        this.regParam = regParam;
+    }
+
+    @Override
+    public void learnFrom(String... files) {
+        loadData(files);
+        int n = dataArray.length;
+        double[] y = new double[n];
+        double[] mu = new double[n];
+        double[] eta = new double[n];
+        double[] z = new double[n];
+        double[] w = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = target[i][0];
+            // starting point as used by Spark, away from 0 and 1
+            mu[i] = (y[i] + 0.5) / 2.0;
+            eta[i] = Math.log(mu[i] / (1.0 - mu[i]));
+        }
+        coefficients = null;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            for (int i = 0; i < n; i++) {
+                double variance = Math.max(mu[i] * (1.0 - mu[i]), 1e-10);
+                z[i] = eta[i] + (y[i] - mu[i]) / variance;
+                w[i] = variance;
+            }
+            double[] newCoefficients = WeightedLeastSquares.solve(dataArray, z, w, regParam);
+            for (int i = 0; i < n; i++) {
+                double[] row = dataArray[i];
+                double sum = 0.0;
+                for (int j = 0; j < row.length; j++) sum += row[j] * newCoefficients[j];
+                eta[i] = sum;
+                mu[i] = 1.0 / (1.0 + Math.exp(-sum));
+            }
+            boolean converged = coefficients != null;
+            for (int j = 0; converged && j < newCoefficients.length; j++) {
+                converged = Math.abs(newCoefficients[j] - coefficients[j]) < tolerance;
+            }
+            coefficients = newCoefficients;
+            if (converged) break;
+        }
+    }
+
+    @Override
+    public void writeToFile(String file) {
+        try (FileWriter writer = new FileWriter(file, false)) {
+            writer.write("BIAS\t" + String.join("\t", descriptions) + "\n");
+            writer.write(Arrays.stream(coefficients).mapToObj(d -> String.format("%.4f", d)).collect(joining("\t")));
+            writer.write("\n");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "Logistic";
+    }
+}
@@ -0,0 +1,49 @@
+package players.learners;
+
+import java.io.FileWriter;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Linear regression with an L2 penalty, as {@link OLSLearner}, but trained directly on the data arrays rather than
+ * through Spark. This writes the same coefficients file, for use with LinearStateHeuristic and similar.
+ */
+public class JavaOLSLearner extends AbstractLearner {
+
+    double[] coefficients;
+    double regParam;
+
+    public JavaOLSLearner(double gamma, Target target) {
+        this(gamma, target, 0.1);
+    }
+
+    public JavaOLSLearner(double gamma, Target target, double regParam) {
+        super(gamma, target);
+        this.regParam = regParam;
+    }
+
+    @Override
+    public void learnFrom(String... files) {
+        loadData(files);
+        double[] y = new double[target.length];
+        for (int i = 0; i < y.length; i++) y[i] = target[i][0];
+        coefficients = WeightedLeastSquares.solve(dataArray, y, null, regParam);
+    }
+
+    @Override
+    public void writeToFile(String prefix) {
+        String file = prefix + ".txt";
+        try (FileWriter writer = new FileWriter(file, false)) {
+            writer.write("BIAS\t" + String.join("\t", descriptions) + "\n");
+            writer.write(Arrays.stream(coefficients).mapToObj(d -> String.format("%.4g", d)).collect(Collectors.joining("\t")));
+            writer.write("\n");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "OLS";
+    }
+}
@@ -0,0 +1,156 @@
+package players.learners;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Solves weighted least squares problems with an L2 penalty directly on primitive arrays. This is the building
+ * block of the learners that do not use Spark (linear regression, and each iteration of IRLS for GLMs).
+ * <p>
+ * The penalty is applied as in Spark's WeightedLeastSquares with standardisation of both features and label, so that
+ * the same regParam gives comparable models: the coefficients solve (C + regParam / sd(z) * diag(var(x))) b = c,
+ * where C and c are the weighted covariances of the features with each other, and with the label z. The bias is
+ * not penalised.
+ * <p>
+ * The sums over all rows are computed in parallel with fork/join, in blocks of rows.
+ */
+public class WeightedLeastSquares {
+
+    // Number of rows summed in one task
+    static final int BLOCK_SIZE = 4096;
+
+    /**
+     * @param x        - data, one row per instance. The first column is taken to be the bias (always 1.0).
+     * @param z        - label for each row
+     * @param w        - weight for each row, or null for all rows weighted equally
+     * @param regParam - L2 penalty
+     * @return coefficients, with the bias first
+     */
+    public static double[] solve(double[][] x, double[] z, double[] w, double regParam) {
+        int d = x[0].length;
+        // sums[0..d-1][0..d-1] = sum w x x', sums[d][0..d-1] = sum w z x, sums[d][d] = sum w z z
+        double[][] sums = ForkJoinPool.commonPool().invoke(new Sums(x, z, w, 0, x.length));
+        double wSum = sums[0][0];
+        double[] mean = new double[d];
+        for (int j = 0; j < d; j++) mean[j] = sums[0][j] / wSum;
+        double zMean = sums[d][0] / wSum;
+        double zVar = sums[d][d] / wSum - zMean * zMean;
+        double zStd = zVar > 0 ? Math.sqrt(zVar) : 1.0;
+
+        // centred problem over the features (without the bias)
+        int n = d - 1;
+        double[][] a = new double[n][n];
+        double[] b = new double[n];
+        for (int j = 1; j < d; j++) {
+            for (int k = 1; k <= j; k++) {
+                double cov = sums[j][k] / wSum - mean[j] * mean[k];
+                a[j - 1][k - 1] = cov;
+                a[k - 1][j - 1] = cov;
+            }
+            b[j - 1] = sums[d][j] / wSum - mean[j] * zMean;
+        }
+        for (int j = 0; j < n; j++) {
+            double var = a[j][j];
+            if (var <= 1e-12) {
+                // constant feature; its coefficient is zero
+                for (int k = 0; k < n; k++) {
+                    a[j][k] = 0.0;
+                    a[k][j] = 0.0;
+                }
+                a[j][j] = 1.0;
+                b[j] = 0.0;
+            } else {
+                a[j][j] += regParam / zStd * var;
+            }
+        }
+        double[] beta = choleskySolve(a, b);
+
+        double[] coefficients = new double[d];
+        coefficients[0] = zMean;
+        for (int j = 1; j < d; j++) {
+            coefficients[j] = beta[j - 1];
+            coefficients[0] -= beta[j - 1] * mean[j];
+        }
+        return coefficients;
+    }
+
+    /**
+     * Solves a x = b for symmetric positive definite a (which is overwritten).
+     */
+    static double[] choleskySolve(double[][] a, double[] b) {
+        int n = b.length;
+        for (int j = 0; j < n; j++) {
+            double diag = a[j][j];
+            for (int k = 0; k < j; k++) diag -= a[j][k] * a[j][k];
+            if (diag <= 0)
+                throw new ArithmeticException("Matrix is not positive definite; try increasing regParam");
+            a[j][j] = Math.sqrt(diag);
+            for (int i = j + 1; i < n; i++) {
+                double sum = a[i][j];
+                for (int k = 0; k < j; k++) sum -= a[i][k] * a[j][k];
+                a[i][j] = sum / a[j][j];
+            }
+        }
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int k = 0; k < i; k++) sum -= a[i][k] * y[k];
+            y[i] = sum / a[i][i];
+        }
+        double[] x = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int k = i + 1; k < n; k++) sum -= a[k][i] * x[k];
+            x[i] = sum / a[i][i];
+        }
+        return x;
+    }
+
+    static class Sums extends RecursiveTask<double[][]> {
+        final double[][] x;
+        final double[] z, w;
+        final int from, to;
+
+        Sums(double[][] x, double[] z, double[] w, int from, int to) {
+            this.x = x;
+            this.z = z;
+            this.w = w;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[][] compute() {
+            if (to - from > BLOCK_SIZE) {
+                int mid = (from + to) >>> 1;
+                Sums left = new Sums(x, z, w, from, mid);
+                left.fork();
+                double[][] right = new Sums(x, z, w, mid, to).compute();
+                double[][] retValue = left.join();
+                for (int i = 0; i < retValue.length; i++) {
+                    for (int j = 0; j < retValue[i].length; j++) retValue[i][j] += right[i][j];
+                }
+                return retValue;
+            }
+            int d = x[0].length;
+            double[][] sums = new double[d + 1][d + 1];
+            for (int r = from; r < to; r++) {
+                double[] row = x[r];
+                double weight = w == null ? 1.0 : w[r];
+                for (int j = 0; j < d; j++) {
+                    double wx = weight * row[j];
+                    double[] s = sums[j];
+                    // lower triangle only
+                    for (int k = 0; k <= j; k++) s[k] += wx * row[k];
+                    sums[d][j] += wx * z[r];
+                }
+                sums[d][d] += weight * z[r] * z[r];
+            }
+            // fill in the upper triangle
+            for (int j = 0; j < d; j++) {
+                for (int k = j + 1; k < d; k++) sums[j][k] = sums[k][j];
+            }
+            return sums;
+        }
+    }
+}
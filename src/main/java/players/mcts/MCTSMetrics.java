@@ -79,6 +79,48 @@ public class MCTSMetrics implements IMetricsCollection {
     }
 
 
+    /**
+     * Counters and timings of each decision, as gathered by the search itself (see {@link MCTSSearchStats}), so
+     * unlike TreeStats no tree is walked.
+     */
+    public static class SearchStats extends AbstractMetric {
+
+        // Stats last recorded for each player, as the Game does not ask players with only one action to decide
+        final Map<Integer, MCTSSearchStats> lastRecorded = new HashMap<>();
+
+        @Override
+        protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
+            AbstractPlayer player = listener.getGame().getPlayers().get(e.playerID);
+            if (player instanceof MCTSPlayer) {
+                MCTSPlayer mctsPlayer = (MCTSPlayer) player;
+                MCTSSearchStats stats = mctsPlayer.getSearchStats();
+                if (stats.getIterations() == 0 || lastRecorded.put(e.playerID, stats) == stats)
+                    return false;  // no new search since the last decision recorded
+                records.put("PlayerType", mctsPlayer.toString());
+                records.put("PlayerID", e.playerID);
+                records.putAll(stats.toMap());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Set<IGameEvent> getDefaultEventTypes() {
+            return new HashSet<>(Collections.singletonList(Event.GameEvent.ACTION_CHOSEN));
+        }
+
+        @Override
+        public Map<String, Class<?>> getColumns(int nPlayersPerGame, Set<String> playerNames) {
+            Map<String, Class<?>> cols = new LinkedHashMap<>();
+            cols.put("PlayerType", String.class);
+            cols.put("PlayerID", Integer.class);
+            for (Map.Entry<String, Object> value : new MCTSSearchStats().toMap().entrySet())
+                cols.put(value.getKey(), value.getValue().getClass());
+            return cols;
+        }
+    }
+
+
     public static class MultiTreeStats extends AbstractMetric {
 
         @Override
@@ -31,6 +31,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
     protected AbstractPlayer rolloutStrategy;
     protected boolean debug = false;
     protected SingleTreeNode root;
+    // Counters and timings of the last decision (or the one in progress)
+    protected MCTSSearchStats searchStats = new MCTSSearchStats();
     List<Map<Object, Pair<Integer, Double>>> MASTStats;
     private AbstractPlayer opponentModel;
     private IActionHeuristic advantageFunction;
@@ -83,6 +85,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
     @Override
     public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> actions) {
+        searchStats = new MCTSSearchStats();
         // Search for best action from the root
         if (params.opponentTreePolicy == MultiTree)
             root = new MultiTreeNode(this, gameState, rnd);
@@ -155,6 +158,13 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         this.heuristic = heuristic;
     }
 
+    /**
+     * @return counters and timings of the last decision made, gathered during the search (see {@link MCTSSearchStats})
+     */
+    public MCTSSearchStats getSearchStats() {
+        return searchStats;
+    }
+
     @Override
     public Map<AbstractAction, Map<String, Object>> getDecisionStats() {
         Map<AbstractAction, Map<String, Object>> retValue = new LinkedHashMap<>();
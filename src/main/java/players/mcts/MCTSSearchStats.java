@@ -0,0 +1,168 @@
+package players.mcts;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counters and timings of one MCTS decision, gathered as the search runs rather than by walking the tree afterwards.
+ * A new object is made for each decision (see {@link MCTSPlayer#getSearchStats()}), so it can be kept once the search
+ * is over.
+ * <p>
+ * Wall time is split between the phases of each iteration with one read of System.nanoTime() per phase. Copying or
+ * redeterminising the state at the start of an iteration counts as selection. In MultiTree search the tree and rollout
+ * steps of the players interleave, so both count as selection there, and only backup is timed apart. CPU time and
+ * bytes allocated are read once at the start and end of the decision, from the ThreadMXBean of the search thread
+ * (-1 if the JVM does not support them); the CPU time of each phase is estimated in proportion to its wall time.
+ */
+public class MCTSSearchStats {
+
+    public enum Phase {
+        SELECTION, EXPANSION, ROLLOUT, BACKUP
+    }
+
+    private static final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = bean.isCurrentThreadCpuTimeSupported();
+    private static final com.sun.management.ThreadMXBean allocationBean =
+            bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled()
+                    ? (com.sun.management.ThreadMXBean) bean : null;
+
+    int iterations;
+    int fmCalls, copyCalls, rolloutSteps;
+    int nodes, maxDepth;
+    final long[] phaseNanos = new long[Phase.values().length];
+    long wallNanos, cpuNanos = -1, allocatedBytes = -1;
+
+    private long mark, startCpu, startAllocated;
+
+    void start() {
+        startCpu = CPU_TIME_SUPPORTED ? bean.getCurrentThreadCpuTime() : -1;
+        startAllocated = allocatedBytes();
+        mark = System.nanoTime();
+        wallNanos = -mark;
+    }
+
+    void finish() {
+        wallNanos += System.nanoTime();
+        if (startCpu >= 0)
+            cpuNanos = bean.getCurrentThreadCpuTime() - startCpu;
+        if (startAllocated >= 0)
+            allocatedBytes = allocatedBytes() - startAllocated;
+    }
+
+    private static long allocatedBytes() {
+        return allocationBean == null ? -1 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Starts timing a new iteration.
+     */
+    void startIteration() {
+        mark = System.nanoTime();
+    }
+
+    /**
+     * Counts the time since the end of the last phase (or the start of the iteration) as the given phase.
+     */
+    void endPhase(Phase phase) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - mark;
+        mark = now;
+    }
+
+    void nodeCreated(int depth) {
+        nodes++;
+        if (depth > maxDepth) maxDepth = depth;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getFmCalls() {
+        return fmCalls;
+    }
+
+    public int getCopyCalls() {
+        return copyCalls;
+    }
+
+    public int getRolloutSteps() {
+        return rolloutSteps;
+    }
+
+    /**
+     * @return number of nodes created in the search, including the root (and in MultiTree search, the roots of the
+     * other players' trees)
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return depth of the deepest node created, the root being at depth 0
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @return estimate of the CPU time spent in the phase, or -1 if CPU time is not known
+     */
+    public long getPhaseCpuNanos(Phase phase) {
+        long timed = 0;
+        for (long t : phaseNanos) timed += t;
+        if (cpuNanos < 0 || timed == 0) return cpuNanos < 0 ? -1 : 0;
+        return Math.round(cpuNanos * (double) phaseNanos[phase.ordinal()] / timed);
+    }
+
+    public double getIterationsPerSecond() {
+        return wallNanos > 0 ? iterations * 1e9 / wallNanos : 0;
+    }
+
+    /**
+     * @return all the values by name, in the units given in the names (for logging)
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("Iterations", iterations);
+        values.put("IterationsPerSecond", getIterationsPerSecond());
+        values.put("FmCalls", fmCalls);
+        values.put("CopyCalls", copyCalls);
+        values.put("RolloutSteps", rolloutSteps);
+        values.put("Nodes", nodes);
+        values.put("MaxDepth", maxDepth);
+        values.put("WallMs", wallNanos / 1e6);
+        values.put("CpuMs", cpuNanos < 0 ? -1.0 : cpuNanos / 1e6);
+        for (Phase phase : Phase.values()) {
+            String name = phase.name().charAt(0) + phase.name().substring(1).toLowerCase();
+            values.put(name + "WallMs", getPhaseNanos(phase) / 1e6);
+            values.put(name + "CpuMs", cpuNanos < 0 ? -1.0 : getPhaseCpuNanos(phase) / 1e6);
+        }
+        values.put("AllocatedMB", allocatedBytes < 0 ? -1.0 : allocatedBytes / 1e6);
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
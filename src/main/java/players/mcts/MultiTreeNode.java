@@ -64,6 +64,8 @@ public class MultiTreeNode extends SingleTreeNode {
             return 0.0;
         };
         instantiate(null, null, state);
+        // set after instantiate(), as this node is not itself part of any player's tree
+        searchStats = player.searchStats;
 
         roots = new SingleTreeNode[state.getNPlayers()];
         roots[this.decisionPlayer] = SingleTreeNode.createRootNode(player, state, rnd, player.getFactory());
@@ -177,12 +179,24 @@ public class MultiTreeNode extends SingleTreeNode {
         for (int i = 0; i < finalValues.length; i++) {
             finalValues[i] = heuristic.evaluateState(currentState, i) - (params.nodesStoreScoreDelta ? startingValues[i] : 0);
         }
+        searchStats.endPhase(MCTSSearchStats.Phase.SELECTION);
         for (SingleTreeNode singleTreeNode : currentLocation) {
             if (singleTreeNode != null)
                 singleTreeNode.backUp(finalValues);
         }
         rolloutActionsTaken += actionsInRollout.size();
         root.updateMASTStatistics(actionsInTree, actionsInRollout, finalValues);
+        searchStats.endPhase(MCTSSearchStats.Phase.BACKUP);
+    }
+
+    @Override
+    protected void recordSearchStats(int numIters) {
+        super.recordSearchStats(numIters);
+        for (SingleTreeNode node : roots) {
+            if (node == null) continue;
+            searchStats.fmCalls += node.fmCallsCount;
+            searchStats.copyCalls += node.copyCount;
+        }
     }
 
     private void expandNode(int currentActor, AbstractGameState currentState) {
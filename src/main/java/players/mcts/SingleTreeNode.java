@@ -59,6 +59,8 @@ public class SingleTreeNode {
     double lowReward = Double.POSITIVE_INFINITY;
     // Root node of tree
     SingleTreeNode root;
+    // Counters and timings of the search this node is part of (shared by all its nodes)
+    MCTSSearchStats searchStats;
     // Parent of this node
     SingleTreeNode parent;
     // Children of this node. The value is an Array because we have to cater for the possibility that the next decision
@@ -84,6 +86,7 @@ public class SingleTreeNode {
     public static SingleTreeNode createRootNode(MCTSPlayer player, AbstractGameState state, Random rnd, Supplier<? extends SingleTreeNode> factory) {
         SingleTreeNode retValue = factory.get();
         retValue.factory = factory;
+        retValue.searchStats = player.searchStats;
         retValue.decisionPlayer = state.getCurrentPlayer();
         retValue.params = player.params;
         retValue.forwardModel = player.getForwardModel();
@@ -123,6 +126,7 @@ public class SingleTreeNode {
         this.opponentModels = root.opponentModels;
         this.forwardModel = root.forwardModel;
         this.rnd = root.rnd;
+        this.searchStats = root.searchStats;
         this.round = state.getRoundCounter();
         this.turn = state.getTurnCounter();
         this.turnOwner = state.getCurrentPlayer();
@@ -137,6 +141,8 @@ public class SingleTreeNode {
         } else {
             depth = 0;
         }
+        if (searchStats != null)
+            searchStats.nodeCreated(depth);
 
         totValue = new double[state.getNPlayers()];
         totSquares = new double[state.getNPlayers()];
@@ -208,21 +214,21 @@ public class SingleTreeNode {
      */
     public void mctsSearch() {
 
-        // Variables for tracking time budget
-        double avgTimeTaken;
-        timeTaken = 0.0;
-        long remaining;
-        int remainingLimit = params.breakMS;
-        ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
-        if (params.budgetType == BUDGET_TIME) {
-            elapsedTimer.setMaxTimeMillis(params.budget);
-        }
+        // Tracking time budget; the clock is only read every so many iterations
+        SearchBudgetTimer timer = new SearchBudgetTimer(params.budgetType == BUDGET_TIME ? params.budget : 0,
+                params.breakMS, 2);
 
         // Tracking number of iterations for iteration budget
         int numIters = 0;
         rolloutActionsTaken = 0;
+        // Once an iteration is over nothing else refers to its determinisation, unless nodes keep the states they
+        // are created with, so the next one can be redeterminised into it rather than copied anew
+        boolean reuseDeterminisation = params.discardStateAfterEachIteration || params.maintainMasterState;
+        AbstractGameState determinisation = null;
         boolean stop = false;
+        searchStats.start();
         while (!stop) {
+            searchStats.startIteration();
             switch (params.information) {
                 case Closed_Loop:
                     openLoopState = state;
@@ -232,14 +238,16 @@ public class SingleTreeNode {
                     copyCount++;
                     break;
                 case Information_Set:
-                    openLoopState = state.copy(decisionPlayer);
+                    if (reuseDeterminisation) {
+                        determinisation = state.redeterminiseInto(determinisation, decisionPlayer);
+                        openLoopState = determinisation;
+                    } else {
+                        openLoopState = state.copy(decisionPlayer);
+                    }
                     copyCount++;
                     break;
             }
 
-            // New timer for this iteration
-            ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
-
             // Selection + expansion: navigate tree until a node not fully expanded is found, add a new node to the tree
             oneSearchIteration();
 
@@ -250,10 +258,7 @@ public class SingleTreeNode {
             PlayerConstants budgetType = params.budgetType;
             if (budgetType == BUDGET_TIME) {
                 // Time budget
-                timeTaken += (elapsedTimerIteration.elapsedMillis());
-                avgTimeTaken = timeTaken / numIters;
-                remaining = elapsedTimer.remainingTimeMillis();
-                stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
+                stop = !timer.iterationDone();
             } else if (budgetType == BUDGET_ITERATIONS) {
                 // Iteration budget
                 stop = numIters >= params.budget;
@@ -266,6 +271,19 @@ public class SingleTreeNode {
                 stop = (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
             }
         }
+        timeTaken = timer.elapsedMillis();
+        recordSearchStats(numIters);
+        searchStats.finish();
+    }
+
+    /**
+     * Copies the counters kept on the tree into the search statistics, once the search is over.
+     */
+    protected void recordSearchStats(int numIters) {
+        searchStats.iterations = numIters;
+        searchStats.fmCalls = fmCallsCount;
+        searchStats.copyCalls = copyCount;
+        searchStats.rolloutSteps = rolloutActionsTaken;
     }
 
     /**
@@ -280,6 +298,7 @@ public class SingleTreeNode {
         actionsInRollout = new ArrayList<>();
 
         SingleTreeNode selected = treePolicy(actionsInTree);
+        searchStats.endPhase(MCTSSearchStats.Phase.SELECTION);
         if (selected == this && openLoopState.isNotTerminalForPlayer(decisionPlayer) && nVisits > 3)
             throw new AssertionError("We have not expanded or selected a new node");
         // by this point (and really earlier) we should have expanded a new node.
@@ -289,11 +308,13 @@ public class SingleTreeNode {
         // Monte carlo rollout: return value of MC rollout from the newly added node
         int lastActorInTree = actionsInTree.isEmpty() ? decisionPlayer : actionsInTree.get(actionsInTree.size() - 1).a;
         double[] delta = selected.rollout(startingValues, lastActorInTree);
+        searchStats.endPhase(MCTSSearchStats.Phase.ROLLOUT);
         // Back up the value of the rollout through the tree
         rolloutActionsTaken += actionsInRollout.size();
 
         selected.backUp(delta);
         updateMASTStatistics(actionsInTree, actionsInRollout, delta);
+        searchStats.endPhase(MCTSSearchStats.Phase.BACKUP);
     }
 
     protected void updateMASTStatistics(List<Pair<Integer, AbstractAction>> tree, List<Pair<Integer, AbstractAction>> rollout, double[] value) {
@@ -393,6 +414,7 @@ public class SingleTreeNode {
             List<AbstractAction> unexpanded = cur.unexpandedActions();
             if (!unexpanded.isEmpty()) {
                 // We have an unexpanded action
+                searchStats.endPhase(MCTSSearchStats.Phase.SELECTION);
                 AbstractAction chosen = cur.expand(unexpanded);
                 AbstractGameState nextState = cur.openLoopState;
                 if (params.information == Closed_Loop) {
@@ -404,7 +426,9 @@ public class SingleTreeNode {
                 }
                 cur.advance(nextState, chosen, false);
                 // then create the new node
-                return cur.expandNode(chosen, nextState);
+                SingleTreeNode expanded = cur.expandNode(chosen, nextState);
+                searchStats.endPhase(MCTSSearchStats.Phase.EXPANSION);
+                return expanded;
             } else {
                 // Move to next child given by UCT function
                 AbstractAction chosen = cur.treePolicyAction(true);
@@ -458,7 +482,7 @@ public class SingleTreeNode {
         // the expansion order will use the actionValueFunction (if it exists, or the MAST order if specified)
         // else pick a random unchosen action
 
-        Collections.shuffle(notChosen);
+        Collections.shuffle(notChosen, rnd);
 
         AbstractAction chosen = null;
 
@@ -4,22 +4,26 @@ import core.AbstractGameState;
 import core.interfaces.IPrintable;
 import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
+import evaluation.loggers.AsyncFileWriter;
 import org.knowm.xchart.style.markers.None;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Writes every node of an MCTS tree with enough visits to a file, one line per node. The file is written by an
+ * {@link AsyncFileWriter}, so the search does not wait on the disk.
+ */
 public class TreeRecorder {
     public int visitThreshold = 1;
     String filename;
     IStateFeatureVector stateFeatures;
     IStateHeuristic heuristic;
     File file;
-    FileWriter fileWriter;
+    AsyncFileWriter fileWriter;
 
     public TreeRecorder(String folder_name, IStateFeatureVector stateFeatures, AbstractGameState gameState,
                         IStateHeuristic heuristic) {
@@ -28,15 +32,11 @@ public class TreeRecorder {
         this.stateFeatures = stateFeatures;
         this.heuristic = heuristic;
 
-        try {
-            fileWriter = new FileWriter(file, false);
-            StringBuilder header = new StringBuilder();
-            header.append("Depth\tName\tValue\tVisits\tParent_Name\tGame_State\tGame_Features\tGame_State_Heuristic\tAction_Name\tBest_Action");
-            header.append(System.lineSeparator());
-            fileWriter.write(header.toString());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        fileWriter = new AsyncFileWriter(this.filename, false);
+        StringBuilder header = new StringBuilder();
+        header.append("Depth\tName\tValue\tVisits\tParent_Name\tGame_State\tGame_Features\tGame_State_Heuristic\tAction_Name\tBest_Action");
+        header.append(System.lineSeparator());
+        fileWriter.write(header.toString());
     }
 
     public void recordData(SingleTreeNode root) {
@@ -99,9 +99,7 @@ public class TreeRecorder {
                         nodeQueue.add(child);
                 }
             }
-
-            fileWriter.flush();
-        } catch (IOException e) {
+        } catch (UncheckedIOException e) {
             System.out.println("Error writing file in MCTSRecordingPlayer");
             e.printStackTrace();
         }
@@ -6,7 +6,7 @@ import core.actions.AbstractAction;
 import players.PlayerConstants;
 import players.mcts.MASTPlayer;
 import players.simple.RandomPlayer;
-import utilities.ElapsedCpuTimer;
+import utilities.SearchBudgetTimer;
 import utilities.Pair;
 import utilities.Utils;
 
@@ -52,8 +52,8 @@ public class RHEAPlayer extends AbstractPlayer {
 
     @Override
     public AbstractAction _getAction(AbstractGameState stateObs, List<AbstractAction> possibleActions) {
-        ElapsedCpuTimer timer = new ElapsedCpuTimer();  // New timer for this game tick
-        timer.setMaxTimeMillis(params.budget);
+        // New timer for this game tick, reading the clock only every so many iterations
+        SearchBudgetTimer timer = new SearchBudgetTimer(params.budget, params.breakMS, 0);
         numIters = 0;
         fmCalls = 0;
         copyCalls = 0;
@@ -113,10 +113,9 @@ public class RHEAPlayer extends AbstractPlayer {
         return retValue;
     }
 
-    private boolean budgetLeft(ElapsedCpuTimer timer) {
+    private boolean budgetLeft(SearchBudgetTimer timer) {
         if (params.budgetType == PlayerConstants.BUDGET_TIME) {
-            long remaining = timer.remainingTimeMillis();
-            return remaining > params.breakMS;
+            return timer.iterationDone();
         } else if (params.budgetType == PlayerConstants.BUDGET_FM_CALLS) {
             return fmCalls < params.budget;
         } else if (params.budgetType == PlayerConstants.BUDGET_COPY_CALLS) {
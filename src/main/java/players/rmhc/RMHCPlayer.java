@@ -5,7 +5,7 @@ import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import players.PlayerConstants;
-import utilities.ElapsedCpuTimer;
+import utilities.SearchBudgetTimer;
 
 import java.util.*;
 
@@ -17,7 +17,6 @@ public class RMHCPlayer extends AbstractPlayer {
     private final Random randomGenerator;
 
     // Budgets
-    private double avgTimeTaken = 0, acumTimeTaken = 0;
     private int numIters = 0;
     private int fmCalls = 0;
     private int copyCalls = 0;
@@ -50,9 +49,8 @@ public class RMHCPlayer extends AbstractPlayer {
 
     @Override
     public AbstractAction _getAction(AbstractGameState stateObs, List<AbstractAction> possibleActions) {
-        ElapsedCpuTimer timer = new ElapsedCpuTimer();  // New timer for this game tick
-        avgTimeTaken = 0;
-        acumTimeTaken = 0;
+        // New timer for this game tick, reading the clock only every so many iterations
+        SearchBudgetTimer timer = new SearchBudgetTimer(params.budget, params.breakMS, 1);
         numIters = 0;
         fmCalls = 0;
         copyCalls = 0;
@@ -68,8 +66,7 @@ public class RMHCPlayer extends AbstractPlayer {
 
             // Check budget depending on budget type
             if (params.budgetType == PlayerConstants.BUDGET_TIME) {
-                long remaining = timer.remainingTimeMillis();
-                keepIterating = remaining > avgTimeTaken && remaining > params.breakMS;
+                keepIterating = timer.iterationDone();
             } else if (params.budgetType == PlayerConstants.BUDGET_FM_CALLS) {
                 keepIterating = fmCalls < params.budget;
             } else if (params.budgetType == PlayerConstants.BUDGET_COPY_CALLS) {
@@ -98,8 +95,6 @@ public class RMHCPlayer extends AbstractPlayer {
      * @param stateObs - current game state
      */
     private void runIteration(AbstractGameState stateObs) {
-        ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
-
         // Create new individual through mutation
         Individual newIndividual = new Individual(bestIndividual);
         copyCalls += newIndividual.length;
@@ -113,8 +108,6 @@ public class RMHCPlayer extends AbstractPlayer {
 
         // Update budgets
         numIters++;
-        acumTimeTaken += (elapsedTimerIteration.elapsedMillis());
-        avgTimeTaken = acumTimeTaken / numIters;
     }
 
 //    public static void main(String[] args){
@@ -0,0 +1,122 @@
+package players.simple;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.UndoLog;
+import core.actions.AbstractAction;
+import core.interfaces.IStateHeuristic;
+
+import java.util.List;
+import java.util.Random;
+
+import static utilities.Utils.noise;
+
+/**
+ * Searches every sequence of actions up to a fixed depth, and picks the action with the best value for this player,
+ * assuming that all other players act against it (paranoid search, with alpha-beta pruning below the first action).
+ * States at the search depth, or at the end of the game, are valued with the heuristic (or the game's own heuristic
+ * score if none is given).
+ * <p>
+ * The search runs on one copy of the state, undoing each action once it has been explored, where the forward model can
+ * undo it (see {@link AbstractForwardModel#supportsUndo(AbstractGameState, AbstractAction)}). Other actions are
+ * applied to a new copy of the state.
+ */
+public class DepthLimitedSearchPlayer extends AbstractPlayer {
+
+    // Number of actions searched ahead (including the one chosen)
+    final int depth;
+    // Heuristic used to value the states reached
+    IStateHeuristic heuristic;
+
+    private final UndoLog undoLog = new UndoLog();
+    private int rootPlayer;
+
+    public DepthLimitedSearchPlayer(int depth, IStateHeuristic heuristic, Random random) {
+        if (depth < 1)
+            throw new IllegalArgumentException("Search depth must be at least 1");
+        this.depth = depth;
+        this.heuristic = heuristic;
+        this.rnd = random;
+        setName("DLS");
+    }
+
+    public DepthLimitedSearchPlayer(int depth, IStateHeuristic heuristic) {
+        this(depth, heuristic, new Random());
+    }
+
+    public DepthLimitedSearchPlayer(int depth) {
+        this(depth, null, new Random());
+    }
+
+    @Override
+    public AbstractAction _getAction(AbstractGameState gs, List<AbstractAction> actions) {
+        rootPlayer = gs.getCurrentPlayer();
+        undoLog.clear();
+        AbstractGameState state = gs.copy();
+
+        double maxQ = Double.NEGATIVE_INFINITY;
+        AbstractAction bestAction = null;
+        for (AbstractAction action : actions) {
+            // no pruning between the first actions, so that ties are broken at random
+            AbstractGameState next = apply(state, action);
+            double value = search(next, depth - 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+            restore(state, next);
+
+            double Q = noise(value, getParameters().exploreEpsilon, rnd.nextDouble());
+            if (Q > maxQ) {
+                maxQ = Q;
+                bestAction = action;
+            }
+        }
+        return bestAction;
+    }
+
+    private double search(AbstractGameState state, int depthLeft, double alpha, double beta) {
+        if (depthLeft == 0 || !state.isNotTerminalForPlayer(rootPlayer))
+            return value(state);
+        List<AbstractAction> actions = getForwardModel().computeAvailableActions(state);
+        if (actions.isEmpty())
+            return value(state);
+
+        boolean maximising = state.getCurrentPlayer() == rootPlayer;
+        double best = maximising ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (AbstractAction action : actions) {
+            AbstractGameState next = apply(state, action);
+            double value = search(next, depthLeft - 1, alpha, beta);
+            restore(state, next);
+            if (maximising) {
+                best = Math.max(best, value);
+                alpha = Math.max(alpha, value);
+            } else {
+                best = Math.min(best, value);
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta)
+                break;
+        }
+        return best;
+    }
+
+    private AbstractGameState apply(AbstractGameState state, AbstractAction action) {
+        if (getForwardModel().next(state, action, undoLog))
+            return state;
+        AbstractGameState next = state.copy();
+        getForwardModel().next(next, action);
+        return next;
+    }
+
+    private void restore(AbstractGameState state, AbstractGameState next) {
+        if (next == state)
+            getForwardModel().undo(state, undoLog);
+    }
+
+    private double value(AbstractGameState state) {
+        return heuristic != null ? heuristic.evaluateState(state, rootPlayer) : state.getHeuristicScore(rootPlayer);
+    }
+
+    @Override
+    public DepthLimitedSearchPlayer copy() {
+        return new DepthLimitedSearchPlayer(depth, heuristic, new Random(rnd.nextInt()));
+    }
+}
@@ -4,6 +4,7 @@ import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractGameStateWithTurnOrder;
 import core.AbstractPlayer;
+import core.UndoLog;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import core.turnorders.StandardTurnOrder;
@@ -17,6 +18,9 @@ public class OSLAPlayer extends AbstractPlayer {
 
     // Heuristics used for the agent
     IStateHeuristic heuristic;
+    // Actions applied to searchState, where the forward model can undo them
+    private final UndoLog undoLog = new UndoLog();
+    private AbstractGameState searchState;
 
     public OSLAPlayer(Random random) {
         this.rnd = random;
@@ -43,14 +47,16 @@ public class OSLAPlayer extends AbstractPlayer {
         AbstractAction bestAction = null;
         double[] valState = new double[actions.size()];
         int playerID = gs.getCurrentPlayer();
+        // actions are tried on a single copy of the state, and undone, where the forward model can undo them
+        searchState = gs.copy();
+        undoLog.clear();
 
         for (int actionIndex = 0; actionIndex < actions.size(); actionIndex++) {
             AbstractAction action = actions.get(actionIndex);
-            AbstractGameState gsCopy = gs.copy();
-            getForwardModel().next(gsCopy, action);
+            AbstractGameState gsCopy = advance(searchState, action);
 
             if (gs instanceof AbstractGameStateWithTurnOrder && ((AbstractGameStateWithTurnOrder)gsCopy).getTurnOrder() instanceof StandardTurnOrder) {
-                advanceToEndOfRoundWithRandomActions(gsCopy, playerID);
+                gsCopy = advanceToEndOfRoundWithRandomActions(gsCopy, playerID);
             }
 
             if (heuristic != null) {
@@ -66,8 +72,12 @@ public class OSLAPlayer extends AbstractPlayer {
                 maxQ = Q;
                 bestAction = action;
             }
+            while (undoLog.size() > 0) {
+                getForwardModel().undo(searchState, undoLog);
+            }
         }
 
+        searchState = null;
         return bestAction;
     }
 
@@ -76,7 +86,23 @@ public class OSLAPlayer extends AbstractPlayer {
         return new OSLAPlayer(heuristic, new Random(rnd.nextInt()));
     }
 
-    private void advanceToEndOfRoundWithRandomActions(AbstractGameState gsCopy, int startingPlayer) {
+    /**
+     * Applies the action to searchState, if it can be undone, or otherwise to a copy of it, which is used for the
+     * rest of the rollout.
+     *
+     * @return the state the action was applied to
+     */
+    private AbstractGameState advance(AbstractGameState gsCopy, AbstractAction action) {
+        if (gsCopy == searchState) {
+            if (getForwardModel().next(gsCopy, action, undoLog))
+                return gsCopy;
+            gsCopy = gsCopy.copy();
+        }
+        getForwardModel().next(gsCopy, action);
+        return gsCopy;
+    }
+
+    private AbstractGameState advanceToEndOfRoundWithRandomActions(AbstractGameState gsCopy, int startingPlayer) {
         // we assume that every other player now has to make a decision
         RandomPlayer rnd = new RandomPlayer(this.rnd);
         AbstractForwardModel fm = getForwardModel();
@@ -84,7 +110,7 @@ public class OSLAPlayer extends AbstractPlayer {
             // first get to the end of our actions
             while (gsCopy.getCurrentPlayer() == startingPlayer && gsCopy.isNotTerminal()) {
                 AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy, rnd.parameters.actionSpace));
-                fm.next(gsCopy, action);
+                gsCopy = advance(gsCopy, action);
             }
         }
         // then each other player gets their round
@@ -96,9 +122,10 @@ public class OSLAPlayer extends AbstractPlayer {
                 }
                 while (gsCopy.getCurrentPlayer() == currentPlayer && gsCopy.isNotTerminal()) {
                     AbstractAction action = rnd.getAction(gsCopy, fm.computeAvailableActions(gsCopy, rnd.parameters.actionSpace));
-                    fm.next(gsCopy, action);
+                    gsCopy = advance(gsCopy, action);
                 }
             }
         }
+        return gsCopy;
     }
 }
@@ -3,9 +3,18 @@ package utilities;
 import core.actions.AbstractAction;
 import org.json.simple.JSONObject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
+/**
+ * A node of the action tree of a game with a tree action space (see ITreeActionSpace). The value of each node is 1
+ * if it leads to a valid action.
+ * <p>
+ * Once a tree has been built, its root keeps a flat index of it, which is created the first time the mask, leaves
+ * or shape of the tree are asked for (and again if nodes are added later). The index holds the values of all nodes
+ * (in breadth-first order, without the root) and of the leaves as int arrays, which are updated whenever the value of
+ * a node changes, so the masks are never rebuilt from the tree. It also remembers which nodes have been set since the
+ * last reset, so that resetTree() only visits those, and finds children by name without a search.
+ */
 public class ActionTreeNode {
 
     int value;
@@ -15,6 +24,31 @@ public class ActionTreeNode {
     int SubNodes;
     ActionTreeNode parent;
 
+    // Flat index of the tree this node is in; only set once the root has built it
+    private Index index;
+    private int maskIndex = -1;  // position in the mask of all nodes, -1 for the root
+    private int leafIndex = -1;  // position in the mask of leaves, -1 if not a leaf
+    private boolean dirty;       // set since the last reset
+    private Map<String, ActionTreeNode> childrenByName;
+
+    private static final class Index {
+        final ActionTreeNode[] nodes;  // breadth-first, without the root
+        final int[] mask;
+        final List<ActionTreeNode> leaves;
+        final int[] leafMask;
+        final ActionTreeNode[] dirty;
+        int nDirty;
+        List<Object> treeShape;
+
+        Index(int nNodes, int nLeaves) {
+            nodes = new ActionTreeNode[nNodes];
+            mask = new int[nNodes];
+            leaves = new ArrayList<>(nLeaves);
+            leafMask = new int[nLeaves];
+            dirty = new ActionTreeNode[nNodes + 1];
+        }
+    }
+
     // Constructors
     public ActionTreeNode() {
         this.children = new ArrayList<ActionTreeNode>();
@@ -38,22 +72,94 @@ public class ActionTreeNode {
         this.SubNodes = 0;
     }
 
+    // Builds the index of the tree under this root, if it is not there already
+    private Index index() {
+        if (index != null) return index;
+        List<ActionTreeNode> all = new ArrayList<>();
+        int nLeaves = 0;
+        ArrayDeque<ActionTreeNode> queue = new ArrayDeque<>();
+        queue.add(this);
+        while (!queue.isEmpty()) {
+            ActionTreeNode node = queue.poll();
+            all.add(node);
+            if (node.children.isEmpty()) nLeaves++;
+            queue.addAll(node.children);
+        }
+        Index retValue = new Index(all.size() - 1, nLeaves);
+        for (int i = 0; i < all.size(); i++) {
+            ActionTreeNode node = all.get(i);
+            node.index = retValue;
+            node.maskIndex = i - 1;
+            if (i > 0) {
+                retValue.nodes[i - 1] = node;
+                retValue.mask[i - 1] = node.value;
+            }
+            if (node.children.isEmpty()) {
+                node.leafIndex = retValue.leaves.size();
+                retValue.leafMask[node.leafIndex] = node.value;
+                retValue.leaves.add(node);
+            } else {
+                node.leafIndex = -1;
+                node.childrenByName = new HashMap<>();
+                for (ActionTreeNode child : node.children) {
+                    node.childrenByName.putIfAbsent(child.name, child);
+                }
+            }
+            node.dirty = node.value != 0 || node.action != null;
+            if (node.dirty) retValue.dirty[retValue.nDirty++] = node;
+        }
+        return retValue;
+    }
+
+    // Drops the index of the tree this node is in, when its structure changes
+    private void dropIndex() {
+        ActionTreeNode root = this;
+        while (root.parent != null) root = root.parent;
+        if (root.index == null) return;
+        ArrayDeque<ActionTreeNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            ActionTreeNode node = queue.poll();
+            node.index = null;
+            node.maskIndex = -1;
+            node.leafIndex = -1;
+            node.dirty = false;
+            node.childrenByName = null;
+            queue.addAll(node.children);
+        }
+    }
+
     // Methods for Flattening
 
+    /**
+     * @return the values of all nodes but the root, in breadth-first order. When called on the root, this is the
+     * tree's own mask, which is kept up to date as values change; it must not be modified.
+     */
     public int[] getActionMask() {
+        if (parent == null) return index().mask;
         List<Integer> vals = this.flattenValues();
         vals.remove(0);
         return vals.stream().mapToInt(i -> i).toArray();
     }
 
+    /**
+     * @return the values of the leaves, in the order of getLeafNodes(). When called on the root, this is the tree's
+     * own mask, which is kept up to date as values change; it must not be modified.
+     */
+    public int[] getLeafMask() {
+        if (parent == null) return index().leafMask;
+        return getLeafNodes().stream().mapToInt(ActionTreeNode::getValue).toArray();
+    }
+
     public List<String> getActionMaskNames() {
         List<String> vals = this.flattenNames();
         vals.remove(0);
         return vals;
     }
 
-    // Searches the tree breadth first for all leaf nodes and returns them
+    // Searches the tree breadth first for all leaf nodes and returns them (a fixed list, when called on the root)
     public List<ActionTreeNode> getLeafNodes(){
+        if (parent == null) return Collections.unmodifiableList(index().leaves);
         List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
         List<ActionTreeNode> leafNodes = new ArrayList<ActionTreeNode>();
         nodes.add(this);
@@ -107,11 +213,23 @@ public class ActionTreeNode {
 
     // Reset all the nodes in the tree, keeps structure only sets value and action to 0/null
     public void resetTree(){
+        if (parent == null) {
+            // only the nodes set since the last reset need to be changed
+            Index idx = index();
+            for (int i = 0; i < idx.nDirty; i++) {
+                ActionTreeNode node = idx.dirty[i];
+                node.setValue(0);
+                node.action = null;
+                node.dirty = false;
+            }
+            idx.nDirty = 0;
+            return;
+        }
         List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
         nodes.add(this);
         while(nodes.size() > 0){
             ActionTreeNode node = nodes.remove(0);
-            node.value = 0;
+            node.setValue(0);
             node.action = null;
             nodes.addAll(node.children);
         }
@@ -122,6 +240,15 @@ public class ActionTreeNode {
     }
     // sets the value of the node to 1 if it is found
     public ActionTreeNode findChildrenByName(String name, boolean setAvailable){
+        if (parent == null) index();
+        if (childrenByName != null) {
+            // the search is breadth first, so a match among the children is the first one found (after this node)
+            ActionTreeNode child = this.name.equals(name) ? this : childrenByName.get(name);
+            if (child != null) {
+                if (setAvailable) child.setValue(1);
+                return child;
+            }
+        }
         List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
         nodes.add(this);
         while(nodes.size() > 0){
@@ -129,7 +256,7 @@ public class ActionTreeNode {
             nodes.addAll(node.children);
             if (node.name.equals(name)){
                 if(setAvailable){
-                    node.value = 1;
+                    node.setValue(1);
                 }
                 return node;
             }
@@ -156,23 +283,19 @@ public class ActionTreeNode {
 
     // Add Child Functions
     public ActionTreeNode addChild(){
-        ActionTreeNode child = new ActionTreeNode();
-        this.children.add(child);
-        child.parent = this;
-        child.updateSubNodes();
-        return child;
+        return addChild(new ActionTreeNode());
     }
 
     public ActionTreeNode addChild(int value){
-        ActionTreeNode child = new ActionTreeNode(value);
-        this.children.add(child);
-        child.parent = this;
-        child.updateSubNodes();
-        return child;
+        return addChild(new ActionTreeNode(value));
     }
 
     public ActionTreeNode addChild(int value, String name){
-        ActionTreeNode child = new ActionTreeNode(value, name);
+        return addChild(new ActionTreeNode(value, name));
+    }
+
+    private ActionTreeNode addChild(ActionTreeNode child){
+        dropIndex();
         this.children.add(child);
         child.parent = this;
         child.updateSubNodes();
@@ -189,13 +312,23 @@ public class ActionTreeNode {
     // Getters and Setters
 
     public List<Object> getTreeShape(){
+        if (parent == null) {
+            // the shape only changes when nodes are added, which drops the index
+            Index idx = index();
+            if (idx.treeShape == null) idx.treeShape = Collections.unmodifiableList(treeShape());
+            return idx.treeShape;
+        }
+        return treeShape();
+    }
+
+    private List<Object> treeShape(){
         // calculate how many leaf nodes the current node has recursively
         List<Object> values = new ArrayList<>();
         for(ActionTreeNode child : this.children){
             //  if has children than add a new list to values
             if (child.children.size() > 0) {
                 ArrayList subList = new ArrayList();
-                subList.addAll(child.getTreeShape());
+                subList.addAll(child.treeShape());
                 values.add(subList);
             } else {
                 values.add(1);
@@ -206,8 +339,8 @@ public class ActionTreeNode {
 
     public AbstractAction getAction() {return action;}
     public void setAction(AbstractAction action) {
-        this.value = 1;
-        this.parent.value = 1;
+        setValue(1);
+        this.parent.setValue(1);
         this.action = action;
     }
     public AbstractAction getActionByVector(int[] vector){
@@ -222,6 +355,14 @@ public class ActionTreeNode {
     }
     public void setValue(int value) {
         this.value = value;
+        if (index != null) {
+            if (maskIndex >= 0) index.mask[maskIndex] = value;
+            if (leafIndex >= 0) index.leafMask[leafIndex] = value;
+            if (!dirty && value != 0) {
+                dirty = true;
+                index.dirty[index.nDirty++] = this;
+            }
+        }
     }
     public String getName() {
         return name;
@@ -2,6 +2,64 @@ package utilities;
 
 public class ElapsedCpuChessTimer extends ElapsedCpuTimer {
 
+    /**
+     * Timer for states used in search, which never runs out and ignores all updates. It is shared by all such states.
+     */
+    public static final ElapsedCpuChessTimer UNTIMED = new ElapsedCpuChessTimer(0, 0, 0, 0, 0) {
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void pause() {
+        }
+
+        @Override
+        public void resume() {
+        }
+
+        @Override
+        public void incrementAction() {
+        }
+
+        @Override
+        public void incrementTurn() {
+        }
+
+        @Override
+        public void incrementRound() {
+        }
+
+        @Override
+        public void incrementMileStone() {
+        }
+
+        @Override
+        public long remainingTime() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long remainingTimeMillis() {
+            return Long.MAX_VALUE / 1000000;
+        }
+
+        @Override
+        public boolean exceededMaxTime() {
+            return false;
+        }
+
+        @Override
+        public ElapsedCpuChessTimer copy() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "untimed";
+        }
+    };
+
     private long timeRemaining;
     private final double incrementAction, incrementTurn, incrementRound, incrementMilestone;
 
@@ -15,6 +73,15 @@ public class ElapsedCpuChessTimer extends ElapsedCpuTimer {
         reset();
     }
 
+    private ElapsedCpuChessTimer(ElapsedCpuChessTimer other) {
+        super(other);
+        timeRemaining = other.timeRemaining;
+        incrementAction = other.incrementAction;
+        incrementTurn = other.incrementTurn;
+        incrementRound = other.incrementRound;
+        incrementMilestone = other.incrementMilestone;
+    }
+
     public void reset() {
         super.reset();
         timeRemaining = maxTime;
@@ -64,13 +131,8 @@ public class ElapsedCpuChessTimer extends ElapsedCpuTimer {
 
     public ElapsedCpuChessTimer copy()
     {
-        ElapsedCpuChessTimer newCpuTimer = new ElapsedCpuChessTimer(this.maxTime, this.incrementAction,
-                this.incrementTurn, this.incrementRound, this.incrementMilestone);
-        newCpuTimer.oldTime = this.oldTime;
-        newCpuTimer.bean = this.bean;
-        newCpuTimer.nIters = this.nIters;
-        newCpuTimer.timeRemaining = this.timeRemaining;
-        return newCpuTimer;
+        // the copy constructor does not read the clock
+        return new ElapsedCpuChessTimer(this);
     }
 
     @Override
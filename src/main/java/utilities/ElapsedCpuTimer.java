@@ -12,8 +12,9 @@ public class ElapsedCpuTimer {
 
     protected static final boolean OS_WIN = System.getProperty("os.name").contains("Windows");
 
-    // allows for easy reporting of elapsed time
-    protected ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    // allows for easy reporting of elapsed time (one bean for all timers, looking it up is not free)
+    protected static final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = bean.isCurrentThreadCpuTimeSupported();
     protected long oldTime;
     protected long maxTime;
     protected int nIters;
@@ -22,6 +23,15 @@ public class ElapsedCpuTimer {
         reset();
     }
 
+    /**
+     * Copy constructor, which does not read the clock.
+     */
+    protected ElapsedCpuTimer(ElapsedCpuTimer other) {
+        oldTime = other.oldTime;
+        maxTime = other.maxTime;
+        nIters = other.nIters;
+    }
+
     public void reset() {
         oldTime = getTime();
         nIters = 0;
@@ -85,12 +95,7 @@ public class ElapsedCpuTimer {
 
     public ElapsedCpuTimer copy()
     {
-        ElapsedCpuTimer newCpuTimer = new ElapsedCpuTimer();
-        newCpuTimer.maxTime = this.maxTime;
-        newCpuTimer.oldTime = this.oldTime;
-        newCpuTimer.bean = this.bean;
-        newCpuTimer.nIters = this.nIters;
-        return newCpuTimer;
+        return new ElapsedCpuTimer(this);
     }
 
     @Override
@@ -106,10 +111,17 @@ public class ElapsedCpuTimer {
     }
 
     protected long getCpuTime() {
+        return cpuTime();
+    }
+
+    /**
+     * @return CPU time of the current thread in nanoseconds (elapsed time on Windows)
+     */
+    static long cpuTime() {
         if(OS_WIN)
             return System.nanoTime();
 
-        if (bean.isCurrentThreadCpuTimeSupported()) {
+        if (CPU_TIME_SUPPORTED) {
             return bean.getCurrentThreadCpuTime();
         } else {
             throw new RuntimeException("CpuTime NOT Supported");
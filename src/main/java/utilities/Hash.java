@@ -1,33 +1,37 @@
 package utilities;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Registry of the hashes used as property keys. It is shared by all games in the JVM, so may be used from several
+ * threads at once; lookups of known keys do not lock.
+ */
 public class Hash
 {
-    private static Hash hash;
+    private static final Hash hash = new Hash();
 
-    private HashMap<String, Integer> hashmap;
+    private final ConcurrentHashMap<String, Integer> hashmap;
 
     public static Hash GetInstance()
     {
-        if(hash == null)
-            hash = new Hash();
         return hash;
     }
 
     private Hash()
     {
-        hashmap = new HashMap<>();
+        hashmap = new ConcurrentHashMap<>();
     }
 
 
     public int hash(String key)
     {
-        if(hashmap.containsKey(key))
-            return hashmap.get(key);
+        Integer value = hashmap.get(key);
+        if (value != null)
+            return value;
 
+        // the value depends only on the key, so a race between threads puts the same value
         int newValue = key.hashCode();
-        hashmap.put(key, newValue);
+        hashmap.putIfAbsent(key, newValue);
         return newValue;
     }
 
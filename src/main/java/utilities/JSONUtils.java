@@ -18,12 +18,13 @@ import static java.util.stream.Collectors.*;
 
 public class JSONUtils {
 
+    // A JSONParser is not thread-safe, so this is only for use from a single thread (e.g. when parsing arguments)
     public static final JSONParser parser = new JSONParser();
 
     public static JSONObject loadJSONFile(String fileName) {
-        try {
-            FileReader reader = new FileReader(fileName);
-            return (JSONObject) parser.parse(reader);
+        // games load their data files with this, and may do so in several threads at once
+        try (FileReader reader = new FileReader(fileName)) {
+            return (JSONObject) new JSONParser().parse(reader);
         } catch (IOException | ParseException e) {
             throw new AssertionError("Error processing file " + fileName + " : " + e.getMessage() + " : " + e);
         }
@@ -0,0 +1,111 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative values, such as latencies in nanoseconds, with a bounded relative error in the manner of
+ * HdrHistogram. Values below 64 have a bucket each, and each larger power of two is split into 32 buckets of equal
+ * width, so every value is counted in a bucket at most about 3% wider than the value itself.
+ * <p>
+ * Recording a value is a few shifts and an array increment, and the buckets are only allocated up to the largest
+ * value seen (under 2000 for any long), so histograms are cheap enough to keep many of them.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private long[] counts = new long[2 * SUB_COUNT];
+    private long count, sum;
+    private long min = Long.MAX_VALUE, max;
+
+    /**
+     * @param value - value to record, negative values are counted as 0
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        int index = indexOf(value);
+        if (index >= counts.length)
+            counts = Arrays.copyOf(counts, Math.max(index + 1, 2 * counts.length));
+        counts[index]++;
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Adds all the values recorded in the other histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length > counts.length)
+            counts = Arrays.copyOf(counts, other.counts.length);
+        for (int i = 0; i < other.counts.length; i++)
+            counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    static int indexOf(long value) {
+        if (value < 2 * SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) (value >>> shift) - SUB_COUNT;
+    }
+
+    static long lowestValueAt(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        return (long) (index % SUB_COUNT + SUB_COUNT) << shift;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * @param percentile - from 0 to 100
+     * @return a value such that the given percentage of the values recorded are no larger than it (to within the
+     * width of a bucket), or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target)
+                return Math.max(min, Math.min(max, highestValueAt(i)));
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotal() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, mean=%.1f, min=%d, p50=%d, p90=%d, p99=%d, max=%d", count, getMean(), getMin(),
+                getValueAtPercentile(50), getValueAtPercentile(90), getValueAtPercentile(99), max);
+    }
+}
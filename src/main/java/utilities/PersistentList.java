@@ -0,0 +1,70 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable list that can only be appended to. Appending returns a new list which shares all earlier elements with
+ * this one (a linked list from the last element back to the first), so keeping a copy of the list is O(1), and
+ * appending to the copy does not change the original.
+ * <p>
+ * Used for game history, which copies of the game state share with the state they were copied from.
+ *
+ * @param <T> - type of elements
+ */
+public final class PersistentList<T> {
+
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null, null, 0);
+
+    private final T last;
+    private final PersistentList<T> previous;
+    private final int size;
+
+    private PersistentList(T last, PersistentList<T> previous, int size) {
+        this.last = last;
+        this.previous = previous;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentList<T> empty() {
+        return (PersistentList<T>) EMPTY;
+    }
+
+    /**
+     * @param element - element to add at the end
+     * @return a new list with all elements of this one, followed by the element given
+     */
+    public PersistentList<T> append(T element) {
+        return new PersistentList<>(element, this, size + 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return a new (mutable) list with all elements, in the order they were appended
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> toList() {
+        Object[] elements = new Object[size];
+        PersistentList<T> node = this;
+        for (int i = size - 1; i >= 0; i--) {
+            elements[i] = node.last;
+            node = node.previous;
+        }
+        List<T> retValue = new ArrayList<>(size);
+        for (Object e : elements) retValue.add((T) e);
+        return retValue;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
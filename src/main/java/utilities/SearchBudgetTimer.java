@@ -0,0 +1,116 @@
+package utilities;
+
+/**
+ * Time budget for one decision of a search player (MCTS, RHEA, RMHC...), which avoids reading the clock after every
+ * iteration. Reading the thread CPU time is a system call, and with cheap forward models it can be a measurable part
+ * of the cost of an iteration.
+ * <p>
+ * The clock is read at the start, and then only every so many iterations. The number of iterations between readings is
+ * calibrated from the average time of an iteration so far: at each reading it is set so that the iterations until the
+ * next one use at most half of the budget still to spare. Readings are therefore rare early in the search, and get
+ * closer together as the end of the budget approaches (and are never more than the number of iterations already done
+ * apart, so a poor early estimate cannot carry the search far past the budget).
+ * <p>
+ * The search stops once the remaining time is at most the break time (as breakMS in the player parameters), or at most
+ * the given number of average iterations.
+ */
+public class SearchBudgetTimer {
+
+    private static final int MAX_STRIDE = 1024;
+
+    private final boolean cpuTime;
+    private final long budget, breakTime;
+    private final double safetyIterations;
+    private final long start;
+
+    private long elapsed;
+    private double average;
+    private int iterations, nextCheck = 1, clockReads;
+    private boolean finished;
+
+    /**
+     * Budget measured in thread CPU time, as {@link ElapsedCpuTimer}.
+     *
+     * @param budgetMillis     - time budget for the search
+     * @param breakMillis      - the search stops when this much time is left
+     * @param safetyIterations - the search stops when the time left is at most this many average iterations
+     */
+    public SearchBudgetTimer(long budgetMillis, long breakMillis, double safetyIterations) {
+        this(budgetMillis, breakMillis, safetyIterations, true);
+    }
+
+    /**
+     * @param cpuTime - if true the budget is in thread CPU time, otherwise in elapsed time (System.nanoTime())
+     */
+    public SearchBudgetTimer(long budgetMillis, long breakMillis, double safetyIterations, boolean cpuTime) {
+        this.cpuTime = cpuTime;
+        this.budget = budgetMillis * 1000000;
+        this.breakTime = breakMillis * 1000000;
+        this.safetyIterations = safetyIterations;
+        this.start = now();
+    }
+
+    private long now() {
+        clockReads++;
+        return cpuTime ? ElapsedCpuTimer.cpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Checks whether there is time for another iteration, reading the clock only when it is due. This should be
+     * called once between iterations (including before the first one, if wanted), and counts each call as the end of
+     * an iteration.
+     *
+     * @return true if the search should carry on
+     */
+    public boolean iterationDone() {
+        if (finished) return false;
+        iterations++;
+        if (iterations < nextCheck) return true;
+        elapsed = now() - start;
+        long remaining = budget - elapsed;
+        average = (double) elapsed / iterations;
+        double reserve = Math.max(breakTime, safetyIterations * average);
+        if (remaining <= reserve) {
+            finished = true;
+            return false;
+        }
+        long stride = average <= 0 ? iterations : (long) ((remaining - reserve) / (2 * average));
+        nextCheck = iterations + (int) Math.max(1, Math.min(stride, Math.min(iterations, MAX_STRIDE)));
+        return true;
+    }
+
+    /**
+     * @return true if a call to iterationDone() has found the budget used up
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Reads the clock.
+     *
+     * @return time since the start of the search, in milliseconds
+     */
+    public double elapsedMillis() {
+        elapsed = now() - start;
+        return elapsed / 1e6;
+    }
+
+    /**
+     * @return average time per iteration at the last reading of the clock, in milliseconds
+     */
+    public double averageIterationMillis() {
+        return average / 1e6;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return number of times the clock has been read (including at the start)
+     */
+    public int getClockReads() {
+        return clockReads;
+    }
+}
@@ -0,0 +1,72 @@
+package core;
+
+import games.GameType;
+import games.loveletter.LoveLetterParameters;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AbstractParametersTest {
+
+    static final long multiplier = 0x5DEECE66DL, addend = 0xBL, mask = (1L << 48) - 1;
+
+    /**
+     * Finds the state of a java.util.Random from one output of nextLong(), as an agent could: the top 32 bits of the
+     * first 48-bit state are in the output, so only the low 16 bits need to be tried against the second half.
+     *
+     * @return the state the generator was in before nextLong() (i.e. its scrambled seed), or -1 if none matches
+     */
+    static long stateBefore(long output) {
+        int second = (int) output;
+        // nextLong() adds the second int as a signed value, which borrows from the first if negative
+        long first = (output >>> 32) + (second < 0 ? 1 : 0);
+        long inverse = modularInverse(multiplier);
+        for (long low = 0; low < (1 << 16); low++) {
+            long state = ((first & 0xFFFFFFFFL) << 16 | low) & mask;
+            long next = (state * multiplier + addend) & mask;
+            if ((int) (next >>> 16) == second)
+                return ((state - addend) * inverse) & mask;
+        }
+        return -1;
+    }
+
+    // Inverse of an odd number modulo 2^64 (and so 2^48), by Newton's method
+    static long modularInverse(long a) {
+        long x = a;
+        for (int i = 0; i < 5; i++) x *= 2 - a * x;
+        return x;
+    }
+
+    @Test
+    public void nextLongRevealsTheSeed() {
+        // checks the attack used below
+        long seed = 4242;
+        long output = new Random(seed).nextLong();
+        assertEquals((seed ^ multiplier) & mask, stateBefore(output));
+    }
+
+    @Test
+    public void observationSeedsDoNotRevealTheGameSeed() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Game game = GameType.LoveLetter.createGameInstance(2, seed);
+            AbstractGameState state = game.getGameState();
+            long gameSeed = state.getGameParameters().getRandomSeed();
+            for (int player = 0; player < 2; player++) {
+                long observed = state.copy(player).getGameParameters().getRandomSeed();
+                assertNotEquals(seed + " " + player, (gameSeed ^ multiplier) & mask, stateBefore(observed));
+            }
+        }
+    }
+
+    @Test
+    public void copiesAreRepeatable() {
+        // games with the same seed make copies with the same seeds, and so search the same way
+        LoveLetterParameters a = new LoveLetterParameters(99), b = new LoveLetterParameters(99);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(a.copy().getRandomSeed(), b.copy().getRandomSeed());
+        }
+        assertNotEquals(a.copy().getRandomSeed(), new LoveLetterParameters(100).copy().getRandomSeed());
+    }
+}
@@ -0,0 +1,87 @@
+package core;
+
+import core.components.BoardNode;
+import core.components.Card;
+import core.components.GraphBoard;
+import core.properties.*;
+import games.GameType;
+import games.pandemic.PandemicGameState;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static core.CoreConstants.nameHash;
+import static games.pandemic.PandemicConstants.infectionHash;
+import static games.pandemic.PandemicConstants.researchStationHash;
+import static org.junit.Assert.*;
+
+public class ComponentPropertiesTest {
+
+    @Test
+    public void componentsWithTheSameKeysShareASchema() {
+        Card a = new Card("a");
+        Card b = new Card("b");
+        assertSame(PropertySchema.EMPTY, a.getPropertySchema());
+        a.setProperty(new PropertyString("name", "a"));
+        a.setProperty(new PropertyInt("cost", 3));
+        b.setProperty(new PropertyString("name", "b"));
+        b.setProperty(new PropertyInt("cost", 4));
+        assertSame(a.getPropertySchema(), b.getPropertySchema());
+        assertEquals(2, a.getNumProperties());
+
+        // replacing a property keeps the schema
+        PropertySchema schema = a.getPropertySchema();
+        a.setProperty(new PropertyInt("cost", 5));
+        assertSame(schema, a.getPropertySchema());
+        assertEquals(5, ((PropertyInt) a.getProperty(utilities.Hash.GetInstance().hash("cost"))).value);
+        assertEquals("a", ((PropertyString) a.getProperty(nameHash)).value);
+        assertNull(a.getProperty(utilities.Hash.GetInstance().hash("missing")));
+        assertEquals(2, a.getProperties().size());
+    }
+
+    @Test
+    public void copiesShareOnlyWhatCannotChange() {
+        Card card = new Card("c");
+        card.setProperty(new PropertyString("name", "c"));
+        card.setProperty(new PropertyIntArray("values", (org.json.simple.JSONArray) org.json.simple.JSONValue.parse("[1, 2]")));
+        Card copy = card.copy();
+        int valuesHash = utilities.Hash.GetInstance().hash("values");
+        assertSame(card.getPropertySchema(), copy.getPropertySchema());
+        assertSame(card.getProperty(nameHash), copy.getProperty(nameHash));
+        assertNotSame(card.getProperty(valuesHash), copy.getProperty(valuesHash));
+
+        ((PropertyIntArray) copy.getProperty(valuesHash)).getValues()[0] = 7;
+        assertEquals(1, ((PropertyIntArray) card.getProperty(valuesHash)).getValues()[0]);
+
+        // a property added to the copy is not added to the original
+        copy.setProperty(new PropertyBoolean("flag", true));
+        assertEquals(3, copy.getNumProperties());
+        assertEquals(2, card.getNumProperties());
+    }
+
+    @Test
+    public void pandemicCitiesShareSchemas() {
+        Game game = GameType.Pandemic.createGameInstance(2, 1);
+        PandemicGameState state = (PandemicGameState) game.getGameState();
+        GraphBoard world = state.getWorld();
+        // cities differ only in a few optional keys, so there are only a few schemas
+        Set<PropertySchema> schemas = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BoardNode bn : world.getBoardNodes()) {
+            schemas.add(bn.getPropertySchema());
+        }
+        assertTrue(world.getBoardNodes().size() > 40);
+        assertTrue(schemas.size() + " schemas", schemas.size() <= 3);
+
+        PandemicGameState copy = (PandemicGameState) state.copy();
+        for (BoardNode bn : world.getBoardNodes()) {
+            BoardNode bnCopy = copy.getWorld().getNodeByID(bn.getComponentID());
+            assertEquals(bn.getProperty(nameHash), bnCopy.getProperty(nameHash));
+            assertEquals(bn.getProperty(researchStationHash), bnCopy.getProperty(researchStationHash));
+            assertNotSame(bn.getProperty(infectionHash), bnCopy.getProperty(infectionHash));
+            assertArrayEquals(((PropertyIntArray) bn.getProperty(infectionHash)).getValues(),
+                    ((PropertyIntArray) bnCopy.getProperty(infectionHash)).getValues());
+        }
+    }
+}
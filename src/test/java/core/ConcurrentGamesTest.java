@@ -0,0 +1,144 @@
+package core;
+
+import core.components.ComponentIDs;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentGamesTest {
+
+    // Random play in these games often stops on an AssertionError from the game rules, whichever thread it is played
+    // on: TerraformingMars finds that a chosen card cannot be played, or that there are no actions while a
+    // TopCardDecision is in progress; Wonders7 finds no actions after some cards are played or discarded; DiceMonastery
+    // does not yet skip a first player with no monks at the start of a season (the TODO in startSeason), which search
+    // players reach. The error is recorded as the result of the game, and must be the same when the game is played
+    // concurrently. Errors in any other game fail the test.
+    static final EnumSet<GameType> ruleErrors = EnumSet.of(GameType.TerraformingMars, GameType.Wonders7, GameType.DiceMonastery);
+    // These take much longer than the others, so fewer are played
+    static final EnumSet<GameType> slow = EnumSet.of(GameType.TerraformingMars);
+    // GameTemplate never ends, so it is played for this many actions; no other game takes as many
+    static final int maxActions = 5000;
+
+    // The stress profile (mvn test -Pstress) plays more games
+    int gamesPerType = Integer.getInteger("concurrentGames.gamesPerType", 100);
+    int nThreads = 4;
+
+    private int nGames(GameType gameType, int n) {
+        return slow.contains(gameType) ? Math.max(1, n / 10) : n;
+    }
+
+    // MCTS with a small budget, seeded from the game so that it makes the same decisions on any thread
+    private MCTSPlayer searchPlayer(long seed) {
+        MCTSParams params = new MCTSParams(seed);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 20);
+        params.setParameterValue("rolloutLength", 5);
+        return new MCTSPlayer(params);
+    }
+
+    /**
+     * Plays one game with random players, and with an MCTS player as player 0 if search is true.
+     *
+     * @return a description of how the game ended
+     */
+    private String play(GameType gameType, long seed, boolean search) {
+        int nPlayers = Math.max(2, gameType.getMinPlayers());
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < nPlayers; i++) {
+            players.add(search && i == 0 ? searchPlayer(seed) : new RandomPlayer(new Random(seed * 10 + i)));
+        }
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        game.reset(players);
+        StringBuilder sb = new StringBuilder();
+        sb.append(gameType.name()).append(" seed ").append(seed);
+        AbstractGameState state = game.getGameState();
+        try {
+            for (int i = 0; i < maxActions && state.isNotTerminal(); i++) {
+                game.oneAction();
+            }
+        } catch (AssertionError e) {
+            if (!ruleErrors.contains(gameType))
+                throw new AssertionError(sb + " failed", e);
+            sb.append(": error ").append(e.getMessage());
+        } catch (RuntimeException e) {
+            throw new AssertionError(sb + " failed", e);
+        }
+        sb.append(": ticks ").append(state.getGameTick());
+        sb.append(" results ").append(Arrays.toString(state.getPlayerResults())).append(" scores");
+        for (int i = 0; i < nPlayers; i++) {
+            sb.append(' ').append(state.getGameScore(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Plays n games of every type one after the other, and then again on a thread pool, and checks that each game
+     * ends in the same way both times.
+     */
+    private void checkConcurrentGames(int n, boolean search) throws Exception {
+        List<String> sequential = new ArrayList<>();
+        for (GameType gameType : GameType.values()) {
+            for (int g = 0; g < nGames(gameType, n); g++) {
+                sequential.add(play(gameType, g, search));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            // interleave the game types, so that different games run at the same time
+            List<Future<String>> futures = new ArrayList<>();
+            for (GameType gameType : GameType.values()) {
+                for (int g = 0; g < nGames(gameType, n); g++) {
+                    long seed = g;
+                    futures.add(executor.submit(() -> play(gameType, seed, search)));
+                }
+            }
+            List<String> concurrent = new ArrayList<>();
+            for (Future<String> future : futures) {
+                concurrent.add(future.get());
+            }
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.get(i), concurrent.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentGamesMatchSequentialGames() throws Exception {
+        checkConcurrentGames(gamesPerType, false);
+    }
+
+    @Test
+    public void concurrentSearchGamesMatchSequentialGames() throws Exception {
+        checkConcurrentGames(Math.max(1, gamesPerType / 25), true);
+    }
+
+    @Test
+    public void resetGivesTheSameComponentIDs() {
+        Game game = GameType.LoveLetter.createGameInstance(3, 42);
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)),
+                new RandomPlayer(new Random(3)));
+        game.reset(players);
+        Set<Integer> ids = new TreeSet<>(game.getGameState().getAllComponents().getComponentsMap().keySet());
+        game.run();
+
+        // another game created in between does not change the IDs
+        GameType.LoveLetter.createGameInstance(3, 7);
+        game.reset(players, 42);
+        Set<Integer> after = new TreeSet<>(game.getGameState().getAllComponents().getComponentsMap().keySet());
+        assertEquals(ids, after);
+        for (int id : ids) {
+            assertTrue(id < ComponentIDs.SHARED_START);
+        }
+    }
+}
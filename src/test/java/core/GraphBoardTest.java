@@ -0,0 +1,102 @@
+package core;
+
+import core.components.BoardNode;
+import core.components.GraphBoard;
+import games.GameType;
+import games.pandemic.PandemicGameState;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class GraphBoardTest {
+
+    private Set<Integer> neighbourIDs(BoardNode node) {
+        Set<Integer> ids = new HashSet<>();
+        for (BoardNode n : node.getNeighbours()) ids.add(n.getComponentID());
+        return ids;
+    }
+
+    private void checkSameGraph(GraphBoard original, GraphBoard copy) {
+        assertEquals(original.getBoardNodeMap().keySet(), copy.getBoardNodeMap().keySet());
+        for (BoardNode bn : original.getBoardNodes()) {
+            BoardNode bnCopy = copy.getNodeByID(bn.getComponentID());
+            assertNotSame(bn, bnCopy);
+            assertEquals(bn.getComponentName(), bnCopy.getComponentName());
+            assertEquals(neighbourIDs(bn), neighbourIDs(bnCopy));
+            // neighbours are the nodes of the copy
+            for (BoardNode n : bnCopy.getNeighbours()) {
+                assertSame(copy.getNodeByID(n.getComponentID()), n);
+            }
+        }
+    }
+
+    @Test
+    public void copiesShareTopology() {
+        Game game = GameType.Pandemic.createGameInstance(2, 1);
+        GraphBoard world = ((PandemicGameState) game.getGameState()).getWorld();
+        GraphBoard copy = world.copy();
+        checkSameGraph(world, copy);
+        assertSame(world.getTopology(), copy.getTopology());
+        GraphBoard copyOfCopy = copy.copy();
+        checkSameGraph(world, copyOfCopy);
+        assertSame(world.getTopology(), copyOfCopy.getTopology());
+        assertEquals(48, world.getTopology().size());
+    }
+
+    @Test
+    public void changesAreNotShared() {
+        Game game = GameType.Pandemic.createGameInstance(2, 1);
+        GraphBoard world = ((PandemicGameState) game.getGameState()).getWorld();
+        GraphBoard copy = world.copy();
+
+        BoardNode[] nodes = copy.getBoardNodes().toArray(new BoardNode[0]);
+        BoardNode a = nodes[0];
+        BoardNode b = null;
+        for (BoardNode n : nodes) {
+            if (n != a && !a.getNeighbours().contains(n)) {
+                b = n;
+                break;
+            }
+        }
+        assertNotNull(b);
+        copy.addConnection(a, b);
+        assertTrue(a.getNeighbours().contains(b));
+        assertTrue(b.getNeighbours().contains(a));
+        assertNotSame(world.getTopology(), copy.getTopology());
+        assertFalse(neighbourIDs(world.getNodeByID(a.getComponentID())).contains(b.getComponentID()));
+
+        // the change is in later copies, and the unchanged nodes still have their neighbours
+        checkSameGraph(copy, copy.copy());
+        for (BoardNode n : nodes) {
+            if (n == a || n == b) continue;
+            assertEquals(neighbourIDs(world.getNodeByID(n.getComponentID())), neighbourIDs(n));
+        }
+    }
+
+    @Test
+    public void sidesAreCopied() {
+        GraphBoard board = new GraphBoard("test");
+        BoardNode a = new BoardNode(4, "a");
+        BoardNode b = new BoardNode(4, "b");
+        BoardNode c = new BoardNode(4, "c");
+        board.addBoardNode(a);
+        board.addBoardNode(b);
+        board.addBoardNode(c);
+        assertTrue(a.addNeighbour(b, 2));
+        a.addNeighbour(c);
+        b.addNeighbour(a, 0);
+        c.addNeighbour(a);
+
+        GraphBoard copy = board.copy();
+        BoardNode aCopy = copy.getNodeByID(a.getComponentID());
+        BoardNode bCopy = copy.getNodeByID(b.getComponentID());
+        assertEquals(2, aCopy.getNeighbours().size());
+        assertEquals(1, aCopy.getNeighbourSideMapping().size());
+        assertEquals(2, (int) aCopy.getNeighbourSideMapping().get(bCopy));
+        assertEquals(0, (int) bCopy.getNeighbourSideMapping().get(aCopy));
+        assertEquals(4, copy.getTopology().getNEdges());
+    }
+}
@@ -0,0 +1,66 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.tictactoe.TicTacToeForwardModel;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoryTest {
+
+    TicTacToeForwardModel fm = new TicTacToeForwardModel();
+    TicTacToeGameState state;
+
+    @Before
+    public void setup() {
+        state = new TicTacToeGameState(new TicTacToeGameParameters(234), 2);
+        fm.setup(state);
+    }
+
+    @Test
+    public void copiesKeepTheirOwnHistory() {
+        AbstractAction first = fm.computeAvailableActions(state).get(0);
+        fm.next(state, first);
+        AbstractGameState copy = state.copy();
+        assertEquals(state.getHistory(), copy.getHistory());
+        assertEquals(state.getHistoryAsText(), copy.getHistoryAsText());
+
+        AbstractAction second = fm.computeAvailableActions(copy).get(0);
+        fm.next(copy, second);
+        assertEquals(1, state.getHistory().size());
+        assertEquals(2, copy.getHistory().size());
+        assertEquals(first, copy.getHistory().get(0));
+        assertEquals(second, copy.getHistory().get(1));
+
+        AbstractAction other = fm.computeAvailableActions(state).get(1);
+        fm.next(state, other);
+        assertEquals(2, state.getHistory().size());
+        assertEquals(other, state.getHistory().get(1));
+        assertEquals(second, copy.getHistory().get(1));
+    }
+
+    @Test
+    public void historyListsAreIndependentOfState() {
+        fm.next(state, fm.computeAvailableActions(state).get(0));
+        List<AbstractAction> history = state.getHistory();
+        history.clear();
+        assertEquals(1, state.getHistory().size());
+    }
+
+    @Test
+    public void noHistoryRecordedWhenSwitchedOff() {
+        fm.next(state, fm.computeAvailableActions(state).get(0));
+        AbstractGameState copy = state.copy();
+        copy.setHistoryRecording(false);
+        fm.next(copy, fm.computeAvailableActions(copy).get(0));
+        assertEquals(state.getHistory(), copy.getHistory());
+        assertEquals(state.getHistoryAsText(), copy.getHistoryAsText());
+        assertFalse(copy.copy().isHistoryRecording());
+        assertTrue(state.isHistoryRecording());
+    }
+}
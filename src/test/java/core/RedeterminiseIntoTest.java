@@ -0,0 +1,83 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RedeterminiseIntoTest {
+
+    private static void playRandomly(AbstractForwardModel fm, AbstractGameState state, Random rnd, int maxActions) {
+        for (int i = 0; i < maxActions && state.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    private void checkReuse(GameType gameType) {
+        Game game = gameType.createGameInstance(3, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(42);
+        playRandomly(fm, state, rnd, 10);
+        int player = state.getCurrentPlayer();
+        int stateHash = state.hashCode();
+
+        AbstractGameState scratch = null;
+        for (int i = 0; i < 5; i++) {
+            AbstractGameState copy = state.copy(player);
+            AbstractGameState det = state.redeterminiseInto(scratch, player);
+            if (scratch != null)
+                assertSame(gameType.name(), scratch, det);
+            scratch = det;
+
+            assertEquals(copy.getGameTick(), det.getGameTick());
+            assertEquals(copy.getCurrentPlayer(), det.getCurrentPlayer());
+            assertEquals(copy.getAllComponents().size(), det.getAllComponents().size());
+            for (int p = 0; p < state.getNPlayers(); p++)
+                assertEquals(copy.getGameScore(p), det.getGameScore(p), 1e-9);
+            // the player's own options depend only on what it can see
+            assertEquals(gameType.name(), new HashSet<>(fm.computeAvailableActions(copy)),
+                    new HashSet<>(fm.computeAvailableActions(det)));
+
+            // the determinisation is playable, and independent of the original
+            playRandomly(fm, det, rnd, 50);
+            assertEquals(stateHash, state.hashCode());
+        }
+    }
+
+    @Test
+    public void loveLetter() {
+        checkReuse(GameType.LoveLetter);
+    }
+
+    @Test
+    public void sushiGo() {
+        checkReuse(GameType.SushiGo);
+    }
+
+    @Test
+    public void hanabi() {
+        checkReuse(GameType.Hanabi);
+    }
+
+    @Test
+    public void dominion() {
+        checkReuse(GameType.Dominion);
+    }
+
+    @Test
+    public void gamesWithoutSupportGetNewCopies() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractGameState scratch = state.copy(0);
+        AbstractGameState det = state.redeterminiseInto(scratch, 0);
+        assertNotSame(scratch, det);
+        assertSame(state.getClass(), det.getClass());
+    }
+}
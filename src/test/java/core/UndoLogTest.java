@@ -0,0 +1,164 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+import core.actions.DoNothing;
+import games.GameType;
+import games.connect4.Connect4ForwardModel;
+import games.tictactoe.TicTacToeForwardModel;
+import org.junit.Test;
+import players.simple.DepthLimitedSearchPlayer;
+import players.simple.OSLAPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class UndoLogTest {
+
+    static final GameType[] reversibleGames = {GameType.TicTacToe, GameType.Connect4, GameType.DotsAndBoxes,
+            GameType.Stratego, GameType.CantStop};
+
+    // what the players can tell about a state (equals() is not usable for all these games)
+    private static String fingerprint(AbstractForwardModel fm, AbstractGameState state) {
+        Set<AbstractAction> actions = state.isNotTerminal() ? new HashSet<>(fm.computeAvailableActions(state)) : Collections.emptySet();
+        return state.hashCode() + " " + state.getGameTick() + " " + state.getCurrentPlayer() + " " +
+                state.getTurnCounter() + " " + state.getRoundCounter() + " " + state.getGamePhase() + " " +
+                Arrays.toString(state.getPlayerResults()) + " " + state.getHistory().size() + " " + actions.hashCode();
+    }
+
+    @Test
+    public void randomActionsAreUndoneExactly() {
+        for (GameType gameType : reversibleGames) {
+            Game game = gameType.createGameInstance(2, 42);
+            AbstractForwardModel fm = game.getForwardModel();
+            AbstractGameState state = game.getGameState().copy();
+            Random rnd = new Random(42);
+            UndoLog log = new UndoLog();
+
+            for (int step = 0; step < 300 && state.isNotTerminal(); step++) {
+                String before = fingerprint(fm, state);
+                int length = 1 + rnd.nextInt(4);
+                for (int i = 0; i < length && state.isNotTerminal(); i++) {
+                    List<AbstractAction> actions = fm.computeAvailableActions(state);
+                    assertTrue(gameType.name(), fm.next(state, actions.get(rnd.nextInt(actions.size())), log));
+                }
+                while (log.size() > 0)
+                    fm.undo(state, log);
+                assertEquals(gameType.name() + " step " + step, before, fingerprint(fm, state));
+
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+    }
+
+    @Test
+    public void gamesWithoutSupportRefuseUndo() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 42);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState state = game.getGameState();
+        AbstractAction action = fm.computeAvailableActions(state).get(0);
+        assertFalse(fm.supportsUndo(state, action));
+        String before = fingerprint(fm, state);
+        UndoLog log = new UndoLog();
+        assertFalse(fm.next(state, action, log));
+        // nothing is applied or recorded
+        assertEquals(0, log.size());
+        assertEquals(before, fingerprint(fm, state));
+    }
+
+    @Test
+    public void otherActionTypesRefuseUndo() {
+        // only the moves each forward model records can be undone; anything else must be applied to a copy
+        for (GameType gameType : new GameType[]{GameType.TicTacToe, GameType.Connect4, GameType.DotsAndBoxes}) {
+            Game game = gameType.createGameInstance(2, 42);
+            AbstractForwardModel fm = game.getForwardModel();
+            AbstractGameState state = game.getGameState();
+            UndoLog log = new UndoLog();
+            assertFalse(gameType.name(), fm.supportsUndo(state, new DoNothing()));
+            assertFalse(gameType.name(), fm.next(state, new DoNothing(), log));
+            assertEquals(0, log.size());
+        }
+    }
+
+    @Test
+    public void actionsNotRecordedAreNotApplied() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        boolean[] undone = new boolean[1];
+        AbstractForwardModel fm = new TicTacToeForwardModel() {
+            @Override
+            protected boolean _recordUndo(AbstractGameState currentState, AbstractAction action, UndoLog undoLog) {
+                // gives up after adding an entry
+                undoLog.add(() -> undone[0] = true);
+                return false;
+            }
+        };
+        String before = fingerprint(fm, state);
+        UndoLog log = new UndoLog();
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        assertFalse(fm.next(state, actions.get(0), log));
+        assertEquals(0, log.size());
+        assertEquals(before, fingerprint(fm, state));
+
+        // the entry was discarded, so is not undone with the next action recorded
+        assertTrue(game.getForwardModel().next(state, actions.get(1), log));
+        game.getForwardModel().undo(state, log);
+        assertFalse(undone[0]);
+        assertEquals(before, fingerprint(fm, state));
+    }
+
+    @Test
+    public void deepActionsFallBackToCopies() {
+        // Stratego moves chosen in two steps are extended action sequences, which cannot be undone
+        Game game = GameType.Stratego.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        ActionSpace deep = new ActionSpace(ActionSpace.Structure.Deep);
+        List<AbstractAction> actions = fm.computeAvailableActions(state, deep);
+        assertFalse(fm.supportsUndo(state, actions.get(0)));
+
+        String before = fingerprint(fm, state);
+        for (AbstractPlayer player : new AbstractPlayer[]{new OSLAPlayer(new Random(1)), new DepthLimitedSearchPlayer(2, null, new Random(1))}) {
+            player.getParameters().actionSpace = deep;
+            player.setForwardModel(fm);
+            assertTrue(actions.contains(player._getAction(state, actions)));
+            assertEquals(before, fingerprint(fm, state));
+        }
+    }
+
+    @Test
+    public void searchWithUndoChoosesAsSearchWithCopies() {
+        Game game = GameType.Connect4.createGameInstance(2, 7);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Connect4ForwardModel copyingModel = new Connect4ForwardModel() {
+            @Override
+            public boolean supportsUndo(AbstractGameState state, AbstractAction action) {
+                return false;
+            }
+        };
+        AbstractPlayer[] withUndo = {new DepthLimitedSearchPlayer(3, null, new Random(1)), new OSLAPlayer(new Random(2))};
+        AbstractPlayer[] withCopies = {new DepthLimitedSearchPlayer(3, null, new Random(1)), new OSLAPlayer(new Random(2))};
+        for (int i = 0; i < 2; i++) {
+            withUndo[i].setForwardModel(fm);
+            withCopies[i].setForwardModel(copyingModel);
+        }
+
+        Random rnd = new Random(3);
+        for (int step = 0; step < 20 && state.isNotTerminal(); step++) {
+            AbstractGameState observation = state.copy(state.getCurrentPlayer());
+            String before = fingerprint(fm, observation);
+            List<AbstractAction> actions = fm.computeAvailableActions(observation);
+            for (int i = 0; i < 2; i++) {
+                AbstractAction a = withUndo[i]._getAction(observation, actions);
+                AbstractAction b = withCopies[i]._getAction(observation, actions);
+                assertEquals(b, a);
+            }
+            // the players' state is not changed by their search
+            assertEquals(before, fingerprint(fm, observation));
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+}
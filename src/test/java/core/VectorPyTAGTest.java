@@ -0,0 +1,96 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VectorPyTAGTest {
+
+    int nEnvs = 5;
+
+    private VectorPyTAG create(int nThreads) throws Exception {
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(new PythonAgent());
+        players.add(new RandomPlayer(new Random(3)));
+        return new VectorPyTAG(GameType.TicTacToe, null, players, nEnvs, 42, true, nThreads);
+    }
+
+    private int[] firstLegalActions(VectorPyTAG envs) {
+        IntBuffer masks = envs.getActionMasks().asIntBuffer();
+        int[] actions = new int[nEnvs];
+        for (int i = 0; i < nEnvs; i++) {
+            for (int a = 0; a < envs.getActionSpace(); a++) {
+                if (masks.get(i * envs.getActionSpace() + a) == 1) {
+                    actions[i] = a;
+                    break;
+                }
+            }
+        }
+        return actions;
+    }
+
+    @Test
+    public void buffersMatchTheEnvironments() throws Exception {
+        try (VectorPyTAG envs = create(2)) {
+            DoubleBuffer observations = envs.getObservations().asDoubleBuffer();
+            IntBuffer masks = envs.getActionMasks().asIntBuffer();
+            IntBuffer dones = envs.getDones().asIntBuffer();
+            int finished = 0;
+            for (int step = 0; step < 40; step++) {
+                for (int i = 0; i < nEnvs; i++) {
+                    PyTAG env = envs.getEnv(i);
+                    assertFalse(env.isDone());
+                    double[] obs = env.getObservationVector();
+                    for (int f = 0; f < obs.length; f++) {
+                        assertEquals(obs[f], observations.get(i * envs.getObservationSpace() + f), 0.0);
+                    }
+                    int[] mask = env.getActionMask();
+                    for (int a = 0; a < mask.length; a++) {
+                        assertEquals(mask[a], masks.get(i * envs.getActionSpace() + a));
+                    }
+                    assertEquals(env.getPlayerID(), envs.getPlayerIDs().asIntBuffer().get(i));
+                }
+                envs.step(firstLegalActions(envs));
+                for (int i = 0; i < nEnvs; i++) {
+                    if (dones.get(i) == 1) {
+                        finished++;
+                        assertNotNull(envs.getLastResults(i));
+                    }
+                }
+            }
+            // Tic-tac-toe lasts at most five moves by the first player
+            assertTrue(finished >= nEnvs * 40 / 5);
+        }
+    }
+
+    @Test
+    public void threadsDoNotChangeResults() throws Exception {
+        try (VectorPyTAG serial = create(1); VectorPyTAG parallel = create(3)) {
+            for (int step = 0; step < 30; step++) {
+                int[] actions = firstLegalActions(serial);
+                assertArrayEquals(actions, firstLegalActions(parallel));
+                serial.step(actions);
+                parallel.step(actions);
+                assertEquals(serial.getObservations(), parallel.getObservations());
+                assertEquals(serial.getRewards(), parallel.getRewards());
+                assertEquals(serial.getDones(), parallel.getDones());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void oneActionPerEnvironment() throws Exception {
+        try (VectorPyTAG envs = create(1)) {
+            envs.step(new int[nEnvs + 1]);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package evaluation;
+
+import evaluation.loggers.AsyncFileWriter;
+import evaluation.loggers.FileStatsLogger;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class AsyncFileWriterTest {
+
+    private File tempFile() throws IOException {
+        File file = Files.createTempFile("async", ".txt").toFile();
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void writesAreInOrderWithASmallQueue() throws IOException {
+        File file = tempFile();
+        // a queue of two entries means that most writes wait for the writer thread
+        AsyncFileWriter writer = new AsyncFileWriter(file.getPath(), false, 2);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            String line = i + "\n";
+            expected.append(line);
+            if (i % 2 == 0) {
+                writer.write(line);
+            } else {
+                writer.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            }
+            if (i % 1000 == 0) writer.flushAsync();
+        }
+        writer.close();
+        assertEquals(expected.toString(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void flushWaitsForData() throws IOException {
+        File file = tempFile();
+        AsyncFileWriter writer = new AsyncFileWriter(file.getPath(), false);
+        writer.write("first\n");
+        writer.flush();
+        assertEquals("first\n", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        // larger than the writer's buffer
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 3_000_000) large.append("0123456789");
+        writer.write(large);
+        writer.close();
+        writer.close();
+        assertEquals(6 + large.length(), file.length());
+
+        writer = new AsyncFileWriter(file.getPath(), true);
+        writer.write("last\n");
+        writer.close();
+        assertEquals(11 + large.length(), file.length());
+        assertTrue(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).endsWith("9last\n"));
+    }
+
+    @Test
+    public void writersShareOneThread() throws Exception {
+        int nWriters = 20;
+        List<File> files = new ArrayList<>();
+        List<AsyncFileWriter> writers = new ArrayList<>();
+        for (int w = 0; w < nWriters; w++) {
+            files.add(tempFile());
+            writers.add(new AsyncFileWriter(files.get(w).getPath(), false, 4));
+        }
+        for (int i = 0; i < 1000; i++) {
+            for (int w = 0; w < nWriters; w++)
+                writers.get(w).write(w + ":" + i + "\n");
+        }
+        long writerThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("AsyncFileWriter")).count();
+        assertEquals(1, writerThreads);
+        for (int w = 0; w < nWriters; w++) {
+            writers.get(w).close();
+            List<String> lines = Files.readAllLines(files.get(w).toPath());
+            assertEquals(1000, lines.size());
+            assertEquals(w + ":999", lines.get(999));
+        }
+    }
+
+    @Test
+    public void unclosedWritersAreNotKept() throws Exception {
+        File file = tempFile();
+        AsyncFileWriter writer = new AsyncFileWriter(file.getPath(), false);
+        writer.write("not closed\n");
+        writer.flush();
+        WeakReference<AsyncFileWriter> ref = new WeakReference<>(writer);
+        writer = null;
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(ref.get());
+        assertEquals("not closed\n", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writingAfterCloseFails() throws IOException {
+        AsyncFileWriter writer = new AsyncFileWriter(tempFile().getPath(), false);
+        writer.close();
+        writer.write("too late");
+    }
+
+    @Test
+    public void fileStatsLoggerWritesAllRows() throws IOException {
+        File file = tempFile();
+        assertTrue(file.delete());
+        FileStatsLogger logger = new FileStatsLogger(file.getPath(), "\t", false);
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("Game", i);
+            data.put("Name", "G" + i);
+            logger.record(data);
+            if (i % 10 == 0) logger.processDataAndNotFinish();
+        }
+        logger.processDataAndFinish();
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(101, lines.size());
+        assertEquals("Game\tName", lines.get(0));
+        assertEquals("99\tG99", lines.get(100));
+    }
+}
@@ -0,0 +1,84 @@
+package evaluation;
+
+import evaluation.loggers.BinaryDataLogger;
+import evaluation.loggers.BinaryDataReader;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BinaryDataTest {
+
+    String[] columns = {"GameID", "Player", "Value"};
+
+    private String tempFile() throws IOException {
+        File file = Files.createTempFile("data", ".bin").toFile();
+        file.deleteOnExit();
+        return file.getAbsolutePath();
+    }
+
+    @Test
+    public void rowsAreReadBackInOrder() throws IOException {
+        String fileName = tempFile();
+        // small chunks, so data is split over several
+        BinaryDataLogger logger = new BinaryDataLogger(fileName, false, 7);
+        for (int i = 0; i < 50; i++) {
+            logger.record(columns, new double[]{i, i % 3, i * 0.5});
+            if (i % 10 == 0) logger.processDataAndNotFinish();
+        }
+        logger.processDataAndFinish();
+
+        assertTrue(BinaryDataReader.isBinaryData(fileName));
+        try (BinaryDataReader reader = new BinaryDataReader(fileName)) {
+            assertArrayEquals(columns, reader.getColumnNames());
+            double[][] rows = reader.readRows();
+            assertEquals(50, rows.length);
+            for (int i = 0; i < 50; i++) {
+                assertArrayEquals(new double[]{i, i % 3, i * 0.5}, rows[i], 0.0);
+            }
+            double[][] byColumn = reader.readColumns();
+            assertEquals(3, byColumn.length);
+            assertEquals(49.0, byColumn[0][49], 0.0);
+            assertEquals(24.5, byColumn[2][49], 0.0);
+        }
+    }
+
+    @Test
+    public void mapsAndAppendedData() throws IOException {
+        String fileName = tempFile();
+        BinaryDataLogger logger = new BinaryDataLogger(fileName);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("GameID", 1);
+        data.put("Player", 0);
+        data.put("Value", 2.5);
+        logger.record(data);
+        data.remove("Value");
+        data.put("Unknown", "ignored");
+        logger.record(data);
+        logger.processDataAndFinish();
+
+        logger = new BinaryDataLogger(fileName, true);
+        logger.record(columns, new double[]{2, 1, 3.0});
+        logger.processDataAndFinish();
+
+        try (BinaryDataReader reader = new BinaryDataReader(fileName)) {
+            double[][] rows = reader.readRows();
+            assertEquals(3, rows.length);
+            assertArrayEquals(new double[]{1, 0, 2.5}, rows[0], 0.0);
+            assertTrue(Double.isNaN(rows[1][2]));
+            assertArrayEquals(new double[]{2, 1, 3.0}, rows[2], 0.0);
+        }
+    }
+
+    @Test
+    public void textFilesAreNotBinaryData() throws IOException {
+        String fileName = tempFile();
+        Files.write(new File(fileName).toPath(), "GameID\tPlayer\n1\t0\n".getBytes());
+        assertFalse(BinaryDataReader.isBinaryData(fileName));
+    }
+}
@@ -0,0 +1,68 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import core.Game;
+import evaluation.listeners.IGameListener;
+import evaluation.listeners.StateFeatureListener;
+import evaluation.loggers.BinaryDataLogger;
+import evaluation.loggers.BinaryDataReader;
+import evaluation.loggers.FileStatsLogger;
+import evaluation.metrics.Event;
+import games.GameType;
+import games.tictactoe.TTTFeatures;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class FeatureListenerTest {
+
+    private File tempFile(String suffix) throws IOException {
+        File file = Files.createTempFile("features", suffix).toFile();
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void textAndBinaryDataHaveTheSameColumns() throws IOException {
+        File textFile = tempFile(".txt");
+        File binaryFile = tempFile(".bin");
+        StateFeatureListener textListener = new StateFeatureListener(new TTTFeatures(), Event.GameEvent.ACTION_TAKEN, false);
+        textListener.setLogger(new FileStatsLogger(textFile.getPath(), "\t", false));
+        StateFeatureListener binaryListener = new StateFeatureListener(new TTTFeatures(), Event.GameEvent.ACTION_TAKEN, false);
+        binaryListener.setLogger(new BinaryDataLogger(binaryFile.getPath(), false));
+        List<IGameListener> listeners = Arrays.asList(textListener, binaryListener);
+
+        for (int g = 0; g < 3; g++) {
+            List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(g)), new RandomPlayer(new Random(g + 10)));
+            Game.runOne(GameType.TicTacToe, null, players, g, false, listeners, null, 0);
+        }
+        textListener.report();
+        binaryListener.report();
+
+        List<String> lines = Files.readAllLines(textFile.toPath());
+        try (BinaryDataReader reader = new BinaryDataReader(binaryFile.getPath())) {
+            String[] columns = reader.getColumnNames();
+            assertArrayEquals(lines.get(0).split("\t"), columns);
+            assertEquals("GameID", columns[0]);
+            assertEquals("FinalScore", columns[columns.length - 1]);
+
+            double[][] rows = reader.readRows();
+            assertTrue(rows.length > 0);
+            assertEquals(lines.size() - 1, rows.length);
+            for (int r = 0; r < rows.length; r++) {
+                String[] values = lines.get(r + 1).split("\t");
+                assertEquals(columns.length, values.length);
+                for (int c = 0; c < columns.length; c++) {
+                    double expected = rows[r][c];
+                    assertEquals(columns[c], expected, Double.parseDouble(values[c]), Math.abs(expected) * 1e-2);
+                }
+            }
+        }
+    }
+}
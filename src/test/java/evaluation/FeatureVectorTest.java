@@ -0,0 +1,89 @@
+package evaluation;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import core.interfaces.IActionFeatureVector;
+import core.interfaces.IStateFeatureVector;
+import games.GameType;
+import games.connect4.Connect4StateFeatures;
+import games.dotsboxes.DBStateFeatures;
+import games.loveletter.LLActionFeaturesLarge;
+import games.loveletter.LLActionFeaturesMedium;
+import games.loveletter.LLActionFeaturesTiny;
+import games.loveletter.LLStateFeatures;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FeatureVectorTest {
+
+    // check() throws an AssertionError if the features written to buffers differ from those allocated
+    private void checkGame(GameType gameType, int nPlayers, IStateFeatureVector features) {
+        List<AbstractGameState> states = FeatureVectorBenchmark.collectStates(gameType, nPlayers, 10, 42);
+        assertEquals(features.names().length, features.size());
+        FeatureVectorBenchmark.check(features, states, nPlayers);
+    }
+
+    @Test
+    public void connect4() {
+        checkGame(GameType.Connect4, 2, new Connect4StateFeatures());
+    }
+
+    @Test
+    public void loveLetter() {
+        checkGame(GameType.LoveLetter, 4, new LLStateFeatures());
+    }
+
+    @Test
+    public void dotsAndBoxes() {
+        checkGame(GameType.DotsAndBoxes, 2, new DBStateFeatures());
+    }
+
+    // each action's features written to a dirty buffer, and in a batch, match those allocated
+    private void checkActions(IActionFeatureVector features) {
+        int nPlayers = 4;
+        AbstractForwardModel fm = GameType.LoveLetter.createGameInstance(nPlayers, 1).getForwardModel();
+        for (AbstractGameState state : FeatureVectorBenchmark.collectStates(GameType.LoveLetter, nPlayers, 10, 42)) {
+            if (!state.isNotTerminal()) continue;
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            double[][] batch = new double[actions.size()][features.size()];
+            for (double[] row : batch) Arrays.fill(row, -1.0);
+            int player = state.getCurrentPlayer();
+            features.featureVectors(actions, state, player, batch);
+            double[] buffer = new double[features.size() + 2];
+            for (int i = 0; i < actions.size(); i++) {
+                double[] expected = features.featureVector(actions.get(i), state, player);
+                Arrays.fill(buffer, -1.0);
+                features.featureVector(actions.get(i), state, player, buffer, 2);
+                assertArrayEquals(expected, Arrays.copyOfRange(buffer, 2, buffer.length), 0.0);
+                assertArrayEquals(expected, batch[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void loveLetterActions() {
+        checkActions(new LLActionFeaturesTiny());
+        checkActions(new LLActionFeaturesMedium());
+        checkActions(new LLActionFeaturesLarge());
+    }
+
+    @Test
+    public void bufferOffset() {
+        Connect4StateFeatures features = new Connect4StateFeatures();
+        AbstractGameState state = FeatureVectorBenchmark.collectStates(GameType.Connect4, 2, 1, 3).get(10);
+        double[] expected = features.featureVector(state, 1);
+        double[] buffer = new double[expected.length + 5];
+        Arrays.fill(buffer, -1.0);
+        features.featureVector(state, 1, buffer, 5);
+        for (int i = 0; i < 5; i++)
+            assertEquals(-1.0, buffer[i], 0.0);
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], buffer[i + 5], 0.0);
+    }
+}
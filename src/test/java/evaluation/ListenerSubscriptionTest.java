@@ -0,0 +1,121 @@
+package evaluation;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.interfaces.IGameEvent;
+import evaluation.listeners.IGameListener;
+import evaluation.metrics.Event;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ListenerSubscriptionTest {
+
+    static class CountingListener implements IGameListener {
+        final Set<IGameEvent> eventTypes;
+        final boolean copyActions;
+        final Map<IGameEvent, Integer> counts = new HashMap<>();
+        final List<Event> actionsTaken = new ArrayList<>();
+        Game game;
+
+        CountingListener(Set<IGameEvent> eventTypes, boolean copyActions) {
+            this.eventTypes = eventTypes;
+            this.copyActions = copyActions;
+        }
+
+        @Override
+        public Set<IGameEvent> getEventTypes() {
+            return eventTypes;
+        }
+
+        @Override
+        public boolean requiresActionCopy() {
+            return copyActions;
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            counts.merge(event.type, 1, Integer::sum);
+            if (event.type == Event.GameEvent.ACTION_TAKEN) actionsTaken.add(event);
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    private void runGame(IGameListener... listeners) {
+        runGame(GameType.LoveLetter, listeners);
+    }
+
+    private void runGame(GameType gameType, IGameListener... listeners) {
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        Game.runOne(gameType, null, players, 42, false, Arrays.asList(listeners), null, 0);
+    }
+
+    @Test
+    public void listenersOnlyReceiveSubscribedEvents() {
+        CountingListener all = new CountingListener(null, true);
+        CountingListener chosen = new CountingListener(Collections.singleton(Event.GameEvent.ACTION_CHOSEN), true);
+        runGame(all, chosen);
+
+        assertEquals(1, chosen.counts.size());
+        assertEquals(all.counts.get(Event.GameEvent.ACTION_CHOSEN), chosen.counts.get(Event.GameEvent.ACTION_CHOSEN));
+        assertEquals(1, (int) all.counts.get(Event.GameEvent.ABOUT_TO_START));
+        assertEquals(1, (int) all.counts.get(Event.GameEvent.GAME_OVER));
+        assertTrue(all.counts.get(Event.GameEvent.ACTION_TAKEN) > 0);
+    }
+
+    @Test
+    public void actionsOnlyCopiedWhenRequired() {
+        Set<IGameEvent> taken = Collections.singleton(Event.GameEvent.ACTION_TAKEN);
+        CountingListener copying = new CountingListener(taken, true);
+        CountingListener sharing1 = new CountingListener(taken, false);
+        CountingListener sharing2 = new CountingListener(taken, false);
+        runGame(copying, sharing1, sharing2);
+
+        assertEquals(copying.actionsTaken.size(), sharing1.actionsTaken.size());
+        for (int i = 0; i < copying.actionsTaken.size(); i++) {
+            // listeners not needing a copy share the same event
+            assertSame(sharing1.actionsTaken.get(i), sharing2.actionsTaken.get(i));
+            assertNotSame(copying.actionsTaken.get(i), sharing1.actionsTaken.get(i));
+            assertEquals(copying.actionsTaken.get(i).action, sharing1.actionsTaken.get(i).action);
+        }
+    }
+
+    @Test
+    public void turnOrderOnlySendsSubscribedEvents() {
+        // Exploding Kittens sends turn and round events through its TurnOrder
+        CountingListener all = new CountingListener(null, false);
+        CountingListener turns = new CountingListener(Collections.singleton(Event.GameEvent.TURN_OVER), false);
+        runGame(GameType.ExplodingKittens, all, turns);
+
+        assertEquals(Collections.singleton(Event.GameEvent.TURN_OVER), turns.counts.keySet());
+        assertTrue(all.counts.get(Event.GameEvent.TURN_OVER) > 0);
+        assertEquals(all.counts.get(Event.GameEvent.TURN_OVER), turns.counts.get(Event.GameEvent.TURN_OVER));
+    }
+
+    @Test
+    public void copiesHaveNoListeners() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 42);
+        game.addListener(new CountingListener(null, false));
+        AbstractGameState copy = game.getGameState().copy();
+        assertSame(AbstractGameState.NO_LISTENERS, copy.getListeners(Event.GameEvent.ACTION_TAKEN));
+        assertSame(AbstractGameState.NO_LISTENERS, copy.getListeners(Event.GameEvent.GAME_EVENT));
+    }
+}
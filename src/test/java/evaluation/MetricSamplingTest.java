@@ -0,0 +1,92 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import core.Game;
+import evaluation.listeners.MetricsGameListener;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.GameMetrics;
+import evaluation.metrics.MetricSampling;
+import games.GameType;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static evaluation.metrics.Event.GameEvent.*;
+import static org.junit.Assert.*;
+
+public class MetricSamplingTest {
+
+    @Test
+    public void everyNthGameAndEvent() {
+        MetricSampling sampling = new MetricSampling(2, 3, 1.0, 0);
+        int sampled = 0;
+        for (int i = 0; i < 30; i++) {
+            assertFalse(sampling.sample(1, ACTION_TAKEN));
+            if (sampling.sample(0, ACTION_TAKEN)) sampled++;
+        }
+        assertEquals(10, sampled);
+        // once-per-game events are always recorded in sampled games
+        assertTrue(sampling.sample(0, GAME_OVER));
+        assertTrue(sampling.sample(2, GAME_OVER));
+        assertFalse(sampling.sample(3, GAME_OVER));
+    }
+
+    @Test
+    public void randomFraction() {
+        MetricSampling sampling = new MetricSampling(1, 1, 0.25, 42);
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (sampling.sample(i, TURN_OVER)) sampled++;
+        }
+        assertEquals(2500, sampled, 200);
+    }
+
+    private void runGames(MetricsGameListener listener, int nGames) {
+        for (int g = 0; g < nGames; g++) {
+            List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(g)), new RandomPlayer(new Random(g + 10)));
+            Game.runOne(GameType.TicTacToe, null, players, g, false, Collections.singletonList(listener), null, 0);
+        }
+    }
+
+    @Test
+    public void costsCountSampledEvents() {
+        AbstractMetric sampled = new GameMetrics.GameScore();
+        AbstractMetric all = new GameMetrics.FinalScore();
+        MetricsGameListener listener = new MetricsGameListener(new AbstractMetric[]{sampled, all});
+        sampled.setSampling(new MetricSampling(2, 1, 1.0, 0));
+        sampled.setTimed(true);
+        runGames(listener, 6);
+
+        long[] gameOver = sampled.getCosts().get(GAME_OVER);
+        assertEquals(6, gameOver[0]);
+        assertEquals(3, gameOver[1]);
+        long[] actions = sampled.getCosts().get(ACTION_CHOSEN);
+        assertTrue(actions[1] > 0 && actions[1] < actions[0]);
+        assertTrue(actions[2] > 0);
+        // metrics are only timed if asked
+        assertArrayEquals(new long[]{6, 6, 0}, all.getCosts().get(GAME_OVER));
+    }
+
+    @Test
+    public void samplingFromJSON() throws Exception {
+        JSONObject json = (JSONObject) new JSONParser().parse("{\"class\": \"evaluation.listeners.MetricsGameListener\"," +
+                " \"sampling\": {\"everyNGames\": 5}," +
+                " \"args\": [[{\"class\": \"evaluation.metrics.GameMetrics$GameScore\", \"sampling\": {\"everyNEvents\": 4, \"fraction\": 0.5}, \"timed\": true}," +
+                " {\"class\": \"evaluation.metrics.GameMetrics$FinalScore\"}]]}");
+        AbstractMetric gameScore = new GameMetrics.GameScore();
+        AbstractMetric finalScore = new GameMetrics.FinalScore();
+        MetricsGameListener listener = new MetricsGameListener(new AbstractMetric[]{gameScore, finalScore});
+        listener.setSampling(json);
+
+        assertEquals(1, gameScore.getSampling().everyNGames);
+        assertEquals(4, gameScore.getSampling().everyNEvents);
+        assertEquals(0.5, gameScore.getSampling().fraction, 0.0);
+        assertEquals(5, finalScore.getSampling().everyNGames);
+        assertEquals(1, finalScore.getSampling().everyNEvents);
+        assertTrue(gameScore.isTimed());
+        assertFalse(finalScore.isTimed());
+    }
+}
@@ -0,0 +1,73 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import core.Game;
+import evaluation.listeners.ProfilingListener;
+import evaluation.listeners.ProfilingListener.Measure;
+import games.GameType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.simple.RandomPlayer;
+import utilities.LatencyHistogram;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ProfilingListenerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static long countOf(Iterable<LatencyHistogram> histograms) {
+        long count = 0;
+        for (LatencyHistogram h : histograms) count += h.getCount();
+        return count;
+    }
+
+    @Test
+    public void profilesEveryActionByPhaseAndActionType() throws Exception {
+        ProfilingListener listener = new ProfilingListener();
+        listener.setOutputDirectory(folder.getRoot().getAbsolutePath());
+        int nActions = 0, nDecisions = 0;
+        for (GameType gameType : new GameType[]{GameType.LoveLetter, GameType.CantStop}) {
+            for (int i = 0; i < 2; i++) {
+                Game game = gameType.createGameInstance(3, 100 + i);
+                List<AbstractPlayer> players = new ArrayList<>();
+                for (int p = 0; p < 3; p++) players.add(new RandomPlayer(new Random(p)));
+                game.reset(players);
+                game.addListener(listener);
+                game.run();
+                if (gameType == GameType.CantStop) {
+                    nActions += game.getGameState().getHistory().size();
+                    nDecisions += game.getNDecisions();
+                }
+            }
+        }
+
+        ProfilingListener.Profile profile = listener.getProfile(GameType.CantStop);
+        assertNull(listener.getProfile(GameType.TicTacToe));
+        for (Measure m : new Measure[]{Measure.COPY, Measure.ACTIONS, Measure.NEXT})
+            assertEquals(m.name(), nActions, profile.getTotal(m).getCount());
+        assertEquals(nDecisions, profile.getTotal(Measure.AGENT).getCount());
+        for (Measure m : Measure.values())
+            assertEquals(profile.getTotal(m).getCount(), countOf(profile.getByPhase(m).values()));
+        assertEquals(nActions, countOf(profile.getByAction(Measure.NEXT).values()));
+        assertTrue(profile.getByAction(Measure.NEXT).containsKey("RollDice"));
+        assertTrue(profile.getByPhase(Measure.NEXT).containsKey("Allocation"));
+        assertTrue(profile.getByAction(Measure.COPY).isEmpty());
+
+        listener.report();
+        File csv = new File(folder.getRoot(), "CantStop_Profile.csv");
+        List<String> lines = Files.readAllLines(csv.toPath());
+        assertTrue(lines.get(0).startsWith("Measure,Breakdown,Key,Count"));
+        String total = "NEXT,All,All," + nActions + ",";
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith(total)));
+        assertTrue(new File(folder.getRoot(), "LoveLetter_Profile.csv").exists());
+    }
+}
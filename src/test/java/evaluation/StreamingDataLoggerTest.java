@@ -0,0 +1,126 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import core.Game;
+import evaluation.listeners.StreamingMetricsGameListener;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import evaluation.metrics.GameMetrics;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.streaming.CategoricalColumnSummary;
+import evaluation.metrics.streaming.NumericColumnSummary;
+import evaluation.metrics.streaming.StreamingDataLogger;
+import evaluation.metrics.streaming.TDigest;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.ToFile;
+import static evaluation.metrics.IDataLogger.ReportType.RawData;
+import static org.junit.Assert.*;
+
+public class StreamingDataLoggerTest {
+
+    @Test
+    public void quantilesAreClose() {
+        Random rnd = new Random(42);
+        TDigest digest = new TDigest();
+        double[] values = new double[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rnd.nextGaussian() * 10 + (rnd.nextBoolean() ? 50 : 0);
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, digest.size(), 0.0);
+        assertEquals(values[0], digest.quantile(0), 0.0);
+        assertEquals(values[values.length - 1], digest.quantile(1), 0.0);
+        for (double q : new double[]{0.001, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 0.999}) {
+            // the rank of the estimate is close to the quantile asked for
+            int rank = Arrays.binarySearch(values, digest.quantile(q));
+            if (rank < 0) rank = -rank - 1;
+            assertEquals(q, rank / (double) values.length, 0.002);
+        }
+    }
+
+    @Test
+    public void numericSummaryMatchesExactValues() {
+        Random rnd = new Random(7);
+        NumericColumnSummary summary = new NumericColumnSummary();
+        double sum = 0, sumSq = 0;
+        int n = 5000;
+        for (int i = 0; i < n; i++) {
+            double x = rnd.nextDouble() * 100;
+            sum += x;
+            sumSq += x * x;
+            summary.add(x);
+        }
+        summary.addMissing();
+        double mean = sum / n;
+        assertEquals(n, summary.n());
+        assertEquals(1, summary.missing());
+        assertEquals(mean, summary.mean(), 1e-9);
+        assertEquals((sumSq - n * mean * mean) / (n - 1), summary.variance(), 1e-6);
+        assertEquals(sum, summary.sum(), 1e-6);
+    }
+
+    @Test
+    public void categoricalCountsPerGame() {
+        CategoricalColumnSummary summary = new CategoricalColumnSummary();
+        // game 1: a, a, b; game 2: a; game 3: b, b, b
+        summary.add("a");
+        summary.add("a");
+        summary.add("b");
+        summary.endGame();
+        summary.add("a");
+        summary.endGame();
+        summary.add("b");
+        summary.add("b");
+        summary.add("b");
+        summary.add(null);
+        summary.endGame();
+
+        assertEquals(3, summary.games());
+        assertEquals(1, summary.missing());
+        assertEquals(3L, (long) summary.counts().get("a"));
+        assertEquals(4L, (long) summary.counts().get("b"));
+        double[] a = summary.perGame("a");
+        assertEquals(1.0, a[0], 1e-9);
+        assertEquals(0.0, a[2], 0.0);
+        assertEquals(2.0, a[3], 0.0);
+        double[] b = summary.perGame("b");
+        assertEquals(4.0 / 3, b[0], 1e-9);
+        assertEquals(0.0, b[2], 0.0);
+        assertEquals(3.0, b[3], 0.0);
+    }
+
+    @Test
+    public void gamesAreSummarisedAndRowsSpilled() throws Exception {
+        AbstractMetric metric = new GameMetrics.GameScore(Event.GameEvent.GAME_OVER);
+        StreamingMetricsGameListener listener = new StreamingMetricsGameListener(ToFile,
+                new IDataLogger.ReportType[]{RawData}, new AbstractMetric[]{metric});
+        int nGames = 20;
+        for (int g = 0; g < nGames; g++) {
+            List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(g)), new RandomPlayer(new Random(g + 100)));
+            Game.runOne(GameType.TicTacToe, null, players, g, false, Collections.singletonList(listener), null, 0);
+        }
+        StreamingDataLogger logger = (StreamingDataLogger) metric.getDataLogger();
+        assertEquals(nGames, logger.getRowCount());
+        NumericColumnSummary average = logger.getNumericSummary("Average");
+        assertEquals(nGames, average.n());
+        assertTrue(average.min() >= 0 && average.max() <= 1);
+        assertEquals(2 * nGames, (long) logger.getCategoricalSummary("PlayerName-0").counts().values().stream().mapToLong(l -> l).sum()
+                + logger.getCategoricalSummary("PlayerName-1").counts().values().stream().mapToLong(l -> l).sum());
+
+        File rows = File.createTempFile("rows", ".csv");
+        rows.deleteOnExit();
+        assertTrue(logger.writeRows(rows));
+        List<String> lines = Files.readAllLines(rows.toPath(), StandardCharsets.UTF_8);
+        assertEquals(nGames + 1, lines.size());
+        assertTrue(lines.get(0).contains("Average"));
+    }
+}
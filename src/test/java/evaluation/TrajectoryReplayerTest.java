@@ -0,0 +1,125 @@
+package evaluation;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import core.actions.DoNothing;
+import evaluation.listeners.TrajectoryRecorder;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TrajectoryReplayerTest {
+
+    private List<Game> recordGames(TrajectoryRecorder recorder, GameType gameType, int nPlayers, int nGames) {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < nGames; i++) {
+            List<AbstractPlayer> players = new ArrayList<>();
+            for (int p = 0; p < nPlayers; p++) {
+                players.add(new RandomPlayer(new Random(i * 10 + p)));
+            }
+            games.add(Game.runOne(gameType, null, players, 100 + i, false,
+                    Collections.singletonList(recorder), null, 0));
+        }
+        return games;
+    }
+
+    private void assertSameGame(Game expected, Game actual) {
+        AbstractGameState s1 = expected.getGameState();
+        AbstractGameState s2 = actual.getGameState();
+        assertEquals(expected.getGameType(), actual.getGameType());
+        assertEquals(s1.getNPlayers(), s2.getNPlayers());
+        assertEquals(s1.getGameTick(), s2.getGameTick());
+        assertArrayEquals(s1.getPlayerResults(), s2.getPlayerResults());
+        for (int p = 0; p < s1.getNPlayers(); p++) {
+            assertEquals(s1.getGameScore(p), s2.getGameScore(p), 1e-9);
+        }
+        assertEquals(s1.getHistoryAsText(), s2.getHistoryAsText());
+    }
+
+    @Test
+    public void replayedGamesMatchRecordedGames() throws IOException {
+        String dir = Files.createTempDirectory("trajectories").toString();
+        TrajectoryRecorder recorder = new TrajectoryRecorder("test.bin");
+        recorder.setOutputDirectory(dir);
+
+        List<Game> recorded = new ArrayList<>();
+        recorded.addAll(recordGames(recorder, GameType.TicTacToe, 2, 3));
+        recorded.addAll(recordGames(recorder, GameType.LoveLetter, 3, 3));
+        recorder.report();
+
+        int count = 0;
+        try (TrajectoryReplayer replayer = new TrajectoryReplayer(recorder.getFileName())) {
+            while (replayer.hasNext()) {
+                TrajectoryReplayer.Trajectory trajectory = replayer.next();
+                assertEquals(recorded.get(count).getRandomSeed(), trajectory.seed);
+                Game replayed = TrajectoryReplayer.replay(trajectory, Collections.emptyList());
+                assertSameGame(recorded.get(count), replayed);
+                count++;
+            }
+        }
+        assertEquals(recorded.size(), count);
+    }
+
+    @Test
+    public void reusedRecorderKeepsEarlierGames() throws IOException {
+        String dir = Files.createTempDirectory("trajectories").toString();
+        TrajectoryRecorder recorder = new TrajectoryRecorder("test.bin");
+        recorder.setOutputDirectory(dir);
+
+        List<Game> recorded = new ArrayList<>(recordGames(recorder, GameType.TicTacToe, 2, 2));
+        recorder.report();
+        recorded.addAll(recordGames(recorder, GameType.LoveLetter, 2, 2));
+        recorder.report();
+
+        int count = 0;
+        try (TrajectoryReplayer replayer = new TrajectoryReplayer(recorder.getFileName())) {
+            while (replayer.hasNext()) {
+                TrajectoryReplayer.Trajectory trajectory = replayer.next();
+                assertSameGame(recorded.get(count), TrajectoryReplayer.replay(trajectory, Collections.emptyList()));
+                count++;
+            }
+        }
+        assertEquals(recorded.size(), count);
+    }
+
+    @Test
+    public void gamesWithUnlistedActionsAreSkipped() throws IOException {
+        String dir = Files.createTempDirectory("trajectories").toString();
+        TrajectoryRecorder recorder = new TrajectoryRecorder("test.bin");
+        recorder.setOutputDirectory(dir);
+
+        List<Game> recorded = recordGames(recorder, GameType.TicTacToe, 2, 2);
+        // the first player's opening move is not one of the available actions
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(1)) {
+            boolean moved;
+
+            @Override
+            public AbstractAction _getAction(AbstractGameState observation, List<AbstractAction> actions) {
+                if (moved) return super._getAction(observation, actions);
+                moved = true;
+                return new DoNothing();
+            }
+        }, new RandomPlayer(new Random(2)));
+        Game.runOne(GameType.TicTacToe, null, players, 200, false, Collections.singletonList(recorder), null, 0);
+        recorded.addAll(recordGames(recorder, GameType.TicTacToe, 2, 1));
+        recorder.report();
+        assertEquals(1, recorder.getSkippedGames());
+
+        int count = 0;
+        try (TrajectoryReplayer replayer = new TrajectoryReplayer(recorder.getFileName())) {
+            while (replayer.hasNext()) {
+                assertSameGame(recorded.get(count), TrajectoryReplayer.replay(replayer.next(), Collections.emptyList()));
+                count++;
+            }
+        }
+        assertEquals(recorded.size(), count);
+    }
+}
@@ -0,0 +1,99 @@
+package games.dotsboxes;
+
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Test;
+import utilities.Vector2D;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestDotsAndBoxes {
+    DBGameState state;
+    DBForwardModel fm = new DBForwardModel();
+
+    @Before
+    public void setup() {
+        Game game = GameType.DotsAndBoxes.createGameInstance(2, 42);
+        state = (DBGameState) game.getGameState();
+    }
+
+    private AddGridCellEdge edge(int x1, int y1, int x2, int y2) {
+        return new AddGridCellEdge(new DBEdge(new Vector2D(x1, y1), new Vector2D(x2, y2)));
+    }
+
+    @Test
+    public void topologyIsConsistent() {
+        DBTopology topology = state.topology;
+        DBParameters params = (DBParameters) state.getGameParameters();
+        int w = params.gridWidth, h = params.gridHeight;
+        assertEquals(w * h, topology.cells.length);
+        assertEquals((h + 1) * w + (w + 1) * h, topology.edges.length);
+        assertEquals(topology.edges.length, new HashSet<>(fm.computeAvailableActions(state)).size());
+
+        for (int e = 0; e < topology.edges.length; e++) {
+            DBEdge edge = topology.edges[e];
+            assertEquals(e, topology.indexOf(new DBEdge(edge.from, edge.to)));
+            assertEquals(e, topology.indexOf(new DBEdge(edge.to, edge.from)));
+            for (int c : topology.edgeCells[e]) {
+                boolean found = false;
+                for (int around : topology.cellEdges[c]) found |= around == e;
+                assertTrue(found);
+            }
+        }
+        for (int c = 0; c < topology.cells.length; c++) {
+            DBCell cell = topology.cells[c];
+            assertEquals(c, topology.indexOf(new DBCell(cell.position.getX(), cell.position.getY())));
+        }
+        assertEquals(-1, topology.indexOf(new DBEdge(new Vector2D(0, 0), new Vector2D(1, 1))));
+        assertEquals(-1, topology.indexOf(new DBEdge(new Vector2D(w, 0), new Vector2D(w + 1, 0))));
+    }
+
+    @Test
+    public void completingABoxScoresAndKeepsTheTurn() {
+        fm.next(state, edge(0, 0, 1, 0));
+        assertEquals(1, state.getCurrentPlayer());
+        fm.next(state, edge(0, 0, 0, 1));
+        fm.next(state, edge(1, 0, 1, 1));
+        assertEquals(3, state.countCompleteEdges(new DBCell(0, 0)));
+        assertEquals(-1, state.getCellOwner(new DBCell(0, 0)));
+
+        int player = state.getCurrentPlayer();
+        fm.next(state, edge(1, 1, 0, 1));
+        assertEquals(4, state.countCompleteEdges(new DBCell(0, 0)));
+        assertEquals(1, state.countCompleteEdges(new DBCell(0, 1)));
+        assertEquals(player, state.getCellOwner(new DBCell(0, 0)));
+        assertEquals(player, state.getEdgeOwner(new DBEdge(new Vector2D(0, 1), new Vector2D(1, 1))));
+        assertEquals(1, state.getGameScore(player), 0.0);
+        assertEquals(player, state.getCurrentPlayer());
+        assertEquals(state.topology.edges.length - 4, fm.computeAvailableActions(state).size());
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        Random rnd = new Random(42);
+        for (int i = 0; i < 30; i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        DBGameState copy = (DBGameState) state.copy();
+        assertEquals(state.hashCode(), copy.hashCode());
+        assertEquals(state.toString(), copy.toString());
+        assertSame(state.topology, copy.topology);
+
+        String before = state.toString();
+        while (copy.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(copy);
+            fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertEquals(before, state.toString());
+        double total = 0;
+        for (int p = 0; p < copy.getNPlayers(); p++) total += copy.getGameScore(p);
+        assertEquals(copy.topology.cells.length, total, 0.0);
+    }
+}
@@ -0,0 +1,108 @@
+package games.hanabi;
+
+import core.Game;
+import core.actions.AbstractAction;
+import core.components.Deck;
+import games.GameType;
+import games.hanabi.actions.Discard;
+import games.hanabi.actions.Hint;
+import games.hanabi.actions.Play;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TestHanabiActions {
+
+    // The actions available, listed directly from the rules
+    private static Set<AbstractAction> expectedActions(HanabiGameState state) {
+        Set<AbstractAction> actions = new HashSet<>();
+        int player = state.getCurrentPlayer();
+        Deck<HanabiCard> hand = state.playerDecks.get(player);
+        for (int i = 0; i < hand.getSize(); i++) {
+            if (state.hintCounter.getValue() != state.hintCounter.getMaximum())
+                actions.add(new Discard(hand.getComponentID(), state.discardDeck.getComponentID(), i));
+            actions.add(new Play(player, i));
+        }
+        if (state.hintCounter.getValue() != state.hintCounter.getMinimum()) {
+            for (int p = 0; p < state.getNPlayers(); p++) {
+                if (p == player) continue;
+                for (HanabiCard card : state.playerDecks.get(p).getComponents()) {
+                    actions.add(new Hint(p, card.number));
+                    actions.add(new Hint(p, card.color));
+                }
+            }
+        }
+        return actions;
+    }
+
+    @Test
+    public void tableListsTheLegalActions() {
+        for (int nPlayers = 2; nPlayers <= 5; nPlayers++) {
+            Game game = GameType.Hanabi.createGameInstance(nPlayers, 42 + nPlayers);
+            HanabiGameState state = (HanabiGameState) game.getGameState();
+            HanabiForwardModel fm = (HanabiForwardModel) game.getForwardModel();
+            Random rnd = new Random(nPlayers);
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                assertEquals(actions.size(), new HashSet<>(actions).size());
+                assertEquals(expectedActions(state), new HashSet<>(actions));
+
+                // the same action objects are handed out every time, and to copies of the state
+                List<AbstractAction> again = fm.computeAvailableActions(state.copy());
+                for (int i = 0; i < actions.size(); i++)
+                    assertSame(actions.get(i), again.get(i));
+
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+    }
+
+    @Test
+    public void legalActionsMaskMatchesTable() {
+        Game game = GameType.Hanabi.createGameInstance(3, 7);
+        HanabiGameState state = (HanabiGameState) game.getGameState();
+        HanabiActionTable table = state.getActionTable();
+        long[] mask = table.legalActions(state);
+        List<AbstractAction> actions = table.computeAvailableActions(state);
+
+        int nLegal = 0;
+        for (int i = 0; i < table.size(); i++) {
+            boolean legal = (mask[i / 64] & (1L << (i % 64))) != 0;
+            if (legal) nLegal++;
+            assertEquals(legal, actions.contains(table.getAction(state.getCurrentPlayer(), i)));
+        }
+        assertEquals(actions.size(), nLegal);
+        // the hint counter starts full, so nothing can be discarded
+        assertFalse(actions.contains(table.getAction(state.getCurrentPlayer(), table.discardIndex(0))));
+        assertTrue(actions.contains(table.getAction(state.getCurrentPlayer(), table.playIndex(4))));
+    }
+
+    @Test
+    public void discardDoesNotChangeTheSharedAction() {
+        Game game = GameType.Hanabi.createGameInstance(2, 11);
+        HanabiGameState state = (HanabiGameState) game.getGameState();
+        HanabiForwardModel fm = (HanabiForwardModel) game.getForwardModel();
+        // a hint is needed before anything can be discarded
+        HanabiActionTable table = state.getActionTable();
+        fm.next(state, table.getAction(state.getCurrentPlayer(), table.colourHintIndex(1, CardType.values()[0])));
+
+        Discard discard = (Discard) table.getAction(state.getCurrentPlayer(), table.discardIndex(0));
+        HanabiGameState copy = (HanabiGameState) state.copy();
+        HanabiCard card = state.playerDecks.get(state.getCurrentPlayer()).get(0);
+        fm.next(state, discard);
+        assertEquals(card.getComponentID(), state.discardDeck.get(0).getComponentID());
+        assertEquals(0, discard.getCardId());
+        assertSame(discard, discard.copy());
+
+        // the same action discards the card in the copy's own hand
+        HanabiCard copyCard = copy.playerDecks.get(copy.getCurrentPlayer()).get(0);
+        fm.next(copy, discard);
+        assertEquals(copyCard.getComponentID(), copy.discardDeck.get(0).getComponentID());
+        assertEquals(state.hintCounter.getValue(), copy.hintCounter.getValue());
+    }
+}
@@ -0,0 +1,96 @@
+package games.terraformingmars;
+
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.terraformingmars.actions.TMAction;
+import games.terraformingmars.rules.requirements.Requirement;
+import games.terraformingmars.rules.requirements.TMApplicabilityIndex;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestTMApplicabilityIndex {
+
+    // The actions found with every requirement evaluated
+    private static List<AbstractAction> uncached(TMForwardModel fm, TMGameState state) {
+        TMApplicabilityIndex index = state.applicabilityIndex;
+        state.applicabilityIndex = new TMApplicabilityIndex(false);
+        try {
+            return fm.computeAvailableActions(state);
+        } finally {
+            state.applicabilityIndex = index;
+        }
+    }
+
+    // Checking the actions again in the same state finds the result of every cacheable one in the index, without
+    // evaluating its requirements
+    private static void assertCachedWhenUnchanged(TMForwardModel fm, TMGameState state) {
+        if (state.isActionInProgress()) return;  // these actions are not computed by TMForwardModel
+        TMApplicabilityIndex index = state.getApplicabilityIndex();
+        index.beginQuery(state);
+        try {
+            for (AbstractAction aa : fm.getAllActions(state)) {
+                TMAction action = (TMAction) aa;
+                if (action == null || action.requirements == null || action.requirements.isEmpty()) continue;
+                boolean cacheable = true;
+                for (Requirement<TMGameState> r : action.requirements) {
+                    if (r.getDependencies(state) == null) cacheable = false;
+                }
+                if (!cacheable) continue;
+                long evaluations = index.getEvaluations();
+                action.canBePlayed(state);
+                assertEquals(action.toString(), evaluations, index.getEvaluations());
+            }
+        } finally {
+            index.endQuery();
+        }
+    }
+
+    private static boolean randomStep(TMForwardModel fm, TMGameState state, Random rnd) {
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        assertCachedWhenUnchanged(fm, state);
+        List<AbstractAction> expected = uncached(fm, state);
+        assertEquals(expected, actions);
+        if (actions.isEmpty()) return false;
+        fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        return true;
+    }
+
+    @Test
+    public void cachedActionsMatchAcrossCopies() {
+        for (int nPlayers = 2; nPlayers <= 3; nPlayers++) {
+            Game game = GameType.TerraformingMars.createGameInstance(nPlayers, 17 + nPlayers);
+            TMGameState state = (TMGameState) game.getGameState();
+            TMForwardModel fm = (TMForwardModel) game.getForwardModel();
+            TMApplicabilityIndex index = state.getApplicabilityIndex();
+            Random rnd = new Random(nPlayers);
+            int step = 0;
+            while (state.isNotTerminal() && step++ < 400) {
+                // copies share the index, and go their own way from here, as in search
+                if (step % 5 == 0) {
+                    for (int c = 0; c < 3; c++) {
+                        AbstractGameState copy = state.copy(state.getCurrentPlayer());
+                        assertSame(index, ((TMGameState) copy).getApplicabilityIndex());
+                        for (int i = 0; i < 10 && copy.isNotTerminal(); i++)
+                            if (!randomStep(fm, (TMGameState) copy, rnd)) break;
+                    }
+                }
+                if (!randomStep(fm, state, rnd)) break;
+            }
+        }
+    }
+
+    @Test
+    public void setupStartsANewIndex() {
+        Game game = GameType.TerraformingMars.createGameInstance(2, 3);
+        TMGameState state = (TMGameState) game.getGameState();
+        TMApplicabilityIndex index = state.getApplicabilityIndex();
+        game.getForwardModel().setup(state);
+        assertNotSame(index, state.getApplicabilityIndex());
+    }
+}
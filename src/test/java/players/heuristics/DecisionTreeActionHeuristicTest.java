@@ -0,0 +1,72 @@
+package players.heuristics;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.loveletter.LLActionFeaturesTiny;
+import games.loveletter.LLStateFeatures;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DecisionTreeActionHeuristicTest {
+
+    LLStateFeatures stateFeatures = new LLStateFeatures();
+    LLActionFeaturesTiny actionFeatures = new LLActionFeaturesTiny();
+    DecisionTreeActionHeuristic heuristic;
+
+    @Before
+    public void setup() throws IOException {
+        // splits first on the first action feature, and then on the first state feature
+        int actionFeature = stateFeatures.size();
+        RegressionTree tree = new RegressionTree(
+                new int[]{actionFeature, -1, 0, -1, -1},
+                new double[]{0.5, 0.0, 0.5, 0.0, 0.0},
+                new int[]{1, -1, 3, -1, -1},
+                new int[]{2, -1, 4, -1, -1},
+                new double[]{0.0, 1.0, 0.0, 2.0, 3.0});
+        File directory = Files.createTempDirectory("tree").toFile();
+        directory.deleteOnExit();
+        File file = new File(directory, RegressionTree.FILE_NAME);
+        file.deleteOnExit();
+        tree.save(file.getPath());
+        heuristic = new DecisionTreeActionHeuristic(stateFeatures, actionFeatures, directory.getPath());
+    }
+
+    @Test
+    public void batchScoresMatchSingleScores() {
+        Random rnd = new Random(5);
+        Set<Double> values = new HashSet<>();
+        int states = 0;
+        for (int g = 0; g < 10; g++) {
+            Game game = GameType.LoveLetter.createGameInstance(2, g);
+            AbstractGameState state = game.getGameState();
+            AbstractForwardModel fm = game.getForwardModel();
+            while (state.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                // the buffer of action features keeps the rows of the largest list seen so far, so most lists are
+                // shorter than it
+                double[] all = heuristic.evaluateAllActions(actions, state);
+                assertEquals(actions.size(), all.length);
+                for (int i = 0; i < actions.size(); i++) {
+                    assertEquals(heuristic.evaluateAction(actions.get(i), state), all[i], 0.0);
+                    values.add(all[i]);
+                }
+                states++;
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+        assertTrue(states > 0);
+        // both sides of the tree are reached
+        assertTrue(values.contains(1.0));
+        assertTrue(values.contains(2.0) || values.contains(3.0));
+    }
+}
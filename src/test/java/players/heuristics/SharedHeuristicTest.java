@@ -0,0 +1,113 @@
+package players.heuristics;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.connect4.Connect4StateFeatures;
+import org.junit.Before;
+import org.junit.Test;
+import players.simple.OSLAPlayer;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class SharedHeuristicTest {
+
+    LinearStateHeuristic heuristic;
+    int nThreads = 4;
+
+    @Before
+    public void setup() throws IOException {
+        // a linear model over the Connect4 features, with arbitrary coefficients
+        Connect4StateFeatures features = new Connect4StateFeatures();
+        File coefficients = File.createTempFile("coefficients", ".txt");
+        coefficients.deleteOnExit();
+        Random rnd = new Random(7);
+        try (FileWriter writer = new FileWriter(coefficients)) {
+            writer.write("BIAS\t" + String.join("\t", features.names()) + "\n");
+            StringBuilder values = new StringBuilder("0.0");
+            for (int i = 0; i < features.size(); i++)
+                values.append('\t').append(rnd.nextDouble() - 0.5);
+            writer.write(values + "\n");
+        }
+        heuristic = new LinearStateHeuristic(features, coefficients.getPath(), new LeaderHeuristic());
+    }
+
+    // the actions taken in a game between two OSLA players, which share the heuristic (as copies of a player do)
+    private String play(long seed) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 2; i++)
+            players.add(new OSLAPlayer(heuristic, new Random(seed * 10 + i)));
+        Game game = GameType.Connect4.createGameInstance(2, seed);
+        game.reset(players);
+        game.run();
+        StringBuilder sb = new StringBuilder();
+        for (AbstractAction action : game.getGameState().getHistory())
+            sb.append(action).append(';');
+        return sb.append(Arrays.toString(game.getGameState().getPlayerResults())).toString();
+    }
+
+    @Test
+    public void concurrentPlayersMatchSequentialPlayers() throws Exception {
+        int nGames = 40;
+        List<String> sequential = new ArrayList<>();
+        for (int g = 0; g < nGames; g++)
+            sequential.add(play(g));
+
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int g = 0; g < nGames; g++) {
+                long seed = g;
+                futures.add(executor.submit(() -> play(seed)));
+            }
+            for (int g = 0; g < nGames; g++)
+                assertEquals(sequential.get(g), futures.get(g).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentEvaluationsMatchSequentialEvaluations() throws Exception {
+        List<AbstractGameState> states = new ArrayList<>();
+        Random rnd = new Random(3);
+        for (int g = 0; g < 5; g++) {
+            Game game = GameType.Connect4.createGameInstance(2, g);
+            AbstractGameState state = game.getGameState();
+            while (state.isNotTerminal()) {
+                states.add(state.copy());
+                List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state);
+                game.getForwardModel().next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+        }
+        double[] expected = new double[states.size()];
+        for (int i = 0; i < states.size(); i++)
+            expected[i] = heuristic.evaluateState(states.get(i), i % 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < nThreads; t++) {
+                futures.add(executor.submit(() -> {
+                    int wrong = 0;
+                    for (int repeat = 0; repeat < 20; repeat++)
+                        for (int i = 0; i < states.size(); i++)
+                            if (heuristic.evaluateState(states.get(i), i % 2) != expected[i]) wrong++;
+                    return wrong;
+                }));
+            }
+            for (Future<Integer> future : futures)
+                assertEquals(0, (int) future.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package players.learners;
+
+import core.AbstractPlayer;
+import core.Game;
+import evaluation.listeners.StateFeatureListener;
+import evaluation.loggers.FileStatsLogger;
+import evaluation.metrics.Event;
+import games.GameType;
+import games.tictactoe.TTTFeatures;
+import org.junit.Test;
+import players.heuristics.RegressionTree;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class JavaLearnersTest {
+
+    @Test
+    public void leastSquaresRecoversCoefficients() {
+        Random rnd = new Random(42);
+        int n = 10000;
+        double[][] x = new double[n][];
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            double a = rnd.nextDouble(), b = rnd.nextGaussian();
+            x[i] = new double[]{1.0, a, b, 3.0};  // last feature is constant
+            z[i] = 2.0 + 0.5 * a - 1.5 * b;
+        }
+        double[] coefficients = WeightedLeastSquares.solve(x, z, null, 0.0);
+        assertArrayEquals(new double[]{2.0, 0.5, -1.5, 0.0}, coefficients, 1e-8);
+    }
+
+    @Test
+    public void regressionTreeRoundTrip() throws IOException {
+        // x[0] <= 0.5 ? 1.0 : (x[1] <= 2.0 ? 2.0 : 3.0)
+        RegressionTree tree = new RegressionTree(
+                new int[]{0, -1, 1, -1, -1},
+                new double[]{0.5, 0.0, 2.0, 0.0, 0.0},
+                new int[]{1, -1, 3, -1, -1},
+                new int[]{2, -1, 4, -1, -1},
+                new double[]{0.0, 1.0, 0.0, 2.0, 3.0});
+        assertEquals(2, tree.getDepth());
+        File file = Files.createTempFile("tree", ".txt").toFile();
+        file.deleteOnExit();
+        tree.save(file.getAbsolutePath());
+        RegressionTree loaded = RegressionTree.load(file.getAbsolutePath());
+        assertEquals(5, loaded.getNumNodes());
+        assertEquals(1.0, loaded.predict(new double[]{0.5, 10.0}), 0.0);
+        assertEquals(2.0, loaded.predict(new double[]{0.6, 2.0}), 0.0);
+        assertEquals(3.0, loaded.predict(new double[]{0.6, 2.1}), 0.0);
+
+        // the first feature shared, the second one per instance; the last row is spare
+        double[] predictions = new double[3];
+        loaded.predictAll(new double[]{0.6}, new double[][]{{2.0}, {2.1}, {0.0}}, 2, predictions);
+        assertArrayEquals(new double[]{2.0, 3.0, 0.0}, predictions, 0.0);
+    }
+
+    static class LoadingLearner extends AbstractLearner {
+        @Override
+        public void learnFrom(String... files) {
+            loadData(files);
+        }
+
+        @Override
+        public void writeToFile(String prefix) {
+        }
+
+        @Override
+        public String name() {
+            return "Loading";
+        }
+    }
+
+    @Test
+    public void preparedFilesGiveTheSameData() throws IOException {
+        File[] files = new File[2];
+        for (int f = 0; f < files.length; f++) {
+            files[f] = Files.createTempFile("learner", ".data").toFile();
+            files[f].deleteOnExit();
+            StringBuilder data = new StringBuilder("GameID\tPlayer\tRound\tTurn\tCurrentScore\tA\tB\tPlayerCount\tTotalRounds\tActionScore\tWin\tOrdinal\tFinalScore\n");
+            for (int i = 0; i < 5; i++)
+                data.append(String.format("%d\t0\t%d\t0\t%d\t%d.5\t%d\t2\t10\t0\t%d\t%d\t%d%n", f, i, i, i + f, i * f, i % 2, 2 - i % 2, i * 3));
+            Files.write(files[f].toPath(), data.toString().getBytes());
+        }
+        LoadingLearner direct = new LoadingLearner();
+        direct.learnFrom(files[0].getPath(), files[1].getPath());
+
+        // one file read in advance, the other not
+        LoadingLearner prepared = new LoadingLearner();
+        prepared.prepare(files[1].getPath());
+        prepared.learnFrom(files[0].getPath(), files[1].getPath());
+
+        assertArrayEquals(direct.header, prepared.header);
+        assertEquals(10, prepared.dataArray.length);
+        for (int i = 0; i < direct.dataArray.length; i++) {
+            assertArrayEquals(direct.dataArray[i], prepared.dataArray[i], 0.0);
+            assertArrayEquals(direct.target[i], prepared.target[i], 0.0);
+        }
+    }
+
+    @Test
+    public void readsTheColumnsFeatureListenerWrites() throws IOException {
+        File file = Files.createTempFile("learner", ".txt").toFile();
+        file.deleteOnExit();
+        TTTFeatures features = new TTTFeatures();
+        StateFeatureListener listener = new StateFeatureListener(features, Event.GameEvent.ACTION_TAKEN, false);
+        listener.setLogger(new FileStatsLogger(file.getPath(), "\t", false));
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        Game.runOne(GameType.TicTacToe, null, players, 1, false, Collections.singletonList(listener), null, 0);
+        listener.report();
+
+        LoadingLearner learner = new LoadingLearner();
+        learner.learnFrom(file.getPath());
+        assertArrayEquals(features.names(), learner.descriptions);
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        List<String> columns = Arrays.asList(lines.get(0).split("\t"));
+        assertEquals(lines.size() - 1, learner.dataArray.length);
+        for (int r = 0; r < learner.dataArray.length; r++) {
+            String[] values = lines.get(r + 1).split("\t");
+            assertEquals(1.0, learner.dataArray[r][0], 0.0);  // the bias term
+            for (int c = 0; c < features.names().length; c++)
+                assertEquals(Double.parseDouble(values[columns.indexOf(features.names()[c])]), learner.dataArray[r][c + 1], 1e-6);
+            // the default target is a win, undiscounted
+            assertEquals(Double.parseDouble(values[columns.indexOf("Win")]), learner.target[r][0], 1e-6);
+            assertEquals(Double.parseDouble(values[columns.indexOf("CurrentScore")]), learner.currentScore[r][0], 1e-6);
+        }
+    }
+}
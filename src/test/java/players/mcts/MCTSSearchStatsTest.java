@@ -0,0 +1,123 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import evaluation.listeners.MetricsGameListener;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MCTSSearchStatsTest {
+
+    private MCTSParams params(MCTSEnums.OpponentTreePolicy treePolicy) {
+        MCTSParams params = new MCTSParams(42);
+        params.opponentTreePolicy = treePolicy;
+        params.information = MCTSEnums.Information.Information_Set;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        params.rolloutLength = 10;
+        return params;
+    }
+
+    private MCTSPlayer decide(MCTSPlayer player, GameType gameType, int nPlayers) {
+        Game game = gameType.createGameInstance(nPlayers, 42);
+        AbstractGameState state = game.getGameState();
+        player.setForwardModel(game.getForwardModel());
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state);
+        player._getAction(state.copy(state.getCurrentPlayer()), actions);
+        return player;
+    }
+
+    @Test
+    public void countsMatchTheTree() {
+        MCTSPlayer player = decide(new MCTSPlayer(params(MCTSEnums.OpponentTreePolicy.OneTree)), GameType.LoveLetter, 3);
+        MCTSSearchStats stats = player.getSearchStats();
+        TreeStatistics tree = new TreeStatistics(player.root);
+
+        assertEquals(200, stats.getIterations());
+        assertEquals(tree.totalNodes, stats.getNodes());
+        assertEquals(tree.depthReached, stats.getMaxDepth());
+        assertEquals(player.root.fmCallsCount, stats.getFmCalls());
+        assertEquals(player.root.copyCount, stats.getCopyCalls());
+        assertEquals(player.root.rolloutActionsTaken, stats.getRolloutSteps());
+        assertTrue(stats.getFmCalls() > 200);
+
+        long phases = 0;
+        for (MCTSSearchStats.Phase phase : MCTSSearchStats.Phase.values()) {
+            assertTrue(phase.name(), stats.getPhaseNanos(phase) > 0);
+            phases += stats.getPhaseNanos(phase);
+        }
+        assertTrue(phases <= stats.getWallNanos());
+        assertTrue(stats.getIterationsPerSecond() > 0);
+        if (stats.getCpuNanos() >= 0) {
+            long cpu = 0;
+            for (MCTSSearchStats.Phase phase : MCTSSearchStats.Phase.values())
+                cpu += stats.getPhaseCpuNanos(phase);
+            assertEquals(stats.getCpuNanos(), cpu, MCTSSearchStats.Phase.values().length);
+        }
+        assertNotEquals(0, stats.getAllocatedBytes());
+    }
+
+    @Test
+    public void eachDecisionHasItsOwnStats() {
+        MCTSPlayer player = new MCTSPlayer(params(MCTSEnums.OpponentTreePolicy.OneTree));
+        MCTSSearchStats first = decide(player, GameType.LoveLetter, 2).getSearchStats();
+        MCTSSearchStats second = decide(player, GameType.LoveLetter, 2).getSearchStats();
+        assertNotSame(first, second);
+        assertEquals(200, first.getIterations());
+        assertEquals(200, second.getIterations());
+    }
+
+    @Test
+    public void multiTreeSearchIsCounted() {
+        MCTSPlayer player = decide(new MCTSPlayer(params(MCTSEnums.OpponentTreePolicy.MultiTree)), GameType.LoveLetter, 3);
+        MCTSSearchStats stats = player.getSearchStats();
+        assertEquals(200, stats.getIterations());
+        int nodes = 0, fmCalls = player.root.fmCallsCount;
+        for (SingleTreeNode root : ((MultiTreeNode) player.root).roots) {
+            if (root == null) continue;
+            nodes += new TreeStatistics(root).totalNodes;
+            fmCalls += root.fmCallsCount;
+        }
+        // nodes are counted as they are created; a few may since have been replaced in their parent's children
+        assertTrue(stats.getNodes() >= nodes);
+        assertTrue(stats.getNodes() <= nodes + stats.getIterations());
+        assertEquals(fmCalls, stats.getFmCalls());
+        assertTrue(stats.getPhaseNanos(MCTSSearchStats.Phase.BACKUP) > 0);
+    }
+
+    @Test
+    public void metricRecordsEachSearchOnce() {
+        MCTSPlayer player = new MCTSPlayer(params(MCTSEnums.OpponentTreePolicy.OneTree));
+        List<AbstractPlayer> players = Arrays.asList(player, new RandomPlayer(new Random(1)));
+        Game game = GameType.LoveLetter.createGameInstance(2, 42);
+        game.reset(players);
+
+        MCTSMetrics.SearchStats metric = new MCTSMetrics.SearchStats();
+        MetricsGameListener listener = new MetricsGameListener(new AbstractMetric[]{metric});
+        listener.setGame(game);
+        decide(player, GameType.LoveLetter, 2);
+        Event event = Event.createEvent(Event.GameEvent.ACTION_CHOSEN, game.getGameState(), null, 0);
+
+        Map<String, Object> records = new HashMap<>();
+        assertTrue(metric._run(listener, event, records));
+        assertEquals(200, records.get("Iterations"));
+        Map<String, Class<?>> columns = metric.getColumns(2, Collections.emptySet());
+        assertEquals(columns.keySet(), records.keySet());
+        for (Map.Entry<String, Object> record : records.entrySet())
+            assertSame(record.getKey(), columns.get(record.getKey()), record.getValue().getClass());
+
+        // the same decision is not recorded twice, nor anything for other players
+        assertFalse(metric._run(listener, event, new HashMap<>()));
+        assertFalse(metric._run(listener, Event.createEvent(Event.GameEvent.ACTION_CHOSEN, game.getGameState(), null, 1), new HashMap<>()));
+    }
+}
@@ -0,0 +1,90 @@
+package utilities;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.ITreeActionSpace;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ActionTreeNodeTest {
+
+    // The masks kept by the tree must match those found by walking it, and those of a tree built from scratch
+    private void checkMasks(GameType gameType, int nPlayers) {
+        Game game = gameType.createGameInstance(nPlayers, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        ITreeActionSpace treeFM = (ITreeActionSpace) fm;
+        ActionTreeNode root = treeFM.initActionTree(state);
+        Random rnd = new Random(7);
+        int steps = 0;
+        while (state.isNotTerminal() && steps < 200) {
+            root = treeFM.updateActionTree(root, state);
+            ActionTreeNode fresh = treeFM.updateActionTree(treeFM.initActionTree(state), state);
+
+            List<Integer> values = root.flattenValues();
+            values.remove(0);
+            int[] mask = root.getActionMask();
+            assertEquals(values.size(), mask.length);
+            for (int i = 0; i < mask.length; i++) {
+                assertEquals((int) values.get(i), mask[i]);
+            }
+            assertArrayEquals(fresh.getActionMask(), mask);
+
+            List<ActionTreeNode> leaves = root.getLeafNodes();
+            int[] leafMask = root.getLeafMask();
+            assertEquals(leaves.size(), leafMask.length);
+            assertArrayEquals(fresh.getLeafMask(), leafMask);
+            for (int i = 0; i < leafMask.length; i++) {
+                assertEquals(leaves.get(i).getValue(), leafMask[i]);
+            }
+
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            steps++;
+        }
+        assertTrue(steps > 0);
+    }
+
+    @Test
+    public void ticTacToeMasks() {
+        checkMasks(GameType.TicTacToe, 2);
+    }
+
+    @Test
+    public void strategoMasks() {
+        checkMasks(GameType.Stratego, 2);
+    }
+
+    @Test
+    public void loveLetterMasks() {
+        checkMasks(GameType.LoveLetter, 3);
+    }
+
+    @Test
+    public void addingNodesUpdatesTheMask() {
+        ActionTreeNode root = new ActionTreeNode(0, "root");
+        ActionTreeNode a = root.addChild(0, "a");
+        a.addChild(0, "a1");
+        assertArrayEquals(new int[]{0, 0}, root.getActionMask());
+        assertEquals(1, root.getLeafNodes().size());
+
+        ActionTreeNode b = root.addChild(0, "b");
+        root.findChildrenByName("a1", true);
+        assertArrayEquals(new int[]{0, 0, 1}, root.getActionMask());
+        assertArrayEquals(new int[]{0, 1}, root.getLeafMask());
+
+        b.setValue(1);
+        assertArrayEquals(new int[]{1, 1}, root.getLeafMask());
+        root.resetTree();
+        assertArrayEquals(new int[]{0, 0, 0}, root.getActionMask());
+        assertEquals(0, b.getValue());
+        assertSame(b, root.findChildrenByName("b"));
+    }
+}
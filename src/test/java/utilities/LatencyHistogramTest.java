@@ -0,0 +1,66 @@
+package utilities;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverAllValuesInOrder() {
+        long previousHigh = -1;
+        for (int index = 0; index < LatencyHistogram.indexOf(Long.MAX_VALUE); index++) {
+            long low = LatencyHistogram.lowestValueAt(index), high = LatencyHistogram.highestValueAt(index);
+            assertEquals(previousHigh + 1, low);
+            assertEquals(index, LatencyHistogram.indexOf(low));
+            assertEquals(index, LatencyHistogram.indexOf(high));
+            // buckets are at most 1/32 of their values wide
+            assertTrue(high - low <= Math.max(0, low / 32));
+            previousHigh = high;
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentilesAreWithinBucketWidth() {
+        Random rnd = new Random(42);
+        long[] values = new long[10000];
+        LatencyHistogram h = new LatencyHistogram();
+        long sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(rnd.nextDouble() * 20);
+            h.record(values[i]);
+            sum += values[i];
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, h.getCount());
+        assertEquals(values[0], h.getMin());
+        assertEquals(values[values.length - 1], h.getMax());
+        assertEquals((double) sum / values.length, h.getMean(), 1e-6);
+        for (double p : new double[]{1, 10, 50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long estimate = h.getValueAtPercentile(p);
+            assertTrue(p + "%: " + estimate + " vs " + exact, estimate >= exact && estimate <= exact + exact / 32);
+        }
+        assertEquals(h.getMax(), h.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void histogramsCanBeAdded() {
+        LatencyHistogram a = new LatencyHistogram(), b = new LatencyHistogram();
+        a.record(5);
+        a.record(1000);
+        b.record(1_000_000_000L);
+        b.record(-3);
+        a.add(b);
+        assertEquals(4, a.getCount());
+        assertEquals(0, a.getMin());
+        assertEquals(1_000_000_000L, a.getMax());
+        // percentiles are given as the highest value of their bucket
+        assertEquals(LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(1000)), a.getValueAtPercentile(75));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,92 @@
+package utilities;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchBudgetTimerTest {
+
+    // burns about the given CPU time
+    private static void work(long nanos) {
+        long start = ElapsedCpuTimer.cpuTime();
+        while (ElapsedCpuTimer.cpuTime() - start < nanos) {
+            // busy
+        }
+    }
+
+    @Test
+    public void stopsCloseToTheBudgetWithFewClockReads() {
+        SearchBudgetTimer timer = new SearchBudgetTimer(100, 5, 2);
+        int iterations = 0;
+        long start = ElapsedCpuTimer.cpuTime();
+        do {
+            work(20000);
+            iterations++;
+        } while (timer.iterationDone());
+        double used = (ElapsedCpuTimer.cpuTime() - start) / 1e6;
+        assertEquals(iterations, timer.getIterations());
+        assertTrue(timer.isFinished());
+        assertFalse(timer.iterationDone());
+        assertTrue("Used " + used, used > 80 && used < 100);
+        assertTrue("Clock reads " + timer.getClockReads() + " for " + iterations + " iterations",
+                timer.getClockReads() * 20 < iterations);
+    }
+
+    @Test
+    public void slowIterationsAreCheckedEveryTime() {
+        SearchBudgetTimer timer = new SearchBudgetTimer(30, 0, 2);
+        int iterations = 0;
+        do {
+            work(10000000);
+            iterations++;
+        } while (timer.iterationDone());
+        // with 10ms iterations, two are always kept in reserve
+        assertTrue(iterations <= 2);
+        assertEquals(iterations + 1, timer.getClockReads());
+    }
+
+    @Test
+    public void chessTimerCopiesKeepTheirTime() {
+        ElapsedCpuChessTimer timer = new ElapsedCpuChessTimer(1, 2, 0, 0, 0);
+        timer.pause();
+        timer.incrementAction();
+        ElapsedCpuChessTimer copy = timer.copy();
+        assertEquals(timer.remainingTime(), copy.remainingTime());
+        assertEquals(timer.exceededMaxTime(), copy.exceededMaxTime());
+        copy.incrementTurn();
+        copy.incrementAction();
+        assertEquals(timer.remainingTime() + 2000000000L, copy.remainingTime());
+    }
+
+    @Test
+    public void searchCopiesAreUntimed() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState observation = state.copy(0);
+        observation.setTimersCopied(false);
+        assertNotSame(ElapsedCpuChessTimer.UNTIMED, observation.getPlayerTimer()[0]);
+
+        AbstractGameState searchState = observation.copy();
+        assertFalse(searchState.isTimersCopied());
+        for (ElapsedCpuChessTimer timer : searchState.getPlayerTimer())
+            assertSame(ElapsedCpuChessTimer.UNTIMED, timer);
+        assertSame(searchState.getPlayerTimer(), searchState.copy().getPlayerTimer());
+
+        List<AbstractAction> actions = fm.computeAvailableActions(searchState);
+        fm.next(searchState, actions.get(0));
+        assertFalse(searchState.getPlayerTimer()[0].exceededMaxTime());
+        assertEquals(Long.MAX_VALUE, searchState.getPlayerTimer()[0].remainingTime());
+
+        // the game's own copies are still timed
+        assertTrue(state.copy().isTimersCopied());
+        assertNotSame(ElapsedCpuChessTimer.UNTIMED, state.copy().getPlayerTimer()[0]);
+    }
+}